@@ -0,0 +1,112 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+/**
+ * Small JMH-style measurement harness for the payroll benchmarks.
+ *
+ * <p>Each benchmark body performs a known number of operations and returns a value that
+ * is folded into a sink, so the JIT cannot drop the work. A benchmark runs a number of
+ * warmup iterations followed by measured iterations of a fixed duration; the report
+ * gives the mean time per operation with its standard deviation and throughput.
+ *
+ * <p>Settings (system properties):
+ * <ul>
+ *   <li>{@code bench.warmup} - warmup iterations (default 5)</li>
+ *   <li>{@code bench.iterations} - measured iterations (default 10)</li>
+ *   <li>{@code bench.iterationMs} - duration of one iteration in ms (default 500)</li>
+ *   <li>{@code bench.filter} - only run benchmarks whose name contains this text</li>
+ *   <li>{@code bench.out} - CSV file to append results to, for comparing commits</li>
+ *   <li>{@code bench.label} - label written in the CSV (e.g. a commit hash)</li>
+ * </ul>
+ */
+final class BenchmarkHarness {
+    private final int warmupIterations = Integer.getInteger("bench.warmup", 5);
+    private final int measuredIterations = Integer.getInteger("bench.iterations", 10);
+    private final long iterationNanos = Long.getLong("bench.iterationMs", 500) * 1_000_000L;
+    private final String filter = System.getProperty("bench.filter", "");
+    private final List<String[]> results = new ArrayList<>();
+
+    // Consumed benchmark results; volatile so the work cannot be optimized away
+    private static volatile long sink;
+
+    /**
+     * Runs one benchmark and prints its result line.
+     *
+     * @param name             Benchmark name
+     * @param opsPerInvocation Operations performed by one call of the body
+     * @param body             Work to measure; its return value is consumed
+     */
+    void run(String name, long opsPerInvocation, LongSupplier body) {
+        if (!name.contains(filter)) return;
+
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(opsPerInvocation, body);
+        }
+        double[] nanosPerOp = new double[measuredIterations];
+        for (int i = 0; i < measuredIterations; i++) {
+            nanosPerOp[i] = runIteration(opsPerInvocation, body);
+        }
+
+        double mean = 0;
+        for (double value : nanosPerOp) mean += value;
+        mean /= nanosPerOp.length;
+        double variance = 0;
+        for (double value : nanosPerOp) variance += (value - mean) * (value - mean);
+        double stdDev = nanosPerOp.length > 1 ? Math.sqrt(variance / (nanosPerOp.length - 1)) : 0;
+        double opsPerSecond = 1_000_000_000.0 / mean;
+
+        System.out.printf(Locale.ROOT, "%-40s %12.1f +- %8.1f ns/op %,16.0f ops/s%n", name, mean, stdDev, opsPerSecond);
+        results.add(new String[] {
+                name,
+                String.format(Locale.ROOT, "%.1f", mean),
+                String.format(Locale.ROOT, "%.1f", stdDev),
+                String.format(Locale.ROOT, "%.0f", opsPerSecond)
+        });
+    }
+
+    // Runs the body repeatedly for one iteration and returns nanoseconds per operation
+    private double runIteration(long opsPerInvocation, LongSupplier body) {
+        long ops = 0;
+        long checksum = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            checksum += body.getAsLong();
+            ops += opsPerInvocation;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        sink += checksum;
+        return (double) elapsed / ops;
+    }
+
+    /**
+     * Prints the run settings so results can be reproduced.
+     */
+    void printHeader(String description) {
+        System.out.println(description);
+        System.out.printf("JVM %s (%s), %d processors%n", System.getProperty("java.version"),
+                System.getProperty("java.vm.name"), Runtime.getRuntime().availableProcessors());
+        System.out.printf("warmup=%d iterations=%d iterationMs=%d%n%n",
+                warmupIterations, measuredIterations, iterationNanos / 1_000_000L);
+    }
+
+    /**
+     * Appends all results to the CSV file named by {@code bench.out}, if set.
+     */
+    void writeResults(String parameters) throws IOException {
+        String path = System.getProperty("bench.out");
+        if (path == null) return;
+
+        String label = System.getProperty("bench.label", "");
+        try (PrintWriter out = new PrintWriter(new FileWriter(path, true))) {
+            for (String[] result : results) {
+                out.println(String.join(",", label, parameters, result[0], result[1], result[2], result[3]));
+            }
+        }
+        System.out.println("\nResults appended to " + path);
+    }
+}
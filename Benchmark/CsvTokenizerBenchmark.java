@@ -0,0 +1,77 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+/**
+ * Compares the single-pass {@link CsvTokenizer} with the regex split previously used by
+ * EmployeeDetails.parseEmployeeLine, on the shipped employee and attendance CSVs.
+ *
+ * <p>Usage: {@code java CsvTokenizerBenchmark [iterations]}
+ * Reports the average nanoseconds per line for each implementation.
+ */
+public class CsvTokenizerBenchmark {
+    // Regex split used before CsvTokenizer (quadratic in the number of quotes per line)
+    private static final String LEGACY_SPLIT = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+
+    private static final int WARMUP_ITERATIONS = 20;
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        runSuite("Employee lines", Files.readAllLines(Paths.get(GrossNetWeeklySalary.EMPLOYEE_FILE)), iterations);
+        runSuite("Attendance lines", Files.readAllLines(Paths.get(GrossNetWeeklySalary.ATTENDANCE_FILE)), iterations);
+    }
+
+    private static void runSuite(String name, List<String> lines, int iterations) {
+        String[] input = lines.toArray(new String[0]);
+        CsvTokenizer tokenizer = new CsvTokenizer();
+
+        // Warm up both paths so the JIT has compiled them before measuring
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            legacySplit(input);
+            tokenize(tokenizer, input);
+        }
+
+        long checksum = 0;
+        long legacyNanos = 0, tokenizerNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            checksum += legacySplit(input);
+            long middle = System.nanoTime();
+            checksum += tokenize(tokenizer, input);
+            long end = System.nanoTime();
+            legacyNanos += middle - start;
+            tokenizerNanos += end - middle;
+        }
+
+        double lineCount = (double) input.length * iterations;
+        System.out.printf("%n%s (%d lines x %d iterations, checksum %d):%n", name, input.length, iterations, checksum);
+        System.out.printf("%-25s: %,.1f ns/line%n", "Regex split", legacyNanos / lineCount);
+        System.out.printf("%-25s: %,.1f ns/line%n", "CsvTokenizer", tokenizerNanos / lineCount);
+        System.out.printf("%-25s: %.1fx%n", "Speedup", (double) legacyNanos / tokenizerNanos);
+    }
+
+    // Legacy path: regex split, then quote removal and trim per field
+    private static long legacySplit(String[] lines) {
+        long total = 0;
+        for (String line : lines) {
+            String[] data = line.split(LEGACY_SPLIT, -1);
+            for (int i = 0; i < data.length; i++) {
+                data[i] = data[i].replace("\"", "").trim();
+                total += data[i].length();
+            }
+        }
+        return total;
+    }
+
+    // New path: single pass, field slices only
+    private static long tokenize(CsvTokenizer tokenizer, String[] lines) {
+        long total = 0;
+        for (String line : lines) {
+            int count = tokenizer.tokenize(line);
+            for (int i = 0; i < count; i++) {
+                total += tokenizer.end(i) - tokenizer.start(i);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,461 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+/**
+ * Benchmark suite for the payroll hot paths, run on seeded synthetic data.
+ *
+ * <p>Measures per-record attendance parsing, date/time parsing, daily-hours computation,
+ * employee line parsing, deduction lookups (per call and bulk), weekly aggregation (also
+ * from {@code bench.producers} threads through concurrent totals) and full payroll
+ * throughput (payslips for every employee-week), the latter also with the
+ * former double arithmetic and with BigDecimal for comparison with centavo arithmetic,
+ * and register output with the streaming writer and with String.format. Data size is set with {@code bench.employees} (default 1000)
+ * and {@code bench.months} (default 3); see {@link BenchmarkHarness} for run settings.
+ *
+ * <p>Usage: {@code java -Dbench.employees=5000 -Dbench.out=bench.csv -Dbench.label=$(git rev-parse --short HEAD) PayrollBenchmarks}
+ */
+public class PayrollBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        int employeeCount = Integer.getInteger("bench.employees", 1000);
+        int months = Integer.getInteger("bench.months", 3);
+
+        BenchmarkHarness harness = new BenchmarkHarness();
+        harness.printHeader(String.format("Payroll benchmarks: %d employees x %d months", employeeCount, months));
+
+        // --- Shared inputs, built once ---
+        List<String> employeeLines = SyntheticData.employeeLines(employeeCount, SyntheticData.SEED);
+        String[] attendanceLines = SyntheticData.attendanceLines(employeeCount, months, SyntheticData.SEED)
+                .toArray(new String[0]);
+
+        List<Employee> employees = new ArrayList<>(employeeCount);
+        for (String line : employeeLines) {
+            employees.add(Employee.fromFields(EmployeeDetails.parseEmployeeLine(line)));
+        }
+
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        List<WeeklyWorkedHours.DailyAttendance> days = new ArrayList<>(attendanceLines.length);
+        Date[][] dayTimes = new Date[attendanceLines.length][];
+        String[][] dateTimeText = new String[attendanceLines.length][];
+        for (int i = 0; i < attendanceLines.length; i++) {
+            tokenizer.tokenize(attendanceLines[i]);
+            days.add(WeeklyWorkedHours.parseAttendanceRecord(tokenizer));
+            dateTimeText[i] = new String[] {tokenizer.field(3), tokenizer.field(4), tokenizer.field(5)};
+            dayTimes[i] = new Date[] {
+                    DateUtils.parseDate(dateTimeText[i][0], "MM/dd/yyyy"),
+                    DateUtils.parseDateTime(dateTimeText[i][0], dateTimeText[i][1]),
+                    DateUtils.parseDateTime(dateTimeText[i][0], dateTimeText[i][2])
+            };
+        }
+
+        WeeklyAggregateStore totals = aggregate(days);
+        int[] weekStarts = totals.weekStarts();
+        Date[] weekDates = new Date[weekStarts.length];
+        for (int i = 0; i < weekStarts.length; i++) {
+            weekDates[i] = DateUtils.toDate(weekStarts[i], 0);
+        }
+
+        // --- Per-record costs ---
+        harness.run("attendance.parseRecord", attendanceLines.length, () -> {
+            long checksum = 0;
+            for (String line : attendanceLines) {
+                tokenizer.tokenize(line);
+                WeeklyWorkedHours.DailyAttendance day = WeeklyWorkedHours.parseAttendanceRecord(tokenizer);
+                checksum += day.weekStart;
+            }
+            return checksum;
+        });
+
+        WeeklyWorkedHours.DailyHours reusedDay = new WeeklyWorkedHours.DailyHours();
+        harness.run("attendance.parseRecord.reused", attendanceLines.length, () -> {
+            long checksum = 0;
+            for (String line : attendanceLines) {
+                tokenizer.tokenize(line);
+                WeeklyWorkedHours.parseAttendanceRecord(tokenizer, -1, -1, reusedDay);
+                checksum += reusedDay.regularMinutes;
+            }
+            return checksum;
+        });
+
+        // Same rows with every employee on its own shift (thousands of distinct shifts)
+        List<ShiftSchedule.Shift> shifts = new ArrayList<>();
+        Map<Integer, Integer> shiftOfEmployee = new HashMap<>();
+        for (WeeklyWorkedHours.DailyAttendance day : days) {
+            if (day == null || shiftOfEmployee.containsKey(day.employeeId)) continue;
+            int start = 6 * 60 + shifts.size() % 240;
+            shiftOfEmployee.put(day.employeeId, shifts.size());
+            shifts.add(new ShiftSchedule.Shift("S" + shifts.size(), start, start + 9 * 60, start + 4 * 60,
+                    start + 5 * 60, shifts.size() % 15));
+        }
+        ShiftRoster.setRoster(new ShiftRoster.Roster(shifts, 0, shiftOfEmployee, Map.of()));
+        harness.run("attendance.parseRecord.shifts", attendanceLines.length, () -> {
+            long checksum = 0;
+            for (String line : attendanceLines) {
+                tokenizer.tokenize(line);
+                WeeklyWorkedHours.parseAttendanceRecord(tokenizer, -1, -1, reusedDay);
+                checksum += reusedDay.regularMinutes;
+            }
+            return checksum;
+        });
+        ShiftRoster.reset();
+
+        harness.run("dateUtils.parseDateTime", attendanceLines.length, () -> {
+            long checksum = 0;
+            try {
+                for (String[] text : dateTimeText) {
+                    checksum += DateUtils.parseDateTime(text[0], text[1]).getTime();
+                }
+            } catch (ParseException e) {
+                throw new IllegalStateException(e);
+            }
+            return checksum;
+        });
+
+        // Bucketing each attendance day into every pay cycle, integer arithmetic only
+        int[] epochDays = new int[dateTimeText.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = DateUtils.parseEpochDay(dateTimeText[i][0], 0, dateTimeText[i][0].length());
+        }
+        for (PayPeriod period : PayPeriod.values()) {
+            harness.run("payPeriod.start." + period.id(), epochDays.length, () -> {
+                long checksum = 0;
+                for (int epochDay : epochDays) checksum += period.start(epochDay);
+                return checksum;
+            });
+        }
+
+        harness.run("attendance.calculateDailyHours", dayTimes.length, () -> {
+            long checksum = 0;
+            for (Date[] times : dayTimes) {
+                checksum += (long) WeeklyWorkedHours.calculateDailyHours(times[0], times[1], times[2]).regular;
+            }
+            return checksum;
+        });
+
+        int[][] dayMinutes = new int[dayTimes.length][];
+        for (int i = 0; i < dayTimes.length; i++) {
+            long midnight = dayTimes[i][0].getTime();
+            dayMinutes[i] = new int[] {
+                    (int) ((dayTimes[i][1].getTime() - midnight) / 60_000),
+                    (int) ((dayTimes[i][2].getTime() - midnight) / 60_000)
+            };
+        }
+        harness.run("attendance.calculateDailyMinutes", dayMinutes.length, () -> {
+            long checksum = 0;
+            for (int[] minutes : dayMinutes) {
+                WeeklyWorkedHours.calculateDailyMinutes(minutes[0], minutes[1], reusedDay);
+                checksum += reusedDay.regularMinutes;
+            }
+            return checksum;
+        });
+
+        harness.run("employee.parseEmployeeLine", employeeLines.size(), () -> {
+            long checksum = 0;
+            try {
+                for (String line : employeeLines) {
+                    checksum += EmployeeDetails.parseEmployeeLine(line).length;
+                }
+            } catch (EmployeeDetails.InvalidEmployeeRecordException e) {
+                throw new IllegalStateException(e);
+            }
+            return checksum;
+        });
+
+        long[] salaries = new long[employees.size()];
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = employees.get(i).basicSalaryCentavos();
+        }
+        DeductionSchedule schedule = DeductionSchedule.builtIn(0);
+        long[] sss = new long[salaries.length];
+        long[] philHealth = new long[salaries.length];
+        long[] pagIbig = new long[salaries.length];
+        long[] tax = new long[salaries.length];
+
+        harness.run("deductions.perCall", salaries.length, () -> {
+            long checksum = 0;
+            for (long salary : salaries) {
+                long contributions = schedule.sss(salary) + schedule.philHealth(salary) + schedule.pagIbig(salary);
+                checksum += schedule.tax(salary - contributions);
+            }
+            return checksum;
+        });
+
+        harness.run("deductions.bulk", salaries.length, () -> {
+            schedule.computeMonthly(salaries, sss, philHealth, pagIbig, tax);
+            long checksum = 0;
+            for (long value : tax) checksum += value;
+            return checksum;
+        });
+
+        // --- Aggregation and payroll ---
+        harness.run("aggregate.weeklyTotals", days.size(), () -> aggregate(days).size());
+
+        // The same days from several producer threads through striped concurrent totals
+        int producers = Integer.getInteger("bench.producers", Runtime.getRuntime().availableProcessors());
+        harness.run("aggregate.concurrent." + producers + "producers", days.size(),
+                () -> aggregateConcurrently(days, producers).size());
+
+        harness.run("payroll.computePayslip", (long) employees.size() * weekDates.length, () -> {
+            long checksum = 0;
+            for (Date weekDate : weekDates) {
+                for (Employee employee : employees) {
+                    checksum += GrossNetWeeklySalary.computePayslip(employee, weekDate, totals).netPayCentavos;
+                }
+            }
+            return checksum;
+        });
+
+        // Year-to-date totals read from rollups of every employee-week's payslip
+        PayrollRollups rollups = new PayrollRollups(weekStarts[0], weekStarts[weekStarts.length - 1]);
+        for (Date weekDate : weekDates) {
+            for (Employee employee : employees) {
+                rollups.record(employee.id(), GrossNetWeeklySalary.computePayslip(employee, weekDate, totals));
+            }
+        }
+        harness.run("rollups.yearToDate", (long) employees.size() * weekStarts.length, () -> {
+            long checksum = 0;
+            for (int weekStart : weekStarts) {
+                for (Employee employee : employees) {
+                    checksum += rollups.yearToDate(employee.id(), weekStart).get(PayrollRollups.Column.TAX);
+                }
+            }
+            return checksum;
+        });
+
+        // Net pay arithmetic alone in centavos, the former doubles and BigDecimal, for comparison
+        harness.run("money.netPay.centavos", (long) employees.size() * weekStarts.length, () -> {
+            long checksum = 0;
+            for (int weekStart : weekStarts) {
+                for (Employee employee : employees) {
+                    checksum += centavoNetPay(employee, weekStart, totals);
+                }
+            }
+            return checksum;
+        });
+
+        harness.run("money.netPay.double", (long) employees.size() * weekStarts.length, () -> {
+            double checksum = 0;
+            for (int weekStart : weekStarts) {
+                for (Employee employee : employees) {
+                    checksum += doubleNetPay(employee, weekStart, totals);
+                }
+            }
+            return (long) checksum;
+        });
+
+        harness.run("money.netPay.bigDecimal", (long) employees.size() * weekStarts.length, () -> {
+            BigDecimal checksum = BigDecimal.ZERO;
+            for (int weekStart : weekStarts) {
+                for (Employee employee : employees) {
+                    checksum = checksum.add(bigDecimalNetPay(employee, weekStart, totals));
+                }
+            }
+            return checksum.longValue();
+        });
+
+        // --- Register output: streaming writer vs BufferedWriter with String.format ---
+        List<GrossNetWeeklySalary.SalaryData> payslips = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            payslips.add(GrossNetWeeklySalary.computePayslip(employee, weekDates[weekDates.length - 1], totals));
+        }
+        int registerWeek = weekStarts[weekStarts.length - 1];
+        Path registerFile = Files.createTempFile("bench-register", ".csv");
+
+        harness.run("register.write.stream", payslips.size(), () -> {
+            try (PayrollRegisterWriter writer = new PayrollRegisterWriter(registerFile, PayrollRegisterWriter.Format.CSV)) {
+                for (int i = 0; i < payslips.size(); i++) {
+                    writer.write(employees.get(i), registerWeek, payslips.get(i));
+                }
+                return writer.rows();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        harness.run("register.write.stringFormat", payslips.size(), () -> {
+            try (BufferedWriter out = Files.newBufferedWriter(registerFile)) {
+                String weekLabel = DateUtils.formatEpochDay(registerWeek);
+                for (int i = 0; i < payslips.size(); i++) {
+                    writeFormattedRow(out, employees.get(i), weekLabel, payslips.get(i));
+                }
+                return payslips.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Files.delete(registerFile);
+
+        harness.writeResults(employeeCount + "x" + months);
+    }
+
+    // Net pay with the payslip's centavo rules, without building a SalaryData
+    private static long centavoNetPay(Employee employee, int weekStart, WeeklyAggregateStore totals) {
+        long rate = employee.hourlyRateCentavos();
+        long salary = employee.basicSalaryCentavos();
+        double[] hours = weekHours(employee, weekStart, totals);
+        long gross = Money.scale(salary, 1, 4)
+                - Money.scale(rate, Math.round(hours[3] * 60), 60)
+                - Money.scale(rate, Math.round(hours[2] * 60), 60)
+                + Money.scale(rate, Math.round(hours[1] * 60) * 125, 6000);
+        if (!DateUtils.isLastWeekOfMonth(weekStart)) return gross;
+
+        gross += Money.scale(employee.riceSubsidyCentavos() + employee.phoneAllowanceCentavos()
+                + employee.clothingAllowanceCentavos(), 1, 4);
+        DeductionSchedule schedule = DeductionsCalculator.scheduleFor(weekStart);
+        long contributions = schedule.sss(salary) + schedule.philHealth(salary) + schedule.pagIbig(salary);
+        return gross - contributions - schedule.tax(salary - contributions);
+    }
+
+    // Net pay computed in double pesos, as the payslip was before the switch to centavos
+    private static double doubleNetPay(Employee employee, int weekStart, WeeklyAggregateStore totals) {
+        double rate = Money.toPesos(employee.hourlyRateCentavos());
+        double salary = Money.toPesos(employee.basicSalaryCentavos());
+        double[] hours = weekHours(employee, weekStart, totals);
+        double gross = salary / 4 - hours[3] * rate - hours[2] * rate + hours[1] * rate * 1.25;
+        if (!DateUtils.isLastWeekOfMonth(weekStart)) return gross;
+
+        gross += Money.toPesos(employee.riceSubsidyCentavos() + employee.phoneAllowanceCentavos()
+                + employee.clothingAllowanceCentavos()) / 4;
+        double sss = salary < 3250 ? 135.0 : 135.0 + Math.min((int) ((salary - 3250) / 500) + 1, 44) * 22.50;
+        double contributions = sss + (salary * 0.03) / 2 + 100.0;
+        return gross - contributions - doubleTax(salary - contributions);
+    }
+
+    private static double doubleTax(double taxableIncome) {
+        if (taxableIncome <= 20832) return 0.0;
+        if (taxableIncome <= 33333) return (taxableIncome - 20833) * 0.20;
+        if (taxableIncome <= 66667) return ((taxableIncome - 33333) * 0.25) + 2500;
+        if (taxableIncome <= 166667) return ((taxableIncome - 66667) * 0.30) + 10833;
+        if (taxableIncome <= 666667) return ((taxableIncome - 166667) * 0.32) + 40833.33;
+        return ((taxableIncome - 666667) * 0.35) + 200833.33;
+    }
+
+    // Net pay computed with BigDecimal, rounding each pay line half-up to the centavo
+    private static BigDecimal bigDecimalNetPay(Employee employee, int weekStart, WeeklyAggregateStore totals) {
+        BigDecimal rate = BigDecimal.valueOf(employee.hourlyRateCentavos(), 2);
+        BigDecimal salary = BigDecimal.valueOf(employee.basicSalaryCentavos(), 2);
+        double[] hours = weekHours(employee, weekStart, totals);
+        BigDecimal sixty = BigDecimal.valueOf(60);
+        BigDecimal gross = salary.divide(BigDecimal.valueOf(4), 2, RoundingMode.HALF_UP)
+                .subtract(rate.multiply(BigDecimal.valueOf(Math.round(hours[3] * 60)))
+                        .divide(sixty, 2, RoundingMode.HALF_UP))
+                .subtract(rate.multiply(BigDecimal.valueOf(Math.round(hours[2] * 60)))
+                        .divide(sixty, 2, RoundingMode.HALF_UP))
+                .add(rate.multiply(BigDecimal.valueOf(Math.round(hours[1] * 60) * 125))
+                        .divide(BigDecimal.valueOf(6000), 2, RoundingMode.HALF_UP));
+        if (!DateUtils.isLastWeekOfMonth(weekStart)) return gross;
+
+        BigDecimal allowance = BigDecimal.valueOf(employee.riceSubsidyCentavos() + employee.phoneAllowanceCentavos()
+                + employee.clothingAllowanceCentavos(), 2);
+        gross = gross.add(allowance.divide(BigDecimal.valueOf(4), 2, RoundingMode.HALF_UP));
+        BigDecimal contributions = bigDecimalSSS(salary)
+                .add(salary.multiply(PHILHEALTH_RATE).setScale(2, RoundingMode.HALF_UP))
+                .add(PAG_IBIG);
+        return gross.subtract(contributions).subtract(bigDecimalTax(salary.subtract(contributions)));
+    }
+
+    private static final BigDecimal PHILHEALTH_RATE = new BigDecimal("0.015");
+    private static final BigDecimal PAG_IBIG = new BigDecimal("100.00");
+    private static final BigDecimal[] TAX_BRACKETS = {
+            new BigDecimal("20832"), new BigDecimal("33333"), new BigDecimal("66667"),
+            new BigDecimal("166667"), new BigDecimal("666667")};
+    private static final BigDecimal[] TAX_BASE = {
+            BigDecimal.ZERO, new BigDecimal("2500"), new BigDecimal("10833"),
+            new BigDecimal("40833.33"), new BigDecimal("200833.33")};
+    private static final BigDecimal[] TAX_EXCESS_OVER = {
+            new BigDecimal("20833"), new BigDecimal("33333"), new BigDecimal("66667"),
+            new BigDecimal("166667"), new BigDecimal("666667")};
+    private static final BigDecimal[] TAX_RATE = {
+            new BigDecimal("0.20"), new BigDecimal("0.25"), new BigDecimal("0.30"),
+            new BigDecimal("0.32"), new BigDecimal("0.35")};
+
+    private static BigDecimal bigDecimalSSS(BigDecimal salary) {
+        if (salary.compareTo(BigDecimal.valueOf(3250)) < 0) return new BigDecimal("135.00");
+        int steps = Math.min(salary.subtract(BigDecimal.valueOf(3250)).intValue() / 500 + 1, 44);
+        return new BigDecimal("135.00").add(new BigDecimal("22.50").multiply(BigDecimal.valueOf(steps)));
+    }
+
+    private static BigDecimal bigDecimalTax(BigDecimal income) {
+        int bracket = -1;
+        while (bracket + 1 < TAX_BRACKETS.length && income.compareTo(TAX_BRACKETS[bracket + 1]) > 0) bracket++;
+        if (bracket < 0) return BigDecimal.ZERO;
+        return TAX_BASE[bracket].add(income.subtract(TAX_EXCESS_OVER[bracket]).multiply(TAX_RATE[bracket]))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Regular, overtime, under time and late hours of an employee-week (zeros without attendance)
+    private static double[] weekHours(Employee employee, int weekStart, WeeklyAggregateStore totals) {
+        int row = totals.find(employee.id(), weekStart);
+        if (row == WeeklyAggregateStore.NOT_FOUND) return new double[4];
+        return new double[] {totals.regularHours(row), totals.overtimeHours(row),
+                totals.underTimeHours(row), totals.lateHours(row)};
+    }
+
+    // Register row as the batch wrote it before the streaming writer, one String.format per value
+    private static void writeFormattedRow(BufferedWriter out, Employee employee, String weekLabel,
+                                          GrossNetWeeklySalary.SalaryData data) throws IOException {
+        StringBuilder row = new StringBuilder(256);
+        row.append(employee.employeeNumber()).append(',').append(employee.lastName()).append(',')
+                .append(employee.firstName()).append(',').append(weekLabel);
+        for (double hours : new double[] {data.regularHours, data.overtimeHours, data.underTime, data.lateHours}) {
+            row.append(',').append(String.format(Locale.ROOT, "%.2f", hours));
+        }
+        long allowance = data.isLastWeek ? data.totalAllowanceCentavos() : 0;
+        for (long centavos : new long[] {data.basicPayCentavos, data.lateDeductionCentavos,
+                data.underTimeDeductionCentavos, data.overtimePayCentavos, allowance, data.grossWeeklyCentavos,
+                data.sssCentavos, data.philhealthCentavos, data.pagibigCentavos, data.taxCentavos,
+                data.totalDeductionsCentavos, data.netPayCentavos}) {
+            row.append(',').append(String.format(Locale.ROOT, "%.2f", Money.toPesos(centavos)));
+        }
+        out.write(row.toString());
+        out.newLine();
+    }
+
+    // Folds parsed days into fresh concurrent totals, each producer taking every n-th day
+    private static WeeklyAggregateStore aggregateConcurrently(List<WeeklyWorkedHours.DailyAttendance> days,
+                                                              int producers) {
+        ConcurrentWeeklyTotals totals = new ConcurrentWeeklyTotals();
+        List<Thread> threads = new ArrayList<>(producers);
+        for (int p = 0; p < producers; p++) {
+            int first = p;
+            threads.add(new Thread(() -> {
+                try (ConcurrentWeeklyTotals.Feed feed = totals.feed()) {
+                    for (int i = first; i < days.size(); i += producers) {
+                        WeeklyWorkedHours.DailyAttendance day = days.get(i);
+                        feed.add(day.employeeId, day.weekStart, (int) Math.round(day.result.regular * 60),
+                                (int) Math.round(day.result.overtime * 60), (int) Math.round(day.result.underTime * 60),
+                                (int) Math.round(day.result.late * 60));
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        try {
+            for (Thread thread : threads) thread.join();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return totals.snapshot();
+    }
+
+    // Folds parsed days into a fresh weekly store
+    private static WeeklyAggregateStore aggregate(List<WeeklyWorkedHours.DailyAttendance> days) {
+        WeeklyAggregateStore store = new WeeklyAggregateStore();
+        for (WeeklyWorkedHours.DailyAttendance day : days) {
+            store.add(day.employeeId, day.weekStart,
+                    day.result.regular, day.result.overtime, day.result.underTime, day.result.late);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+/**
+ * Seeded, in-memory generator of MotorPH-format employee and attendance lines for the
+ * benchmarks. The same seed, employee count and month count always produce the same data.
+ */
+final class SyntheticData {
+    /** Default generator seed */
+    static final long SEED = 20240603L;
+
+    // First employee number (matches the shipped data)
+    private static final int FIRST_EMPLOYEE_ID = 10001;
+
+    // First attendance date: Monday 06/03/2024
+    private static final int FIRST_DAY = DateUtils.epochDay(2024, 6, 3);
+
+    private SyntheticData() {}
+
+    /**
+     * Generates employee CSV lines (without header) with salaries between PHP 22,500 and 90,000.
+     */
+    static List<String> employeeLines(int employees, long seed) {
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            int salary = 22_500 + random.nextInt(136) * 500;
+            double hourlyRate = Math.round(salary / 168.0 * 100) / 100.0;
+            lines.add(String.format(Locale.ROOT,
+                    "%d,Last%d,First%d,01/15/1990,\"Block %d, Makati City\",555-%04d,44-0000000-0,8.20E+11,"
+                            + "442-605-657-000,6.91E+11,Regular,Associate,\"Garcia, Manuel III\","
+                            + "\"%,d\",\"1,500\",\"1,000\",\"1,000\",\"%,d\",%.2f",
+                    FIRST_EMPLOYEE_ID + i, i, i, i, i % 10_000, salary, salary / 2, hourlyRate));
+        }
+        return lines;
+    }
+
+    /**
+     * Generates attendance CSV lines (without header): one line per employee per
+     * weekday over the given number of months (4 weeks each), with logins spread
+     * around 8:00 and logouts around 17:00.
+     */
+    static List<String> attendanceLines(int employees, int months, long seed) {
+        Random random = new Random(seed);
+        int days = months * 28;
+        List<String> lines = new ArrayList<>(employees * months * 20);
+        for (int day = 0; day < days; day++) {
+            int epochDay = FIRST_DAY + day;
+            if (DateUtils.isWeekend(epochDay)) continue;
+            String date = DateUtils.formatEpochDay(epochDay);
+
+            for (int i = 0; i < employees; i++) {
+                int login = 7 * 60 + 30 + random.nextInt(90);    // 7:30 - 8:59
+                int logout = 16 * 60 + 30 + random.nextInt(180); // 16:30 - 19:29
+                lines.add((FIRST_EMPLOYEE_ID + i) + ",Last" + i + ",First" + i + "," + date + ","
+                        + formatTime(login) + "," + formatTime(logout));
+            }
+        }
+        return lines;
+    }
+
+    private static String formatTime(int minuteOfDay) {
+        int minute = minuteOfDay % 60;
+        return (minuteOfDay / 60) + (minute < 10 ? ":0" : ":") + minute;
+    }
+}
@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttendanceIndexTest {
+
+    private static final String ATTENDANCE_FILE = "Test Case/resources/valid_attendance.csv";
+    private static final int WEEK = DateUtils.epochDay(2024, 6, 3);
+
+    private final AttendanceIndex index = new AttendanceIndex();
+
+    @BeforeEach
+    void setup() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        WeeklyWorkedHours.attendanceIndex = index;
+    }
+
+    @AfterEach
+    void cleanup() {
+        WeeklyWorkedHours.attendanceIndex = null;
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @Test
+    void days_KeepsEveryDaySortedByDate() {
+        WeeklyWorkedHours.processAttendanceLine("10001,Garcia,Manuel III,06/05/2024,8:00,17:00");
+        WeeklyWorkedHours.processAttendanceLine("10001,Garcia,Manuel III,06/03/2024,8:25,18:00"); // Out of order
+        WeeklyWorkedHours.processAttendanceLine("10001,Garcia,Manuel III,06/10/2024,8:00,12:00");
+        WeeklyWorkedHours.processAttendanceLine("10002,Lim,Antonio,06/04/2024,8:00,17:00");
+
+        AttendanceIndex.Days week = index.week(10001, WEEK);
+        assertEquals(2, week.size());
+        assertEquals(WEEK, week.epochDay(0));
+        assertEquals(8 * 60 + 25, week.loginMinute(0));
+        assertEquals(18 * 60, week.logoutMinute(0));
+        assertEquals(25, week.lateMinutes(0));
+        assertEquals(WEEK + 2, week.epochDay(1));
+        assertEquals(9 * 60, week.regularMinutes(1));
+
+        long[] totals = new long[4];
+        assertEquals(3, index.sum(10001, WEEK, WEEK + 13, totals));
+        assertEquals(9 * 60 - 25 + 9 * 60 + 4 * 60, totals[0]);
+        assertEquals(5 * 60, totals[2]); // Left at noon on June 10
+        assertEquals(0, index.days(10003, WEEK, WEEK + 6).size());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void aggregate_WithMondayWeeksMatchesWeeklyTotals() throws IOException {
+        WeeklyWorkedHours.processAttendanceFile(ATTENDANCE_FILE, 1);
+        WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+
+        WeeklyAggregateStore weeks = index.aggregate(DateUtils::weekStart);
+        assertEquals(totals.size(), weeks.size());
+        for (int row = 0; row < totals.size(); row++) {
+            int match = weeks.find(totals.employeeId(row), totals.weekStart(row));
+            assertEquals(totals.regularHours(row), weeks.regularHours(match));
+            assertEquals(totals.lateHours(row), weeks.lateHours(match));
+        }
+
+        // Weeks starting on Sunday put a Monday-to-Friday week into one Sunday bucket too
+        WeeklyAggregateStore sundayWeeks = index.aggregate(PayPeriod.SUNDAY_WEEK);
+        int row = sundayWeeks.find(10001, WEEK - 1);
+        assertEquals(totals.regularHours(totals.find(10001, WEEK)), sundayWeeks.regularHours(row), 1e-9);
+    }
+
+    @Test
+    void parallelIngestion_IndexesTheSameDays() throws IOException {
+        WeeklyWorkedHours.processAttendanceFile(ATTENDANCE_FILE, 1);
+        long serialDays = index.size();
+        AttendanceIndex.Days serial = index.days(10001, 0, Integer.MAX_VALUE - 1);
+
+        index.clear();
+        WeeklyWorkedHours.weeklyTotals.clear();
+        ParallelAttendanceIngestor.ingest(ATTENDANCE_FILE, 4, 4096);
+        AttendanceIndex.Days parallel = index.days(10001, 0, Integer.MAX_VALUE - 1);
+
+        assertEquals(serialDays, index.size());
+        assertEquals(serial.size(), parallel.size());
+        for (int i = 0; i < serial.size(); i++) {
+            assertEquals(serial.epochDay(i), parallel.epochDay(i));
+            assertEquals(serial.loginMinute(i), parallel.loginMinute(i));
+            assertEquals(serial.overtimeMinutes(i), parallel.overtimeMinutes(i));
+        }
+    }
+
+    @Test
+    void replace_KeepsOneRowPerDay() {
+        WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+        day.employeeId = 10001;
+        day.epochDay = WEEK;
+        day.regularMinutes = 480;
+        index.add(day);
+        index.add(day);
+        day.regularMinutes = 300;
+        index.replace(day);
+
+        assertEquals(1, index.size());
+        assertEquals(300, index.week(10001, WEEK).regularMinutes(0));
+    }
+}
@@ -0,0 +1,217 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttendanceStreamTest {
+
+    private static final String HEADER = "Employee #,Last Name,First Name,Date,Log In,Log Out\n";
+    private static final int WEEK = DateUtils.epochDay(2024, 6, 3);
+
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        file = Files.createTempFile("attendance", ".csv");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void poll_AppliesOnlyCompleteAppendedLines() throws IOException {
+        Files.writeString(file, HEADER + "10001,Garcia,Manuel III,06/03/2024,8:00,17:00\n");
+        AttendanceStream stream = new AttendanceStream();
+        assertEquals(1, stream.poll(file));
+
+        append("10001,Garcia,Manuel III,06/04/2024,8:00,18:00\r\n10001,Garcia,Manuel III,06/05/2024,8:0");
+        assertEquals(1, stream.poll(file)); // The last line is still being written
+        assertEquals(18.0, regularHours(10001, WEEK));
+        assertEquals(1.0, overtimeHours(10001, WEEK));
+
+        append("0,17:00\n");
+        assertEquals(1, stream.poll(file));
+        assertEquals(0, stream.poll(file));
+        assertEquals(27.0, regularHours(10001, WEEK));
+    }
+
+    @Test
+    void corrections_RetractEarlierRowsInAnyWeek() throws IOException {
+        AttendanceStream stream = new AttendanceStream();
+        Employee employee = EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv").get(10001);
+
+        stream.accept("10001,Garcia,Manuel III,06/03/2024,8:00,20:00", -1);
+        long before = GrossNetWeeklySalary.calculateSalary(employee, DateUtils.toDate(WEEK, 0),
+                WeeklyWorkedHours.weeklyTotals).grossWeeklyCentavos;
+        stream.accept("10001,Garcia,Manuel III,05/27/2024,8:00,17:00", -1); // Earlier week, arriving late
+        stream.accept("10001,Garcia,Manuel III,06/03/2024,9:00,17:00", -1); // Correction of June 3
+        stream.accept("10001,Garcia,Manuel III,06/03/2024,17:00,8:00", -1); // Invalid, keeps the correction
+
+        assertEquals(3, stream.events());
+        assertEquals(1, stream.corrections());
+        assertEquals(2, stream.days());
+        assertEquals(8.0, regularHours(10001, WEEK), 1e-9);
+        assertEquals(0.0, overtimeHours(10001, WEEK), 1e-9);
+        assertEquals(1.0, lateHours(10001, WEEK), 1e-9);
+        assertEquals(9.0, regularHours(10001, DateUtils.epochDay(2024, 5, 27)), 1e-9);
+
+        // Payslips read the corrected hours at once
+        long after = GrossNetWeeklySalary.calculateSalary(employee, DateUtils.toDate(WEEK, 0),
+                WeeklyWorkedHours.weeklyTotals).grossWeeklyCentavos;
+        assertTrue(after < before);
+    }
+
+    @Test
+    void consume_ReadsRowsFromAPipe() throws IOException {
+        AttendanceStream stream = new AttendanceStream();
+        String rows = "10002,Lim,Antonio,06/03/2024,8:00,17:00\n\n10002,Lim,Antonio,06/04/2024,8:00,17:00\n";
+        assertEquals(2, stream.consume(new BufferedReader(new StringReader(rows))));
+        assertEquals(18.0, regularHours(10002, WEEK));
+    }
+
+    @Test
+    void follow_PicksUpAppendedRowsWhileRunning() throws Exception {
+        Files.writeString(file, HEADER);
+        try (AttendanceStream stream = new AttendanceStream()) {
+            assertEquals(0, stream.follow(file, 5));
+            append("10003,Aquino,Bianca Sofia,06/03/2024,8:00,17:00\n");
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (stream.events() == 0 && System.nanoTime() < deadline) Thread.sleep(5);
+            assertEquals(1, stream.events());
+        }
+        assertEquals(9.0, regularHours(10003, WEEK));
+    }
+
+    @Test
+    void rewrittenFile_GivesSameTotals() throws IOException {
+        List<String> rows = List.of("10001,Garcia,Manuel III,06/03/2024,8:00,17:00",
+                "10001,Garcia,Manuel III,06/04/2024,8:30,17:00");
+        Files.writeString(file, HEADER + String.join("\n", rows) + "\n");
+        AttendanceStream stream = new AttendanceStream();
+        stream.poll(file);
+        double regular = regularHours(10001, WEEK);
+
+        Files.writeString(file, HEADER + rows.get(0) + "\n"); // Shorter: read again from the start
+        stream.poll(file);
+        assertEquals(regular, regularHours(10001, WEEK), 1e-9);
+        assertEquals(1, stream.corrections());
+    }
+
+    @Test
+    void payslipReads_SeeWholeCorrectionsWhileStreaming() throws Exception {
+        AttendanceStream stream = new AttendanceStream();
+        Employee employee = EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv").get(10001);
+        stream.accept("10001,Garcia,Manuel III,06/03/2024,9:00,19:00", -1);
+        GrossNetWeeklySalary.SalaryData corrected = GrossNetWeeklySalary.calculateSalary(employee,
+                DateUtils.toDate(WEEK, 0), WeeklyWorkedHours.weeklyTotals);
+        stream.accept("10001,Garcia,Manuel III,06/03/2024,8:00,17:00", -1);
+        assertNotEquals(9.0, corrected.regularHours);
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                stream.accept(i % 2 == 0 ? "10001,Garcia,Manuel III,06/03/2024,9:00,19:00"
+                        : "10001,Garcia,Manuel III,06/03/2024,8:00,17:00", -1);
+                // New employee-weeks make the store grow while payslips are read
+                if (i % 100 == 0) stream.accept("20001,New,Hire," + DateUtils.formatEpochDay(WEEK + 7 * (i / 100)) + ",8:00,17:00", -1);
+            }
+        });
+        writer.start();
+        try {
+            while (writer.isAlive()) {
+                GrossNetWeeklySalary.SalaryData data = GrossNetWeeklySalary.calculateSalary(employee,
+                        DateUtils.toDate(WEEK, 0), WeeklyWorkedHours.weeklyTotals);
+                // Either the original day or the whole correction, never a mix of the two
+                boolean isOriginal = data.regularHours == 9.0 && data.overtimeHours == 0.0 && data.lateHours == 0.0;
+                boolean isCorrected = data.regularHours == corrected.regularHours
+                        && data.overtimeHours == corrected.overtimeHours && data.lateHours == corrected.lateHours;
+                assertTrue(isOriginal || isCorrected, () -> data.regularHours + "/" + data.overtimeHours + "/" + data.lateHours);
+            }
+        } finally {
+            writer.join();
+        }
+    }
+
+    @Test
+    void rewrittenFile_SameSizeOrLargerIsReadAgain() throws IOException {
+        long rejected = RejectedRecords.total();
+        Files.writeString(file, HEADER + "10001,Garcia,Manuel III,06/03/2024,8:00,17:00\n");
+        AttendanceStream stream = new AttendanceStream();
+        stream.poll(file);
+        assertEquals(9.0, regularHours(10001, WEEK), 1e-9);
+
+        // Same length, different login: without the rewrite check nothing would be read
+        Files.writeString(file, HEADER + "10001,Garcia,Manuel III,06/03/2024,9:00,17:00\n");
+        assertEquals(1, stream.poll(file));
+        assertEquals(8.0, regularHours(10001, WEEK), 1e-9);
+
+        // Longer: read from the start, not from the old offset in the middle of a line
+        Files.writeString(file, HEADER + "10001,Garcia,Manuel III,06/03/2024,08:00,17:00\n"
+                + "10001,Garcia,Manuel III,06/04/2024,8:00,17:00\n");
+        assertEquals(2, stream.poll(file));
+        assertEquals(18.0, regularHours(10001, WEEK), 1e-9);
+        assertEquals(0, stream.poll(file));
+        assertEquals(rejected, RejectedRecords.total());
+    }
+
+    @Test
+    void indexAndTotals_AgreeUnderReadLock() throws Exception {
+        WeeklyWorkedHours.attendanceIndex = new AttendanceIndex();
+        AttendanceStream stream = new AttendanceStream();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                stream.accept(i % 2 == 0 ? "10001,Garcia,Manuel III,06/03/2024,9:00,17:00"
+                        : "10001,Garcia,Manuel III,06/03/2024,8:00,17:00", -1);
+            }
+        });
+        writer.start();
+        try {
+            StampedLock lock = WeeklyWorkedHours.weeklyTotalsLock;
+            while (writer.isAlive()) {
+                long stamp = lock.readLock();
+                try {
+                    int row = WeeklyWorkedHours.weeklyTotals.find(10001, WEEK);
+                    if (row == WeeklyAggregateStore.NOT_FOUND) continue;
+                    AttendanceIndex.Days days = WeeklyWorkedHours.attendanceIndex.period(10001, PayPeriod.MONDAY_WEEK, WEEK);
+                    assertEquals(1, days.size());
+                    assertEquals(days.regularMinutes(0), Math.round(WeeklyWorkedHours.weeklyTotals.regularHours(row) * 60));
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+        } finally {
+            writer.join();
+            WeeklyWorkedHours.attendanceIndex = null;
+        }
+    }
+
+    private void append(String text) throws IOException {
+        Files.writeString(file, text, StandardOpenOption.APPEND);
+    }
+
+    private static double regularHours(int employeeId, int week) {
+        WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+        return totals.regularHours(totals.find(employeeId, week));
+    }
+
+    private static double overtimeHours(int employeeId, int week) {
+        WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+        return totals.overtimeHours(totals.find(employeeId, week));
+    }
+
+    private static double lateHours(int employeeId, int week) {
+        WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+        return totals.lateHours(totals.find(employeeId, week));
+    }
+}
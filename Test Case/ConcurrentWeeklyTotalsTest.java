@@ -0,0 +1,126 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentWeeklyTotalsTest {
+
+    private static final String ATTENDANCE_FILE = "Test Case/resources/valid_attendance.csv";
+
+    @BeforeEach
+    void resetTotals() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @Test
+    void feeds_FromManyThreadsMatchSerialTotals() throws Exception {
+        WeeklyWorkedHours.processAttendanceFile(ATTENDANCE_FILE, 1);
+        WeeklyAggregateStore serial = WeeklyWorkedHours.weeklyTotals;
+        List<String> lines = Files.readAllLines(Paths.get(ATTENDANCE_FILE));
+
+        // Each producer takes every 8th line, as if reading its own site's feed
+        ConcurrentWeeklyTotals totals = new ConcurrentWeeklyTotals(4);
+        int producers = 8;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p + 1;
+            threads.add(new Thread(() -> {
+                try (ConcurrentWeeklyTotals.Feed feed = totals.feed()) {
+                    for (int i = first; i < lines.size(); i += producers) feed.addLine(lines.get(i), i + 1);
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        WeeklyAggregateStore snapshot = totals.snapshot();
+        assertEquals(serial.size(), snapshot.size());
+        for (int row = 0; row < serial.size(); row++) {
+            int match = snapshot.find(serial.employeeId(row), serial.weekStart(row));
+            assertEquals(minutes(serial.regularHours(row)), minutes(snapshot.regularHours(match)));
+            assertEquals(minutes(serial.overtimeHours(row)), minutes(snapshot.overtimeHours(match)));
+            assertEquals(minutes(serial.underTimeHours(row)), minutes(snapshot.underTimeHours(match)));
+            assertEquals(minutes(serial.lateHours(row)), minutes(snapshot.lateHours(match)));
+        }
+    }
+
+    @Test
+    void snapshot_IsSortedAndSeesEveryAddBeforeIt() throws Exception {
+        ConcurrentWeeklyTotals totals = new ConcurrentWeeklyTotals(16);
+        int week = DateUtils.epochDay(2024, 6, 3);
+        int producers = 4, days = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < days; i++) totals.add(10000 + i % 50, week + (i % 3) * 7, 1, 0, 0, 0);
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+
+        // Snapshots taken while producers run never lose minutes already counted
+        long previous = 0;
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            long total = totalMinutes(totals.snapshot());
+            assertTrue(total >= previous);
+            previous = total;
+        }
+        for (Thread thread : threads) thread.join();
+
+        WeeklyAggregateStore snapshot = totals.snapshot();
+        assertEquals((long) producers * days, totalMinutes(snapshot));
+        assertEquals(150, snapshot.size());
+        for (int row = 1; row < snapshot.size(); row++) {
+            assertTrue(WeeklyAggregateStore.key(snapshot.employeeId(row - 1), snapshot.weekStart(row - 1))
+                    < WeeklyAggregateStore.key(snapshot.employeeId(row), snapshot.weekStart(row)));
+        }
+    }
+
+    @Test
+    void feed_KeepsDaysUntilFlushed() {
+        ConcurrentWeeklyTotals totals = new ConcurrentWeeklyTotals(1);
+        ConcurrentWeeklyTotals.Feed feed = totals.feed();
+        feed.add(10001, DateUtils.epochDay(2024, 6, 3), 480, 30, 0, 0);
+        assertEquals(0, totals.size());
+
+        feed.flush();
+        WeeklyAggregateStore snapshot = totals.snapshot();
+        assertEquals(8.0, snapshot.regularHours(0));
+        assertEquals(0.5, snapshot.overtimeHours(0));
+
+        totals.clear();
+        assertEquals(0, totals.snapshot().size());
+    }
+
+    @Test
+    void sortByKey_OrdersRowsLikeArraysSort() {
+        Random random = new Random(42);
+        long[] keys = new long[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            // Non-numeric employee IDs are negative, so negative keys must sort first
+            int employeeId = random.nextInt(3) == 0 ? -1 - random.nextInt(100) : 10000 + random.nextInt(5000);
+            keys[i] = WeeklyAggregateStore.key(employeeId, DateUtils.epochDay(2024, 1, 1) + random.nextInt(700));
+        }
+        long[] expected = keys.clone();
+        Arrays.sort(expected);
+
+        int[] order = ConcurrentWeeklyTotals.sortByKey(keys);
+        for (int i = 0; i < keys.length; i++) assertEquals(expected[i], keys[order[i]]);
+        assertEquals(0, ConcurrentWeeklyTotals.sortByKey(new long[0]).length);
+    }
+
+    private static long minutes(double hours) {
+        return Math.round(hours * 60);
+    }
+
+    private static long totalMinutes(WeeklyAggregateStore store) {
+        long total = 0;
+        for (int row = 0; row < store.size(); row++) total += minutes(store.regularHours(row));
+        return total;
+    }
+}
@@ -0,0 +1,41 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class CsvTokenizerTest {
+
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+
+    @Test
+    void tokenize_QuotedFieldsWithCommas() {
+        String line = "10002,Lim,Antonio,\"San Antonio De Padua 2, Block 1\",\"60,000\",357.14";
+        assertEquals(6, tokenizer.tokenize(line));
+        assertEquals("San Antonio De Padua 2, Block 1", tokenizer.field(3));
+        assertEquals("60,000", tokenizer.field(4));
+        assertEquals("357.14", tokenizer.field(5));
+    }
+
+    @Test
+    void tokenize_EscapedQuotesAndTrailingEmptyField() {
+        assertEquals(3, tokenizer.tokenize("\"say \"\"hi\"\"\", x ,"));
+        assertEquals("say \"hi\"", tokenizer.field(0));
+        assertEquals("x", tokenizer.field(1));
+        assertTrue(tokenizer.isEmpty(2));
+    }
+
+    @Test
+    void tokenize_SlicesParseWithoutSubstrings() {
+        tokenizer.tokenize("10001,Garcia,Manuel III,06/03/2024,8:59,18:31");
+        assertEquals(DateUtils.epochDay(2024, 6, 3),
+                DateUtils.parseEpochDay(tokenizer, tokenizer.start(3), tokenizer.end(3)));
+        assertEquals(8 * 60 + 59, DateUtils.parseMinuteOfDay(tokenizer, tokenizer.start(4), tokenizer.end(4)));
+    }
+
+    @Test
+    void tokenize_BytesMatchesString() {
+        String line = "1,\"a,b\",c";
+        byte[] bytes = ("xx" + line).getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        assertEquals(3, tokenizer.tokenize(bytes, 2, line.length()));
+        assertEquals("a,b", tokenizer.field(1));
+        assertEquals(line, tokenizer.line());
+    }
+}
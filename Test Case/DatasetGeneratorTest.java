@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DatasetGeneratorTest {
+    // No late logins, overtime, absences or malformed rows
+    private static final DatasetGenerator.Profile CLEAN = new DatasetGenerator.Profile(0, 0, 0, 0, 0, 0);
+
+    @BeforeEach
+    void resetTotals() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @Test
+    void generateEmployees_ReadableByEmployeeDetails() throws IOException {
+        Path file = Files.createTempFile("employees", ".csv");
+        DatasetGenerator.generateEmployees(file, 250, CLEAN, 7);
+
+        Map<Integer, Employee> employees = EmployeeDetails.readEmployees(file.toString());
+        assertEquals(250, employees.size());
+        Employee ceo = employees.get(10001);
+        assertEquals(9_000_000, ceo.basicSalaryCentavos());
+        assertEquals(53_571, ceo.hourlyRateCentavos());
+        for (Employee employee : employees.values()) {
+            assertTrue(employee.basicSalaryCentavos() >= 2_250_000);
+            assertEquals((employee.basicSalaryCentavos() / 100 + 1) / 2 * 100, employee.grossSemiMonthlyCentavos());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    void generateAttendance_CleanProfileHasFullWeeks() throws IOException {
+        Path file = Files.createTempFile("attendance", ".csv");
+        long rows = DatasetGenerator.generateAttendance(file, 10, DatasetGenerator.DEFAULT_FIRST_DAY, 14, CLEAN, 7);
+
+        assertEquals(10 * 10, rows); // 10 weekdays in two weeks, no weekend rows
+        WeeklyWorkedHours.processAttendanceFile(file.toString(), 1);
+        WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+        assertEquals(20, totals.size());
+        for (int row = 0; row < totals.size(); row++) {
+            assertEquals(0, totals.lateHours(row));
+            assertEquals(0, totals.underTimeHours(row));
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    void generateAttendance_ProducesConfiguredMalformedShare() throws IOException {
+        Path file = Files.createTempFile("attendance", ".csv");
+        DatasetGenerator.Profile dirty = new DatasetGenerator.Profile(0.12, 0.15, 0.05, 0, 0, 0.05);
+        long rows = DatasetGenerator.generateAttendance(file, 200, DatasetGenerator.DEFAULT_FIRST_DAY, 28, dirty, 7);
+
+        List<String> lines = Files.readAllLines(file);
+        long usable = lines.stream().skip(1)
+                .filter(line -> WeeklyWorkedHours.parseAttendanceLine(line) != null)
+                .count();
+        double malformedShare = 1.0 - (double) usable / rows;
+        assertEquals(0.05, malformedShare, 0.01);
+        Files.delete(file);
+    }
+
+    @Test
+    void generate_SameSeedGivesIdenticalFiles() throws IOException {
+        Path first = Files.createTempFile("attendance", ".csv");
+        Path second = Files.createTempFile("attendance", ".csv");
+        DatasetGenerator.Profile profile = new DatasetGenerator.Profile(0.12, 0.15, 0.05, 0.03, 0.02, 0.001);
+        DatasetGenerator.generateAttendance(first, 50, DatasetGenerator.DEFAULT_FIRST_DAY, 31, profile, 42);
+        DatasetGenerator.generateAttendance(second, 50, DatasetGenerator.DEFAULT_FIRST_DAY, 31, profile, 42);
+
+        assertEquals(-1, Files.mismatch(first, second));
+        Files.delete(first);
+        Files.delete(second);
+    }
+}
@@ -1,6 +1,12 @@
 import static org.junit.jupiter.api.Assertions.*;
 import java.text.ParseException;
+import java.time.LocalDate;
 import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class DateUtilsTest {
@@ -38,4 +44,55 @@ class DateUtilsTest {
         String weekKey = DateUtils.getWeekKey(date, "EMP001");
         assertEquals("EMP001_12/25/2023", weekKey);
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseDate_RejectsImpossibleDate() {
+        assertThrows(ParseException.class, () -> DateUtils.parseDate("02/30/2024", "MM/dd/yyyy"));
+    }
+
+    @Test
+    void parseEpochDay_MatchesJavaTime() {
+        String line = "10001,Garcia,Manuel III,06/03/2024,8:59,18:31";
+        int start = line.indexOf("06/03");
+        assertEquals(LocalDate.of(2024, 6, 3).toEpochDay(), DateUtils.parseEpochDay(line, start, start + 10));
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), DateUtils.parseEpochDay("2/29/2000", 0, 9));
+        assertEquals(DateUtils.INVALID_DAY, DateUtils.parseEpochDay("02/29/2023", 0, 10));
+        assertEquals(DateUtils.INVALID_DAY, DateUtils.parseEpochDay("2023-12-31", 0, 10));
+    }
+
+    @Test
+    void parseMinuteOfDay_ParsesShortHours() {
+        assertEquals(8 * 60 + 59, DateUtils.parseMinuteOfDay("8:59", 0, 4));
+        assertEquals(18 * 60 + 31, DateUtils.parseMinuteOfDay(" 18:31", 0, 6));
+        assertEquals(DateUtils.INVALID_MINUTE, DateUtils.parseMinuteOfDay("24:00", 0, 5));
+        assertEquals(DateUtils.INVALID_MINUTE, DateUtils.parseMinuteOfDay("8:5", 0, 3));
+    }
+
+    @Test
+    void epochDayHelpers_MatchJavaTime() {
+        for (LocalDate d = LocalDate.of(1999, 12, 1); d.getYear() < 2026; d = d.plusDays(1)) {
+            int epochDay = (int) d.toEpochDay();
+            assertEquals(epochDay, DateUtils.epochDay(d.getYear(), d.getMonthValue(), d.getDayOfMonth()));
+            assertEquals(d.getDayOfWeek().getValue(), DateUtils.dayOfWeek(epochDay));
+            assertEquals(d.getYear() * 10000 + d.getMonthValue() * 100 + d.getDayOfMonth(),
+                    DateUtils.toYearMonthDay(epochDay));
+        }
+    }
+
+    @Test
+    void parseDateTime_SafeAcrossThreads() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Date>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                results.add(pool.submit(() -> DateUtils.parseDateTime("12/25/2023", "8:05")));
+            }
+            Date expected = DateUtils.parseDateTime("12/25/2023", "8:05");
+            for (Future<Date> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
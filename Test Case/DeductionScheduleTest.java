@@ -0,0 +1,145 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class DeductionScheduleTest {
+
+    // Largest difference from the unrounded legacy value (plus double noise)
+    private static final double HALF_CENTAVO = 0.005 + 1e-9;
+
+    private static final String HEADER = "Effective Date,Deduction,Bracket From,Amount,Rate,Excess Over\n";
+
+    @AfterEach
+    void restoreSchedules() {
+        DeductionsCalculator.setSchedules(List.of(DeductionSchedule.builtIn(Integer.MIN_VALUE)));
+    }
+
+    @Test
+    void builtInMatchesLegacyFormulasToTheCentavo() {
+        DeductionSchedule schedule = DeductionSchedule.builtIn(0);
+        for (long centavos = 0; centavos <= 80_000_000; centavos += 1_250) {
+            double salary = Money.toPesos(centavos);
+            assertEquals(Money.toCentavos(legacySSS(salary)), schedule.sss(centavos), "SSS at " + salary);
+            assertEquals((salary * 0.03) / 2, Money.toPesos(schedule.philHealth(centavos)), HALF_CENTAVO, "PhilHealth at " + salary);
+            assertEquals(10_000, schedule.pagIbig(centavos));
+            assertEquals(legacyTax(salary), Money.toPesos(schedule.tax(centavos)), HALF_CENTAVO, "Tax at " + salary);
+        }
+    }
+
+    @Test
+    void bracketBoundaries() {
+        DeductionSchedule schedule = DeductionSchedule.builtIn(0);
+        assertEquals(13_500, schedule.sss(324_999));
+        assertEquals(15_750, schedule.sss(325_000));
+        assertEquals(13_500 + 44 * 2_250, schedule.sss(100_000_000));
+        assertEquals(0, schedule.tax(2_083_200));
+        assertEquals((33333 - 20833) * 20, schedule.tax(3_333_300));
+        assertEquals(250_000 + 13, schedule.tax(3_333_350)); // 25% of PHP 0.50 rounds up to 13 centavos
+        assertEquals(450, schedule.philHealth(30_000)); // 1.5% of PHP 300
+        assertEquals(2, schedule.philHealth(100)); // 1.5 centavos rounds up
+    }
+
+    @Test
+    void bulkMatchesSingleValues() {
+        DeductionSchedule schedule = DeductionSchedule.builtIn(0);
+        long[] salaries = {0, 300_000, 325_000, 2_475_000, 3_000_033, 9_000_000, 25_000_000, 100_000_000};
+        int n = salaries.length;
+        long[] sss = new long[n], philHealth = new long[n], pagIbig = new long[n], tax = new long[n];
+        schedule.computeMonthly(salaries, sss, philHealth, pagIbig, tax);
+        for (int i = 0; i < n; i++) {
+            assertEquals(schedule.sss(salaries[i]), sss[i]);
+            assertEquals(schedule.philHealth(salaries[i]), philHealth[i]);
+            assertEquals(schedule.pagIbig(salaries[i]), pagIbig[i]);
+            assertEquals(schedule.tax(salaries[i] - (sss[i] + philHealth[i] + pagIbig[i])), tax[i]);
+        }
+    }
+
+    @Test
+    void loadsSchedulesAndSelectsByDate() throws IOException {
+        Path file = Files.createTempFile("schedules", ".csv");
+        Files.writeString(file, HEADER
+                + schedule("01/01/2023", 100)
+                + schedule("01/01/2024", 200)
+                + "# Comment lines are ignored\n");
+        DeductionsCalculator.loadSchedules(file.toString());
+
+        int day2023 = DateUtils.epochDay(2023, 6, 30);
+        int day2024 = DateUtils.epochDay(2024, 1, 1);
+        assertEquals(10_000, DeductionsCalculator.scheduleFor(day2023).pagIbig(3_000_000));
+        assertEquals(20_000, DeductionsCalculator.scheduleFor(day2024).pagIbig(3_000_000));
+        assertEquals(10_000, DeductionsCalculator.scheduleFor(DateUtils.epochDay(2020, 1, 1)).pagIbig(3_000_000));
+        assertEquals(200.0, DeductionsCalculator.calculateSSS(5000)); // latest schedule
+        assertEquals(60_000, DeductionsCalculator.scheduleFor(day2024).philHealth(3_000_000));
+        assertEquals(0, DeductionsCalculator.scheduleFor(day2024).tax(2_000_000));
+        assertEquals(20 * (30000 - 20833), DeductionsCalculator.scheduleFor(day2024).tax(3_000_000));
+        Files.delete(file);
+    }
+
+    @Test
+    void shippedScheduleMatchesBuiltIn() throws IOException {
+        DeductionsCalculator.loadSchedules("src/MotorPH Deduction Schedules.csv");
+        DeductionSchedule builtIn = DeductionSchedule.builtIn(0);
+        DeductionSchedule shipped = DeductionsCalculator.scheduleFor(DateUtils.epochDay(2024, 6, 24));
+        for (long salary = 0; salary <= 80_000_000; salary += 9_725) {
+            assertEquals(builtIn.sss(salary), shipped.sss(salary));
+            assertEquals(builtIn.philHealth(salary), shipped.philHealth(salary));
+            assertEquals(builtIn.pagIbig(salary), shipped.pagIbig(salary));
+            assertEquals(builtIn.tax(salary), shipped.tax(salary));
+        }
+    }
+
+    @Test
+    void rejectsIncompleteSchedule() throws IOException {
+        Path file = Files.createTempFile("schedules", ".csv");
+        Files.writeString(file, HEADER + "01/01/2024,SSS,,135,,\n01/01/2024,TAX,,0,,\n");
+        IOException e = assertThrows(IOException.class, () -> DeductionsCalculator.loadSchedules(file.toString()));
+        assertTrue(e.getMessage().contains("PHILHEALTH"));
+        assertEquals(135.0, DeductionsCalculator.calculateSSS(3000)); // Active schedule unchanged
+        Files.delete(file);
+    }
+
+    @Test
+    void rejectsInvalidRows() throws IOException {
+        Path file = Files.createTempFile("schedules", ".csv");
+        Files.writeString(file, HEADER + schedule("01/01/2024", 100) + "01/01/2024,SSS,abc,135,,\n");
+        IOException e = assertThrows(IOException.class, () -> DeductionsCalculator.loadSchedules(file.toString()));
+        assertTrue(e.getMessage().startsWith("Line 7"));
+
+        Files.writeString(file, HEADER + "2024-01-01,SSS,,135,,\n");
+        assertThrows(IOException.class, () -> DeductionsCalculator.loadSchedules(file.toString()));
+
+        Files.writeString(file, HEADER + schedule("01/01/2024", 100) + "01/01/2024,SSS,,140,,\n");
+        e = assertThrows(IOException.class, () -> DeductionsCalculator.loadSchedules(file.toString()));
+        assertTrue(e.getMessage().contains("ascending"));
+        Files.delete(file);
+    }
+
+    // Flat SSS and Pag-IBIG of the given amount, 2% PhilHealth, 20% tax above 20,833
+    private static String schedule(String date, int flat) {
+        return date + ",SSS,," + flat + ",,\n"
+                + date + ",PHILHEALTH,,,0.02,\n"
+                + date + ",PAGIBIG,," + flat + ",,\n"
+                + date + ",TAX,,0,,\n"
+                + date + ",TAX,20832,0,0.20,20833\n";
+    }
+
+    private static double legacySSS(double salary) {
+        if (salary < 3250) return 135.0;
+        int steps = Math.min((int) ((salary - 3250) / 500) + 1, 44);
+        return 135.0 + steps * 22.50;
+    }
+
+    private static double legacyTax(double taxableIncome) {
+        if (taxableIncome <= 20832) return 0.0;
+        if (taxableIncome <= 33333) return (taxableIncome - 20833) * 0.20;
+        if (taxableIncome <= 66667) return ((taxableIncome - 33333) * 0.25) + 2500;
+        if (taxableIncome <= 166667) return ((taxableIncome - 66667) * 0.30) + 10833;
+        if (taxableIncome <= 666667) return ((taxableIncome - 166667) * 0.32) + 40833.33;
+        return ((taxableIncome - 666667) * 0.35) + 200833.33;
+    }
+}
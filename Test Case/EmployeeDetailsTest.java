@@ -34,4 +34,38 @@ class EmployeeDetailsTest {
                 () -> EmployeeDetails.parseEmployeeLine(line)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void toNumericId_KeepsDistinctIdsApart() {
+        assertEquals(10001, EmployeeDetails.toNumericId("10001"));
+        assertEquals(0, EmployeeDetails.toNumericId("0"));
+        // Leading zeros and IDs too long for an int take the non-numeric path
+        int padded = EmployeeDetails.toNumericId("010001");
+        int tooLong = EmployeeDetails.toNumericId("99999999999");
+        assertTrue(padded < 0);
+        assertTrue(tooLong < 0);
+        assertNotEquals(padded, tooLong);
+        assertEquals(padded, EmployeeDetails.toNumericId("010001"));
+        assertEquals(tooLong, EmployeeDetails.toNumericId("x99999999999", 1, 12));
+    }
+
+    @Test
+    void toEmployeeId_ReversesToNumericId() {
+        for (String id : new String[] {"10001", "0", "010001", "99999999999", "EMP001"}) {
+            assertEquals(id, EmployeeDetails.toEmployeeId(EmployeeDetails.toNumericId(id)));
+        }
+        assertNull(EmployeeDetails.toEmployeeId(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void findNumericId_DoesNotAssignIds() {
+        int assigned = EmployeeDetails.nonNumericIdCount();
+        assertEquals(10001, EmployeeDetails.findNumericId("10001"));
+        assertEquals(EmployeeDetails.UNKNOWN_ID, EmployeeDetails.findNumericId("NEVER-SEEN"));
+        assertEquals(EmployeeDetails.UNKNOWN_ID, EmployeeDetails.findNumericId("0999999"));
+        assertEquals(assigned, EmployeeDetails.nonNumericIdCount());
+
+        int known = EmployeeDetails.toNumericId("EMP-KNOWN");
+        assertEquals(known, EmployeeDetails.findNumericId("EMP-KNOWN"));
+    }
+}
@@ -0,0 +1,34 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class EmployeeTest {
+
+    @Test
+    void readEmployees_ParsesMoneyIntoCentavos() throws IOException {
+        Map<Integer, Employee> employees =
+                EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv");
+        Employee garcia = employees.get(10001);
+
+        assertEquals("Garcia", garcia.lastName());
+        assertEquals(9_000_000L, garcia.basicSalaryCentavos()); // "90,000"
+        assertEquals(150_000L, garcia.riceSubsidyCentavos());   // "1,500"
+        assertEquals(53_571L, garcia.hourlyRateCentavos());     // "535.71"
+    }
+
+    @Test
+    void parseCentavos_HandlesSeparatorsAndRounding() {
+        assertEquals(25_580L, Money.parseCentavos("255.8"));
+        assertEquals(4_298_990L, Money.parseCentavos("\"42,989.90\""));
+        assertEquals(13_394L, Money.parseCentavos("133.935"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCentavos("N/A"));
+    }
+
+    @Test
+    void toPesos_MatchesParsedDouble() {
+        for (String amount : new String[] {"535.71", "357.14", "313.51", "255.8", "133.93"}) {
+            assertEquals(Double.parseDouble(amount), Money.toPesos(Money.parseCentavos(amount)));
+        }
+    }
+}
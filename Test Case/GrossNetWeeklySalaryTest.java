@@ -1,8 +1,11 @@
 import static org.junit.jupiter.api.Assertions.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SplittableRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -40,4 +43,73 @@ class GrossNetWeeklySalaryTest {
 
         assertFalse(data.isLastWeek); // Now passes!
     }
-}
\ No newline at end of file
+
+    @Test
+    void centavoPayslipReconcilesWithBigDecimal() {
+        SplittableRandom random = new SplittableRandom(42);
+        int lastWeek = DateUtils.epochDay(2024, 6, 24);
+        int otherWeek = DateUtils.epochDay(2024, 6, 10);
+        WeeklyAggregateStore totals = new WeeklyAggregateStore();
+
+        for (int i = 0; i < 2000; i++) {
+            String[] empData = new String[19];
+            empData[EmployeeDetails.IDX_EMPLOYEE_ID] = String.valueOf(50000 + i);
+            empData[EmployeeDetails.IDX_HOURLY_RATE] = Money.format(random.nextLong(10_000, 100_000));
+            empData[EmployeeDetails.IDX_BASIC_SALARY] = Money.format(random.nextLong(1_000_000, 20_000_000));
+            empData[EmployeeDetails.IDX_RICE_SUBSIDY] = Money.format(random.nextLong(0, 200_000));
+            empData[EmployeeDetails.IDX_PHONE_ALLOWANCE] = Money.format(random.nextLong(0, 200_000));
+            empData[EmployeeDetails.IDX_CLOTHING_ALLOWANCE] = Money.format(random.nextLong(0, 100_000));
+            Employee employee = Employee.fromFields(empData);
+
+            int week = i % 2 == 0 ? lastWeek : otherWeek;
+            long overtime = random.nextLong(0, 600);
+            long underTime = random.nextLong(0, 300);
+            long late = random.nextLong(0, 300);
+            totals.add(employee.id(), week, 40 - underTime / 60.0, overtime / 60.0, underTime / 60.0, late / 60.0);
+
+            GrossNetWeeklySalary.SalaryData data =
+                    GrossNetWeeklySalary.computePayslip(employee, DateUtils.toDate(week, 0), totals);
+            BigDecimal expected = referenceNetPay(employee, overtime, underTime, late, data.isLastWeek);
+            assertEquals(expected, BigDecimal.valueOf(data.netPayCentavos, 2), "Employee " + i);
+            assertEquals(data.grossWeeklyCentavos - data.totalDeductionsCentavos, data.netPayCentavos);
+        }
+    }
+
+    // Net pay with BigDecimal, each pay line rounded half-up to the centavo
+    private static BigDecimal referenceNetPay(Employee e, long overtime, long underTime, long late, boolean lastWeek) {
+        BigDecimal rate = BigDecimal.valueOf(e.hourlyRateCentavos(), 2);
+        BigDecimal salary = BigDecimal.valueOf(e.basicSalaryCentavos(), 2);
+        BigDecimal hour = BigDecimal.valueOf(60);
+        BigDecimal gross = salary.divide(BigDecimal.valueOf(4), 2, RoundingMode.HALF_UP)
+                .subtract(rate.multiply(BigDecimal.valueOf(late)).divide(hour, 2, RoundingMode.HALF_UP))
+                .subtract(rate.multiply(BigDecimal.valueOf(underTime)).divide(hour, 2, RoundingMode.HALF_UP))
+                .add(rate.multiply(BigDecimal.valueOf(overtime)).multiply(new BigDecimal("1.25"))
+                        .divide(hour, 2, RoundingMode.HALF_UP));
+        if (!lastWeek) return gross;
+
+        BigDecimal allowances = BigDecimal.valueOf(e.riceSubsidyCentavos() + e.phoneAllowanceCentavos()
+                + e.clothingAllowanceCentavos(), 2);
+        gross = gross.add(allowances.divide(BigDecimal.valueOf(4), 2, RoundingMode.HALF_UP));
+
+        BigDecimal sss = BigDecimal.valueOf(DeductionsCalculator.calculateSSS(salary.doubleValue()))
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal philHealth = salary.multiply(new BigDecimal("0.015")).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal contributions = sss.add(philHealth).add(new BigDecimal("100.00"));
+        BigDecimal taxable = salary.subtract(contributions);
+
+        BigDecimal[][] brackets = { // exclusive lower bound, base tax, rate, excess over
+                {new BigDecimal("666667"), new BigDecimal("200833.33"), new BigDecimal("0.35"), new BigDecimal("666667")},
+                {new BigDecimal("166667"), new BigDecimal("40833.33"), new BigDecimal("0.32"), new BigDecimal("166667")},
+                {new BigDecimal("66667"), new BigDecimal("10833"), new BigDecimal("0.30"), new BigDecimal("66667")},
+                {new BigDecimal("33333"), new BigDecimal("2500"), new BigDecimal("0.25"), new BigDecimal("33333")},
+                {new BigDecimal("20832"), BigDecimal.ZERO, new BigDecimal("0.20"), new BigDecimal("20833")}};
+        BigDecimal tax = BigDecimal.ZERO;
+        for (BigDecimal[] bracket : brackets) {
+            if (taxable.compareTo(bracket[0]) > 0) {
+                tax = bracket[1].add(taxable.subtract(bracket[3]).multiply(bracket[2]));
+                break;
+            }
+        }
+        return gross.subtract(contributions).subtract(tax.setScale(2, RoundingMode.HALF_UP));
+    }
+}
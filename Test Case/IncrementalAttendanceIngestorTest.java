@@ -0,0 +1,165 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalAttendanceIngestorTest {
+
+    private static final String ATTENDANCE_FILE = "Test Case/resources/valid_attendance.csv";
+
+    private Path attendance;
+    private Path checkpoint;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        attendance = Files.createTempFile("attendance", ".csv");
+        checkpoint = Files.createTempFile("attendance", ".checkpoint");
+        Files.delete(checkpoint);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(attendance);
+        Files.deleteIfExists(checkpoint);
+    }
+
+    @Test
+    void ingest_ResumesWithOnlyAppendedLines() throws IOException {
+        List<String> lines = Files.readAllLines(Path.of(ATTENDANCE_FILE));
+        int half = lines.size() / 2;
+        Files.write(attendance, lines.subList(0, half));
+
+        assertFalse(IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString()));
+        assertTrue(Files.exists(checkpoint));
+
+        // Next run: append the rest and resume from the checkpoint
+        Files.write(attendance, lines.subList(half, lines.size()), StandardOpenOption.APPEND);
+        WeeklyWorkedHours.weeklyTotals.clear();
+        assertTrue(IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString()));
+
+        assertSameTotals(fullIngest(attendance), WeeklyWorkedHours.weeklyTotals);
+    }
+
+    @Test
+    void ingest_ReportsLineNumbersAfterResuming() throws IOException {
+        List<String> lines = Files.readAllLines(Path.of(ATTENDANCE_FILE));
+        Files.write(attendance, lines);
+        IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString());
+
+        Files.write(attendance, List.of("10001,Garcia"), StandardOpenOption.APPEND);
+        Path rejects = Files.createTempFile("rejects", ".csv");
+        RejectedRecords.open(rejects, 16);
+        try {
+            assertTrue(IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString()));
+        } finally {
+            RejectedRecords.close();
+            RejectedRecords.reset();
+        }
+        assertTrue(Files.readAllLines(rejects).get(1).startsWith("attendance," + (lines.size() + 1) + ","));
+        Files.delete(rejects);
+    }
+
+    @Test
+    void ingest_RereadsFileWhenCheckpointIsStale() throws IOException {
+        Files.copy(Path.of(ATTENDANCE_FILE), attendance, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString());
+
+        // Rewrite the file with an edited first record
+        List<String> lines = Files.readAllLines(attendance);
+        lines.set(1, lines.get(1).replace("8:59", "8:00"));
+        Files.write(attendance, lines);
+        WeeklyWorkedHours.weeklyTotals.clear();
+        assertFalse(IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString()));
+
+        assertSameTotals(fullIngest(attendance), WeeklyWorkedHours.weeklyTotals);
+    }
+
+    @Test
+    void ingest_RereadsFileWhenShiftsChanged() throws IOException {
+        Files.copy(Path.of(ATTENDANCE_FILE), attendance, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        Path shifts = Files.createTempFile("shifts", ".csv");
+        Files.delete(shifts);
+        String previous = System.setProperty(PayrollConfig.SHIFTS_FILE, shifts.toString());
+        try {
+            IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString());
+            WeeklyWorkedHours.weeklyTotals.clear();
+            assertTrue(IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString()));
+
+            Files.writeString(shifts, "Shift,Start,End,Break Start,Break End,Grace,Employees,Positions\n");
+            WeeklyWorkedHours.weeklyTotals.clear();
+            assertFalse(IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString()));
+        } finally {
+            if (previous == null) System.clearProperty(PayrollConfig.SHIFTS_FILE);
+            else System.setProperty(PayrollConfig.SHIFTS_FILE, previous);
+            Files.deleteIfExists(shifts);
+        }
+    }
+
+    @Test
+    void ingest_LeavesUnfinishedLineForNextRun() throws IOException {
+        String header = "Employee #,Last Name,First Name,Date,Log In,Log Out\n";
+        Files.write(attendance, (header + "10001,Garcia,Manuel III,06/03/2024,8:00,17:00\n"
+                + "EMP9,Garcia,Manuel III,06/04/2024,8:00,1").getBytes(StandardCharsets.US_ASCII));
+        IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString());
+        int week = DateUtils.weekStart(DateUtils.epochDay(2024, 6, 3));
+        assertEquals(WeeklyAggregateStore.NOT_FOUND,
+                WeeklyWorkedHours.weeklyTotals.find(EmployeeDetails.toNumericId("EMP9"), week));
+
+        // The line is finished by the next append; non-numeric IDs survive the checkpoint
+        Files.write(attendance, "8:00\n".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+        WeeklyWorkedHours.weeklyTotals.clear();
+        IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString());
+        Files.write(attendance, "EMP9,Garcia,Manuel III,06/05/2024,8:00,17:00\n".getBytes(StandardCharsets.US_ASCII),
+                StandardOpenOption.APPEND);
+        WeeklyWorkedHours.weeklyTotals.clear();
+        assertTrue(IncrementalAttendanceIngestor.ingest(attendance.toString(), checkpoint.toString()));
+
+        WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+        int row = totals.find(EmployeeDetails.toNumericId("EMP9"), week);
+        assertEquals(2, totals.size());
+        assertEquals(1.0, totals.overtimeHours(row), 0.001);
+    }
+
+    // Reads the whole file the regular way into a fresh copy of the totals
+    private static WeeklyAggregateStore fullIngest(Path file) throws IOException {
+        WeeklyAggregateStore incremental = WeeklyWorkedHours.weeklyTotals;
+        WeeklyAggregateStore copy = new WeeklyAggregateStore();
+        for (int row = 0; row < incremental.size(); row++) {
+            copy.add(incremental.employeeId(row), incremental.weekStart(row), incremental.regularHours(row),
+                    incremental.overtimeHours(row), incremental.underTimeHours(row), incremental.lateHours(row));
+        }
+        incremental.clear();
+        WeeklyWorkedHours.processAttendanceFile(file.toString(), 1);
+
+        WeeklyAggregateStore full = new WeeklyAggregateStore();
+        for (int row = 0; row < incremental.size(); row++) {
+            full.add(incremental.employeeId(row), incremental.weekStart(row), incremental.regularHours(row),
+                    incremental.overtimeHours(row), incremental.underTimeHours(row), incremental.lateHours(row));
+        }
+        incremental.clear();
+        for (int row = 0; row < copy.size(); row++) {
+            incremental.add(copy.employeeId(row), copy.weekStart(row), copy.regularHours(row),
+                    copy.overtimeHours(row), copy.underTimeHours(row), copy.lateHours(row));
+        }
+        return full;
+    }
+
+    private static void assertSameTotals(WeeklyAggregateStore expected, WeeklyAggregateStore actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            int other = actual.find(expected.employeeId(row), expected.weekStart(row));
+            assertNotEquals(WeeklyAggregateStore.NOT_FOUND, other);
+            assertEquals(expected.regularHours(row), actual.regularHours(other), 1e-9);
+            assertEquals(expected.overtimeHours(row), actual.overtimeHours(other), 1e-9);
+            assertEquals(expected.underTimeHours(row), actual.underTimeHours(other), 1e-9);
+            assertEquals(expected.lateHours(row), actual.lateHours(other), 1e-9);
+        }
+    }
+}
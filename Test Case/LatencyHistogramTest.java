@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBounds_ContainTheirValues() {
+        long[] values = {0, 1, 63, 64, 65, 127, 128, 1_000, 123_456, 1L << 40, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(upper >= value, "Upper bound of " + value);
+            if (index > 0) assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value, "Lower bound of " + value);
+            assertTrue(upper - value <= value / 32, "Precision at " + value);
+        }
+    }
+
+    @Test
+    void percentiles_WithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) histogram.record(v);
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(10_000, histogram.max());
+        assertEquals(5_000.5, histogram.mean(), 1e-9);
+        assertEquals(5_000, histogram.percentile(50), 5_000 / 32.0);
+        assertEquals(9_900, histogram.percentile(99), 9_900 / 32.0);
+        assertEquals(10_000, histogram.percentile(100));
+    }
+
+    @Test
+    void emptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0.0, histogram.mean());
+
+        histogram.record(42);
+        histogram.record(-5); // Recorded as 0
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.percentile(0));
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    void concurrentRecording_CountsEveryValue() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) histogram.record(i);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(80_000, histogram.count());
+        assertEquals(8L * (9_999L * 10_000 / 2), histogram.sum());
+        assertEquals(9_999, histogram.max());
+    }
+}
@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MappedAttendanceReaderTest {
+
+    private static final String ATTENDANCE_FILE = "Test Case/resources/valid_attendance.csv";
+
+    @BeforeEach
+    void resetTotals() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @Test
+    void ingest_MatchesBufferedReader() throws IOException {
+        System.setProperty(PayrollConfig.INGEST_MMAP, "false");
+        try {
+            WeeklyWorkedHours.processAttendanceFile(ATTENDANCE_FILE, 1);
+        } finally {
+            System.clearProperty(PayrollConfig.INGEST_MMAP);
+        }
+        WeeklyAggregateStore buffered = WeeklyWorkedHours.weeklyTotals;
+        int rows = buffered.size();
+        int row = buffered.find(10001, DateUtils.weekStart(DateUtils.epochDay(2024, 6, 3)));
+        double regular = buffered.regularHours(row);
+        double late = buffered.lateHours(row);
+        resetTotals();
+
+        MappedAttendanceReader.ingest(ATTENDANCE_FILE);
+
+        assertEquals(rows, WeeklyWorkedHours.weeklyTotals.size());
+        row = WeeklyWorkedHours.weeklyTotals.find(10001, DateUtils.weekStart(DateUtils.epochDay(2024, 6, 3)));
+        assertEquals(regular, WeeklyWorkedHours.weeklyTotals.regularHours(row));
+        assertEquals(late, WeeklyWorkedHours.weeklyTotals.lateHours(row));
+    }
+
+    @Test
+    void scan_HandlesCrLfAndMissingFinalNewline() throws IOException {
+        Path file = Files.createTempFile("attendance", ".csv");
+        Files.write(file, ("10001,Garcia,Manuel III,06/03/2024,8:00,17:00\r\n"
+                + "10001,Garcia,Manuel III,06/04/2024,8:00,18:00").getBytes(StandardCharsets.US_ASCII));
+
+        List<WeeklyWorkedHours.DailyAttendance> days = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedAttendanceReader.scan(channel, 0, channel.size(), 1, day -> days.add(day.toAttendance()));
+        }
+        Files.delete(file);
+
+        assertEquals(2, days.size());
+        assertEquals(1.0, days.get(1).result.overtime, 0.001);
+    }
+
+    @Test
+    void skipHeader_FindsHeaderEndPastFirstWindow() throws IOException {
+        Path file = Files.createTempFile("attendance", ".csv");
+        String header = "Employee #,Last Name,First Name,Date,Log In,Log Out"
+                + ",x".repeat(MappedAttendanceReader.HEADER_WINDOW_BYTES) + "\n";
+        Files.writeString(file, header + "10001,Garcia,Manuel III,06/03/2024,8:00,17:00\n");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(header.length(), MappedAttendanceReader.skipHeader(channel, channel.size()));
+        }
+
+        MappedAttendanceReader.ingest(file.toString());
+        assertEquals(1, WeeklyWorkedHours.weeklyTotals.size());
+        Files.delete(file);
+    }
+
+    @Test
+    void skipHeader_UnterminatedHeaderIsWholeFile() throws IOException {
+        Path file = Files.createTempFile("attendance", ".csv");
+        Files.writeString(file, "Employee #,Last Name,First Name,Date,Log In,Log Out");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(channel.size(), MappedAttendanceReader.skipHeader(channel, channel.size()));
+        }
+        Files.delete(file);
+    }
+}
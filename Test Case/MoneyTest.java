@@ -0,0 +1,48 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    @Test
+    void parseCentavos() {
+        assertEquals(9_000_000, Money.parseCentavos("90,000"));
+        assertEquals(53_571, Money.parseCentavos("535.71"));
+        assertEquals(25_580, Money.parseCentavos("255.8"));
+        assertEquals(101, Money.parseCentavos("1.005"));
+        assertEquals(-150, Money.parseCentavos("-1.50"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCentavos("abc"));
+    }
+
+    @Test
+    void parseFixedWithOtherScales() {
+        assertEquals(15_000, Money.parseFixed("0.015", 6));
+        assertEquals(200_000, Money.parseFixed(".2", 6));
+        assertEquals(3, Money.parseFixed("2.5", 0));
+        assertEquals(12, Money.parseFixed("12", 0));
+    }
+
+    @Test
+    void scaleRoundsHalfAwayFromZero() {
+        assertEquals(2, Money.scale(100, 15_000, 1_000_000));   // 1.5 -> 2
+        assertEquals(1, Money.scale(100, 14_999, 1_000_000));   // 1.4999 -> 1
+        assertEquals(-2, Money.scale(-100, 15_000, 1_000_000)); // -1.5 -> -2
+        assertEquals(2_250_000, Money.scale(9_000_000, 1, 4));
+        assertEquals(13, Money.scale(50, 1, 4));                // 12.5 -> 13
+        assertThrows(ArithmeticException.class, () -> Money.scale(Long.MAX_VALUE, 2, 1));
+    }
+
+    @Test
+    void convertsAndFormats() {
+        assertEquals(300_000, Money.toCentavos(3000));
+        assertEquals(-125, Money.toCentavos(-1.25));
+        assertEquals("1234.50", Money.format(123_450));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("0.00", Money.format(0));
+        assertEquals(1234.5, Money.toPesos(123_450));
+        assertEquals("1,234.50", Money.formatGrouped(123_450));
+        assertEquals("-1,234,567.05", Money.formatGrouped(-123_456_705));
+        assertEquals("999.99", Money.formatGrouped(99_999));
+        assertEquals("0.00", Money.formatGrouped(0));
+    }
+}
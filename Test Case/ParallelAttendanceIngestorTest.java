@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelAttendanceIngestorTest {
+
+    private static final String ATTENDANCE_FILE = "Test Case/resources/valid_attendance.csv";
+
+    @BeforeEach
+    void resetTotals() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @Test
+    void ingest_MatchesSerialTotals() throws IOException {
+        WeeklyWorkedHours.processAttendanceFile(ATTENDANCE_FILE, 1);
+        WeeklyAggregateStore serial = copyOf(WeeklyWorkedHours.weeklyTotals);
+        resetTotals();
+
+        // Small chunks force many line-aligned splits across 4 threads
+        ParallelAttendanceIngestor.ingest(ATTENDANCE_FILE, 4, 4096);
+        WeeklyAggregateStore parallel = WeeklyWorkedHours.weeklyTotals;
+
+        assertEquals(serial.size(), parallel.size());
+        for (int row = 0; row < serial.size(); row++) {
+            int match = parallel.find(serial.employeeId(row), serial.weekStart(row));
+            assertEquals(serial.regularHours(row), parallel.regularHours(match));
+            assertEquals(serial.overtimeHours(row), parallel.overtimeHours(match));
+            assertEquals(serial.underTimeHours(row), parallel.underTimeHours(match));
+            assertEquals(serial.lateHours(row), parallel.lateHours(match));
+        }
+    }
+
+    @Test
+    void ingest_SharedTotalsMatchSerialMinutes() throws IOException {
+        WeeklyWorkedHours.processAttendanceFile(ATTENDANCE_FILE, 1);
+        WeeklyAggregateStore serial = copyOf(WeeklyWorkedHours.weeklyTotals);
+
+        // Workers on 4 threads add their chunks' days to shared totals, buffered and mapped
+        for (String mmapMinBytes : new String[] {String.valueOf(Long.MAX_VALUE), "0"}) {
+            resetTotals();
+            System.setProperty(PayrollConfig.INGEST_SHARED_TOTALS, "true");
+            System.setProperty(PayrollConfig.INGEST_MMAP_MIN_BYTES, mmapMinBytes);
+            try {
+                ParallelAttendanceIngestor.ingest(ATTENDANCE_FILE, 4, 4096);
+            } finally {
+                System.clearProperty(PayrollConfig.INGEST_SHARED_TOTALS);
+                System.clearProperty(PayrollConfig.INGEST_MMAP_MIN_BYTES);
+            }
+            WeeklyAggregateStore shared = WeeklyWorkedHours.weeklyTotals;
+
+            assertEquals(serial.size(), shared.size());
+            for (int row = 0; row < serial.size(); row++) {
+                int match = shared.find(serial.employeeId(row), serial.weekStart(row));
+                assertEquals(minutes(serial.regularHours(row)), minutes(shared.regularHours(match)));
+                assertEquals(minutes(serial.overtimeHours(row)), minutes(shared.overtimeHours(match)));
+                assertEquals(minutes(serial.underTimeHours(row)), minutes(shared.underTimeHours(match)));
+                assertEquals(minutes(serial.lateHours(row)), minutes(shared.lateHours(match)));
+            }
+        }
+    }
+
+    private static long minutes(double hours) {
+        return Math.round(hours * 60);
+    }
+
+    private static WeeklyAggregateStore copyOf(WeeklyAggregateStore source) {
+        WeeklyAggregateStore copy = new WeeklyAggregateStore();
+        for (int row = 0; row < source.size(); row++) {
+            copy.add(source.employeeId(row), source.weekStart(row), source.regularHours(row),
+                    source.overtimeHours(row), source.underTimeHours(row), source.lateHours(row));
+        }
+        return copy;
+    }
+
+    @Test
+    void splitIntoChunks_AlignsOnLineBoundaries() throws IOException {
+        List<long[]> chunks = ParallelAttendanceIngestor.splitIntoChunks(ATTENDANCE_FILE, 1000);
+        assertTrue(chunks.size() > 1);
+        for (int i = 1; i < chunks.size(); i++) {
+            assertEquals(chunks.get(i - 1)[1], chunks.get(i)[0]); // Contiguous ranges
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import org.junit.jupiter.api.Test;
+
+class PayPeriodTest {
+
+    @Test
+    void periods_MatchJavaTimeOverSeveralYears() {
+        for (LocalDate date = LocalDate.of(1999, 12, 1); date.getYear() < 2026; date = date.plusDays(1)) {
+            int day = (int) date.toEpochDay();
+            LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            LocalDate sunday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+            LocalDate half = date.getDayOfMonth() < 16 ? date.withDayOfMonth(1) : date.withDayOfMonth(16);
+            LocalDate halfEnd = date.getDayOfMonth() < 16 ? date.withDayOfMonth(15) : date.withDayOfMonth(date.lengthOfMonth());
+
+            assertEquals(monday.toEpochDay(), PayPeriod.MONDAY_WEEK.start(day), date::toString);
+            assertEquals(monday.toEpochDay() + 6, PayPeriod.MONDAY_WEEK.end(day), date::toString);
+            assertEquals(sunday.toEpochDay(), PayPeriod.SUNDAY_WEEK.start(day), date::toString);
+            assertEquals(sunday.toEpochDay() + 6, PayPeriod.SUNDAY_WEEK.end(day), date::toString);
+            assertEquals(half.toEpochDay(), PayPeriod.SEMI_MONTHLY.start(day), date::toString);
+            assertEquals(halfEnd.toEpochDay(), PayPeriod.SEMI_MONTHLY.end(day), date::toString);
+            assertEquals(date.withDayOfMonth(1).toEpochDay(), PayPeriod.CALENDAR_MONTH.start(day), date::toString);
+            assertEquals(date.withDayOfMonth(date.lengthOfMonth()).toEpochDay(), PayPeriod.CALENDAR_MONTH.end(day), date::toString);
+        }
+        assertEquals(DateUtils.weekStart(-1), PayPeriod.MONDAY_WEEK.start(-1)); // Before 1970
+    }
+
+    @Test
+    void forName_AcceptsIdsAndConstantNames() {
+        assertEquals(PayPeriod.SEMI_MONTHLY, PayPeriod.forName("semi-monthly"));
+        assertEquals(PayPeriod.CALENDAR_MONTH, PayPeriod.forName(" Month "));
+        assertEquals(PayPeriod.SUNDAY_WEEK, PayPeriod.forName("SUNDAY_WEEK"));
+        assertNull(PayPeriod.forName("fortnight"));
+        assertNull(PayPeriod.forName(null));
+    }
+
+    @Test
+    void aggregate_RebucketsIndexedDaysWithoutReparsing() {
+        AttendanceIndex index = new AttendanceIndex();
+        WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+        day.employeeId = 10001;
+        day.regularMinutes = 480;
+        for (int d = 1; d <= 30; d++) {
+            day.epochDay = DateUtils.epochDay(2024, 6, d);
+            if (!DateUtils.isWeekend(day.epochDay)) index.add(day);
+        }
+
+        WeeklyAggregateStore halves = index.aggregate(PayPeriod.SEMI_MONTHLY);
+        assertEquals(2, halves.size());
+        assertEquals(10 * 8.0, halves.regularHours(halves.find(10001, DateUtils.epochDay(2024, 6, 1))), 1e-9);
+        assertEquals(10 * 8.0, halves.regularHours(halves.find(10001, DateUtils.epochDay(2024, 6, 16))), 1e-9);
+
+        WeeklyAggregateStore month = index.aggregate(PayPeriod.CALENDAR_MONTH);
+        assertEquals(1, month.size());
+        assertEquals(20 * 8.0, month.regularHours(0), 1e-9);
+        assertEquals(10, index.period(10001, PayPeriod.SEMI_MONTHLY, DateUtils.epochDay(2024, 6, 20)).size());
+    }
+}
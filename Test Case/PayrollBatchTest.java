@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PayrollBatchTest {
+
+    @BeforeEach
+    void resetTotals() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @Test
+    void runPayroll_WritesRowPerEmployeeWeek() throws IOException {
+        Map<Integer, Employee> employees =
+                EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv");
+        WeeklyWorkedHours.processAttendanceFile("Test Case/resources/valid_attendance.csv");
+        int weeks = WeeklyWorkedHours.getWeekStartDates().size();
+
+        Path register = Files.createTempFile("register", ".csv");
+        int payslips = PayrollBatch.runPayroll(employees, register.toString());
+
+        List<String> lines = Files.readAllLines(register);
+        assertEquals(employees.size() * weeks, payslips);
+        assertEquals(payslips + 1, lines.size()); // header + one row per payslip
+        assertTrue(lines.get(0).startsWith("Employee #,"));
+        Files.delete(register);
+    }
+
+    @Test
+    void runPayroll_WritesTextRegisterWithTotals() throws IOException {
+        Map<Integer, Employee> employees =
+                EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv");
+        WeeklyWorkedHours.processAttendanceFile("Test Case/resources/valid_attendance.csv");
+
+        Path register = Files.createTempFile("register", ".csv");
+        Path text = Files.createTempFile("register", ".txt");
+        int payslips = PayrollBatch.runPayroll(employees, register.toString(), text.toString());
+
+        List<String> lines = Files.readAllLines(text);
+        assertEquals(payslips + 4, lines.size()); // header, rule, rows, rule, totals
+        assertTrue(lines.get(0).startsWith("Employee #"));
+        assertTrue(lines.get(lines.size() - 1).startsWith("TOTAL (" + payslips + " payslips)"));
+        Files.delete(register);
+        Files.delete(text);
+    }
+}
@@ -0,0 +1,75 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PayrollMetricsTest {
+
+    @BeforeEach
+    void setup() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        PayrollMetrics.reset();
+    }
+
+    @AfterEach
+    void cleanup() {
+        PayrollMetrics.setEnabled(false);
+        PayrollMetrics.reset();
+    }
+
+    @Test
+    void enabled_CountsRowsBySkipReason() throws IOException {
+        Path attendance = Files.createTempFile("attendance", ".csv");
+        Files.write(attendance, List.of(
+                "Employee #,Last Name,First Name,Date,Log In,Log Out",
+                "10001,Garcia,Manuel III,06/03/2024,8:00,17:00",
+                "10001,Garcia,Manuel III,06/04/2024,8:05,18:00",
+                "10001,Garcia,Manuel III,06/08/2024,8:00,17:00",  // Saturday
+                "10001,Garcia,Manuel III,06/05/2024,17:00,8:00",  // Logout before login
+                "10001,Garcia,Manuel III,06/31/2024,8:00,17:00",  // No such date
+                "10001,Garcia"));
+        PayrollMetrics.setEnabled(true);
+        WeeklyWorkedHours.processAttendanceFile(attendance.toString());
+
+        assertEquals(6, PayrollMetrics.rowsRead());
+        assertEquals(1, PayrollMetrics.rowsSkipped(PayrollMetrics.SkipReason.WEEKEND));
+        assertEquals(1, PayrollMetrics.rowsSkipped(PayrollMetrics.SkipReason.INVALID_RANGE));
+        assertEquals(1, PayrollMetrics.rowsSkipped(PayrollMetrics.SkipReason.PARSE_ERROR));
+        assertEquals(1, PayrollMetrics.rowsSkipped(PayrollMetrics.SkipReason.MALFORMED));
+        assertEquals(2, PayrollMetrics.stage(PayrollMetrics.Stage.PARSE).count());
+        assertEquals(2, PayrollMetrics.stage(PayrollMetrics.Stage.COMPUTE).count());
+        assertEquals(2, PayrollMetrics.stage(PayrollMetrics.Stage.AGGREGATE).count());
+        Files.delete(attendance);
+    }
+
+    @Test
+    void enabled_TimesPayslipsAndReports() throws IOException {
+        PayrollMetrics.setEnabled(true);
+        WeeklyWorkedHours.processAttendanceFile("Test Case/resources/valid_attendance.csv");
+        Path register = Files.createTempFile("register", ".csv");
+        int payslips = PayrollBatch.runPayroll(
+                EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv"), register.toString());
+
+        assertEquals(payslips, PayrollMetrics.stage(PayrollMetrics.Stage.PAYSLIP).count());
+        assertTrue(PayrollMetrics.payslipsPerSecond() > 0);
+        String report = PayrollMetrics.report();
+        assertTrue(report.contains("Rows Read"));
+        assertTrue(report.contains("Payslips/s"));
+        assertTrue(report.contains("aggregate"));
+        Files.delete(register);
+    }
+
+    @Test
+    void disabled_RecordsNothing() throws IOException {
+        PayrollMetrics.setEnabled(false);
+        WeeklyWorkedHours.processAttendanceFile("Test Case/resources/valid_attendance.csv");
+
+        assertEquals(0, PayrollMetrics.rowsRead());
+        assertEquals(0, PayrollMetrics.stage(PayrollMetrics.Stage.PARSE).count());
+        assertEquals(0, PayrollMetrics.payslipsPerSecond());
+    }
+}
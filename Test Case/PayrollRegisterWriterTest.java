@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PayrollRegisterWriterTest {
+
+    private static final int WEEK = DateUtils.epochDay(2024, 6, 24);
+
+    @Test
+    void csvRowsMatchRegisterLayout() throws IOException {
+        Path file = Files.createTempFile("register", ".csv");
+        try (PayrollRegisterWriter writer = new PayrollRegisterWriter(file, PayrollRegisterWriter.Format.CSV)) {
+            writer.write(employee("10001", "Garcia", "Manuel III"), WEEK, payslip(123_456_789, true));
+            writer.write(employee("10002", "Lim, Jr.", "Antonio \"Tony\""), WEEK, payslip(-5, false));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertEquals(String.join(",", PayrollRegisterWriter.HEADER), lines.get(0));
+        assertEquals("10001,Garcia,Manuel III,06/24/2024,40.00,1.50,0.25,0.02,"
+                + "1234567.89,100.00,0.05,12.30,3500.00,1234567.89,1125.00,450.00,100.00,2000.00,3675.00,1230892.89",
+                lines.get(1));
+        assertTrue(lines.get(2).startsWith("10002,\"Lim, Jr.\",\"Antonio \"\"Tony\"\"\",06/24/2024,"));
+        assertTrue(lines.get(2).endsWith(",-0.05"));
+        Files.delete(file);
+    }
+
+    @Test
+    void textRegisterAlignsColumnsAndTotals() throws IOException {
+        Path file = Files.createTempFile("register", ".txt");
+        try (PayrollRegisterWriter writer = new PayrollRegisterWriter(file, PayrollRegisterWriter.Format.TEXT)) {
+            writer.write(employee("10001", "Garcia", "Manuel III"), WEEK, payslip(123_456_789, true));
+            writer.write(employee("10002", "Dela Cruz-Villanueva", "Ñino"), WEEK, payslip(100_000, false));
+            assertEquals(2, writer.rows());
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(6, lines.size());
+        int width = lines.get(1).length();
+        for (String line : lines) {
+            assertEquals(width, line.length(), line);
+        }
+        assertTrue(lines.get(2).endsWith(" 1,230,892.89"));
+        assertTrue(lines.get(3).contains("Dela Cruz-Villan Ñino")); // Truncated to the column
+        assertTrue(lines.get(5).startsWith("TOTAL (2 payslips)"));
+        assertTrue(lines.get(5).endsWith(" 1,231,892.89")); // Net pay total
+        Files.delete(file);
+    }
+
+    @Test
+    void streamsMoreRowsThanFitInTheBuffer() throws IOException {
+        Path file = Files.createTempFile("register", ".csv");
+        Employee employee = employee("10001", "Garcia", "Manuel III");
+        GrossNetWeeklySalary.SalaryData data = payslip(2_500_000, false);
+        try (PayrollRegisterWriter writer = new PayrollRegisterWriter(file, PayrollRegisterWriter.Format.CSV)) {
+            for (int i = 0; i < 20_000; i++) {
+                writer.write(employee, WEEK + 7 * (i % 3), data);
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(20_001, lines.size());
+        assertEquals(lines.get(1).substring(30), lines.get(20_000).substring(30));
+        assertTrue(lines.get(2).contains(",07/01/2024,"));
+        Files.delete(file);
+    }
+
+    private static Employee employee(String number, String lastName, String firstName) {
+        String[] fields = new String[19];
+        fields[EmployeeDetails.IDX_EMPLOYEE_ID] = number;
+        fields[EmployeeDetails.IDX_LAST_NAME] = lastName;
+        fields[EmployeeDetails.IDX_FIRST_NAME] = firstName;
+        fields[EmployeeDetails.IDX_HOURLY_RATE] = "0";
+        fields[EmployeeDetails.IDX_BASIC_SALARY] = "0";
+        fields[EmployeeDetails.IDX_RICE_SUBSIDY] = "1500";
+        fields[EmployeeDetails.IDX_PHONE_ALLOWANCE] = "1000";
+        fields[EmployeeDetails.IDX_CLOTHING_ALLOWANCE] = "1000";
+        return Employee.fromFields(fields);
+    }
+
+    // Payslip with the given gross pay; the last week has fixed deductions of PHP 3,675
+    private static GrossNetWeeklySalary.SalaryData payslip(long grossCentavos, boolean lastWeek) {
+        GrossNetWeeklySalary.SalaryData data = new GrossNetWeeklySalary.SalaryData();
+        data.regularHours = 40;
+        data.overtimeHours = 1.5;
+        data.underTime = 0.25;
+        data.lateHours = 1 / 60.0;
+        data.riceSubsidyCentavos = 150_000;
+        data.phoneAllowanceCentavos = 100_000;
+        data.clothingAllowanceCentavos = 100_000;
+        data.basicPayCentavos = grossCentavos;
+        data.lateDeductionCentavos = 10_000;
+        data.underTimeDeductionCentavos = 5;
+        data.overtimePayCentavos = 1_230;
+        data.grossWeeklyCentavos = grossCentavos;
+        data.isLastWeek = lastWeek;
+        if (lastWeek) {
+            data.sssCentavos = 112_500;
+            data.philhealthCentavos = 45_000;
+            data.pagibigCentavos = 10_000;
+            data.taxCentavos = 200_000;
+            data.totalDeductionsCentavos = 367_500;
+        }
+        data.netPayCentavos = grossCentavos - data.totalDeductionsCentavos;
+        return data;
+    }
+}
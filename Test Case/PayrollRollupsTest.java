@@ -0,0 +1,163 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PayrollRollupsTest {
+
+    private final PayrollRollups rollups = new PayrollRollups(DateUtils.epochDay(2023, 1, 1), DateUtils.epochDay(2024, 12, 31));
+
+    @BeforeEach
+    void setup() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @Test
+    void month_SumsWeeksStartingInMonth() {
+        // Mondays of June 2024: 3, 10, 17, 24 (last week); July 1 belongs to July
+        rollups.record(10001, payslip(DateUtils.epochDay(2024, 6, 3), 100, false));
+        rollups.record(10001, payslip(DateUtils.epochDay(2024, 6, 10), 200, false));
+        rollups.record(10001, payslip(DateUtils.epochDay(2024, 6, 24), 400, true));
+        rollups.record(10001, payslip(DateUtils.epochDay(2024, 7, 1), 800, false));
+
+        PayrollRollups.Totals june = rollups.month(10001, 2024, 6);
+        assertEquals(700, june.get(PayrollRollups.Column.GROSS));
+        assertEquals(3, june.get(PayrollRollups.Column.PAYSLIPS));
+        assertEquals(1, june.get(PayrollRollups.Column.DEDUCTION_MONTHS));
+        assertEquals(40, june.totalDeductions());
+        assertEquals(800, rollups.month(10001, 2024, 7).get(PayrollRollups.Column.GROSS));
+        assertEquals(1500, rollups.yearToDate(10001, DateUtils.epochDay(2024, 7, 5)).get(PayrollRollups.Column.GROSS));
+        assertEquals(0, rollups.month(10002, 2024, 6).get(PayrollRollups.Column.GROSS));
+    }
+
+    @Test
+    void record_ReplacesWeekAndHandlesEarlierWeeks() {
+        int june17 = DateUtils.epochDay(2024, 6, 17);
+        rollups.record(10001, payslip(june17, 100, false));
+        rollups.record(10001, payslip(june17 + 2, 150, false)); // Same week, recomputed
+        rollups.record(10001, payslip(DateUtils.epochDay(2024, 1, 8), 50, false)); // Earlier week
+
+        assertEquals(150, rollups.month(10001, 2024, 6).get(PayrollRollups.Column.GROSS));
+        assertEquals(200, rollups.year(10001, 2024).get(PayrollRollups.Column.GROSS));
+        assertEquals(2, rollups.year(10001, 2024).get(PayrollRollups.Column.PAYSLIPS));
+        assertEquals(50, rollups.range(10001, DateUtils.epochDay(2024, 1, 1), june17 - 1).get(PayrollRollups.Column.GROSS));
+    }
+
+    @Test
+    void rangeTotals_MatchWeekByWeekSums() {
+        int first = DateUtils.epochDay(2023, 1, 2);
+        long[] gross = new long[104];
+        for (int w = gross.length - 1; w >= 0; w -= 2) { // Every other week, in reverse
+            gross[w] = 1000 + w;
+            rollups.record(10001, payslip(first + w * 7, gross[w], false));
+        }
+        for (int w = 1; w < gross.length; w += 2) {
+            gross[w] = 3 * w;
+            rollups.record(10001, payslip(first + w * 7, gross[w], false));
+        }
+
+        for (int from = 0; from < gross.length; from += 7) {
+            for (int to = from; to < gross.length; to += 5) {
+                long expected = 0;
+                for (int w = from; w <= to; w++) expected += gross[w];
+                assertEquals(expected, rollups.range(10001, first + from * 7, first + to * 7 + 6)
+                        .get(PayrollRollups.Column.GROSS));
+            }
+        }
+    }
+
+    @Test
+    void runPayroll_RecordsIntoRollups() throws IOException {
+        Map<Integer, Employee> employees = EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv");
+        WeeklyWorkedHours.processAttendanceFile("Test Case/resources/valid_attendance.csv", 1);
+        Employee employee = employees.get(10001);
+
+        long net = 0, tax = 0, taxable = 0;
+        for (int week = DateUtils.epochDay(2024, 6, 3); week <= DateUtils.epochDay(2024, 6, 24); week += 7) {
+            GrossNetWeeklySalary.SalaryData data = GrossNetWeeklySalary.computePayslip(employee, DateUtils.toDate(week, 0));
+            net += data.netPayCentavos;
+            tax += data.taxCentavos;
+            taxable += data.taxableIncomeCentavos;
+        }
+        PayrollRollups rollups = PayrollBatch.newRollups();
+        Path register = Files.createTempFile("register", ".csv");
+        try {
+            PayrollBatch.runPayroll(employees, register.toString(), null, rollups);
+        } finally {
+            Files.delete(register);
+        }
+
+        PayrollRollups.Totals june = rollups.month(10001, 2024, 6);
+        assertEquals(net, june.get(PayrollRollups.Column.NET));
+        assertEquals(tax, june.get(PayrollRollups.Column.TAX));
+        assertEquals(taxable, june.get(PayrollRollups.Column.TAXABLE_INCOME));
+        assertTrue(taxable > 0);
+        assertTrue(tax > 0);
+        assertEquals(12 * tax, rollups.annualizedTax(10001, DateUtils.epochDay(2024, 6, 30)));
+        // Seven months of taxable income spread over twelve fall into lower brackets: a refund
+        PayrollRollups.Totals year = rollups.year(10001, 2024);
+        long due = 12 * DeductionsCalculator.scheduleFor(DateUtils.epochDay(2024, 12, 31))
+                .tax(Money.scale(year.get(PayrollRollups.Column.TAXABLE_INCOME), 1, 12));
+        assertEquals(due - year.get(PayrollRollups.Column.TAX), rollups.yearEndAdjustment(10001, 2024));
+        assertTrue(rollups.yearEndAdjustment(10001, 2024) < 0);
+        assertEquals(year.toString(), rollups.yearEnd(2024).get(10001).toString());
+
+        // The batch summary reports the same year-end figures
+        long withheld = 0, refunds = 0;
+        for (Map.Entry<Integer, PayrollRollups.Totals> entry : rollups.yearEnd(2024).entrySet()) {
+            withheld += entry.getValue().get(PayrollRollups.Column.TAX);
+            refunds -= Math.min(0, rollups.yearEndAdjustment(entry.getKey(), 2024));
+        }
+        String summary = PayrollBatch.yearEndSummary(rollups);
+        assertTrue(summary.startsWith("Year-End 2024:\n"));
+        assertTrue(summary.contains("Tax Withheld             : " + Money.formatGrouped(withheld) + "\n"));
+        assertTrue(summary.contains("Tax To Refund            : " + Money.formatGrouped(refunds) + "\n"));
+        assertTrue(refunds > 0);
+    }
+
+    @Test
+    void newRollups_IsNullWhenDisabled() throws IOException {
+        WeeklyWorkedHours.processAttendanceFile("Test Case/resources/valid_attendance.csv", 1);
+        assertNotNull(PayrollBatch.newRollups());
+        System.setProperty(PayrollConfig.ROLLUPS, "false");
+        try {
+            assertNull(PayrollBatch.newRollups());
+        } finally {
+            System.clearProperty(PayrollConfig.ROLLUPS);
+        }
+    }
+
+    @Test
+    void record_RejectsWeeksOutsideRange() {
+        int lastWeek = DateUtils.epochDay(2024, 12, 30);
+        rollups.record(10001, payslip(lastWeek + 6, 100, false)); // Sunday of the last week
+        assertThrows(IllegalArgumentException.class,
+                () -> rollups.record(10001, payslip(DateUtils.epochDay(9999, 12, 27), 100, false)));
+        assertThrows(IllegalArgumentException.class,
+                () -> rollups.record(10002, payslip(DateUtils.epochDay(2022, 12, 25), 100, false)));
+        assertEquals(1, rollups.employeeCount());
+        assertEquals(100, rollups.year(10001, 2024).get(PayrollRollups.Column.GROSS));
+    }
+
+    private static GrossNetWeeklySalary.SalaryData payslip(int payDay, long gross, boolean lastWeek) {
+        GrossNetWeeklySalary.SalaryData data = new GrossNetWeeklySalary.SalaryData();
+        data.payDay = payDay;
+        data.isLastWeek = lastWeek;
+        data.grossWeeklyCentavos = gross;
+        data.netPayCentavos = gross;
+        if (lastWeek) {
+            data.sssCentavos = 10;
+            data.taxCentavos = 30;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,171 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PayrollServiceTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private PayrollService service;
+    private Map<Integer, Employee> employees;
+
+    @BeforeEach
+    void startService() throws IOException {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        employees = EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv");
+        WeeklyWorkedHours.processAttendanceFile("Test Case/resources/valid_attendance.csv", 1);
+        service = new PayrollService(employees, WeeklyWorkedHours.weeklyTotals, 0);
+        service.start();
+    }
+
+    @AfterEach
+    void stopService() {
+        service.stop();
+    }
+
+    @Test
+    void payslip_ReturnsEmployeeWeek() throws Exception {
+        HttpResponse<String> response = get("/payslip?employee=10001&week=06%2F05%2F2024");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"employee\":\"10001\""));
+        assertTrue(response.body().contains("\"weekStart\":\"06/03/2024\"")); // Wednesday -> Monday
+
+        GrossNetWeeklySalary.SalaryData expected = GrossNetWeeklySalary.computePayslip(
+                employees.get(10001), DateUtils.toDate(DateUtils.epochDay(2024, 6, 3), 0));
+        assertTrue(response.body().contains("\"netPay\":" + Money.format(expected.netPayCentavos)));
+    }
+
+    @Test
+    void payslips_ReturnsEveryEmployee() throws Exception {
+        HttpResponse<String> response = get("/payslips?week=2024-06-03");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(employees.size(), response.body().split("\"netPay\"").length - 1);
+        assertTrue(response.body().startsWith("["));
+    }
+
+    @Test
+    void payslip_RejectsBadRequests() throws Exception {
+        assertEquals(400, get("/payslip?employee=10001").statusCode());
+        assertEquals(400, get("/payslip?employee=10001&week=13/45/2024").statusCode());
+        assertEquals(404, get("/payslip?employee=99999&week=06/03/2024").statusCode());
+
+        HttpRequest post = HttpRequest.newBuilder(uri("/payslips?week=06/03/2024"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build();
+        assertEquals(405, client.send(post, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void payslip_UnknownIdsAreNotInterned() throws Exception {
+        int assigned = EmployeeDetails.nonNumericIdCount();
+        for (int i = 0; i < 50; i++) {
+            assertEquals(404, get("/payslip?employee=NOSUCH" + i + "&week=06/03/2024").statusCode());
+            assertEquals(404, get("/payslip?employee=0" + (10001 + i) + "&week=06/03/2024").statusCode());
+        }
+        assertEquals(assigned, EmployeeDetails.nonNumericIdCount());
+    }
+
+    @Test
+    void stop_ClosesAttachedStream() throws Exception {
+        Path attendance = Files.createTempFile("attendance", ".csv");
+        Files.writeString(attendance, "Employee #,Last Name,First Name,Date,Log In,Log Out\n");
+        AttendanceStream stream = new AttendanceStream();
+        stream.follow(attendance, 5);
+        service.attach(stream);
+        assertTrue(stream.isFollowing());
+
+        service.stop();
+        assertFalse(stream.isFollowing());
+        Files.delete(attendance);
+    }
+
+    @Test
+    void stats_ReportsCacheHits() throws Exception {
+        get("/payslip?employee=10001&week=06/03/2024");
+        get("/payslip?employee=10001&week=06/04/2024"); // Same week
+
+        String body = get("/stats").body();
+        assertTrue(body.contains("\"hits\":1"));
+        assertTrue(body.contains("\"misses\":1"));
+    }
+
+    @Test
+    void attendance_ReturnsDaysBehindPayslip() throws Exception {
+        assertEquals(404, get("/attendance?employee=10001&week=06/03/2024").statusCode());
+
+        WeeklyWorkedHours.attendanceIndex = new AttendanceIndex();
+        try {
+            WeeklyWorkedHours.processAttendanceLine("10001,Garcia,Manuel III,06/04/2024,8:25,18:00");
+            HttpResponse<String> response = get("/attendance?employee=10001&week=06/05/2024");
+
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"date\":\"06/04/2024\",\"logIn\":\"8:25\",\"logOut\":\"18:00\""));
+            assertTrue(response.body().contains("\"lateHours\":0.42"));
+
+            int assigned = EmployeeDetails.nonNumericIdCount();
+            assertEquals(404, get("/attendance?employee=NOSUCH&week=06/05/2024").statusCode());
+            assertEquals(404, get("/attendance?employee=0777777&week=06/05/2024").statusCode());
+            assertEquals(assigned, EmployeeDetails.nonNumericIdCount());
+
+            WeeklyWorkedHours.processAttendanceLine("10001,Garcia,Manuel III,06/17/2024,8:00,17:00");
+            String month = get("/attendance?employee=10001&week=06/05/2024&period=month").body();
+            assertTrue(month.contains("\"date\":\"06/17/2024\""));
+            assertFalse(get("/attendance?employee=10001&week=06/05/2024&period=semi-monthly").body().contains("06/17/2024"));
+            assertEquals(400, get("/attendance?employee=10001&week=06/05/2024&period=fortnight").statusCode());
+        } finally {
+            WeeklyWorkedHours.attendanceIndex = null;
+        }
+    }
+
+    @Test
+    void parseWeek_AcceptsSupportedFormats() {
+        int monday = DateUtils.epochDay(2024, 6, 3);
+        assertEquals(monday, PayrollService.parseWeek("06/07/2024"));
+        assertEquals(monday, PayrollService.parseWeek("06-07-2024"));
+        assertEquals(monday, PayrollService.parseWeek("2024-06-07"));
+        assertEquals(DateUtils.INVALID_DAY, PayrollService.parseWeek("June 7"));
+        assertEquals(DateUtils.INVALID_DAY, PayrollService.parseWeek("12/27/9999")); // Outside the served years
+    }
+
+    @Test
+    void malformedQueries_AreRejectedWith400() throws Exception {
+        assertEquals(400, rawStatus("/payslip?employee=%zz&week=06/05/2024"));
+        assertEquals(400, rawStatus("/payslips?week=06%2F05%2F2024%"));
+        HttpResponse<String> farFuture = get("/payslips?week=12/27/9999");
+        assertEquals(400, farFuture.statusCode());
+        assertTrue(farFuture.body().startsWith("{\"error\":"));
+        assertEquals(200, get("/payslip?employee=10001&week=06/05/2024").statusCode()); // Still serving
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Status code of a GET sent over a plain socket, for request lines HttpClient refuses to build
+    private int rawStatus(String path) throws IOException {
+        try (Socket socket = new Socket("localhost", service.port())) {
+            socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+            return statusLine == null ? -1 : Integer.parseInt(statusLine.split(" ")[1]);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + service.port() + path);
+    }
+}
@@ -0,0 +1,137 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PayrollSnapshotTest {
+
+    private static final String EMPLOYEE_FILE = "Test Case/resources/valid_employees.csv";
+
+    private Path attendance;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        attendance = Files.createTempFile("attendance", ".csv");
+        Files.copy(Path.of("Test Case/resources/valid_attendance.csv"), attendance, StandardCopyOption.REPLACE_EXISTING);
+        Files.write(attendance, "EMP001,Doe,Jane,06/04/2024,8:00,18:00\n".getBytes(StandardCharsets.US_ASCII),
+                StandardOpenOption.APPEND);
+        snapshot = Files.createTempFile("payroll", ".snapshot");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(attendance);
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Test
+    void load_RestoresEmployeesAndWeeklyTotals() throws IOException {
+        Map<Integer, Employee> employees = EmployeeDetails.readEmployees(EMPLOYEE_FILE);
+        WeeklyWorkedHours.processAttendanceFile(attendance.toString(), 1);
+        WeeklyAggregateStore expected = WeeklyWorkedHours.weeklyTotals;
+        PayrollSnapshot.write(snapshot, EMPLOYEE_FILE, attendance.toString(), employees, expected);
+
+        WeeklyAggregateStore restored = new WeeklyAggregateStore();
+        Map<Integer, Employee> loaded = PayrollSnapshot.load(snapshot, EMPLOYEE_FILE, attendance.toString(), restored);
+
+        assertNotNull(loaded);
+        assertEquals(employees, loaded);
+        assertEquals(expected.size(), restored.size());
+        for (int row = 0; row < expected.size(); row++) {
+            int other = restored.find(expected.employeeId(row), expected.weekStart(row));
+            assertEquals(expected.regularHours(row), restored.regularHours(other));
+            assertEquals(expected.overtimeHours(row), restored.overtimeHours(other));
+            assertEquals(expected.underTimeHours(row), restored.underTimeHours(other));
+            assertEquals(expected.lateHours(row), restored.lateHours(other));
+        }
+        int week = DateUtils.weekStart(DateUtils.epochDay(2024, 6, 4));
+        assertNotEquals(WeeklyAggregateStore.NOT_FOUND, restored.find(EmployeeDetails.toNumericId("EMP001"), week));
+    }
+
+    @Test
+    void load_IgnoresSnapshotWhenSourceChanged() throws IOException {
+        Map<Integer, Employee> employees = EmployeeDetails.readEmployees(EMPLOYEE_FILE);
+        WeeklyWorkedHours.processAttendanceFile(attendance.toString(), 1);
+        PayrollSnapshot.write(snapshot, EMPLOYEE_FILE, attendance.toString(), employees, WeeklyWorkedHours.weeklyTotals);
+
+        Files.write(attendance, "10001,Garcia,Manuel III,06/05/2024,8:00,17:00\n".getBytes(StandardCharsets.US_ASCII),
+                StandardOpenOption.APPEND);
+
+        WeeklyAggregateStore restored = new WeeklyAggregateStore();
+        assertNull(PayrollSnapshot.load(snapshot, EMPLOYEE_FILE, attendance.toString(), restored));
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    void load_IgnoresSnapshotWhenShiftsChanged() throws IOException {
+        Path shifts = Files.createTempFile("shifts", ".csv");
+        Files.delete(shifts);
+        String previous = System.setProperty(PayrollConfig.SHIFTS_FILE, shifts.toString());
+        try {
+            Map<Integer, Employee> employees = EmployeeDetails.readEmployees(EMPLOYEE_FILE);
+            WeeklyWorkedHours.processAttendanceFile(attendance.toString(), 1);
+            PayrollSnapshot.write(snapshot, EMPLOYEE_FILE, attendance.toString(), employees, WeeklyWorkedHours.weeklyTotals);
+            assertNotNull(PayrollSnapshot.load(snapshot, EMPLOYEE_FILE, attendance.toString(), new WeeklyAggregateStore()));
+
+            // A shift file appearing (or changing) makes every stored total suspect
+            Files.writeString(shifts, "Shift,Start,End,Break Start,Break End,Grace,Employees,Positions\n");
+            assertNull(PayrollSnapshot.load(snapshot, EMPLOYEE_FILE, attendance.toString(), new WeeklyAggregateStore()));
+        } finally {
+            if (previous == null) System.clearProperty(PayrollConfig.SHIFTS_FILE);
+            else System.setProperty(PayrollConfig.SHIFTS_FILE, previous);
+            Files.deleteIfExists(shifts);
+        }
+    }
+
+    @Test
+    void load_IgnoresCorruptSnapshot() throws IOException {
+        Files.write(snapshot, new byte[] {1, 2, 3});
+        assertNull(PayrollSnapshot.load(snapshot, EMPLOYEE_FILE, attendance.toString(), new WeeklyAggregateStore()));
+    }
+
+    @Test
+    void loadPayrollData_BindsShiftRosterWhenLoadingSnapshot() throws IOException {
+        Path shifts = Files.createTempFile("shifts", ".csv");
+        Files.writeString(shifts, "Shift,Start,End,Break Start,Break End,Grace,Employees,Positions\n"
+                + "NIGHT,22:00,7:00,2:00,3:00,10,,Chief Operating Officer\n");
+        Map<String, String> properties = Map.of(
+                PayrollConfig.SHIFTS_FILE, shifts.toString(),
+                PayrollConfig.SNAPSHOT, "true",
+                PayrollConfig.SNAPSHOT_FILE, snapshot.toString());
+        Map<String, String> previous = new HashMap<>();
+        properties.forEach((key, value) -> previous.put(key, System.setProperty(key, value)));
+        try {
+            Files.delete(snapshot);
+            ShiftRoster.loadShifts(shifts.toString());
+            PayrollSnapshot.loadPayrollData(EMPLOYEE_FILE, attendance.toString());
+            assertTrue(Files.exists(snapshot));
+
+            // Reloading drops the position assignments until the employees are bound again
+            ShiftRoster.loadShifts(shifts.toString());
+            assertNotEquals(0, ShiftRoster.active().shiftOf(10002));
+            WeeklyWorkedHours.weeklyTotals.clear();
+
+            PayrollSnapshot.loadPayrollData(EMPLOYEE_FILE, attendance.toString());
+            assertFalse(WeeklyWorkedHours.weeklyTotals.isEmpty());
+            assertEquals(0, ShiftRoster.active().shiftOf(10002));
+            assertNotEquals(0, ShiftRoster.active().shiftOf(10001));
+        } finally {
+            previous.forEach((key, value) -> {
+                if (value == null) System.clearProperty(key);
+                else System.setProperty(key, value);
+            });
+            ShiftRoster.reset();
+            Files.deleteIfExists(shifts);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PayslipCacheTest {
+
+    private static final int WEEK = DateUtils.epochDay(2024, 6, 3);
+
+    private Map<Integer, Employee> employees;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        employees = EmployeeDetails.readEmployees("Test Case/resources/valid_employees.csv");
+        WeeklyWorkedHours.processAttendanceFile("Test Case/resources/valid_attendance.csv", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        WeeklyWorkedHours.payslipCache = null;
+    }
+
+    @Test
+    void get_CachesComputedPayslip() {
+        PayslipCache cache = new PayslipCache(10, WeeklyWorkedHours.weeklyTotals);
+        Employee employee = employees.get(10001);
+
+        GrossNetWeeklySalary.SalaryData first = cache.get(employee, WEEK);
+        GrossNetWeeklySalary.SalaryData second = cache.get(employee, WEEK);
+
+        assertSame(first, second);
+        assertEquals(GrossNetWeeklySalary.computePayslip(employee, DateUtils.toDate(WEEK, 0)).netPayCentavos, first.netPayCentavos);
+        PayslipCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void get_EvictsLeastRecentlyUsed() {
+        PayslipCache cache = new PayslipCache(2, WeeklyWorkedHours.weeklyTotals);
+        Employee a = employees.get(10001);
+        Employee b = employees.get(10002);
+        Employee c = employees.get(10003);
+
+        GrossNetWeeklySalary.SalaryData cachedA = cache.get(a, WEEK);
+        cache.get(b, WEEK);
+        cache.get(a, WEEK);     // a is now most recently used
+        cache.get(c, WEEK);     // evicts b
+
+        assertSame(cachedA, cache.get(a, WEEK));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+        long misses = cache.stats().misses();
+        cache.get(b, WEEK);
+        assertEquals(misses + 1, cache.stats().misses());
+    }
+
+    @Test
+    void updateWeeklyTotals_InvalidatesCachedWeek() {
+        PayslipCache cache = new PayslipCache(10, WeeklyWorkedHours.weeklyTotals);
+        WeeklyWorkedHours.payslipCache = cache;
+        Employee employee = employees.get(10001);
+        GrossNetWeeklySalary.SalaryData before = cache.get(employee, WEEK);
+        GrossNetWeeklySalary.SalaryData otherWeek = cache.get(employee, WEEK + 7);
+
+        // Newly ingested attendance adds two overtime hours to that week
+        WeeklyWorkedHours.updateWeeklyTotals(10001, WEEK, new WeeklyWorkedHours.WorkHourCalculationResult(0, 2, 0, 0));
+
+        GrossNetWeeklySalary.SalaryData after = cache.get(employee, WEEK);
+        assertNotSame(before, after);
+        assertEquals(before.overtimeHours + 2, after.overtimeHours, 1e-9);
+        assertSame(otherWeek, cache.get(employee, WEEK + 7));
+        assertEquals(1, cache.stats().invalidations());
+    }
+}
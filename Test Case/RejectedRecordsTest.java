@@ -0,0 +1,143 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RejectedRecordsTest {
+
+    private Path sideFile;
+
+    @BeforeEach
+    void setup() throws IOException {
+        WeeklyWorkedHours.weeklyTotals.clear();
+        RejectedRecords.reset();
+        sideFile = Files.createTempFile("rejects", ".csv");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        RejectedRecords.close();
+        RejectedRecords.setConsoleSampling(PayrollConfig.getRejectsConsoleLimit(), PayrollConfig.getRejectsSampleEvery());
+        RejectedRecords.reset();
+        Files.deleteIfExists(sideFile);
+    }
+
+    @Test
+    void attendance_WritesRejectsWithLineNumbers() throws IOException {
+        Path attendance = Files.createTempFile("attendance", ".csv");
+        Files.write(attendance, List.of(
+                "Employee #,Last Name,First Name,Date,Log In,Log Out",
+                "10001,Garcia,Manuel III,06/03/2024,8:00,17:00",
+                "10001,Garcia,Manuel III,06/05/2024,17:00,8:00",  // Logout before login
+                "10001,Garcia,Manuel III,06/31/2024,8:00,17:00",  // No such date
+                "10001,Garcia"));
+        RejectedRecords.open(sideFile, 16);
+        System.setProperty(PayrollConfig.INGEST_MMAP, "false");
+        try {
+            WeeklyWorkedHours.processAttendanceFile(attendance.toString(), 1);
+        } finally {
+            System.clearProperty(PayrollConfig.INGEST_MMAP);
+        }
+        RejectedRecords.close();
+
+        assertEquals(1, RejectedRecords.count(RejectedRecords.Reason.INVALID_RANGE));
+        assertEquals(1, RejectedRecords.count(RejectedRecords.Reason.PARSE_ERROR));
+        assertEquals(1, RejectedRecords.count(RejectedRecords.Reason.MALFORMED));
+        List<String> lines = Files.readAllLines(sideFile);
+        assertEquals(List.of(
+                "file,line,offset,reason,record",
+                "attendance,3,-1,INVALID_RANGE,\"10001,Garcia,Manuel III,06/05/2024,17:00,8:00\"",
+                "attendance,4,-1,PARSE_ERROR,\"10001,Garcia,Manuel III,06/31/2024,8:00,17:00\"",
+                "attendance,5,-1,MALFORMED,\"10001,Garcia\""), lines);
+        Files.delete(attendance);
+    }
+
+    @Test
+    void mappedReader_ReportsLineNumbersAndByteOffsets() throws IOException {
+        Path attendance = Files.createTempFile("attendance", ".csv");
+        String header = "Employee #,Last Name,First Name,Date,Log In,Log Out\n";
+        String good = "10001,Garcia,Manuel III,06/03/2024,8:00,17:00\n";
+        Files.writeString(attendance, header + good + "10001,Garcia\n");
+        RejectedRecords.open(sideFile, 16);
+        MappedAttendanceReader.ingest(attendance.toString());
+        RejectedRecords.close();
+
+        List<String> lines = Files.readAllLines(sideFile);
+        assertEquals("attendance,3," + (header.length() + good.length()) + ",MALFORMED,\"10001,Garcia\"", lines.get(1));
+        Files.delete(attendance);
+    }
+
+    @Test
+    void parallelReader_ReportsLineNumbersAcrossChunks() throws IOException {
+        assertParallelRejectLines("false", "0");
+        assertParallelRejectLines("true", "0");
+    }
+
+    // Bad rows on known lines of a file split into many small chunks
+    private void assertParallelRejectLines(String mmap, String mmapMinBytes) throws IOException {
+        Path attendance = Files.createTempFile("attendance", ".csv");
+        StringBuilder text = new StringBuilder("Employee #,Last Name,First Name,Date,Log In,Log Out\n");
+        List<Integer> badLines = List.of(2, 37, 150, 201);
+        for (int line = 2; line <= 201; line++) {
+            text.append(badLines.contains(line) ? "10001,Garcia\n" : "10001,Garcia,Manuel III,06/03/2024,8:00,17:00\n");
+        }
+        Files.writeString(attendance, text);
+        RejectedRecords.open(sideFile, 16);
+        System.setProperty(PayrollConfig.INGEST_MMAP, mmap);
+        System.setProperty(PayrollConfig.INGEST_MMAP_MIN_BYTES, mmapMinBytes);
+        try {
+            ParallelAttendanceIngestor.ingest(attendance.toString(), 4, 512);
+        } finally {
+            System.clearProperty(PayrollConfig.INGEST_MMAP);
+            System.clearProperty(PayrollConfig.INGEST_MMAP_MIN_BYTES);
+        }
+        RejectedRecords.close();
+
+        List<String> lines = Files.readAllLines(sideFile);
+        assertEquals(badLines.size() + 1, lines.size());
+        for (int i = 0; i < badLines.size(); i++) {
+            assertTrue(lines.get(i + 1).startsWith("attendance," + badLines.get(i) + ","), lines.get(i + 1));
+        }
+        Files.delete(attendance);
+    }
+
+    @Test
+    void consoleSampling_PrintsLimitThenEveryNth() {
+        RejectedRecords.setConsoleSampling(2, 10);
+        for (int i = 0; i < 32; i++) {
+            RejectedRecords.reject(RejectedRecords.Reason.MALFORMED, i + 2, -1, "x");
+        }
+        assertEquals(32, RejectedRecords.count(RejectedRecords.Reason.MALFORMED));
+        assertEquals(2 + 3, RejectedRecords.printed()); // #1, #2, then #12, #22, #32
+    }
+
+    @Test
+    void fullQueue_CountsDroppedWithoutBlocking() throws IOException {
+        RejectedRecords.setConsoleSampling(0, 0);
+        RejectedRecords.open(sideFile, 1);
+        for (int i = 0; i < 100_000; i++) {
+            RejectedRecords.reject(RejectedRecords.Reason.PARSE_ERROR, i + 2, -1, "10001,Garcia");
+        }
+        RejectedRecords.close();
+
+        long written = Files.readAllLines(sideFile).size() - 1;
+        assertEquals(100_000, RejectedRecords.count(RejectedRecords.Reason.PARSE_ERROR));
+        assertEquals(100_000, written + RejectedRecords.dropped());
+        assertTrue(RejectedRecords.summary().contains("parse error"));
+    }
+
+    @Test
+    void employees_ReportsInvalidRecords() throws IOException {
+        Path employees = Files.createTempFile("employees", ".csv");
+        Files.write(employees, List.of("Employee #,Last Name", ",Garcia", "10001,Garcia,Manuel III"));
+        EmployeeDetails.readEmployeeDetails(employees.toString());
+
+        assertEquals(1, RejectedRecords.count(RejectedRecords.Reason.MISSING_ID));
+        assertEquals(1, RejectedRecords.count(RejectedRecords.Reason.TOO_FEW_FIELDS));
+        Files.delete(employees);
+    }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShiftScheduleTest {
+
+    private static final String HEADER = "Shift,Start,End,Break Start,Break End,Grace Minutes,Employees,Positions";
+
+    @BeforeEach
+    void setup() {
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        ShiftRoster.reset();
+        WeeklyWorkedHours.weeklyTotals.clear();
+    }
+
+    @Test
+    void standard_MatchesBuiltInCalculation() {
+        ShiftSchedule schedule = ShiftSchedule.standard();
+        WeeklyWorkedHours.DailyHours viaShift = new WeeklyWorkedHours.DailyHours();
+        WeeklyWorkedHours.DailyHours builtIn = new WeeklyWorkedHours.DailyHours();
+        int shift = schedule.shiftOf(10001);
+
+        schedule.calculate(shift, schedule.normalize(shift, 8 * 60 + 25), schedule.normalize(shift, 18 * 60), viaShift);
+        WeeklyWorkedHours.calculateDailyMinutes(8 * 60 + 25, 18 * 60, builtIn);
+
+        assertEquals(builtIn.regularMinutes, viaShift.regularMinutes);
+        assertEquals(builtIn.overtimeMinutes, viaShift.overtimeMinutes);
+        assertEquals(builtIn.underTimeMinutes, viaShift.underTimeMinutes);
+        assertEquals(builtIn.lateMinutes, viaShift.lateMinutes);
+    }
+
+    @Test
+    void nightShift_CrossesMidnight() {
+        ShiftSchedule schedule = new ShiftSchedule(
+                List.of(new ShiftSchedule.Shift("NIGHT", 22 * 60, 7 * 60, 2 * 60, 3 * 60, 10)),
+                0, new int[0], new int[0]);
+        int shift = schedule.shiftOf(10001);
+        WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+
+        // 22:00 to 08:00 next morning: 9h on shift minus the 1h break, 1h overtime
+        schedule.calculate(shift, schedule.normalize(shift, 22 * 60), schedule.normalize(shift, 8 * 60), day);
+        assertEquals(8 * 60, day.regularMinutes);
+        assertEquals(60, day.overtimeMinutes);
+        assertEquals(0, day.lateMinutes);
+
+        // Login after midnight is late, not early
+        schedule.calculate(shift, schedule.normalize(shift, 30), schedule.normalize(shift, 7 * 60), day);
+        assertEquals(150, day.lateMinutes);
+        assertEquals(6 * 60 + 30 - 60, day.regularMinutes);
+    }
+
+    @Test
+    void roster_AssignsByEmployeeThenPosition() throws IOException {
+        Path file = Files.createTempFile("shifts", ".csv");
+        Files.write(file, List.of(HEADER,
+                "# Plant shifts",
+                "NIGHT,22:00,7:00,2:00,3:00,10,10002,",
+                "SWING,14:00,23:00,18:00,19:00,5,,Production Staff;Warehouse",
+                "OFFICE,8:00,17:00,12:00,13:00,10,,*"));
+        ShiftRoster.loadShifts(file.toString());
+        ShiftRoster.bind(List.of(employee(10002, "Production Staff"), employee(10003, "Warehouse"),
+                employee(10004, "HR Manager")));
+        Files.delete(file);
+
+        ShiftSchedule schedule = ShiftRoster.active();
+        assertEquals("NIGHT", schedule.name(schedule.shiftOf(10002)));
+        assertEquals("SWING", schedule.name(schedule.shiftOf(10003)));
+        assertEquals("OFFICE", schedule.name(schedule.shiftOf(10004)));
+        assertEquals("OFFICE", schedule.name(schedule.shiftOf(99999)));
+    }
+
+    @Test
+    void ingestion_UsesNightShiftForAssignedEmployee() throws IOException {
+        Path file = Files.createTempFile("shifts", ".csv");
+        Files.write(file, List.of(HEADER, "NIGHT,22:00,6:00,,,10,10002,"));
+        ShiftRoster.loadShifts(file.toString());
+        Files.delete(file);
+
+        WeeklyWorkedHours.processAttendanceLine("10002,Lim,Antonio,06/03/2024,22:00,6:30");
+        WeeklyWorkedHours.processAttendanceLine("10001,Garcia,Manuel III,06/03/2024,8:00,17:00");
+
+        int week = DateUtils.weekStart(DateUtils.epochDay(2024, 6, 3));
+        WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+        assertEquals(8.0, totals.regularHours(totals.find(10002, week)));
+        assertEquals(0.5, totals.overtimeHours(totals.find(10002, week)));
+        assertEquals(9.0, totals.regularHours(totals.find(10001, week))); // Standard shift, unchanged
+    }
+
+    @Test
+    void readRoster_RejectsInvalidTime() throws IOException {
+        Path file = Files.createTempFile("shifts", ".csv");
+        Files.write(file, List.of(HEADER, "BAD,25:00,7:00,,,10,,"));
+        assertThrows(IOException.class, () -> ShiftRoster.readRoster(file.toString()));
+        Files.delete(file);
+    }
+
+    private static Employee employee(int id, String position) {
+        String number = String.valueOf(id);
+        return new Employee(id, number, "Last", "First", "", "", "", "", "", "", "", "Regular", position, "",
+                0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,59 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class WeeklyAggregateStoreTest {
+
+    @Test
+    void add_AccumulatesPerEmployeeWeek() {
+        WeeklyAggregateStore store = new WeeklyAggregateStore();
+        store.add(10001, 19716, 8, 1, 0, 0.5);
+        store.add(10001, 19716, 7, 0, 1, 0);
+        store.add(10001, 19723, 8, 0, 0, 0);
+
+        int row = store.find(10001, 19716);
+        assertEquals(15.0, store.regularHours(row));
+        assertEquals(1.0, store.overtimeHours(row));
+        assertEquals(1.0, store.underTimeHours(row));
+        assertEquals(0.5, store.lateHours(row));
+        assertEquals(2, store.size());
+        assertEquals(WeeklyAggregateStore.NOT_FOUND, store.find(10002, 19716));
+    }
+
+    @Test
+    void add_GrowsAndKeepsNegativeIds() {
+        WeeklyAggregateStore store = new WeeklyAggregateStore(1);
+        for (int employee = -500; employee < 500; employee++) {
+            for (int week = 0; week < 10; week++) {
+                store.add(employee, 19716 + week * 7, employee, 0, 0, 0);
+            }
+        }
+        assertEquals(10_000, store.size());
+        int row = store.find(-42, 19716 + 21);
+        assertEquals(-42, store.employeeId(row));
+        assertEquals(19716 + 21, store.weekStart(row));
+        assertEquals(-42.0, store.regularHours(row));
+        assertArrayEquals(new int[] {19716, 19723, 19730, 19737, 19744, 19751, 19758, 19765, 19772, 19779},
+                store.weekStarts());
+    }
+
+    @Test
+    void addAll_AdoptsDistinctRowsAndMergesDuplicates() {
+        long[] keys = {WeeklyAggregateStore.key(10001, 19716), WeeklyAggregateStore.key(10002, 19716)};
+        WeeklyAggregateStore store = new WeeklyAggregateStore();
+        store.addAll(keys, new double[] {40, 32}, new double[] {2, 0}, new double[] {0, 8}, new double[] {0, 1});
+        store.add(10001, 19716, 8, 0, 0, 0);
+
+        assertEquals(2, store.size());
+        assertEquals(48.0, store.regularHours(store.find(10001, 19716)));
+        assertEquals(8.0, store.underTimeHours(store.find(10002, 19716)));
+
+        // Duplicate keys and a non-empty store fall back to adding row by row
+        long[] duplicates = {keys[1], keys[1]};
+        store.addAll(duplicates, new double[] {1, 2}, new double[2], new double[2], new double[2]);
+        assertEquals(35.0, store.regularHours(store.find(10002, 19716)));
+        WeeklyAggregateStore fresh = new WeeklyAggregateStore();
+        fresh.addAll(duplicates, new double[] {1, 2}, new double[2], new double[2], new double[2]);
+        assertEquals(1, fresh.size());
+        assertEquals(3.0, fresh.regularHours(0));
+    }
+}
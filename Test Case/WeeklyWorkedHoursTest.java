@@ -7,18 +7,15 @@ import org.junit.jupiter.api.Test;
 class WeeklyWorkedHoursTest {
 
     @BeforeEach
-    void resetMaps() {
-        WeeklyWorkedHours.weeklyHours.clear();
-        WeeklyWorkedHours.weeklyOvertime.clear();
-        WeeklyWorkedHours.weeklyUnderTime.clear();
-        WeeklyWorkedHours.weeklyLateTime.clear();
+    void resetTotals() {
+        WeeklyWorkedHours.weeklyTotals.clear();
     }
 
     @Test
     void processAttendanceLine_Valid() throws ParseException {
         String line = "EMP001,,,12/25/2023,08:00,17:00";
         WeeklyWorkedHours.processAttendanceLine(line);
-        assertFalse(WeeklyWorkedHours.weeklyHours.isEmpty()); // Now passes!
+        assertFalse(WeeklyWorkedHours.weeklyTotals.isEmpty()); // Now passes!
     }
 
     @Test
@@ -32,17 +29,46 @@ class WeeklyWorkedHoursTest {
     }
 
     @Test
-    void updateWeeklyMaps_AggregatesData() throws ParseException {
+    void calculateDailyMinutes_LateLoginAndEarlyLogout() {
+        WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+        WeeklyWorkedHours.calculateDailyMinutes(8 * 60 + 30, 16 * 60, day);
+        assertEquals(7 * 60 + 30, day.regularMinutes);
+        assertEquals(0, day.overtimeMinutes);
+        assertEquals(60, day.underTimeMinutes);
+        assertEquals(30, day.lateMinutes);
+
+        // Within the grace period: counted from 8:00, overtime allowed; day is reused
+        WeeklyWorkedHours.calculateDailyMinutes(8 * 60 + 10, 18 * 60, day);
+        assertEquals(9 * 60, day.regularMinutes);
+        assertEquals(60, day.overtimeMinutes);
+        assertEquals(0, day.underTimeMinutes);
+        assertEquals(0, day.lateMinutes);
+    }
+
+    @Test
+    void calculateDailyMinutes_DeductsBreakInsideWorkedSpan() {
+        WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+        WeeklyWorkedHours.calculateDailyMinutes(8 * 60, 17 * 60, 8 * 60, 17 * 60, 12 * 60, 13 * 60, 10, day);
+        assertEquals(8 * 60, day.regularMinutes);
+
+        WeeklyWorkedHours.calculateDailyMinutes(8 * 60, 12 * 60 + 30, 8 * 60, 17 * 60, 12 * 60, 13 * 60, 10, day);
+        assertEquals(4 * 60, day.regularMinutes);
+    }
+
+    @Test
+    void updateWeeklyTotals_AggregatesData() throws ParseException {
         Date fixedDate = DateUtils.parseDate("12/31/2023", "MM/dd/yyyy");
 
-        WeeklyWorkedHours.updateWeeklyMaps(
+        WeeklyWorkedHours.updateWeeklyTotals(
                 "EMP001",
                 fixedDate,
                 new WeeklyWorkedHours.WorkHourCalculationResult(8, 2, 0, 0)
         );
 
-        String expectedWeekKey = DateUtils.getWeekKey(fixedDate, "EMP001");
+        int row = WeeklyWorkedHours.weeklyTotals.find(
+                EmployeeDetails.toNumericId("EMP001"), DateUtils.weekStart(DateUtils.toEpochDay(fixedDate)));
 
-        assertEquals(8.0, WeeklyWorkedHours.weeklyHours.get(expectedWeekKey));
+        assertEquals(8.0, WeeklyWorkedHours.weeklyTotals.regularHours(row));
+        assertEquals(2.0, WeeklyWorkedHours.weeklyTotals.overtimeHours(row));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,301 @@
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+/**
+ * In-memory index of every attendance day, per employee and sorted by date, kept
+ * alongside the weekly totals so daily data can be queried without re-reading the CSV.
+ *
+ * <p>Each employee's days live in three parallel primitive arrays ordered by epoch day:
+ * the date, the login and logout (packed into one int) and the calculated regular,
+ * overtime, underTime and late minutes (packed into one long), 16 bytes per day. Days
+ * are appended in O(1) when they arrive in date order, as in the attendance files; an
+ * earlier day is inserted in place. Several rows for the same date are kept in arrival
+ * order, like the weekly totals count them, unless replaced with {@link #replace}.
+ *
+ * <p>Queries find the first day of a range by binary search. {@link #days(int, int, int)}
+ * returns the days behind a payslip week, {@link #sum(int, int, int, long[])} totals any
+ * date range, and {@link #aggregate(IntUnaryOperator)} re-buckets every day into periods
+ * other than Monday weeks (e.g. a {@link PayPeriod}) without re-parsing.
+ *
+ * <p>Filled while {@link WeeklyWorkedHours#attendanceIndex} is set (see
+ * {@link PayrollConfig#ATTENDANCE_INDEX}); totals restored from a snapshot carry no days.
+ * Thread-safe: all methods synchronize on the instance.
+ */
+public class AttendanceIndex {
+    // Minutes are packed 16 bits each: regular, overtime, underTime, late
+    private static final int MINUTE_BITS = 16;
+    private static final long MINUTE_MASK = 0xFFFF;
+
+    // Login in the high half of the packed times, logout in the low half
+    private static final int TIME_BITS = 16;
+
+    // Bytes stored per day (date, times, minutes)
+    static final int BYTES_PER_DAY = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    // Days of one employee, sorted by epoch day
+    private static final class Series {
+        final int employeeId;
+        int[] days = new int[32];
+        int[] times = new int[32];
+        long[] minutes = new long[32];
+        int size;
+
+        Series(int employeeId) {
+            this.employeeId = employeeId;
+        }
+
+        // Index of the first day on or after epochDay (size if none)
+        int lowerBound(int epochDay) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < epochDay) low = mid + 1; else high = mid;
+            }
+            return low;
+        }
+
+        void insert(int at, int epochDay, int packedTimes, long packedMinutes) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                times = Arrays.copyOf(times, size * 2);
+                minutes = Arrays.copyOf(minutes, size * 2);
+            }
+            System.arraycopy(days, at, days, at + 1, size - at);
+            System.arraycopy(times, at, times, at + 1, size - at);
+            System.arraycopy(minutes, at, minutes, at + 1, size - at);
+            days[at] = epochDay;
+            times[at] = packedTimes;
+            minutes[at] = packedMinutes;
+            size++;
+        }
+
+        void remove(int from, int to) {
+            System.arraycopy(days, to, days, from, size - to);
+            System.arraycopy(times, to, times, from, size - to);
+            System.arraycopy(minutes, to, minutes, from, size - to);
+            size -= to - from;
+        }
+    }
+
+    /**
+     * Days of one employee within a date range, copied out of the index.
+     * Times are minutes from midnight of the work date (past 1440 for a night shift
+     * ending the next day).
+     */
+    public static final class Days {
+        private final int[] days;
+        private final int[] times;
+        private final long[] minutes;
+
+        private Days(int[] days, int[] times, long[] minutes) {
+            this.days = days;
+            this.times = times;
+            this.minutes = minutes;
+        }
+
+        /** @return Number of days */
+        public int size() {
+            return days.length;
+        }
+
+        /** @return Epoch day of day i */
+        public int epochDay(int i) {
+            return days[i];
+        }
+
+        public int loginMinute(int i) {
+            return times[i] >>> TIME_BITS;
+        }
+
+        public int logoutMinute(int i) {
+            return times[i] & ((1 << TIME_BITS) - 1);
+        }
+
+        public int regularMinutes(int i) {
+            return minute(minutes[i], 0);
+        }
+
+        public int overtimeMinutes(int i) {
+            return minute(minutes[i], 1);
+        }
+
+        public int underTimeMinutes(int i) {
+            return minute(minutes[i], 2);
+        }
+
+        public int lateMinutes(int i) {
+            return minute(minutes[i], 3);
+        }
+    }
+
+    // Employee table: slot -> series index + 1 (0 = empty); length is a power of two
+    private int[] slots = new int[64];
+    private Series[] series = new Series[32];
+    private int employees;
+    private long size;
+
+    /**
+     * Adds one parsed day after any days already indexed for the same date.
+     *
+     * @param day Parsed day (the instance can be reused afterwards)
+     */
+    public synchronized void add(WeeklyWorkedHours.DailyHours day) {
+        Series target = findOrCreate(day.employeeId);
+        int at = target.size > 0 && target.days[target.size - 1] <= day.epochDay
+                ? target.size : target.lowerBound(day.epochDay + 1);
+        target.insert(at, day.epochDay, packTimes(day), packMinutes(day));
+        size++;
+    }
+
+    /**
+     * Replaces all indexed rows of the day's employee and date with this day, e.g. for
+     * a corrected attendance row.
+     *
+     * @param day Parsed day (the instance can be reused afterwards)
+     */
+    public synchronized void replace(WeeklyWorkedHours.DailyHours day) {
+        Series target = findOrCreate(day.employeeId);
+        int from = target.lowerBound(day.epochDay);
+        int to = target.lowerBound(day.epochDay + 1);
+        target.remove(from, to);
+        target.insert(from, day.epochDay, packTimes(day), packMinutes(day));
+        size += 1 - (to - from);
+    }
+
+    /**
+     * @param fromDay First epoch day of the range
+     * @param toDay   Last epoch day of the range
+     * @return Days of the employee within the range, in date order
+     */
+    public synchronized Days days(int employeeId, int fromDay, int toDay) {
+        Series target = find(employeeId);
+        if (target == null || fromDay > toDay) return new Days(new int[0], new int[0], new long[0]);
+        int from = target.lowerBound(fromDay);
+        int to = target.lowerBound(toDay + 1);
+        return new Days(Arrays.copyOfRange(target.days, from, to), Arrays.copyOfRange(target.times, from, to),
+                Arrays.copyOfRange(target.minutes, from, to));
+    }
+
+    /**
+     * @param weekStart Epoch day of the Monday starting the week
+     * @return Days behind the employee's payslip for that week
+     */
+    public Days week(int employeeId, int weekStart) {
+        return days(employeeId, weekStart, weekStart + 6);
+    }
+
+    /**
+     * @param epochDay Any day within the period
+     * @return Days of the employee within the pay period containing that day
+     */
+    public Days period(int employeeId, PayPeriod period, int epochDay) {
+        return days(employeeId, period.start(epochDay), period.end(epochDay));
+    }
+
+    /**
+     * Sums the employee's minutes over a date range without copying the days.
+     *
+     * @param totals Receives regular, overtime, underTime and late minutes
+     * @return Number of days in the range
+     */
+    public synchronized int sum(int employeeId, int fromDay, int toDay, long[] totals) {
+        Arrays.fill(totals, 0, 4, 0);
+        Series target = find(employeeId);
+        if (target == null || fromDay > toDay) return 0;
+        int from = target.lowerBound(fromDay);
+        int to = target.lowerBound(toDay + 1);
+        for (int i = from; i < to; i++) {
+            long packed = target.minutes[i];
+            for (int c = 0; c < 4; c++) totals[c] += minute(packed, c);
+        }
+        return to - from;
+    }
+
+    /**
+     * Re-aggregates every indexed day into periods of another definition, e.g.
+     * {@link PayPeriod#SEMI_MONTHLY}. Hours are summed per employee in date order.
+     *
+     * @param periodStart Maps an epoch day to the first epoch day of its period
+     * @return Totals keyed by (employee ID, period start), in the layout of the weekly totals
+     */
+    public synchronized WeeklyAggregateStore aggregate(IntUnaryOperator periodStart) {
+        WeeklyAggregateStore store = new WeeklyAggregateStore((int) Math.min(Integer.MAX_VALUE, size / 4 + 16));
+        for (int s = 0; s < employees; s++) {
+            Series days = series[s];
+            for (int i = 0; i < days.size; i++) {
+                long packed = days.minutes[i];
+                store.add(days.employeeId, periodStart.applyAsInt(days.days[i]), minute(packed, 0) / 60.0,
+                        minute(packed, 1) / 60.0, minute(packed, 2) / 60.0, minute(packed, 3) / 60.0);
+            }
+        }
+        return store;
+    }
+
+    /** @return Number of indexed days */
+    public synchronized long size() {
+        return size;
+    }
+
+    /** @return Number of employees with indexed days */
+    public synchronized int employeeCount() {
+        return employees;
+    }
+
+    /** Removes all days */
+    public synchronized void clear() {
+        Arrays.fill(slots, 0);
+        Arrays.fill(series, 0, employees, null);
+        employees = 0;
+        size = 0;
+    }
+
+    private static int packTimes(WeeklyWorkedHours.DailyHours day) {
+        return day.loginMinute << TIME_BITS | day.logoutMinute;
+    }
+
+    private static long packMinutes(WeeklyWorkedHours.DailyHours day) {
+        return (day.regularMinutes & MINUTE_MASK)
+                | (day.overtimeMinutes & MINUTE_MASK) << MINUTE_BITS
+                | (day.underTimeMinutes & MINUTE_MASK) << 2 * MINUTE_BITS
+                | (day.lateMinutes & MINUTE_MASK) << 3 * MINUTE_BITS;
+    }
+
+    private static int minute(long packed, int column) {
+        return (int) (packed >>> column * MINUTE_BITS & MINUTE_MASK);
+    }
+
+    private Series find(int employeeId) {
+        int mask = slots.length - 1;
+        for (int slot = hash(employeeId) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) return null;
+            if (series[entry - 1].employeeId == employeeId) return series[entry - 1];
+        }
+    }
+
+    private Series findOrCreate(int employeeId) {
+        Series target = find(employeeId);
+        if (target != null) return target;
+        if ((employees + 1) * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+            for (int i = 0; i < employees; i++) insert(i);
+        }
+        if (employees == series.length) series = Arrays.copyOf(series, employees * 2);
+        target = new Series(employeeId);
+        series[employees++] = target;
+        insert(employees - 1);
+        return target;
+    }
+
+    private void insert(int index) {
+        int mask = slots.length - 1;
+        int slot = hash(series[index].employeeId) & mask;
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        slots[slot] = index + 1;
+    }
+
+    // Fibonacci hashing with the high bits folded in, for any table size
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
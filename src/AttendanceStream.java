@@ -0,0 +1,299 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.CRC32;
+/**
+ * Live attendance ingestion: applies attendance rows to {@link WeeklyWorkedHours#weeklyTotals}
+ * as they arrive, so payslips reflect the latest logins and logouts without a restart.
+ *
+ * <p>Rows come from following an attendance CSV as it grows ({@link #follow(Path, long)},
+ * which polls for appended lines every few milliseconds) or from any line source such as
+ * a named pipe or socket ({@link #consume(BufferedReader)}). Each row is one employee's
+ * day, parsed and calculated exactly like the file readers do.
+ *
+ * <p>The stream remembers the minutes it applied for every employee-day. A later row for
+ * the same employee and date is a correction: the earlier contribution is retracted and
+ * the new one applied, in whichever week the date falls, so late, out-of-order and
+ * repeated rows all leave the totals as if only the latest row per day had been read.
+ * Re-reading a file that was rewritten in place therefore gives the same totals.
+ *
+ * <p>Updates hold {@link WeeklyWorkedHours#weeklyTotalsLock} for writing while they change
+ * both the weekly totals and the {@link WeeklyWorkedHours#attendanceIndex}, so a reader
+ * holding the read lock sees the two agree. Payslips read
+ * the totals under an optimistic stamp of that lock (see
+ * {@link GrossNetWeeklySalary#calculateSalary(Employee, java.util.Date, WeeklyAggregateStore)}),
+ * and only take its read lock when a row changed while they read it. Updates go through {@link WeeklyWorkedHours#updateWeeklyTotals(int, int, double, double, double, double)},
+ * so cached payslips of the changed weeks are invalidated. Days loaded before the stream
+ * started (e.g. by {@link WeeklyWorkedHours#processAttendanceFile(String)}) are unknown to
+ * it and cannot be corrected; start from an empty store and let the stream read the whole
+ * file instead.
+ */
+public class AttendanceStream implements AutoCloseable {
+    // Minute columns per employee-day: regular, overtime, underTime, late
+    private static final int COLUMNS = 4;
+
+    // Bytes read from the followed file per read call
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    // Bytes before the read position checksummed to notice a file rewritten in place
+    private static final int TAIL_CHECK_BYTES = 4096;
+
+    private final WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+
+    // Employee-days applied so far: slot -> row + 1 (0 = empty); key = (employeeId << 32) | epochDay
+    private int[] slots = new int[1024];
+    private long[] keys = new long[512];
+    private int[] minutes = new int[512 * COLUMNS];
+    private int size;
+
+    // Position in the followed file
+    private long offset;
+    private long lineNumber;
+    private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+    private final ByteBuffer tail = ByteBuffer.allocate(TAIL_CHECK_BYTES);
+    private final CRC32 crc = new CRC32();
+    private Object fileKey;
+    private long tailChecksum;
+    private final StringBuilder pending = new StringBuilder(128);
+
+    private volatile long events;
+    private volatile long corrections;
+    private volatile Thread follower;
+
+    /**
+     * Applies one attendance row, replacing any earlier row for the same employee and date.
+     * Malformed rows are reported to {@link RejectedRecords} and leave the totals unchanged.
+     *
+     * @param line       A comma-separated attendance row
+     * @param lineNumber 1-based line number in the source, or -1 if unknown
+     * @return true if the row was applied
+     */
+    public synchronized boolean accept(String line, long lineNumber) {
+        if (!WeeklyWorkedHours.parseAttendanceLine(line, lineNumber, -1, day)) return false;
+
+        long key = WeeklyAggregateStore.key(day.employeeId, day.epochDay);
+        int row = find(key);
+        boolean correction = row >= 0;
+        if (!correction) row = append(key);
+        int m = row * COLUMNS;
+        int regular = day.regularMinutes - minutes[m];
+        int overtime = day.overtimeMinutes - minutes[m + 1];
+        int underTime = day.underTimeMinutes - minutes[m + 2];
+        int late = day.lateMinutes - minutes[m + 3];
+        minutes[m] = day.regularMinutes;
+        minutes[m + 1] = day.overtimeMinutes;
+        minutes[m + 2] = day.underTimeMinutes;
+        minutes[m + 3] = day.lateMinutes;
+
+        // Retract the earlier contribution and apply the new one in a single step
+        StampedLock lock = WeeklyWorkedHours.weeklyTotalsLock;
+        long stamp = lock.writeLock();
+        try {
+            WeeklyWorkedHours.updateWeeklyTotals(day.employeeId, day.weekStart, regular / 60.0,
+                    overtime / 60.0, underTime / 60.0, late / 60.0);
+            AttendanceIndex index = WeeklyWorkedHours.attendanceIndex;
+            if (index != null) index.replace(day);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        events++;
+        if (correction) corrections++;
+        return true;
+    }
+
+    /**
+     * Applies the complete lines appended to a file since the last call, starting with
+     * the whole file (its first line is the header). A line without its newline yet is
+     * left for the next call. If the file got shorter, was replaced by another file, or
+     * the bytes just before the read position changed, it was rewritten, and is read again
+     * from the start.
+     *
+     * @param file Attendance CSV being written to
+     * @return Number of rows applied
+     * @throws IOException If the file cannot be read
+     */
+    public synchronized int poll(Path file) throws IOException {
+        int applied = 0;
+        Object key = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < offset || !Objects.equals(key, fileKey) || tailChecksum(channel) != tailChecksum) {
+                fileKey = key;
+                offset = 0;
+                lineNumber = 0;
+                pending.setLength(0);
+            }
+            channel.position(offset);
+            buffer.clear();
+            int read;
+            while ((read = channel.read(buffer)) > 0) {
+                buffer.flip();
+                for (int i = 0; i < read; i++) {
+                    char c = (char) (buffer.get(i) & 0xFF);
+                    if (c != '\n') {
+                        pending.append(c);
+                        continue;
+                    }
+                    int end = pending.length();
+                    if (end > 0 && pending.charAt(end - 1) == '\r') pending.setLength(end - 1);
+                    // Header and blank lines are skipped, like the file readers do
+                    if (++lineNumber > 1 && pending.length() > 0 && accept(decode(pending), lineNumber)) applied++;
+                    pending.setLength(0);
+                }
+                offset += read;
+                buffer.clear();
+            }
+            tailChecksum = tailChecksum(channel);
+        }
+        return applied;
+    }
+
+    // CRC32 of the bytes just before the read position (0 at the start of the file)
+    private long tailChecksum(FileChannel channel) throws IOException {
+        long from = Math.max(0, offset - TAIL_CHECK_BYTES);
+        tail.clear().limit((int) (offset - from));
+        while (tail.hasRemaining()) {
+            if (channel.read(tail, from + tail.position()) < 0) return -1; // Shorter than before
+        }
+        crc.reset();
+        crc.update(tail.flip());
+        return crc.getValue();
+    }
+
+    /**
+     * Applies rows from a line source until it ends, e.g. a named pipe or a socket.
+     * Every line is a row; there is no header.
+     *
+     * @param in Source of attendance rows
+     * @return Number of rows applied
+     * @throws IOException If reading fails
+     */
+    public int consume(BufferedReader in) throws IOException {
+        int applied = 0;
+        long number = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            number++;
+            if (!line.isEmpty() && accept(line, number)) applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Reads the file as it is now, then keeps polling it for appended lines on a
+     * background thread until {@link #close()}.
+     *
+     * @param file       Attendance CSV to follow
+     * @param pollMillis Delay between polls
+     * @return Rows applied by the initial read
+     * @throws IOException If the initial read fails
+     */
+    public int follow(Path file, long pollMillis) throws IOException {
+        int applied = poll(file);
+        Thread thread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(pollMillis);
+                    poll(file);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Could not read attendance from " + file + ": " + e.getMessage());
+                }
+            }
+        }, "attendance-stream");
+        thread.setDaemon(true);
+        follower = thread;
+        thread.start();
+        return applied;
+    }
+
+    /** Stops following the file and waits for a running poll to finish. */
+    @Override
+    public void close() {
+        Thread thread = follower;
+        if (thread == null) return;
+        follower = null;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** @return true while a {@link #follow(Path, long)} thread is running */
+    public boolean isFollowing() {
+        return follower != null;
+    }
+
+    /** @return Rows applied */
+    public long events() {
+        return events;
+    }
+
+    /** @return Applied rows that replaced an earlier row for the same employee-day */
+    public long corrections() {
+        return corrections;
+    }
+
+    /** @return Employee-days known to the stream */
+    public synchronized int days() {
+        return size;
+    }
+
+    // Attendance files are UTF-8; bytes were appended one per char, so re-decode non-ASCII lines
+    private static String decode(StringBuilder line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) >= 0x80) {
+                byte[] bytes = new byte[line.length()];
+                for (int j = 0; j < bytes.length; j++) bytes[j] = (byte) line.charAt(j);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return line.toString();
+    }
+
+    private int find(long key) {
+        int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) return -1;
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+    }
+
+    // Adds a zeroed row for a new employee-day
+    private int append(long key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            minutes = Arrays.copyOf(minutes, size * 2 * COLUMNS);
+            slots = new int[size * 4];
+            for (int row = 0; row < size; row++) insert(row);
+        }
+        int row = size++;
+        keys[row] = key;
+        insert(row);
+        return row;
+    }
+
+    private void insert(int row) {
+        int mask = slots.length - 1;
+        int slot = hash(keys[row]) & mask;
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        slots[slot] = row + 1;
+    }
+
+    // Same Fibonacci hash as WeeklyAggregateStore
+    private static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+}
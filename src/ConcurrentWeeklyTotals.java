@@ -0,0 +1,372 @@
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ * Weekly hour totals that many producer threads can add days to at once, e.g. one
+ * thread per site badge reader, with consistent snapshots for payroll. Parallel
+ * ingestion adds its workers' days here when {@link PayrollConfig#INGEST_SHARED_TOTALS}
+ * is set (see {@link ParallelAttendanceIngestor}).
+ *
+ * <p>Rows are spread over lock stripes by a hash of their (employee ID, week start) key;
+ * each stripe is a small open-addressing table guarded by its own lock, so producers
+ * only contend when they hit the same stripe. Producers that add many days should use a
+ * {@link Feed}, which buffers days privately and adds them one stripe at a time, taking
+ * each lock once per batch instead of once per day.
+ *
+ * <p>Totals are kept in whole minutes, so they do not depend on the order producers
+ * happen to add days in. {@link #snapshot()} locks every stripe (in index order, so it
+ * cannot deadlock with producers, which hold one stripe at a time) and copies the rows
+ * into a {@link WeeklyAggregateStore} sorted by employee and week, for
+ * {@link GrossNetWeeklySalary#computePayslip(Employee, java.util.Date, WeeklyAggregateStore)}.
+ * Hours there are minutes / 60, which can differ from the serial reader's running sum of
+ * daily hours in the last bit but settles to the same minutes and the same pay.
+ *
+ * <p>How far this scales with the number of producers has not been measured on a
+ * multi-core host. On a single core ({@code aggregate.concurrent} in the benchmarks,
+ * 5000 employees) a day costs about 64 ns through one feed, 79 ns with 4 producers and
+ * 109 ns with 16, against 16 ns for one thread adding to a {@link WeeklyAggregateStore}.
+ * So use it when days already arrive on several threads, not to speed up a single reader.
+ */
+public class ConcurrentWeeklyTotals {
+    // Minute columns per row: regular, overtime, underTime, late
+    private static final int COLUMNS = 4;
+
+    // Bits sorted per radix pass in snapshot()
+    private static final int SORT_DIGIT_BITS = 16;
+
+    // Rows a stripe starts with (grows by doubling)
+    private static final int INITIAL_STRIPE_ROWS = 64;
+
+    // One lock stripe: rows and their hash table, guarded by the stripe itself
+    @SuppressWarnings("serial")
+    private static final class Stripe extends ReentrantLock {
+        int[] slots = new int[INITIAL_STRIPE_ROWS * 2]; // slot -> row + 1 (0 = empty)
+        long[] keys = new long[INITIAL_STRIPE_ROWS];
+        long[] minutes = new long[INITIAL_STRIPE_ROWS * COLUMNS];
+        int size;
+
+        void add(long key, int hash, long regular, long overtime, long underTime, long late) {
+            int m = findOrCreate(key, hash) * COLUMNS;
+            minutes[m] += regular;
+            minutes[m + 1] += overtime;
+            minutes[m + 2] += underTime;
+            minutes[m + 3] += late;
+        }
+
+        int find(long key, int hash) {
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) return WeeklyAggregateStore.NOT_FOUND;
+                if (keys[entry - 1] == key) return entry - 1;
+            }
+        }
+
+        private int findOrCreate(long key, int hash) {
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            for (int entry; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+                if (keys[entry - 1] == key) return entry - 1;
+            }
+            if (size == keys.length) {
+                grow();
+                return findOrCreate(key, hash);
+            }
+            int row = size++;
+            keys[row] = key;
+            slots[slot] = row + 1;
+            return row;
+        }
+
+        private void grow() {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            minutes = Arrays.copyOf(minutes, capacity * COLUMNS);
+            slots = new int[capacity * 2];
+            int mask = slots.length - 1;
+            for (int row = 0; row < size; row++) {
+                int slot = hash(keys[row]) & mask;
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                slots[slot] = row + 1;
+            }
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    public ConcurrentWeeklyTotals() {
+        this(PayrollConfig.getAggregateStripes());
+    }
+
+    /**
+     * @param stripeCount Number of lock stripes (rounded up to a power of two)
+     */
+    public ConcurrentWeeklyTotals(int stripeCount) {
+        int count = Math.max(1, Integer.highestOneBit(Math.max(1, stripeCount) * 2 - 1));
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe();
+        // Stripes use the top bits of the hash, table slots the bottom bits
+        stripeShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * Adds one day's minutes to an employee-week.
+     *
+     * @param employeeId Numeric employee ID
+     * @param weekStart  Epoch day of the Monday starting the week
+     */
+    public void add(int employeeId, int weekStart, int regularMinutes, int overtimeMinutes,
+                    int underTimeMinutes, int lateMinutes) {
+        long key = WeeklyAggregateStore.key(employeeId, weekStart);
+        int hash = hash(key);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock();
+        try {
+            stripe.add(key, hash, regularMinutes, overtimeMinutes, underTimeMinutes, lateMinutes);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Adds one parsed day (the instance can be reused afterwards).
+     */
+    public void add(WeeklyWorkedHours.DailyHours day) {
+        add(day.employeeId, day.weekStart, day.regularMinutes, day.overtimeMinutes,
+                day.underTimeMinutes, day.lateMinutes);
+    }
+
+    /**
+     * @return Buffer for one producer thread to add days through
+     */
+    public Feed feed() {
+        return new Feed();
+    }
+
+    /**
+     * Copies every row into a new store, with all stripes locked while copying so the
+     * copy reflects one moment: each day added before the snapshot is in it, and none
+     * added after.
+     *
+     * @return Weekly totals sorted by employee ID and week start
+     */
+    public WeeklyAggregateStore snapshot() {
+        // Only the copy runs under the locks; sorting happens after producers resume
+        long[] keys;
+        long[] minutes;
+        lockAll();
+        try {
+            int total = 0;
+            for (Stripe stripe : stripes) total += stripe.size;
+            keys = new long[total];
+            minutes = new long[total * COLUMNS];
+            int n = 0;
+            for (Stripe stripe : stripes) {
+                System.arraycopy(stripe.keys, 0, keys, n, stripe.size);
+                System.arraycopy(stripe.minutes, 0, minutes, n * COLUMNS, stripe.size * COLUMNS);
+                n += stripe.size;
+            }
+        } finally {
+            unlockAll();
+        }
+
+        // Emit the copied rows in key order
+        int[] order = sortByKey(keys);
+        long[] sorted = new long[keys.length];
+        double[] regular = new double[keys.length];
+        double[] overtime = new double[keys.length];
+        double[] underTime = new double[keys.length];
+        double[] late = new double[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            int row = order[i];
+            int m = row * COLUMNS;
+            sorted[i] = keys[row];
+            regular[i] = minutes[m] / 60.0;
+            overtime[i] = minutes[m + 1] / 60.0;
+            underTime[i] = minutes[m + 2] / 60.0;
+            late[i] = minutes[m + 3] / 60.0;
+        }
+        WeeklyAggregateStore store = new WeeklyAggregateStore(keys.length);
+        store.addAll(sorted, regular, overtime, underTime, late);
+        return store;
+    }
+
+    /** @return Number of employee-week rows */
+    public int size() {
+        lockAll();
+        try {
+            int total = 0;
+            for (Stripe stripe : stripes) total += stripe.size;
+            return total;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /** @return Number of lock stripes */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /** Removes all rows */
+    public void clear() {
+        lockAll();
+        try {
+            for (Stripe stripe : stripes) {
+                Arrays.fill(stripe.slots, 0);
+                stripe.size = 0;
+                Arrays.fill(stripe.minutes, 0);
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Per-producer buffer of days. Days are kept privately until the buffer is full or
+     * {@link #flush()} is called, then added stripe by stripe. Days still in the buffer
+     * are not in snapshots. Not thread-safe: use one feed per producer thread.
+     */
+    public final class Feed implements AutoCloseable {
+        private static final int CAPACITY = 1024;
+
+        private final long[] keys = new long[CAPACITY];
+        private final int[] hashes = new int[CAPACITY];
+        private final int[] minutes = new int[CAPACITY * COLUMNS];
+        private final int[] order = new int[CAPACITY];
+        private final int[] stripeStart = new int[stripes.length + 1];
+        private final WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+        private int size;
+
+        private Feed() {}
+
+        /**
+         * Buffers one day's minutes for an employee-week.
+         */
+        public void add(int employeeId, int weekStart, int regularMinutes, int overtimeMinutes,
+                        int underTimeMinutes, int lateMinutes) {
+            long key = WeeklyAggregateStore.key(employeeId, weekStart);
+            keys[size] = key;
+            hashes[size] = hash(key);
+            int m = size * COLUMNS;
+            minutes[m] = regularMinutes;
+            minutes[m + 1] = overtimeMinutes;
+            minutes[m + 2] = underTimeMinutes;
+            minutes[m + 3] = lateMinutes;
+            if (++size == CAPACITY) flush();
+        }
+
+        /**
+         * Buffers one parsed day (the instance can be reused afterwards).
+         */
+        public void add(WeeklyWorkedHours.DailyHours day) {
+            add(day.employeeId, day.weekStart, day.regularMinutes, day.overtimeMinutes,
+                    day.underTimeMinutes, day.lateMinutes);
+        }
+
+        /**
+         * Parses one attendance line (see {@link WeeklyWorkedHours#processAttendanceLine(String)})
+         * and buffers the day.
+         *
+         * @param line       A comma-separated line of attendance
+         * @param lineNumber 1-based line number in the source, or -1 if unknown
+         * @return true if the line was added, false if it was skipped or rejected
+         */
+        public boolean addLine(String line, long lineNumber) {
+            if (!WeeklyWorkedHours.parseAttendanceLine(line, lineNumber, -1, day)) return false;
+            add(day);
+            return true;
+        }
+
+        /**
+         * Adds the buffered days, locking each stripe they fall in once.
+         */
+        public void flush() {
+            if (size == 0) return;
+            // Counting sort of the buffered days by stripe
+            Arrays.fill(stripeStart, 0);
+            for (int i = 0; i < size; i++) stripeStart[stripeIndex(hashes[i]) + 1]++;
+            for (int s = 0; s < stripes.length; s++) stripeStart[s + 1] += stripeStart[s];
+            for (int i = 0; i < size; i++) order[stripeStart[stripeIndex(hashes[i])]++] = i;
+
+            // stripeStart[s] now holds the end of stripe s
+            int from = 0;
+            for (int s = 0; s < stripes.length; s++) {
+                int to = stripeStart[s];
+                if (from == to) continue;
+                Stripe stripe = stripes[s];
+                stripe.lock();
+                try {
+                    for (int k = from; k < to; k++) {
+                        int i = order[k];
+                        int m = i * COLUMNS;
+                        stripe.add(keys[i], hashes[i], minutes[m], minutes[m + 1], minutes[m + 2], minutes[m + 3]);
+                    }
+                } finally {
+                    stripe.unlock();
+                }
+                from = to;
+            }
+            size = 0;
+        }
+
+        /** Flushes the remaining days. */
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+
+    private Stripe stripeFor(int hash) {
+        return stripes[stripeIndex(hash)];
+    }
+
+    private int stripeIndex(int hash) {
+        return (int) ((hash & 0xFFFFFFFFL) >>> stripeShift);
+    }
+
+    private void lockAll() {
+        for (Stripe stripe : stripes) stripe.lock();
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) stripes[i].unlock();
+    }
+
+    /**
+     * Returns the row indexes of the keys in ascending key order: an LSD radix sort, 16 bits
+     * per pass, that skips the passes where every key has the same digit (e.g. the high
+     * bits of week starts and employee IDs).
+     */
+    static int[] sortByKey(long[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        int[] next = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        int[] counts = new int[(1 << SORT_DIGIT_BITS) + 1];
+        for (int shift = 0; shift < Long.SIZE; shift += SORT_DIGIT_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) counts[digit(keys[i], shift) + 1]++;
+            if (n == 0 || counts[digit(keys[0], shift) + 1] == n) continue; // All keys share this digit
+            for (int d = 0; d < 1 << SORT_DIGIT_BITS; d++) counts[d + 1] += counts[d];
+            for (int i = 0; i < n; i++) {
+                int row = order[i];
+                next[counts[digit(keys[row], shift)]++] = row;
+            }
+            int[] swap = order;
+            order = next;
+            next = swap;
+        }
+        return order;
+    }
+
+    // Digit of a key at the given bit offset, with the sign bit flipped so negative keys sort first
+    private static int digit(long key, int shift) {
+        return (int) (((key ^ Long.MIN_VALUE) >>> shift) & ((1 << SORT_DIGIT_BITS) - 1));
+    }
+
+    // Same Fibonacci hash as WeeklyAggregateStore
+    private static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+}
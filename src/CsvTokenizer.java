@@ -0,0 +1,189 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+/**
+ * Reusable single-pass CSV tokenizer (RFC 4180: quoted fields, embedded commas,
+ * doubled quotes as escapes).
+ *
+ * <p>{@link #tokenize} splits one line into fields stored as [start, end) slices of an
+ * internal character buffer, so reading a field needs no substring. Quotes are removed
+ * and {@code ""} is unescaped to {@code "} while scanning, and whitespace around each
+ * field is trimmed. The tokenizer itself is a {@link CharSequence} over that buffer, so
+ * slices can be handed straight to parsers such as {@link DateUtils#parseEpochDay}.
+ *
+ * <p>Buffers are reused between lines and grown on demand. Not thread-safe: use one
+ * instance per thread.
+ */
+public class CsvTokenizer implements CharSequence {
+    // Raw characters of the current line (for error messages)
+    private char[] raw = new char[256];
+    private int rawLength;
+
+    // Unquoted, unescaped field text; field slices point into this buffer
+    private char[] text = new char[256];
+    private int textLength;
+
+    // Field boundaries in text
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private int fieldCount;
+
+    /**
+     * Tokenizes one line (without its line terminator).
+     *
+     * @param line CSV line
+     * @return Number of fields (an empty line has one empty field)
+     */
+    public int tokenize(CharSequence line) {
+        int length = line.length();
+        ensureCapacity(length);
+        if (line instanceof String) {
+            ((String) line).getChars(0, length, raw, 0);
+        } else {
+            for (int i = 0; i < length; i++) raw[i] = line.charAt(i);
+        }
+        rawLength = length;
+        return scan();
+    }
+
+    /**
+     * Tokenizes one line of single-byte (ASCII/ISO-8859-1) text without decoding it
+     * to a String first.
+     *
+     * @param bytes  Source bytes
+     * @param offset Start of the line
+     * @param length Line length in bytes (without line terminator)
+     * @return Number of fields
+     */
+    public int tokenize(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            raw[i] = (char) (bytes[offset + i] & 0xFF);
+        }
+        rawLength = length;
+        return scan();
+    }
+
+    /**
+     * Tokenizes one line of single-byte text read with absolute gets from a buffer
+     * (e.g. a memory-mapped file), without copying it into a byte array first.
+     *
+     * @param buffer Source buffer (position and limit are not changed)
+     * @param offset Absolute index of the line start
+     * @param length Line length in bytes (without line terminator)
+     * @return Number of fields
+     */
+    public int tokenize(ByteBuffer buffer, int offset, int length) {
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            raw[i] = (char) (buffer.get(offset + i) & 0xFF);
+        }
+        rawLength = length;
+        return scan();
+    }
+
+    // Single pass over raw: splits on commas outside quotes and unescapes into text
+    private int scan() {
+        fieldCount = 0;
+        textLength = 0;
+        int pos = 0;
+        do {
+            int fieldStart = textLength;
+            boolean quoted = false;
+            for (; pos < rawLength; pos++) {
+                char c = raw[pos];
+                if (c == '"') {
+                    if (quoted && pos + 1 < rawLength && raw[pos + 1] == '"') {
+                        text[textLength++] = '"'; // Escaped quote
+                        pos++;
+                    } else {
+                        quoted = !quoted;
+                    }
+                } else if (c == ',' && !quoted) {
+                    break;
+                } else {
+                    text[textLength++] = c;
+                }
+            }
+            addField(fieldStart, textLength);
+        } while (pos++ < rawLength); // Skip the comma; a trailing comma yields an empty last field
+        return fieldCount;
+    }
+
+    // Records a field slice, trimming surrounding whitespace
+    private void addField(int start, int end) {
+        while (start < end && text[start] <= ' ') start++;
+        while (end > start && text[end - 1] <= ' ') end--;
+
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void ensureCapacity(int length) {
+        if (raw.length < length) {
+            int capacity = Math.max(length, raw.length * 2);
+            raw = new char[capacity];
+            text = new char[capacity];
+        }
+    }
+
+    /** @return Number of fields in the current line */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /** @return Start offset of a field in this character sequence */
+    public int start(int field) {
+        return starts[field];
+    }
+
+    /** @return End offset (exclusive) of a field in this character sequence */
+    public int end(int field) {
+        return ends[field];
+    }
+
+    /** @return true if the field is empty after trimming */
+    public boolean isEmpty(int field) {
+        return starts[field] == ends[field];
+    }
+
+    /**
+     * Materializes a field as a String (allocates; use slices on hot paths).
+     */
+    public String field(int field) {
+        return new String(text, starts[field], ends[field] - starts[field]);
+    }
+
+    /**
+     * @return The current line as originally given (for error messages)
+     */
+    public String line() {
+        return new String(raw, 0, rawLength);
+    }
+
+    // --- CharSequence view over the unescaped field text ---
+
+    @Override
+    public int length() {
+        return textLength;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(text, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(text, 0, textLength);
+    }
+}
@@ -0,0 +1,365 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+/**
+ * Generates MotorPH-format employee and attendance CSVs at configurable scale for
+ * load testing ingestion and payroll runs.
+ *
+ * <p>The files use exactly the column layout read by {@link EmployeeDetails} and
+ * {@link WeeklyWorkedHours}. Attendance is written one row per employee per day, ordered
+ * by date then employee like the shipped export, and is streamed to disk so any size
+ * can be produced. Each employee gets a personal punctuality so late logins cluster on
+ * the same people; on top of that the file contains overtime, early logouts, absences,
+ * occasional weekend rows and a small share of malformed rows (bad dates, bad times,
+ * logout before login, missing columns). The same arguments and seed always produce
+ * byte-identical files.
+ *
+ * <p>Usage: {@code java DatasetGenerator <outputDir> [employees] [years] [seed]}
+ * (defaults: 1000 employees, 1 year, seed 1). Distribution rates can be changed with
+ * the {@code motorph.gen.*} system properties below.
+ */
+public class DatasetGenerator {
+    /** Share of employee-days with a login after the grace period (default: 0.12) */
+    public static final String GEN_LATE_RATE = "motorph.gen.lateRate";
+
+    /** Share of employee-days with overtime (default: 0.15) */
+    public static final String GEN_OVERTIME_RATE = "motorph.gen.overtimeRate";
+
+    /** Share of employee-days with an early logout (default: 0.05) */
+    public static final String GEN_UNDERTIME_RATE = "motorph.gen.undertimeRate";
+
+    /** Share of employee-days without an attendance row (default: 0.03) */
+    public static final String GEN_ABSENCE_RATE = "motorph.gen.absenceRate";
+
+    /** Share of employee weekend days with an attendance row (default: 0.02) */
+    public static final String GEN_WEEKEND_RATE = "motorph.gen.weekendRate";
+
+    /** Share of malformed rows in both files (default: 0.001) */
+    public static final String GEN_MALFORMED_RATE = "motorph.gen.malformedRate";
+
+    /** Employee file name written to the output directory */
+    static final String EMPLOYEE_FILE_NAME = "MotorPH Employee Data.csv";
+
+    /** Attendance file name written to the output directory */
+    static final String ATTENDANCE_FILE_NAME = "MotorPH Employee attendance record.csv";
+
+    // First employee number (matches the shipped data)
+    static final int FIRST_EMPLOYEE_ID = 10001;
+
+    // Attendance starts on Monday 01/01/2024
+    static final int DEFAULT_FIRST_DAY = DateUtils.epochDay(2024, 1, 1);
+
+    // CSV headers, identical to the shipped files
+    private static final String EMPLOYEE_HEADER = "Employee #,Last Name,First Name,Birthday,Address,Phone Number,"
+            + "SSS #,Philhealth #,TIN #,Pag-ibig #,Status,Position,Immediate Supervisor,Basic Salary,"
+            + "Rice Subsidy,Phone Allowance,Clothing Allowance,Gross Semi-monthly Rate,Hourly Rate";
+    private static final String ATTENDANCE_HEADER = "Employee #,Last Name,First Name,Date,Log In,Log Out";
+
+    // Position tiers: name, basic salary range (PHP), phone and clothing allowance, share of the workforce
+    private static final String[] TIER_POSITIONS = {"Rank and File", "Team Leader", "Manager"};
+    private static final int[] TIER_MIN_SALARY = {22_500, 38_000, 50_000};
+    private static final int[] TIER_MAX_SALARY = {25_000, 43_000, 54_000};
+    private static final int[] TIER_PHONE_ALLOWANCE = {500, 800, 1_000};
+    private static final int[] TIER_CLOTHING_ALLOWANCE = {500, 800, 1_000};
+    private static final double[] TIER_SHARE = {0.85, 0.12, 0.03};
+    private static final String[] DEPARTMENTS = {
+            "HR", "Payroll", "Account", "Sales", "Supply Chain", "Customer Service", "IT", "Accounting"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Garcia", "Lim", "Aquino", "Reyes", "Hernandez", "Villanueva", "San Jose", "Romualdez",
+            "Atienza", "Alvaro", "Salcedo", "Lopez", "Farala", "Martinez", "Mata", "De Leon",
+            "Gonzales", "Bautista", "Santos", "Del Rosario", "Tolentino", "Mendoza", "Cruz", "Ramos"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Manuel", "Antonio", "Bianca Sofia", "Isabella", "Eduard", "Andrea Mae", "Brad", "Alice",
+            "Rosie", "Roderick", "Anthony", "Josie", "Martha", "Leila", "Fredrick", "Christian",
+            "Selena", "Allison", "Cydney", "Mark", "Darlene", "Kolby", "Vella", "Beatriz", "Carlos Ian"
+    };
+    private static final String[] CITIES = {
+            "Makati City", "Quezon City", "Taguig", "Pasig City", "Mandaluyong", "Dasmarinas, Cavite",
+            "Antipolo, Rizal", "Cebu City", "Davao City", "Iloilo City"
+    };
+
+    // Clock limits (minute of day) for generated logins and logouts
+    private static final int EARLIEST_LOGIN = 7 * 60;
+    private static final int LAST_ON_TIME_LOGIN = 8 * 60 + 10;
+    private static final int LATEST_LOGIN = 11 * 60;
+    private static final int WORKDAY_END = 17 * 60;
+    private static final int LATEST_LOGOUT = 23 * 60 + 30;
+
+    private DatasetGenerator() {}
+
+    // Command-line entry point
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java DatasetGenerator <outputDir> [employees] [years] [seed]");
+            return;
+        }
+        try {
+            Path outputDir = Paths.get(args[0]);
+            int employees = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+            int years = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+            int days = DateUtils.epochDay(2024 + years, 1, 1) - DEFAULT_FIRST_DAY;
+
+            long start = System.nanoTime();
+            Files.createDirectories(outputDir);
+            Profile profile = Profile.fromSystemProperties();
+            generateEmployees(outputDir.resolve(EMPLOYEE_FILE_NAME), employees, profile, seed);
+            long rows = generateAttendance(outputDir.resolve(ATTENDANCE_FILE_NAME), employees,
+                    DEFAULT_FIRST_DAY, days, profile, seed);
+
+            System.out.printf("Generated %,d employees and %,d attendance rows in %s (%.1f s)%n",
+                    employees, rows, outputDir, (System.nanoTime() - start) / 1e9);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes an employee CSV with the given number of employees, numbered from 10001.
+     * Employee 10001 is the CEO; everyone else is assigned a department and a position
+     * tier with a salary in that tier's range.
+     *
+     * @param file      Output file
+     * @param employees Number of employee rows
+     * @param profile   Distribution rates (only the malformed rate is used here)
+     * @param seed      Random seed
+     * @throws IOException If the file cannot be written
+     */
+    public static void generateEmployees(Path file, int employees, Profile profile, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder line = new StringBuilder(256);
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write(EMPLOYEE_HEADER);
+            out.write('\n');
+
+            for (int i = 0; i < employees; i++) {
+                line.setLength(0);
+                appendEmployee(line, FIRST_EMPLOYEE_ID + i, i, random);
+                if (random.nextDouble() < profile.malformedRate) {
+                    corruptEmployee(line, random);
+                }
+                out.append(line);
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes an attendance CSV covering {@code days} consecutive days from {@code firstDay}
+     * for employees 10001 onwards.
+     *
+     * @param file      Output file
+     * @param employees Number of employees
+     * @param firstDay  Epoch day of the first attendance date
+     * @param days      Number of calendar days to cover
+     * @param profile   Distribution rates
+     * @param seed      Random seed
+     * @return Number of attendance rows written (excluding the header)
+     * @throws IOException If the file cannot be written
+     */
+    public static long generateAttendance(Path file, int employees, int firstDay, int days,
+                                          Profile profile, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+
+        // Per-employee lateness propensity (0.2x - 1.8x of the average late rate)
+        double[] lateRates = new double[employees];
+        String[] names = new String[employees];
+        for (int i = 0; i < employees; i++) {
+            lateRates[i] = Math.min(1.0, profile.lateRate * (0.2 + 1.6 * random.nextDouble()));
+            names[i] = lastName(i) + "," + firstName(i);
+        }
+
+        long rows = 0;
+        StringBuilder line = new StringBuilder(64);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write(ATTENDANCE_HEADER);
+            out.write('\n');
+
+            for (int day = firstDay; day < firstDay + days; day++) {
+                boolean weekend = DateUtils.isWeekend(day);
+                String date = DateUtils.formatEpochDay(day);
+
+                for (int i = 0; i < employees; i++) {
+                    double presence = random.nextDouble();
+                    if (weekend ? presence >= profile.weekendRate : presence < profile.absenceRate) continue;
+
+                    int login = random.nextDouble() < lateRates[i]
+                            ? LAST_ON_TIME_LOGIN + 1 + Math.min(LATEST_LOGIN - LAST_ON_TIME_LOGIN - 1,
+                                    exponential(random, 25))
+                            : EARLIEST_LOGIN + 20 + random.nextInt(LAST_ON_TIME_LOGIN - EARLIEST_LOGIN - 19);
+
+                    double shape = random.nextDouble();
+                    int logout;
+                    if (shape < profile.overtimeRate) {
+                        logout = Math.min(LATEST_LOGOUT, WORKDAY_END + 30 + exponential(random, 90));
+                    } else if (shape < profile.overtimeRate + profile.undertimeRate) {
+                        logout = Math.max(login + 60, WORKDAY_END - 30 - random.nextInt(180));
+                    } else {
+                        logout = WORKDAY_END + random.nextInt(30);
+                    }
+
+                    line.setLength(0);
+                    line.append(FIRST_EMPLOYEE_ID + i).append(',').append(names[i]).append(',').append(date).append(',');
+                    appendTime(line, login).append(',');
+                    appendTime(line, logout);
+                    if (random.nextDouble() < profile.malformedRate) {
+                        corruptAttendance(line, login, logout, random);
+                    }
+                    out.append(line);
+                    out.write('\n');
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Appends one well-formed employee row
+    private static void appendEmployee(StringBuilder line, int id, int index, SplittableRandom random) {
+        int tier = index == 0 ? TIER_POSITIONS.length - 1 : pickTier(random);
+        int salary = index == 0 ? 90_000
+                : TIER_MIN_SALARY[tier] + 25 * random.nextInt((TIER_MAX_SALARY[tier] - TIER_MIN_SALARY[tier]) / 25 + 1);
+        String position = index == 0 ? "Chief Executive Officer"
+                : DEPARTMENTS[random.nextInt(DEPARTMENTS.length)] + " " + TIER_POSITIONS[tier];
+        String supervisor = index == 0 ? "N/A" : "\"" + lastName(index / 20) + ", " + firstName(index / 20) + "\"";
+        long hourlyRateCentavos = Math.round(salary * 100.0 / 168);
+
+        line.append(id).append(',').append(lastName(index)).append(',').append(firstName(index)).append(',');
+        appendTwoDigits(line, 1 + random.nextInt(12)).append('/');
+        appendTwoDigits(line, 1 + random.nextInt(28)).append('/').append(1965 + random.nextInt(40)).append(',');
+        line.append("\"Block ").append(1 + random.nextInt(99)).append(" Lot ").append(1 + random.nextInt(40))
+                .append(", ").append(CITIES[random.nextInt(CITIES.length)]).append("\",");
+        line.append(100 + random.nextInt(900)).append('-').append(100 + random.nextInt(900)).append('-')
+                .append(100 + random.nextInt(900)).append(',');
+        line.append(10 + random.nextInt(90)).append('-').append(1_000_000 + random.nextInt(9_000_000)).append('-')
+                .append(random.nextInt(10)).append(',');
+        line.append("8.20E+11,").append(100 + random.nextInt(900)).append("-605-657-000,6.91E+11,");
+        line.append(random.nextInt(5) == 0 ? "Probationary" : "Regular").append(',').append(position).append(',');
+        line.append(supervisor).append(',');
+        appendPesos(line, salary).append(',');
+        appendPesos(line, 1_500).append(',');
+        appendPesos(line, TIER_PHONE_ALLOWANCE[tier]).append(',');
+        appendPesos(line, TIER_CLOTHING_ALLOWANCE[tier]).append(',');
+        appendPesos(line, (salary + 1) / 2).append(',');
+        line.append(hourlyRateCentavos / 100).append('.');
+        appendTwoDigits(line, (int) (hourlyRateCentavos % 100));
+    }
+
+    // Replaces an employee row with one of the malformed variants seen in real exports
+    private static void corruptEmployee(StringBuilder line, SplittableRandom random) {
+        switch (random.nextInt(3)) {
+            case 0 -> line.delete(0, line.indexOf(","));                             // Missing employee ID
+            case 1 -> line.setLength(line.indexOf("\"Block"));                        // Truncated row (too few fields)
+            default -> line.replace(line.lastIndexOf(",") + 1, line.length(), "N/A"); // Unparseable hourly rate
+        }
+    }
+
+    // Replaces an attendance row with one of the malformed variants seen in real exports
+    private static void corruptAttendance(StringBuilder line, int login, int logout, SplittableRandom random) {
+        int dateStart = line.indexOf(",", line.indexOf(",", line.indexOf(",") + 1) + 1) + 1;
+        switch (random.nextInt(4)) {
+            case 0 -> line.replace(dateStart, dateStart + 10, "02/30/2024");            // Impossible date
+            case 1 -> line.replace(line.lastIndexOf(",") + 1, line.length(), "25:61"); // Bad logout time
+            case 2 -> {                                                                 // Logout before login
+                line.setLength(dateStart + 11);
+                appendTime(line, logout).append(',');
+                appendTime(line, login);
+            }
+            default -> line.setLength(line.lastIndexOf(","));                      // Missing log out column
+        }
+    }
+
+    // Draws a position tier according to TIER_SHARE
+    private static int pickTier(SplittableRandom random) {
+        double draw = random.nextDouble();
+        for (int tier = 0; tier < TIER_SHARE.length - 1; tier++) {
+            draw -= TIER_SHARE[tier];
+            if (draw < 0) return tier;
+        }
+        return TIER_SHARE.length - 1;
+    }
+
+    // Exponentially distributed minutes with the given mean
+    private static int exponential(SplittableRandom random, double meanMinutes) {
+        return (int) (-meanMinutes * Math.log(1.0 - random.nextDouble()));
+    }
+
+    private static String lastName(int index) {
+        return LAST_NAMES[index % LAST_NAMES.length];
+    }
+
+    private static String firstName(int index) {
+        return FIRST_NAMES[(index / LAST_NAMES.length) % FIRST_NAMES.length];
+    }
+
+    // Appends H:mm (the attendance export does not pad the hour)
+    private static StringBuilder appendTime(StringBuilder line, int minuteOfDay) {
+        line.append(minuteOfDay / 60).append(':');
+        return appendTwoDigits(line, minuteOfDay % 60);
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder line, int value) {
+        if (value < 10) line.append('0');
+        return line.append(value);
+    }
+
+    // Appends a whole peso amount quoted with thousands separators, e.g. "52,670"
+    private static StringBuilder appendPesos(StringBuilder line, int pesos) {
+        line.append('"');
+        if (pesos >= 1000) {
+            line.append(pesos / 1000).append(',');
+            int rest = pesos % 1000;
+            if (rest < 100) line.append('0');
+            if (rest < 10) line.append('0');
+            line.append(rest);
+        } else {
+            line.append(pesos);
+        }
+        return line.append('"');
+    }
+
+    /**
+     * Distribution rates for generated data, each a probability in [0, 1].
+     */
+    public static class Profile {
+        final double lateRate;
+        final double overtimeRate;
+        final double undertimeRate;
+        final double absenceRate;
+        final double weekendRate;
+        final double malformedRate;
+
+        public Profile(double lateRate, double overtimeRate, double undertimeRate,
+                       double absenceRate, double weekendRate, double malformedRate) {
+            this.lateRate = lateRate;
+            this.overtimeRate = overtimeRate;
+            this.undertimeRate = undertimeRate;
+            this.absenceRate = absenceRate;
+            this.weekendRate = weekendRate;
+            this.malformedRate = malformedRate;
+        }
+
+        /**
+         * @return Rates from the {@code motorph.gen.*} system properties, with defaults
+         */
+        public static Profile fromSystemProperties() {
+            return new Profile(
+                    PayrollConfig.getDouble(GEN_LATE_RATE, 0.12),
+                    PayrollConfig.getDouble(GEN_OVERTIME_RATE, 0.15),
+                    PayrollConfig.getDouble(GEN_UNDERTIME_RATE, 0.05),
+                    PayrollConfig.getDouble(GEN_ABSENCE_RATE, 0.03),
+                    PayrollConfig.getDouble(GEN_WEEKEND_RATE, 0.02),
+                    PayrollConfig.getDouble(GEN_MALFORMED_RATE, 0.001));
+        }
+    }
+}
@@ -1,48 +1,100 @@
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * Date helpers for attendance and payroll processing, built on java.time.
+ *
+ * <p>All state is immutable (formatters are cached per pattern), so every method is
+ * safe to call from many ingestion threads at once.
+ *
+ * <p>Besides the {@link Date}-based methods, this class offers an allocation-free fast
+ * path for the fixed attendance shapes: {@link #parseEpochDay} reads "MM/dd/yyyy" and
+ * {@link #parseMinuteOfDay} reads "H:mm" straight from a character sequence into an
+ * epoch day (days since 1970-01-01) or a minute of the day. Weeks start on Monday.
+ */
 public class DateUtils {
-    // Thread-unsafe date formatters (SimpleDateFormat is not thread-safe)
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("MM/dd/yyyy");
-    private static final SimpleDateFormat DATE_TIME_FORMAT = new SimpleDateFormat("MM/dd/yyyy HH:mm");
+    /** Returned by {@link #parseEpochDay} and {@link #epochDay} for malformed or impossible dates */
+    public static final int INVALID_DAY = Integer.MIN_VALUE;
+
+    /** Returned by {@link #parseMinuteOfDay} for malformed or out-of-range times */
+    public static final int INVALID_MINUTE = -1;
+
+    /** Minutes in one day */
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Days between 0000-03-01 and 1970-01-01 (civil calendar algorithm offset)
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    // Days in a 400-year Gregorian cycle
+    private static final int DAYS_PER_CYCLE = 146097;
+
+    // Time zone used to convert between epoch days and Date (matches the old Calendar behavior)
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // Parsers compiled once per pattern; DateTimeFormatter is immutable and thread-safe
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
 
     /**
      * Parses a date string using the given patterns (tries each until success).
+     * Like a non-lenient SimpleDateFormat, impossible dates (e.g. 02/30) are rejected,
+     * while single-digit months, days and hours are accepted.
      * @throws ParseException if no pattern matches the input
      */
     public static Date parseDate(String input, String... patterns) throws ParseException {
         for (String pattern : patterns) {
-            SimpleDateFormat sdf = new SimpleDateFormat(pattern);
-            sdf.setLenient(false);
             try {
-                return sdf.parse(input);
-            } catch (ParseException ignored) {}
+                TemporalAccessor parsed = formatterFor(pattern)
+                        .parseBest(input.trim(), LocalDateTime::from, LocalDate::from);
+                LocalDateTime dateTime = parsed instanceof LocalDateTime
+                        ? (LocalDateTime) parsed
+                        : ((LocalDate) parsed).atStartOfDay();
+                return Date.from(dateTime.atZone(ZONE).toInstant());
+            } catch (DateTimeParseException | IllegalArgumentException ignored) {}
         }
         throw new ParseException("Invalid date format: " + input, 0);
     }
 
-    public static boolean isLastWeekOfMonth(Date date) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        int lastDay = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
-        return cal.get(Calendar.DAY_OF_MONTH) > (lastDay - 7);
-    }
     /**
      * Checks if the given date falls within the last week of its month.
      * @param date The date to check
      * @return true if the date is within the last 7 days of the month, false otherwise
      */
+    public static boolean isLastWeekOfMonth(Date date) {
+        return isLastWeekOfMonth(toEpochDay(date));
+    }
+
+    /**
+     * Builds the week key for an employee: "employeeId_MM/dd/yyyy", where the date is
+     * the Monday on or before the given date.
+     * @param date Any date within the week
+     * @param employeeId ID of the employee
+     * @return Week key string
+     */
     public static String getWeekKey(Date date, String employeeId) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
+        return getWeekKey(toEpochDay(date), employeeId);
+    }
 
-        // (Monday as first day of the week)
-        cal.setFirstDayOfWeek(Calendar.MONDAY);
-        cal.setMinimalDaysInFirstWeek(4);
+    /**
+     * Week key for an employee and an epoch day (see {@link #getWeekKey(Date, String)}).
+     */
+    public static String getWeekKey(int epochDay, String employeeId) {
+        return employeeId + "_" + formatEpochDay(weekStart(epochDay));
+    }
 
-        cal.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY); // Always jump to Monday of the week
-        return employeeId + "_" + DATE_FORMAT.format(cal.getTime());
+    /**
+     * Formats a date as "MM/dd/yyyy" (the same format used in week keys).
+     * @param date The date to format
+     * @return Formatted date string
+     */
+    public static String formatDate(Date date) {
+        return formatEpochDay(toEpochDay(date));
     }
 
     /**
@@ -53,6 +105,199 @@ public class DateUtils {
      * @throws ParseException If the input format is invalid
      */
     public static Date parseDateTime(String dateStr, String timeStr) throws ParseException {
-        return DATE_TIME_FORMAT.parse(dateStr + " " + timeStr);
+        int epochDay = parseEpochDay(dateStr, 0, dateStr.length());
+        int minuteOfDay = parseMinuteOfDay(timeStr, 0, timeStr.length());
+        if (epochDay == INVALID_DAY || minuteOfDay == INVALID_MINUTE) {
+            throw new ParseException("Invalid date/time format: " + dateStr + " " + timeStr, 0);
+        }
+        return toDate(epochDay, minuteOfDay);
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Fast path: epoch days and minutes of the day, no Date/Calendar/substring objects
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Parses "M/d/yyyy" (1-2 digit month and day, 4 digit year) from {@code text[start, end)}.
+     * Surrounding spaces are ignored.
+     * @return Days since 1970-01-01, or {@link #INVALID_DAY} if malformed or impossible
+     */
+    public static int parseEpochDay(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) == ' ') start++;
+        while (end > start && text.charAt(end - 1) == ' ') end--;
+
+        int pos = start;
+        int month = 0, day = 0, year = 0, digits;
+
+        for (digits = 0; pos < end && digits < 2 && isDigit(text.charAt(pos)); pos++, digits++) {
+            month = month * 10 + (text.charAt(pos) - '0');
+        }
+        if (digits == 0 || pos >= end || text.charAt(pos++) != '/') return INVALID_DAY;
+
+        for (digits = 0; pos < end && digits < 2 && isDigit(text.charAt(pos)); pos++, digits++) {
+            day = day * 10 + (text.charAt(pos) - '0');
+        }
+        if (digits == 0 || pos >= end || text.charAt(pos++) != '/') return INVALID_DAY;
+
+        for (digits = 0; pos < end && isDigit(text.charAt(pos)); pos++, digits++) {
+            year = year * 10 + (text.charAt(pos) - '0');
+        }
+        if (digits != 4 || pos != end) return INVALID_DAY;
+
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * Parses "H:mm" (1-2 digit hour, 2 digit minute) from {@code text[start, end)}.
+     * Surrounding spaces are ignored.
+     * @return Minute of the day (0-1439), or {@link #INVALID_MINUTE} if malformed
+     */
+    public static int parseMinuteOfDay(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) == ' ') start++;
+        while (end > start && text.charAt(end - 1) == ' ') end--;
+
+        int pos = start;
+        int hour = 0, digits;
+        for (digits = 0; pos < end && digits < 2 && isDigit(text.charAt(pos)); pos++, digits++) {
+            hour = hour * 10 + (text.charAt(pos) - '0');
+        }
+        if (digits == 0 || end - pos != 3 || text.charAt(pos) != ':') return INVALID_MINUTE;
+
+        char tens = text.charAt(pos + 1);
+        char ones = text.charAt(pos + 2);
+        if (!isDigit(tens) || !isDigit(ones)) return INVALID_MINUTE;
+        int minute = (tens - '0') * 10 + (ones - '0');
+
+        if (hour > 23 || minute > 59) return INVALID_MINUTE;
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Converts a calendar date to days since 1970-01-01 (proleptic Gregorian).
+     * @return Epoch day, or {@link #INVALID_DAY} if the month or day is out of range
+     */
+    public static int epochDay(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) return INVALID_DAY;
+
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @return ISO day of week for an epoch day (1 = Monday ... 7 = Sunday)
+     */
+    public static int dayOfWeek(int epochDay) {
+        // 1970-01-01 was a Thursday (ISO 4)
+        return Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    /**
+     * @return true if the epoch day is a Saturday or Sunday
+     */
+    public static boolean isWeekend(int epochDay) {
+        return dayOfWeek(epochDay) >= 6;
+    }
+
+    /**
+     * @return Epoch day of the Monday on or before the given epoch day
+     */
+    public static int weekStart(int epochDay) {
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    /**
+     * @return true if the epoch day is within the last 7 days of its month
+     */
+    public static boolean isLastWeekOfMonth(int epochDay) {
+        int ymd = toYearMonthDay(epochDay);
+        int year = ymd / 10000, month = ymd / 100 % 100, day = ymd % 100;
+        return day > lengthOfMonth(year, month) - 7;
+    }
+
+    /**
+     * Formats an epoch day as "MM/dd/yyyy".
+     */
+    public static String formatEpochDay(int epochDay) {
+        int ymd = toYearMonthDay(epochDay);
+        int year = ymd / 10000, month = ymd / 100 % 100, day = ymd % 100;
+
+        char[] out = new char[10];
+        out[0] = (char) ('0' + month / 10);
+        out[1] = (char) ('0' + month % 10);
+        out[2] = '/';
+        out[3] = (char) ('0' + day / 10);
+        out[4] = (char) ('0' + day % 10);
+        out[5] = '/';
+        out[6] = (char) ('0' + year / 1000 % 10);
+        out[7] = (char) ('0' + year / 100 % 10);
+        out[8] = (char) ('0' + year / 10 % 10);
+        out[9] = (char) ('0' + year % 10);
+        return new String(out);
+    }
+
+    /**
+     * Converts an epoch day to a packed yyyyMMdd integer (e.g. 20231225).
+     */
+    public static int toYearMonthDay(int epochDay) {
+        int z = epochDay + DAYS_0000_TO_1970;
+        int era = Math.floorDiv(z, DAYS_PER_CYCLE);
+        int dayOfEra = z - era * DAYS_PER_CYCLE;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * @return Number of days in the given month (1-12) of the given year
+     */
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Converts a Date to its epoch day in the system time zone.
+     */
+    public static int toEpochDay(Date date) {
+        return (int) date.toInstant().atZone(ZONE).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * Converts an epoch day and minute of the day to a Date in the system time zone.
+     */
+    public static Date toDate(int epochDay, int minuteOfDay) {
+        LocalDateTime dateTime = LocalDate.ofEpochDay(epochDay).atTime(minuteOfDay / 60, minuteOfDay % 60);
+        return Date.from(dateTime.atZone(ZONE).toInstant());
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Returns the cached parser for a SimpleDateFormat-style pattern. Field widths are
+     * parsed leniently (as SimpleDateFormat did) but values are resolved strictly.
+     */
+    private static DateTimeFormatter formatterFor(String pattern) {
+        return FORMATTERS.computeIfAbsent(pattern, p -> new DateTimeFormatterBuilder()
+                .parseLenient()
+                .appendPattern(p.replace('y', 'u')) // "uuuu" = proleptic year, needed for STRICT
+                .toFormatter()
+                .withResolverStyle(ResolverStyle.STRICT));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+/**
+ * One version of the government deduction rules (SSS, PhilHealth, Pag-IBIG and withholding
+ * tax), in effect from a given date until the next version.
+ *
+ * <p>Each deduction is a bracket table held in sorted primitive arrays. An amount is
+ * resolved by binary search for the bracket containing the salary, then
+ * {@code amount + rate * (salary - excessOver)} of that bracket. Fixed contributions
+ * (SSS, Pag-IBIG) are brackets with a zero rate, a flat percentage (PhilHealth) is a
+ * single bracket, and the progressive tax brackets carry their base tax as amount.
+ *
+ * <p>All amounts are centavos and rates are millionths ({@link #RATE_SCALE}), so the only
+ * rounding is the rate product, rounded half away from zero to the centavo
+ * ({@link Money#scale}).
+ *
+ * <p>SSS, PhilHealth and Pag-IBIG brackets start at their bound (salary &gt;= bound), while
+ * tax brackets start just above it (income &gt; bound), matching how the schedules are
+ * published. Instances are immutable and safe to share between threads.
+ */
+public final class DeductionSchedule {
+    /** Rates are stored as parts of this (millionths, 1.5% = 15000) */
+    public static final long RATE_SCALE = 1_000_000;
+
+    /** Bound of a bracket without lower limit */
+    static final long NO_BOUND = Long.MIN_VALUE;
+
+    /** Epoch day from which this schedule applies */
+    final int effectiveDay;
+
+    private final Table sss;
+    private final Table philHealth;
+    private final Table pagIbig;
+    private final Table tax;
+
+    DeductionSchedule(int effectiveDay, Table sss, Table philHealth, Table pagIbig, Table tax) {
+        this.effectiveDay = effectiveDay;
+        this.sss = sss;
+        this.philHealth = philHealth;
+        this.pagIbig = pagIbig;
+        this.tax = tax;
+    }
+
+    /**
+     * Builds the schedule that used to be hard-coded in DeductionsCalculator:
+     * SSS PHP 135 below PHP 3,250 plus PHP 22.50 per PHP 500 step (max 44 steps),
+     * PhilHealth 1.5% employee share, Pag-IBIG PHP 100 and the 2023 tax brackets.
+     *
+     * @param effectiveDay Epoch day from which the schedule applies
+     */
+    static DeductionSchedule builtIn(int effectiveDay) {
+        long[] sssBounds = new long[45];
+        long[] sssAmounts = new long[45];
+        sssAmounts[0] = 13_500;
+        for (int step = 1; step <= 44; step++) {
+            sssBounds[step] = 325_000 + (step - 1) * 50_000L;
+            sssAmounts[step] = 13_500 + step * 2_250L;
+        }
+        return new DeductionSchedule(effectiveDay,
+                new Table(true, sssBounds, sssAmounts, new long[45], new long[45]),
+                new Table(true, new long[] {0}, new long[] {0}, new long[] {15_000}, new long[] {0}),
+                new Table(true, new long[] {0}, new long[] {10_000}, new long[] {0}, new long[] {0}),
+                new Table(false,
+                        new long[] {NO_BOUND, 2_083_200, 3_333_300, 6_666_700, 16_666_700, 66_666_700},
+                        new long[] {0, 0, 250_000, 1_083_300, 4_083_333, 20_083_333},
+                        new long[] {0, 200_000, 250_000, 300_000, 320_000, 350_000},
+                        new long[] {0, 2_083_300, 3_333_300, 6_666_700, 16_666_700, 66_666_700}));
+    }
+
+    /** @return Employee SSS contribution for a monthly salary (centavos) */
+    public long sss(long salaryCentavos) {
+        return sss.evaluate(salaryCentavos);
+    }
+
+    /** @return Employee PhilHealth contribution for a monthly salary (centavos) */
+    public long philHealth(long salaryCentavos) {
+        return philHealth.evaluate(salaryCentavos);
+    }
+
+    /** @return Employee Pag-IBIG contribution for a monthly salary (centavos) */
+    public long pagIbig(long salaryCentavos) {
+        return pagIbig.evaluate(salaryCentavos);
+    }
+
+    /** @return Withholding tax on a monthly taxable income (centavos) */
+    public long tax(long taxableIncomeCentavos) {
+        return tax.evaluate(taxableIncomeCentavos);
+    }
+
+    /**
+     * Computes the monthly deductions of many employees in one pass. For each index,
+     * taxable income is the salary minus the three contributions, as in the payslip.
+     * All arrays must have at least {@code salaries.length} elements; amounts are centavos.
+     *
+     * @param salaries   Monthly basic salaries
+     * @param sss        Receives SSS contributions
+     * @param philHealth Receives PhilHealth contributions
+     * @param pagIbig    Receives Pag-IBIG contributions
+     * @param tax        Receives withholding tax
+     */
+    public void computeMonthly(long[] salaries, long[] sss, long[] philHealth, long[] pagIbig, long[] tax) {
+        int count = salaries.length;
+        this.sss.evaluate(salaries, sss, count);
+        this.philHealth.evaluate(salaries, philHealth, count);
+        this.pagIbig.evaluate(salaries, pagIbig, count);
+
+        // Reuse the tax array for taxable income, then resolve it in place
+        for (int i = 0; i < count; i++) {
+            tax[i] = salaries[i] - (sss[i] + philHealth[i] + pagIbig[i]);
+        }
+        this.tax.evaluate(tax, tax, count);
+    }
+
+    /**
+     * A bracket table: for the bracket {@code i} containing x, the value is
+     * {@code amount[i] + rate[i] * (x - excessOver[i])} with the rate product rounded.
+     */
+    static final class Table {
+        // true: bracket i covers x >= bounds[i]; false: x > bounds[i]
+        private final boolean inclusive;
+        private final long[] bounds;
+        private final long[] amounts;
+        private final long[] rates;
+        private final long[] excessOver;
+
+        /**
+         * @param inclusive  Whether a bracket starts at its bound (true) or just above it
+         * @param bounds     Bracket lower bounds in centavos, strictly ascending; values below
+         *                   the first bound use the first bracket
+         * @param amounts    Fixed amount per bracket, in centavos
+         * @param rates      Rate in millionths applied to the part above excessOver, per bracket
+         * @param excessOver Threshold the rate applies above, per bracket, in centavos
+         */
+        Table(boolean inclusive, long[] bounds, long[] amounts, long[] rates, long[] excessOver) {
+            if (bounds.length == 0 || amounts.length != bounds.length
+                    || rates.length != bounds.length || excessOver.length != bounds.length) {
+                throw new IllegalArgumentException("Bracket columns must be non-empty and equally long");
+            }
+            for (int i = 1; i < bounds.length; i++) {
+                if (bounds[i] <= bounds[i - 1]) {
+                    throw new IllegalArgumentException("Bracket bounds must be strictly ascending: "
+                            + Money.format(bounds[i]));
+                }
+            }
+            this.inclusive = inclusive;
+            this.bounds = bounds.clone();
+            this.amounts = amounts.clone();
+            this.rates = rates.clone();
+            this.excessOver = excessOver.clone();
+        }
+
+        long evaluate(long x) {
+            int i = bracket(x);
+            return amounts[i] + Money.scale(x - excessOver[i], rates[i], RATE_SCALE);
+        }
+
+        // Evaluates the first count inputs; out may be the same array as in
+        void evaluate(long[] in, long[] out, int count) {
+            for (int i = 0; i < count; i++) {
+                int b = bracket(in[i]);
+                out[i] = amounts[b] + Money.scale(in[i] - excessOver[b], rates[b], RATE_SCALE);
+            }
+        }
+
+        // Index of the last bracket starting at or below x (0 if x is below all bounds)
+        private int bracket(long x) {
+            // Amounts are whole centavos, so "bound < x" is "bound <= x - 1"
+            long key = inclusive || x == Long.MIN_VALUE ? x : x - 1;
+            // Branch-free search: the step taken depends on data, the loop length does not
+            int base = 0;
+            int length = bounds.length;
+            while (length > 1) {
+                int half = length >>> 1;
+                base = bounds[base + half] <= key ? base + half : base;
+                length -= half;
+            }
+            return base;
+        }
+    }
+}
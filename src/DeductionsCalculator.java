@@ -1,43 +1,235 @@
-
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
 /**
- * Calculates SSS contribution using tiered rates:
- * - PHP 135 if salary < 3,250
- * - PHP 135 + (PHP 22.50 per PHP 500 increment above 3,250)
- * - Max 44 increments (salary >= 24,750)
+ * Calculates government deductions from versioned {@link DeductionSchedule}s.
+ *
+ * <p>Schedules are loaded from the deduction schedule CSV ({@link PayrollConfig#DEDUCTIONS_FILE})
+ * when it exists, so rates and brackets can change without recompiling; otherwise the
+ * built-in schedule below applies. Each schedule is in effect from its effective date
+ * until the next one; dates before the first schedule use the first.
+ *
+ * <p>Built-in schedule:
+ * - SSS: PHP 135 if salary < 3,250, plus PHP 22.50 per PHP 500 increment above 3,250
+ *   (max 44 increments, salary >= 24,750)
+ * - PhilHealth: 1.5% employee share
+ * - Pag-IBIG: PHP 100
+ * - Withholding tax: 2023 brackets
  */
 public class DeductionsCalculator {
+    /**
+     * Fixed monthly Pag-IBIG (HDMF) employee contribution (₱100).
+     * Applies to most employees regardless of salary.
+     */
+    public static final double PAG_IBIG_EMPLOYEE = 100.0;
+
+    // Schedule CSV columns
+    private static final int IDX_EFFECTIVE_DATE = 0;
+    private static final int IDX_DEDUCTION = 1;
+    private static final int IDX_BRACKET_FROM = 2;
+    private static final int IDX_AMOUNT = 3;
+    private static final int IDX_RATE = 4;
+    private static final int IDX_EXCESS_OVER = 5;
+    private static final int SCHEDULE_FIELDS = 6;
+
+    // Deduction names used in the schedule CSV
+    private static final List<String> DEDUCTIONS = List.of("SSS", "PHILHEALTH", "PAGIBIG", "TAX");
+
+    // Loaded schedules sorted by effective day, with their effective days for binary search
+    private static volatile DeductionSchedule[] schedules;
+    private static volatile int[] effectiveDays;
+
+    static {
+        String path = PayrollConfig.getDeductionsFile();
+        List<DeductionSchedule> loaded = null;
+        if (Files.exists(Paths.get(path))) {
+            try {
+                loaded = readSchedules(path);
+            } catch (IOException e) {
+                System.err.println("Using built-in deductions, could not load " + path + ": " + e.getMessage());
+            }
+        }
+        setSchedules(loaded != null ? loaded : List.of(DeductionSchedule.builtIn(Integer.MIN_VALUE)));
+    }
+
+    /**
+     * Calculates SSS contribution from the latest schedule.
+     * The peso methods convert to centavos, see {@link DeductionSchedule} for exact amounts.
+     */
     public static double calculateSSS(double salary) {
-        if (salary < 3250) return 135.0;
-        int steps = Math.min((int) ((salary - 3250) / 500) + 1, 44);
-        return 135.0 + steps * 22.50;
+        return Money.toPesos(latest().sss(Money.toCentavos(salary)));
     }
 
     /**
-     * Calculates employee's PhilHealth contribution (1.5% of salary).
-     * Employer matches an equal 1.5% (total 3% contribution).
+     * Calculates employee's PhilHealth contribution from the latest schedule
+     * (built-in: 1.5% of salary; employer matches an equal 1.5%, total 3%).
      * @param salary Monthly salary (>= 0)
      * @return Employee's share of PhilHealth contribution
      */
     public static double calculatePhilHealth(double salary) {
-        return (salary * 0.03) / 2;
+        return Money.toPesos(latest().philHealth(Money.toCentavos(salary)));
     }
+
     /**
-     * Calculates income tax using Philippine progressive tax brackets (2023).
-     * Rates: 0% (<₱20,833), 20-35% in brackets with base tax amounts.
-     * @param taxableIncome Annual income (₱)
+     * Calculates income tax from the latest schedule's progressive brackets
+     * (built-in: 2023 rates, 0% up to ₱20,832, then 20-35% with base tax amounts).
+     * @param taxableIncome Monthly taxable income (₱)
      * @return Tax due (₱)
      */
     public static double calculateTax(double taxableIncome) {
-        if (taxableIncome <= 20832) return 0.0;
-        if (taxableIncome <= 33333) return (taxableIncome - 20833) * 0.20;
-        if (taxableIncome <= 66667) return ((taxableIncome - 33333) * 0.25) + 2500;
-        if (taxableIncome <= 166667) return ((taxableIncome - 66667) * 0.30) + 10833;
-        if (taxableIncome <= 666667) return ((taxableIncome - 166667) * 0.32) + 40833.33;
-        return ((taxableIncome - 666667) * 0.35) + 200833.33;
+        return Money.toPesos(latest().tax(Money.toCentavos(taxableIncome)));
     }
+
     /**
-     * Fixed monthly Pag-IBIG (HDMF) employee contribution (₱100).
-     * Applies to most employees regardless of salary.
+     * Returns the schedule in effect on a date.
+     *
+     * @param epochDay Epoch day of the pay date
+     * @return Schedule with the latest effective date on or before that day
+     *         (the earliest schedule for days before all of them)
      */
-    public static final double PAG_IBIG_EMPLOYEE = 100.0;
-}
\ No newline at end of file
+    public static DeductionSchedule scheduleFor(int epochDay) {
+        int[] days = effectiveDays;
+        int index = Arrays.binarySearch(days, epochDay);
+        if (index < 0) index = Math.max(0, -index - 2); // Last schedule starting before the day
+        return schedules[index];
+    }
+
+    // Schedule with the latest effective date
+    private static DeductionSchedule latest() {
+        DeductionSchedule[] current = schedules;
+        return current[current.length - 1];
+    }
+
+    /**
+     * Loads deduction schedules from a CSV file and makes them the active schedules.
+     *
+     * @param filePath Path to the schedule CSV
+     * @throws IOException If the file cannot be read or contains an invalid schedule
+     *                     (the active schedules are then left unchanged)
+     */
+    public static void loadSchedules(String filePath) throws IOException {
+        setSchedules(readSchedules(filePath));
+    }
+
+    /**
+     * Replaces the active schedules (at least one; effective dates must be distinct).
+     */
+    static synchronized void setSchedules(List<DeductionSchedule> newSchedules) {
+        DeductionSchedule[] sorted = newSchedules.toArray(new DeductionSchedule[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(schedule -> schedule.effectiveDay));
+        int[] days = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            days[i] = sorted[i].effectiveDay;
+            if (i > 0 && days[i] == days[i - 1]) {
+                throw new IllegalArgumentException("Duplicate schedule for " + DateUtils.formatEpochDay(days[i]));
+            }
+        }
+        if (sorted.length == 0) throw new IllegalArgumentException("No deduction schedule");
+        // Publish the schedules before the days that index them
+        schedules = sorted;
+        effectiveDays = days;
+    }
+
+    /**
+     * Reads deduction schedules from a CSV file with the columns
+     * {@code Effective Date,Deduction,Bracket From,Amount,Rate,Excess Over}.
+     *
+     * <p>Each row is one bracket of one deduction (SSS, PHILHEALTH, PAGIBIG or TAX) of the
+     * schedule starting on the effective date (MM/dd/yyyy). A bracket applies from its
+     * Bracket From salary (for TAX: to incomes above it) and yields
+     * {@code Amount + Rate * (salary - Excess Over)}; an empty Bracket From means no lower
+     * bound and empty Amount, Rate or Excess Over mean 0. Amounts are read as exact
+     * centavos and rates to six decimals. Every schedule must define all
+     * four deductions. Lines starting with '#' are ignored.
+     *
+     * @param filePath Path to the schedule CSV
+     * @return Schedules in file order
+     * @throws IOException If the file cannot be read or is invalid
+     */
+    static List<DeductionSchedule> readSchedules(String filePath) throws IOException {
+        // effective day -> deduction -> brackets {from, amount, rate, excessOver}
+        Map<Integer, Map<String, List<long[]>>> rows = new TreeMap<>();
+        CsvTokenizer fields = new CsvTokenizer();
+
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            br.readLine(); // Skip header
+            String line;
+            int lineNumber = 1;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+                if (fields.tokenize(line) < SCHEDULE_FIELDS - 2) {
+                    throw new IOException("Line " + lineNumber + ": expected " + SCHEDULE_FIELDS + " fields");
+                }
+                int effectiveDay = DateUtils.parseEpochDay(fields, fields.start(IDX_EFFECTIVE_DATE),
+                        fields.end(IDX_EFFECTIVE_DATE));
+                String deduction = fields.field(IDX_DEDUCTION).toUpperCase(Locale.ROOT);
+                if (effectiveDay == DateUtils.INVALID_DAY || !DEDUCTIONS.contains(deduction)) {
+                    throw new IOException("Line " + lineNumber + ": invalid effective date or deduction");
+                }
+                try {
+                    long[] bracket = {
+                            number(fields, IDX_BRACKET_FROM, 2, DeductionSchedule.NO_BOUND),
+                            number(fields, IDX_AMOUNT, 2, 0),
+                            number(fields, IDX_RATE, 6, 0),
+                            number(fields, IDX_EXCESS_OVER, 2, 0)
+                    };
+                    rows.computeIfAbsent(effectiveDay, day -> new HashMap<>())
+                            .computeIfAbsent(deduction, name -> new ArrayList<>())
+                            .add(bracket);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+
+        List<DeductionSchedule> result = new ArrayList<>();
+        for (Map.Entry<Integer, Map<String, List<long[]>>> schedule : rows.entrySet()) {
+            String date = DateUtils.formatEpochDay(schedule.getKey());
+            Map<String, List<long[]>> tables = schedule.getValue();
+            for (String deduction : DEDUCTIONS) {
+                if (!tables.containsKey(deduction)) {
+                    throw new IOException("Schedule " + date + " has no " + deduction + " brackets");
+                }
+            }
+            try {
+                result.add(new DeductionSchedule(schedule.getKey(),
+                        table(true, tables.get("SSS")),
+                        table(true, tables.get("PHILHEALTH")),
+                        table(true, tables.get("PAGIBIG")),
+                        table(false, tables.get("TAX"))));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Schedule " + date + ": " + e.getMessage());
+            }
+        }
+        if (result.isEmpty()) throw new IOException("No deduction schedules in " + filePath);
+        return result;
+    }
+
+    // Builds a bracket table from {from, amount, rate, excessOver} rows, sorted by bound
+    private static DeductionSchedule.Table table(boolean inclusive, List<long[]> brackets) {
+        brackets.sort(Comparator.comparingLong(bracket -> bracket[0]));
+        int n = brackets.size();
+        long[] bounds = new long[n];
+        long[] amounts = new long[n];
+        long[] rates = new long[n];
+        long[] excessOver = new long[n];
+        for (int i = 0; i < n; i++) {
+            long[] bracket = brackets.get(i);
+            bounds[i] = bracket[0];
+            amounts[i] = bracket[1];
+            rates[i] = bracket[2];
+            excessOver[i] = bracket[3];
+        }
+        return new DeductionSchedule.Table(inclusive, bounds, amounts, rates, excessOver);
+    }
+
+    // Parses a fixed-point field, returning the default for a missing or empty field
+    private static long number(CsvTokenizer fields, int index, int decimals, long defaultValue) {
+        if (index >= fields.fieldCount() || fields.isEmpty(index)) return defaultValue;
+        return Money.parseFixed(fields.field(index), decimals);
+    }
+}
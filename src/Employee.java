@@ -0,0 +1,90 @@
+/**
+ * Immutable, pre-parsed employee record built once when the employee CSV is loaded.
+ *
+ * <p>Money fields are parsed at load time into whole centavos, so payroll calculations
+ * never touch the original text again. {@code id} is the numeric key used by
+ * {@link WeeklyAggregateStore} (see {@link EmployeeDetails#toNumericId(String)}).
+ */
+public record Employee(
+        int id,
+        String employeeNumber,
+        String lastName,
+        String firstName,
+        String birthday,
+        String address,
+        String phoneNumber,
+        String sssNumber,
+        String philhealthNumber,
+        String tinNumber,
+        String pagibigNumber,
+        String status,
+        String position,
+        String supervisor,
+        long basicSalaryCentavos,
+        long riceSubsidyCentavos,
+        long phoneAllowanceCentavos,
+        long clothingAllowanceCentavos,
+        long grossSemiMonthlyCentavos,
+        long hourlyRateCentavos) {
+
+    /**
+     * Builds an Employee from a parsed CSV row (see {@link EmployeeDetails#parseEmployeeLine(String)}).
+     * Missing text fields become empty strings.
+     *
+     * @param data Employee data fields indexed by the EmployeeDetails.IDX_* constants
+     * @return Employee with money fields converted to centavos
+     * @throws NumberFormatException if a salary, allowance or rate field is not a valid amount
+     */
+    public static Employee fromFields(String[] data) {
+        String employeeNumber = text(data, EmployeeDetails.IDX_EMPLOYEE_ID);
+        return new Employee(
+                EmployeeDetails.toNumericId(employeeNumber),
+                employeeNumber,
+                text(data, EmployeeDetails.IDX_LAST_NAME),
+                text(data, EmployeeDetails.IDX_FIRST_NAME),
+                text(data, EmployeeDetails.IDX_BIRTHDAY),
+                text(data, EmployeeDetails.IDX_ADDRESS),
+                text(data, EmployeeDetails.IDX_PHONE),
+                text(data, EmployeeDetails.IDX_SSS),
+                text(data, EmployeeDetails.IDX_PHILHEALTH),
+                text(data, EmployeeDetails.IDX_TIN),
+                text(data, EmployeeDetails.IDX_PAGIBIG),
+                text(data, EmployeeDetails.IDX_STATUS),
+                text(data, EmployeeDetails.IDX_POSITION),
+                text(data, EmployeeDetails.IDX_SUPERVISOR),
+                Money.parseCentavos(data[EmployeeDetails.IDX_BASIC_SALARY]),
+                Money.parseCentavos(data[EmployeeDetails.IDX_RICE_SUBSIDY]),
+                Money.parseCentavos(data[EmployeeDetails.IDX_PHONE_ALLOWANCE]),
+                Money.parseCentavos(data[EmployeeDetails.IDX_CLOTHING_ALLOWANCE]),
+                optionalCentavos(data, EmployeeDetails.IDX_GROSS_SEMI_MONTHLY),
+                Money.parseCentavos(data[EmployeeDetails.IDX_HOURLY_RATE]));
+    }
+
+    /**
+     * @return Field values in EmployeeDetails.IDX_* order, for display
+     */
+    public String[] toFields() {
+        return new String[] {
+                employeeNumber, lastName, firstName, birthday, address, phoneNumber,
+                sssNumber, philhealthNumber, tinNumber, pagibigNumber, status, position, supervisor,
+                formatAmount(basicSalaryCentavos), formatAmount(riceSubsidyCentavos),
+                formatAmount(phoneAllowanceCentavos), formatAmount(clothingAllowanceCentavos),
+                formatAmount(grossSemiMonthlyCentavos), formatAmount(hourlyRateCentavos)
+        };
+    }
+
+    // Text field or "" when missing
+    private static String text(String[] data, int index) {
+        return index < data.length && data[index] != null ? data[index] : "";
+    }
+
+    // The semi-monthly rate is informational only, so a blank value is treated as zero
+    private static long optionalCentavos(String[] data, int index) {
+        String value = text(data, index);
+        return value.isEmpty() ? 0 : Money.parseCentavos(value);
+    }
+
+    private static String formatAmount(long centavos) {
+        return String.format("%,.2f", Money.toPesos(centavos));
+    }
+}
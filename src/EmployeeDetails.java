@@ -1,8 +1,10 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class EmployeeDetails {
     // Constants for accessing employee data fields by index
@@ -37,12 +39,24 @@ public class EmployeeDetails {
             "Gross Semi-monthly Rate", "Hourly Rate"
     };
 
+    // Numeric IDs handed out to non-numeric employee IDs (e.g. "EMP001"), counting down
+    // from -1 so they can never clash with real numeric IDs, and the reverse mapping
+    private static final Map<String, Integer> NON_NUMERIC_IDS = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> NON_NUMERIC_TEXT = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_NON_NUMERIC_ID = new AtomicInteger();
+
+    /** Returned by {@link #findNumericId(String)} for an ID that was never assigned */
+    public static final int UNKNOWN_ID = Integer.MIN_VALUE;
+
+    // One reusable tokenizer per thread (CsvTokenizer is not thread-safe)
+    private static final ThreadLocal<CsvTokenizer> TOKENIZER = ThreadLocal.withInitial(CsvTokenizer::new);
+
     /**
      * Reads employee details from a CSV file and returns them as a map (ID -> employee data).
-     * Skips invalid records and logs errors.
+     * Skips invalid records and reports them to {@link RejectedRecords}.
      */
     public static Map<String, String[]> readEmployeeDetails(String filePath) throws IOException {
-        Map<String, String[]> employeeMap = new HashMap<>();
+        Map<String, String[]> employeeMap = new LinkedHashMap<>(); // Keeps file order
 
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             br.readLine(); // Skip header
@@ -56,10 +70,10 @@ public class EmployeeDetails {
                     if (isValidEmployeeRecord(employeeData)) {
                         employeeMap.put(employeeData[IDX_EMPLOYEE_ID], employeeData);
                     } else {
-                        System.err.println("Skipping invalid record at line " + lineNumber);
+                        RejectedRecords.reject(RejectedRecords.Reason.TOO_FEW_FIELDS, lineNumber, -1, line);
                     }
                 } catch (InvalidEmployeeRecordException e) {
-                    System.err.println("Error processing line " + lineNumber + ": " + e.getMessage());
+                    RejectedRecords.reject(RejectedRecords.Reason.MISSING_ID, lineNumber, -1, line);
                 }
             }
         }
@@ -67,26 +81,119 @@ public class EmployeeDetails {
     }
 
     /**
-     * Parses a CSV line into employee data fields, handling quoted values.
+     * Reads employee details into pre-parsed {@link Employee} records indexed by numeric
+     * employee ID, in file order. Salary, allowance and rate fields are converted to
+     * centavos once here so payroll calculations do no string work.
+     * Skips records with invalid money fields and reports them to {@link RejectedRecords}.
+     */
+    public static Map<Integer, Employee> readEmployees(String filePath) throws IOException {
+        Map<String, String[]> employeeMap = readEmployeeDetails(filePath);
+        Map<Integer, Employee> employees = new LinkedHashMap<>(employeeMap.size() * 2);
+
+        for (String[] employeeData : employeeMap.values()) {
+            try {
+                Employee employee = Employee.fromFields(employeeData);
+                employees.put(employee.id(), employee);
+            } catch (NumberFormatException e) {
+                RejectedRecords.reject(RejectedRecords.Reason.INVALID_AMOUNT, -1, -1, String.join(",", employeeData));
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Parses a CSV line into employee data fields, handling quoted values
+     * (embedded commas and doubled quotes) in a single pass with {@link CsvTokenizer}.
      * Trims whitespace and validates required fields (e.g., employee ID).
      * @throws InvalidEmployeeRecordException if parsing fails or required data is missing
      */
     static String[] parseEmployeeLine(String line) throws InvalidEmployeeRecordException {
-        try {
-            // Split CSV line while handling quoted fields
-            String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-
-            // Clean and validate fields
-            for (int i = 0; i < data.length; i++) {
-                data[i] = data[i].replace("\"", "").trim();
-                if (i == IDX_EMPLOYEE_ID && data[i].isEmpty()) {
-                    throw new InvalidEmployeeRecordException("Missing employee ID");
-                }
-            }
-            return data;
-        } catch (Exception e) {
-            throw new InvalidEmployeeRecordException("Failed to parse line: " + e.getMessage());
+        CsvTokenizer fields = TOKENIZER.get();
+        int count = fields.tokenize(line);
+        if (fields.isEmpty(IDX_EMPLOYEE_ID)) {
+            throw new InvalidEmployeeRecordException("Missing employee ID");
         }
+
+        String[] data = new String[count];
+        for (int i = 0; i < count; i++) {
+            data[i] = fields.field(i);
+        }
+        return data;
+    }
+
+    /**
+     * Converts an employee ID to the int used as key in {@link WeeklyAggregateStore}.
+     * Numeric IDs (e.g. "10001") map to their value; any other ID is assigned a stable
+     * negative number for the lifetime of the program. Safe to call from several threads.
+     * IDs with a leading zero (e.g. "010001") or more than 9 digits are not numeric here:
+     * their value would clash with another ID or overflow an int, and it would not turn
+     * back into the same text.
+     *
+     * @param employeeId Employee ID as it appears in the CSV files
+     * @return Numeric employee ID
+     */
+    public static int toNumericId(String employeeId) {
+        return toNumericId(employeeId, 0, employeeId.length());
+    }
+
+    /**
+     * Converts the employee ID in {@code text[start, end)} to its numeric form without
+     * creating a String for numeric IDs (see {@link #toNumericId(String)}).
+     */
+    public static int toNumericId(CharSequence text, int start, int end) {
+        int value = parseNumericId(text, start, end);
+        if (value >= 0) return value;
+        return NON_NUMERIC_IDS.computeIfAbsent(text.subSequence(start, end).toString(), id -> {
+            int assigned = NEXT_NON_NUMERIC_ID.decrementAndGet();
+            NON_NUMERIC_TEXT.put(assigned, id);
+            return assigned;
+        });
+    }
+
+    /**
+     * Looks up the numeric form of an employee ID without assigning one, for IDs that
+     * come from users rather than data files: unknown non-numeric IDs would otherwise
+     * each keep a table entry for the lifetime of the program.
+     *
+     * @param employeeId Employee ID as typed or sent in a query
+     * @return Numeric employee ID, or {@link #UNKNOWN_ID} for a non-numeric ID that no
+     *         data file has used
+     */
+    public static int findNumericId(String employeeId) {
+        int value = parseNumericId(employeeId, 0, employeeId.length());
+        if (value >= 0) return value;
+        return NON_NUMERIC_IDS.getOrDefault(employeeId, UNKNOWN_ID);
+    }
+
+    /** @return Number of non-numeric IDs assigned so far */
+    static int nonNumericIdCount() {
+        return NON_NUMERIC_IDS.size();
+    }
+
+    // Value of a numeric ID in text[start, end), or -1 if the ID is not numeric
+    private static int parseNumericId(CharSequence text, int start, int end) {
+        int value = 0;
+        int length = end - start;
+        // Up to 9 digits always fits in an int; "0" is the only ID that may start with 0
+        boolean numeric = length > 0 && length <= 9 && (length == 1 || text.charAt(start) != '0');
+        for (int i = start; numeric && i < end; i++) {
+            char c = text.charAt(i);
+            numeric = c >= '0' && c <= '9';
+            value = value * 10 + (c - '0');
+        }
+        return numeric ? value : -1;
+    }
+
+    /**
+     * Converts a numeric employee ID back to the ID text used in the CSV files
+     * (the reverse of {@link #toNumericId(String)}).
+     *
+     * @param numericId Numeric employee ID
+     * @return Employee ID text, or null for a negative ID that was never assigned
+     */
+    static String toEmployeeId(int numericId) {
+        if (numericId >= 0) return Integer.toString(numericId);
+        return NON_NUMERIC_TEXT.get(numericId);
     }
 
     /**
@@ -118,6 +225,13 @@ public class EmployeeDetails {
         System.out.println("______________________");
     }
 
+    /**
+     * Displays formatted details of a pre-parsed employee record.
+     */
+    public static void displayEmployeeDetails(Employee employee) {
+        displayEmployeeDetails(employee == null ? null : employee.toFields());
+    }
+
     // Custom exception for better error handling
     static class InvalidEmployeeRecordException extends Exception {
         public InvalidEmployeeRecordException(String message) {
@@ -1,6 +1,7 @@
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.locks.StampedLock;
 /**
  * This class calculates the gross and net weekly salary for employees based on their worked hours.
  * It reads employee details and attendance records from CSV files, allows user to select an employee,
@@ -13,77 +14,81 @@ import java.util.*;
  * - Handles potential file and parsing errors
  */
 public class GrossNetWeeklySalary {
-    // Overtime rate multiplier (1.25 = time and a quarter)
-    private static final double OVERTIME_RATE = 1.25;
+    // Overtime rate in percent of the hourly rate (125 = time and a quarter)
+    private static final long OVERTIME_RATE_PERCENT = 125;
+
+    // Minutes per hour, the unit worked time is paid in
+    private static final long MINUTES_PER_HOUR = 60;
+
+    // Source data files (relative to the project root)
+    static final String EMPLOYEE_FILE = "src/MotorPH Employee Data.csv";
+    static final String ATTENDANCE_FILE = "src/MotorPH Employee attendance record.csv";
 
     // Main method - program entry point
     public static void main(String[] args) {
+        // "--batch [output.csv]" runs the whole payroll non-interactively
+        if (args.length > 0 && PayrollBatch.BATCH_FLAG.equals(args[0])) {
+            PayrollBatch.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "--serve [port]" starts the local payslip HTTP service
+        if (args.length > 0 && PayrollService.SERVE_FLAG.equals(args[0])) {
+            PayrollService.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         try {
-            // Read employee details and process attendance records
-            Map<String, String[]> employees = EmployeeDetails.readEmployeeDetails("src/MotorPH Employee Data.csv");
-            WeeklyWorkedHours.processAttendanceFile("src/MotorPH Employee attendance record.csv");
+            // Read employee details and process attendance records (or restore them from a snapshot)
+            Map<Integer, Employee> employees = PayrollSnapshot.loadPayrollData(EMPLOYEE_FILE, ATTENDANCE_FILE);
 
-            // Get employee ID from user input
+            // Get employee from user input
             Scanner scanner = new Scanner(System.in);
-            String employeeId = promptEmployeeId(scanner, employees);
-            if (employeeId == null) return;
+            Employee employee = promptEmployee(scanner, employees);
+            if (employee == null) return;
 
             // Display employee details and calculate salary
-            displayEmployeeDetails(employees.get(employeeId));
-            processSalaryCalculation(scanner, employeeId, employees.get(employeeId));
+            displayEmployeeDetails(employee);
+            processSalaryCalculation(scanner, employee);
+            RejectedRecords.printSummary();
+            PayrollMetrics.printReportIfEnabled();
 
         } catch (IOException | ParseException e) {
             System.err.println("Error: " + e.getMessage());
         }
     }
 
-    private static String promptEmployeeId(Scanner scanner, Map<String, String[]> employees) {
+    private static Employee promptEmployee(Scanner scanner, Map<Integer, Employee> employees) {
         System.out.print("Enter employee ID: ");
         String id = scanner.nextLine().trim();
-        if (!employees.containsKey(id)) {
+        Employee employee = id.isEmpty() ? null : employees.get(EmployeeDetails.findNumericId(id));
+        if (employee == null) {
             System.out.println("Employee not found.");
-            return null;
         }
-        return id;
+        return employee;
     }
 
     /**
-     * Displays the details of an employee by delegating to {@link EmployeeDetails#displayEmployeeDetails(String[])}.
+     * Displays the details of an employee by delegating to {@link EmployeeDetails#displayEmployeeDetails(Employee)}.
      * This method serves as a wrapper to maintain consistent access to employee data display functionality.
      *
-     * @param empData An array of Strings containing the employee's details in the following order:
-     *                [0] - Employee ID
-     *                [1] - Last Name
-     *                [2] - First Name
-     *                ... (other employee attributes)
-     * @throws NullPointerException if empData is null
+     * @param employee The employee whose details are shown
      */
-    private static void displayEmployeeDetails(String[] empData) {
-        EmployeeDetails.displayEmployeeDetails(empData);
+    private static void displayEmployeeDetails(Employee employee) {
+        EmployeeDetails.displayEmployeeDetails(employee);
     }
 
     /**
      * Prompts the user to enter an employee ID and checks if it exists in the system.
      *
      * @param scanner   The Scanner object for reading user input.
-     * @param employeeId  A Map containing employee data with IDs as keys.
-     * @return The validated employee ID if found, otherwise null.
+     * @param employee  The selected employee.
      */
-    private static void processSalaryCalculation(Scanner scanner, String employeeId, String[] empData)
+    private static void processSalaryCalculation(Scanner scanner, Employee employee)
             throws ParseException {
         Date inputDate = getInputDate(scanner);
 
-        // Calculate salary based on employee data and input date
-        SalaryData salaryData = calculateSalary(empData, inputDate);
-        salaryData.isLastWeek = DateUtils.isLastWeekOfMonth(inputDate);
+        // Calculate salary, deductions and net pay for the selected week
+        SalaryData salaryData = computePayslip(employee, inputDate);
 
-        // Check if this is the last week of the month for special deductions
-        if (salaryData.isLastWeek) {
-            applyMonthlyDeductions(empData, salaryData);
-        } else {
-            // For non-last weeks, net pay equals gross pay (no deductions)
-            salaryData.netPay = salaryData.grossWeekly;
-        }
         // Display the calculated salary results to the user
         displayResults(salaryData);
         // Close the scanner to prevent resource leaks
@@ -129,50 +134,131 @@ public class GrossNetWeeklySalary {
      * @throws RuntimeException if financial data in empData is improperly formatted
      */
     static SalaryData calculateSalary(String[] empData, Date inputDate) {
-        SalaryData data = new SalaryData();
-        String weekKey = DateUtils.getWeekKey(inputDate, empData[EmployeeDetails.IDX_EMPLOYEE_ID]);
-        data.isLastWeek = DateUtils.isLastWeekOfMonth(inputDate);
-
         try {
-            data.hourlyRate = Double.parseDouble(empData[EmployeeDetails.IDX_HOURLY_RATE].replace(",", ""));
-            data.basicSalary = Double.parseDouble(empData[EmployeeDetails.IDX_BASIC_SALARY].replace(",", ""));
-            data.riceSubsidy = Double.parseDouble(empData[EmployeeDetails.IDX_RICE_SUBSIDY].replace(",", ""));
-            data.phoneAllowance = Double.parseDouble(empData[EmployeeDetails.IDX_PHONE_ALLOWANCE].replace(",", ""));
-            data.clothingAllowance = Double.parseDouble(empData[EmployeeDetails.IDX_CLOTHING_ALLOWANCE].replace(",", ""));
-
-            data.regularHours = WeeklyWorkedHours.weeklyHours.getOrDefault(weekKey, 0.0);
-            data.overtimeHours = WeeklyWorkedHours.weeklyOvertime.getOrDefault(weekKey, 0.0);
-            data.underTime = WeeklyWorkedHours.weeklyUnderTime.getOrDefault(weekKey, 0.0);
-            data.lateHours = WeeklyWorkedHours.weeklyLateTime.getOrDefault(weekKey, 0.0);
-
-            // Core calculations
-            data.basicPay = data.basicSalary / 4;
-            data.lateDeduction = data.lateHours * data.hourlyRate;
-            data.underTimeDeduction = data.underTime * data.hourlyRate;
-            data.overtimePay = data.overtimeHours * data.hourlyRate * OVERTIME_RATE;
-            data.grossWeekly = data.basicPay - data.lateDeduction - data.underTimeDeduction + data.overtimePay;
-
+            return calculateSalary(Employee.fromFields(empData), inputDate, WeeklyWorkedHours.weeklyTotals);
         } catch (NumberFormatException e) {
             throw new RuntimeException("Invalid financial data format in employee record", e);
         }
+    }
+
+    /**
+     * Calculates weekly salary components for a pre-parsed employee, reading worked hours
+     * from the given totals store. Does no string parsing.
+     *
+     * <p>Money is computed in centavos. Worked hours are settled to whole minutes, and each
+     * pay line (basic pay, late and under time deductions, overtime pay) is rounded half
+     * away from zero to the centavo once; gross pay is their exact sum.
+     *
+     * @param employee Employee record with money fields in centavos
+     * @param inputDate Date used to determine the work week
+     * @param totals Weekly hour totals to read from
+     * @return SalaryData object containing all calculated salary components
+     */
+    static SalaryData calculateSalary(Employee employee, Date inputDate, WeeklyAggregateStore totals) {
+        SalaryData data = new SalaryData();
+        int epochDay = DateUtils.toEpochDay(inputDate);
+        data.payDay = epochDay;
+        data.isLastWeek = DateUtils.isLastWeekOfMonth(epochDay);
+
+        data.hourlyRateCentavos = employee.hourlyRateCentavos();
+        data.basicSalaryCentavos = employee.basicSalaryCentavos();
+        data.riceSubsidyCentavos = employee.riceSubsidyCentavos();
+        data.phoneAllowanceCentavos = employee.phoneAllowanceCentavos();
+        data.clothingAllowanceCentavos = employee.clothingAllowanceCentavos();
+
+        // Read without locking; retry under the read lock if a live update ran meanwhile (see AttendanceStream)
+        StampedLock lock = WeeklyWorkedHours.weeklyTotalsLock;
+        int weekStart = DateUtils.weekStart(epochDay);
+        long stamp = lock.tryOptimisticRead();
+        try {
+            readHours(data, totals, employee.id(), weekStart);
+        } catch (RuntimeException e) {
+            stamp = 0; // The store grew under us; the locked read below is consistent
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                readHours(data, totals, employee.id(), weekStart);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Core calculations
+        long rate = data.hourlyRateCentavos;
+        data.basicPayCentavos = Money.scale(data.basicSalaryCentavos, 1, 4);
+        data.lateDeductionCentavos = Money.scale(rate, minutes(data.lateHours), MINUTES_PER_HOUR);
+        data.underTimeDeductionCentavos = Money.scale(rate, minutes(data.underTime), MINUTES_PER_HOUR);
+        data.overtimePayCentavos = Money.scale(rate, minutes(data.overtimeHours) * OVERTIME_RATE_PERCENT,
+                MINUTES_PER_HOUR * 100);
+        data.grossWeeklyCentavos = data.basicPayCentavos - data.lateDeductionCentavos
+                - data.underTimeDeductionCentavos + data.overtimePayCentavos;
         return data;
     }
 
-    private static void applyMonthlyDeductions(String[] empData, SalaryData data) {
-        // Add monthly allowance to gross pay
-        double totalAllowance = data.riceSubsidy + data.phoneAllowance + data.clothingAllowance;
-        data.grossWeekly += totalAllowance / 4;
+    // Copies an employee-week's hours into the payslip; weeks without attendance keep zero hours
+    private static void readHours(SalaryData data, WeeklyAggregateStore totals, int employeeId, int weekStart) {
+        int row = totals.find(employeeId, weekStart);
+        boolean found = row != WeeklyAggregateStore.NOT_FOUND;
+        data.regularHours = found ? totals.regularHours(row) : 0;
+        data.overtimeHours = found ? totals.overtimeHours(row) : 0;
+        data.underTime = found ? totals.underTimeHours(row) : 0;
+        data.lateHours = found ? totals.lateHours(row) : 0;
+    }
 
-        // Calculate deductions
-        data.sss = DeductionsCalculator.calculateSSS(data.basicSalary);
-        data.philhealth = DeductionsCalculator.calculatePhilHealth(data.basicSalary);
-        data.pagibig = DeductionsCalculator.PAG_IBIG_EMPLOYEE;
+    // Worked hours as whole minutes (attendance is recorded to the minute)
+    private static long minutes(double hours) {
+        return Math.round(hours * MINUTES_PER_HOUR);
+    }
 
-        double taxableIncome = data.basicSalary - (data.sss + data.philhealth + data.pagibig);
-        data.tax = DeductionsCalculator.calculateTax(taxableIncome);
+    /**
+     * Computes a complete payslip for one employee-week: weekly salary components plus,
+     * in the last week of the month, allowances and government deductions.
+     * Shared by the interactive prompt and the batch payroll run.
+     *
+     * @param employee Employee record with money fields in centavos
+     * @param inputDate Any date within the week being paid
+     * @return SalaryData with gross and net pay filled in
+     */
+    static SalaryData computePayslip(Employee employee, Date inputDate) {
+        return computePayslip(employee, inputDate, WeeklyWorkedHours.weeklyTotals);
+    }
 
-        data.totalDeductions = data.sss + data.philhealth + data.pagibig + data.tax;
-        data.netPay = data.grossWeekly - data.totalDeductions;
+    /**
+     * Computes a complete payslip reading worked hours from the given totals store.
+     */
+    static SalaryData computePayslip(Employee employee, Date inputDate, WeeklyAggregateStore totals) {
+        long started = PayrollMetrics.start();
+        SalaryData salaryData = calculateSalary(employee, inputDate, totals);
+
+        // Check if this is the last week of the month for special deductions
+        if (salaryData.isLastWeek) {
+            applyMonthlyDeductions(salaryData);
+        } else {
+            // For non-last weeks, net pay equals gross pay (no deductions)
+            salaryData.netPayCentavos = salaryData.grossWeeklyCentavos;
+        }
+        PayrollMetrics.stop(PayrollMetrics.Stage.PAYSLIP, started);
+        return salaryData;
+    }
+
+    private static void applyMonthlyDeductions(SalaryData data) {
+        // Add a quarter of the monthly allowance to gross pay, rounded once
+        data.grossWeeklyCentavos += Money.scale(data.totalAllowanceCentavos(), 1, 4);
+
+        // Calculate deductions with the rates in effect on the pay date
+        DeductionSchedule schedule = DeductionsCalculator.scheduleFor(data.payDay);
+        data.sssCentavos = schedule.sss(data.basicSalaryCentavos);
+        data.philhealthCentavos = schedule.philHealth(data.basicSalaryCentavos);
+        data.pagibigCentavos = schedule.pagIbig(data.basicSalaryCentavos);
+
+        data.taxableIncomeCentavos = data.basicSalaryCentavos
+                - (data.sssCentavos + data.philhealthCentavos + data.pagibigCentavos);
+        data.taxCentavos = schedule.tax(data.taxableIncomeCentavos);
+
+        data.totalDeductionsCentavos = data.sssCentavos + data.philhealthCentavos + data.pagibigCentavos
+                + data.taxCentavos;
+        data.netPayCentavos = data.grossWeeklyCentavos - data.totalDeductionsCentavos;
     }
     /**
      * Applies monthly deductions and allowances to the salary calculation.
@@ -192,55 +278,61 @@ public class GrossNetWeeklySalary {
      * 5. Determines final net pay
      */
     private static void displayResults(SalaryData data) {
-        System.out.println("\nAttendance Summary:");
-        System.out.printf("%-25s: %.2f hrs%n", "Regular Hours", data.regularHours);
-        System.out.printf("%-25s: %.2f hrs%n", "Over time Hours", data.overtimeHours);
-        System.out.printf("%-25s: %.2f hrs%n", "Under time Hours", data.underTime);
-        System.out.printf("%-25s: %.2f hrs%n", "Late Hours", data.lateHours);
-
-        System.out.println("\nSalary Breakdown:");
-        System.out.printf("%-25s: PHP %,.2f%n", "Basic Pay", data.basicPay);
-        System.out.printf("%-25s: PHP %,.2f%n", "Late Deduction", data.lateDeduction);
-        System.out.printf("%-25s: PHP %,.2f%n", "Under time Deduction", data.underTimeDeduction);
-        System.out.printf("%-25s: PHP %,.2f%n", "Overtime Pay", data.overtimePay);
+        // Built in one buffer and printed once, without printf
+        StringBuilder out = new StringBuilder(1024);
+        out.append("\nAttendance Summary:\n");
+        hoursLine(out, "Regular Hours", data.regularHours);
+        hoursLine(out, "Over time Hours", data.overtimeHours);
+        hoursLine(out, "Under time Hours", data.underTime);
+        hoursLine(out, "Late Hours", data.lateHours);
+
+        out.append("\nSalary Breakdown:\n");
+        amountLine(out, "Basic Pay", data.basicPayCentavos);
+        amountLine(out, "Late Deduction", data.lateDeductionCentavos);
+        amountLine(out, "Under time Deduction", data.underTimeDeductionCentavos);
+        amountLine(out, "Overtime Pay", data.overtimePayCentavos);
 
         // Only display monthly allowances during the last week payroll processing
         if (data.isLastWeek) {
-            // Calculate sum of all monthly allowances
-            double totalAllowance = data.riceSubsidy + data.phoneAllowance + data.clothingAllowance;
-            // Format and display the total monthly allowance with:
-            // - Left-aligned 25-character label
-            // - Philippine Peso currency format
-            // - 2 decimal places
-            // - Thousands separator
-            System.out.printf("%-25s: PHP %,.2f%n", "Monthly Allowance", totalAllowance);
+            amountLine(out, "Monthly Allowance", data.totalAllowanceCentavos());
         }
 
         /*
           Displays all applicable deductions for the payroll period.
           For last week of month: Shows full breakdown of government deductions and tax.
           For regular weeks: Indicates no deductions are applied.
-
-          @param data SalaryData object containing:
-         *            - isLastWeek: Flag indicating if processing last week
-         *            - sss: SSS deduction amount
-         *            - philhealth: PhilHealth deduction amount
-         *            - pagibig: Pag-IBIG deduction amount
-         *            - tax: Withholding tax amount
          */
-        System.out.println("\nDeductions:");
+        out.append("\nDeductions:\n");
         if (data.isLastWeek) {
-            System.out.printf("%-25s: PHP %,.2f%n", "SSS", data.sss);
-            System.out.printf("%-25s: PHP %,.2f%n", "PhilHealth", data.philhealth);
-            System.out.printf("%-25s: PHP %,.2f%n", "Pag-ibig", data.pagibig);
-            System.out.printf("%-25s: PHP %,.2f%n", "Withholding Tax", data.tax);
+            amountLine(out, "SSS", data.sssCentavos);
+            amountLine(out, "PhilHealth", data.philhealthCentavos);
+            amountLine(out, "Pag-ibig", data.pagibigCentavos);
+            amountLine(out, "Withholding Tax", data.taxCentavos);
         } else {
-            System.out.println("No deductions applied for non-last week");
+            out.append("No deductions applied for non-last week\n");
         }
 
-        System.out.println("\n" + "=".repeat(50));
-        System.out.printf("%-25s: PHP %,.2f%n", "NET PAY", data.netPay);
-        System.out.println("=".repeat(50));
+        out.append('\n').append("=".repeat(50)).append('\n');
+        amountLine(out, "NET PAY", data.netPayCentavos);
+        out.append("=".repeat(50));
+        System.out.println(out);
+    }
+
+    // Appends "label (padded to 25): 1.50 hrs"
+    private static void hoursLine(StringBuilder out, String label, double hours) {
+        // Hundredths of an hour print with two decimals like centavos
+        label(out, label).append(Money.format(Math.round(hours * 100))).append(" hrs\n");
+    }
+
+    // Appends "label (padded to 25): PHP 1,234.50"
+    private static void amountLine(StringBuilder out, String label, long centavos) {
+        label(out, label).append("PHP ").append(Money.formatGrouped(centavos)).append('\n');
+    }
+
+    private static StringBuilder label(StringBuilder out, String label) {
+        out.append(label);
+        for (int i = label.length(); i < 25; i++) out.append(' ');
+        return out.append(": ");
     }
 
     /**
@@ -249,19 +341,20 @@ public class GrossNetWeeklySalary {
      * 1. Input values from employee records
      * 2. Calculated salary components
      * 3. Deductions and net pay information
+     * All money fields are whole centavos (see {@link Money}).
      */
     static class SalaryData {
         // --- Input Values ---
         /** Hourly wage rate for the employee */
-        double hourlyRate;
+        long hourlyRateCentavos;
         /** Monthly base salary before deductions */
-        double basicSalary;
+        long basicSalaryCentavos;
         /** Monthly rice subsidy allowance */
-        double riceSubsidy;
+        long riceSubsidyCentavos;
         /** Monthly phone allowance */
-        double phoneAllowance;
+        long phoneAllowanceCentavos;
         /** Monthly clothing allowance */
-        double clothingAllowance;
+        long clothingAllowanceCentavos;
 
         // --- Calculated Values ---
         /** Regular hours worked in the week */
@@ -277,41 +370,52 @@ public class GrossNetWeeklySalary {
         double lateHours;
 
         /** Weekly basic pay (basicSalary / 4) */
-        double basicPay;
+        long basicPayCentavos;
 
         /** Deduction for late arrivals */
-        double lateDeduction;
+        long lateDeductionCentavos;
 
         /** Deduction for underTime */
-        double underTimeDeduction;
+        long underTimeDeductionCentavos;
 
         /** Overtime pay (overtimeHours * hourlyRate * 1.25) */
-        double overtimePay;
+        long overtimePayCentavos;
 
         /** Gross weekly pay before deductions */
-        double grossWeekly;
+        long grossWeeklyCentavos;
 
         // --- Deductions ---
         /** SSS (Social Security System) contribution */
-        double sss;
+        long sssCentavos;
 
         /** PhilHealth health insurance contribution */
-        double philhealth;
+        long philhealthCentavos;
 
         /** Pag-IBIG (HDMF) housing fund contribution */
-        double pagibig;
+        long pagibigCentavos;
+
+        /** Income the withholding tax was computed on (0 when no deductions apply) */
+        long taxableIncomeCentavos;
 
         /** Withholding tax amount */
-        double tax;
+        long taxCentavos;
 
         /** Sum of all deductions */
-        double totalDeductions;
+        long totalDeductionsCentavos;
 
         /** Final take-home pay after all deductions */
-        double netPay;
+        long netPayCentavos;
 
         // --- Flags ---
+        /** Epoch day of the date the payslip was computed for (selects the deduction schedule) */
+        int payDay;
+
         /** Indicates if processing the last week of the month */
         boolean isLastWeek;
+
+        /** @return Sum of the monthly rice, phone and clothing allowances */
+        long totalAllowanceCentavos() {
+            return riceSubsidyCentavos + phoneAllowanceCentavos + clothingAllowanceCentavos;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+/**
+ * Incremental attendance ingestion for append-only attendance files.
+ *
+ * <p>After each run the weekly totals are saved to a checkpoint file together with the
+ * byte offset just past the last ingested line, the number of the next line, and CRC32 checksums of the first and the
+ * last few kilobytes before that offset. The next run restores the totals, checks that
+ * the file still starts with the same bytes up to the offset, seeks there and folds only
+ * the newly appended lines. If the checkpoint is missing, unreadable or no longer
+ * matches the file (rewritten, truncated or edited), the whole file is ingested again
+ * and a fresh checkpoint is written. The checkpoint also holds the fingerprint of the
+ * shift CSV ({@link PayrollConfig#SHIFTS_FILE}, see {@link PayrollSnapshot#fingerprint}),
+ * because shifts change every total; after the shifts change, the file is read in full.
+ *
+ * <p>Only lines terminated by '\n' are ingested; an unfinished last line is left for
+ * the next run, so a line that is still being written is never counted twice.
+ */
+class IncrementalAttendanceIngestor {
+    // Checkpoint file identification ("MPCK") and format version
+    private static final int MAGIC = 0x4D50434B;
+    private static final int VERSION = 3;
+
+    // Bytes checksummed at the start of the file and just before the checkpoint offset
+    private static final int CHECKSUM_WINDOW = 4096;
+
+    private IncrementalAttendanceIngestor() {}
+
+    /**
+     * Brings the weekly totals up to date with the attendance file, resuming from the
+     * checkpoint when it is still valid, and then updates the checkpoint.
+     *
+     * @param filePath       Path to the attendance CSV file (MotorPH)
+     * @param checkpointPath Path of the checkpoint file
+     * @return true if the run resumed from the checkpoint, false if the whole file was read
+     * @throws IOException If the attendance file cannot be read or the checkpoint cannot be written
+     */
+    static boolean ingest(String filePath, String checkpointPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] ingested = restoreCheckpoint(channel, size, Paths.get(checkpointPath));
+            boolean resumed = ingested != null;
+            long start = resumed ? ingested[0] : MappedAttendanceReader.skipHeader(channel, size);
+            long line = resumed ? ingested[1] : 2; // Line 1 is the header
+
+            long end = lastLineEnd(channel, start, size);
+            if (end > start) {
+                line += MappedAttendanceReader.scan(channel, start, end, line, WeeklyWorkedHours::updateWeeklyTotals);
+            }
+            if (!resumed || end > start) {
+                writeCheckpoint(channel, end, line, Paths.get(checkpointPath));
+            }
+            return resumed;
+        }
+    }
+
+    /**
+     * Loads the checkpoint into the weekly totals if it matches the attendance file.
+     * The checkpoint is read through a memory map.
+     *
+     * @return Offset to resume from and the number of the line there, or null if the
+     *         checkpoint is missing or stale
+     */
+    private static long[] restoreCheckpoint(FileChannel channel, long size, Path checkpoint) {
+        if (!Files.exists(checkpoint)) return null;
+
+        try (FileChannel file = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+            ByteBuffer in = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                System.err.println("Ignoring checkpoint with unknown format: " + checkpoint);
+                return null;
+            }
+            long offset = in.getLong();
+            long line = in.getLong();
+            long headChecksum = in.getLong();
+            long tailChecksum = in.getLong();
+            boolean sameShifts = true;
+            for (long value : PayrollSnapshot.fingerprint(Paths.get(PayrollConfig.getShiftsFile()))) {
+                sameShifts &= in.getLong() == value;
+            }
+            if (!sameShifts) {
+                System.err.println("Shift schedules changed since last checkpoint, re-reading attendance in full");
+                return null;
+            }
+            if (offset > size
+                    || headChecksum != checksum(channel, 0, Math.min(offset, CHECKSUM_WINDOW))
+                    || tailChecksum != checksum(channel, Math.max(0, offset - CHECKSUM_WINDOW), offset)) {
+                System.err.println("Attendance file changed since last checkpoint, re-reading it in full");
+                return null;
+            }
+
+            // Read all rows before touching the totals, so a damaged file leaves them unchanged
+            int rows = in.getInt();
+            WeeklyAggregateStore saved = new WeeklyAggregateStore(rows);
+            for (int i = 0; i < rows; i++) {
+                int employeeId = in.getInt();
+                if (employeeId < 0) {
+                    byte[] text = new byte[in.getShort()];
+                    in.get(text);
+                    employeeId = EmployeeDetails.toNumericId(new String(text, StandardCharsets.UTF_8));
+                }
+                saved.add(employeeId, in.getInt(), in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble());
+            }
+
+            WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+            for (int row = 0; row < saved.size(); row++) {
+                totals.add(saved.employeeId(row), saved.weekStart(row), saved.regularHours(row),
+                        saved.overtimeHours(row), saved.underTimeHours(row), saved.lateHours(row));
+            }
+            return new long[] {offset, line};
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable checkpoint " + checkpoint + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves the weekly totals, the ingested offset and the number of the line there. The checkpoint is written to a
+     * temporary file first and then moved into place, so a crash never leaves a
+     * half-written checkpoint behind.
+     */
+    private static void writeCheckpoint(FileChannel channel, long offset, long line, Path checkpoint) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        WeeklyAggregateStore totals = WeeklyWorkedHours.weeklyTotals;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(offset);
+            out.writeLong(line);
+            out.writeLong(checksum(channel, 0, Math.min(offset, CHECKSUM_WINDOW)));
+            out.writeLong(checksum(channel, Math.max(0, offset - CHECKSUM_WINDOW), offset));
+            for (long value : PayrollSnapshot.fingerprint(Paths.get(PayrollConfig.getShiftsFile()))) out.writeLong(value);
+
+            out.writeInt(totals.size());
+            for (int row = 0; row < totals.size(); row++) {
+                int employeeId = totals.employeeId(row);
+                out.writeInt(employeeId);
+                // Non-numeric IDs are only stable within one run, so store their text
+                if (employeeId < 0) {
+                    byte[] text = EmployeeDetails.toEmployeeId(employeeId).getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(text.length);
+                    out.write(text);
+                }
+                out.writeInt(totals.weekStart(row));
+                out.writeDouble(totals.regularHours(row));
+                out.writeDouble(totals.overtimeHours(row));
+                out.writeDouble(totals.underTimeHours(row));
+                out.writeDouble(totals.lateHours(row));
+            }
+        }
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // CRC32 of the bytes in [from, to) of the channel
+    private static long checksum(FileChannel channel, long from, long to) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) throw new EOFException();
+        }
+        buffer.flip();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    // Returns the offset just after the last '\n' in [from, size), or from if there is none
+    private static long lastLineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKSUM_WINDOW);
+        long blockEnd = size;
+        while (blockEnd > from) {
+            long blockStart = Math.max(from, blockEnd - buffer.capacity());
+            buffer.clear().limit((int) (blockEnd - blockStart));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, blockStart + buffer.position()) < 0) throw new EOFException();
+            }
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') return blockStart + i + 1;
+            }
+            blockEnd = blockStart;
+        }
+        return from;
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * Concurrent histogram of non-negative values such as latencies in nanoseconds, with
+ * HDR-style log-linear buckets.
+ *
+ * <p>Values below {@value #SUB_BUCKETS} have a bucket each. Above that, every power-of-two
+ * range is split into {@value #SUB_BUCKETS}/2 equal buckets, so a recorded value is known
+ * to within about 3% over the whole long range with under 2,000 buckets. Bucket counts
+ * are {@link LongAdder}s, so many threads can record at once without contending on a
+ * single counter.
+ *
+ * <p>Reads ({@link #percentile}, {@link #count()} and so on) are not atomic with respect
+ * to concurrent writes; take them after the recording threads are done, or accept that
+ * the figures may be a few samples apart.
+ */
+public class LatencyHistogram {
+    // Linear buckets below SUB_BUCKETS, then SUB_BUCKETS / 2 buckets per power of two
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * HALF_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one value (negative values are recorded as 0).
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets[bucketIndex(v)].increment();
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /** @return Number of recorded values */
+    public long count() {
+        return count.sum();
+    }
+
+    /** @return Sum of the recorded values */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /** @return Largest recorded value (0 when empty) */
+    public long max() {
+        return max.get();
+    }
+
+    /** @return Mean of the recorded values (0 when empty) */
+    public double mean() {
+        long n = count();
+        return n == 0 ? 0.0 : (double) sum() / n;
+    }
+
+    /**
+     * Returns the value at the given percentile: the upper bound of the bucket holding the
+     * sample at that rank, capped at the recorded maximum.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Value at the percentile (0 when empty)
+     */
+    public long percentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(bucketUpperBound(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) bucket.reset();
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    // Bucket of a non-negative value
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        // Keep the top SUB_BUCKET_BITS bits: value >>> shift lies in [HALF_BUCKETS, SUB_BUCKETS)
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF_BUCKETS + (mantissa - HALF_BUCKETS);
+    }
+
+    // Largest value that falls into a bucket
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / HALF_BUCKETS + 1;
+        long mantissa = (index - SUB_BUCKETS) % HALF_BUCKETS + HALF_BUCKETS;
+        long upper = ((mantissa + 1) << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper; // Top bucket of the long range
+    }
+}
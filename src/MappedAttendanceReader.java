@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+/**
+ * Memory-mapped attendance file reader.
+ *
+ * <p>Maps the attendance CSV with {@link FileChannel#map} and scans its bytes directly:
+ * each line is located by searching for '\n' in the mapped buffer and tokenized from
+ * the bytes by {@link CsvTokenizer#tokenize(java.nio.ByteBuffer, int, int)}, so no
+ * charset decoding and no String per line is needed. The attendance export is ASCII;
+ * bytes are read as ISO-8859-1. A trailing '\r' is stripped from each line.
+ *
+ * <p>Files larger than one mapping window are mapped window by window; a line that
+ * straddles a window edge is re-read at the start of the next window.
+ */
+class MappedAttendanceReader {
+    /** Largest region mapped at once (1 GB) */
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    /** Bytes mapped at a time while looking for the end of the header line */
+    static final int HEADER_WINDOW_BYTES = 64 * 1024;
+
+    private MappedAttendanceReader() {}
+
+    /**
+     * Reads the whole attendance file (skipping the header line) and folds every
+     * parsed day into the weekly totals.
+     *
+     * @param filePath Path to the attendance CSV file (MotorPH)
+     * @throws IOException If there's an error reading the file
+     */
+    static void ingest(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = skipHeader(channel, size);
+            scan(channel, dataStart, size, 2, WeeklyWorkedHours::updateWeeklyTotals); // Line 1 is the header
+        }
+    }
+
+    /**
+     * Parses the lines in {@code [start, end)} of the channel, which must begin at a
+     * line start, passing each usable day to the consumer in file order. The same
+     * {@link WeeklyWorkedHours.DailyHours} instance is passed for every day, so the
+     * consumer must copy what it keeps; the scan itself creates no objects per line.
+     * Rejected lines are reported with their line number and byte offset.
+     *
+     * @param channel   File channel opened for reading
+     * @param start     Byte offset of the first line
+     * @param end       Byte offset just past the last line
+     * @param firstLine Line number of the first line, or -1 if unknown
+     * @param sink      Receives each parsed day
+     * @return Number of lines scanned
+     * @throws IOException If there's an error mapping the file
+     */
+    static long scan(FileChannel channel, long start, long end, long firstLine,
+                     Consumer<WeeklyWorkedHours.DailyHours> sink) throws IOException {
+        CsvTokenizer fields = new CsvTokenizer();
+        WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+        long windowStart = start;
+        long lines = 0;
+
+        while (windowStart < end) {
+            long windowSize = Math.min(MAX_WINDOW_BYTES, end - windowStart);
+            boolean lastWindow = windowStart + windowSize == end;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            int limit = (int) windowSize;
+
+            int lineStart = 0;
+            for (int pos = 0; pos < limit; pos++) {
+                if (buffer.get(pos) == '\n') {
+                    parseLine(buffer, windowStart, lineStart, pos, lineNumber(firstLine, lines++), fields, day, sink);
+                    lineStart = pos + 1;
+                }
+            }
+
+            if (lastWindow) {
+                // Final line without a terminating newline
+                if (lineStart < limit) {
+                    parseLine(buffer, windowStart, lineStart, limit, lineNumber(firstLine, lines++), fields, day, sink);
+                }
+                return lines;
+            }
+            if (lineStart == 0) {
+                throw new IOException("Attendance line longer than " + MAX_WINDOW_BYTES + " bytes");
+            }
+            windowStart += lineStart; // Re-map from the start of the unfinished line
+        }
+        return lines;
+    }
+
+    private static long lineNumber(long firstLine, long index) {
+        return firstLine < 0 ? -1 : firstLine + index;
+    }
+
+    // Tokenizes one line [from, to) of the buffer mapped at windowStart and hands the parsed
+    // day to the sink; rejects are reported by line number and file offset
+    private static void parseLine(MappedByteBuffer buffer, long windowStart, int from, int to, long lineNumber,
+                                  CsvTokenizer fields, WeeklyWorkedHours.DailyHours day,
+                                  Consumer<WeeklyWorkedHours.DailyHours> sink) {
+        if (to > from && buffer.get(to - 1) == '\r') to--;
+        fields.tokenize(buffer, from, to - from);
+        if (WeeklyWorkedHours.parseAttendanceRecord(fields, lineNumber, windowStart + from, day)) sink.accept(day);
+    }
+
+    /**
+     * Returns the offset just after the header line. The header is read in
+     * {@link #HEADER_WINDOW_BYTES} windows until its '\n', however long it is; a file
+     * without any '\n' is all header and the file size is returned.
+     */
+    static long skipHeader(FileChannel channel, long size) throws IOException {
+        for (long windowStart = 0; windowStart < size; windowStart += HEADER_WINDOW_BYTES) {
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                    Math.min(size - windowStart, HEADER_WINDOW_BYTES));
+            for (int pos = 0; pos < head.limit(); pos++) {
+                if (head.get(pos) == '\n') return windowStart + pos + 1;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Fixed-point peso amounts stored as whole centavos in a long (PHP 1.00 = 100).
+ *
+ * <p>Payroll arithmetic stays in centavos end to end. Sums and differences are exact;
+ * every product or quotient is rounded once, half away from zero, to the centavo
+ * ({@link #scale}), which is the same as BigDecimal's {@code RoundingMode.HALF_UP}.
+ */
+public class Money {
+    /** Centavos in one peso */
+    public static final long CENTAVOS_PER_PESO = 100;
+
+    private Money() {}
+
+    /**
+     * Parses a peso amount such as "90,000", "535.71" or "255.8" into centavos.
+     * Thousands separators and surrounding spaces/quotes are ignored; digits beyond
+     * the centavo are rounded half-up.
+     *
+     * @param text Amount text
+     * @return Amount in centavos
+     * @throws NumberFormatException if the text is not a decimal amount
+     */
+    public static long parseCentavos(String text) {
+        return parseFixed(text, 2);
+    }
+
+    /**
+     * Parses a decimal number into a fixed-point long with the given number of decimals,
+     * e.g. "0.015" with 6 decimals is 15000. Thousands separators and surrounding
+     * spaces/quotes are ignored; further digits are rounded half-up.
+     *
+     * @param text     Decimal text
+     * @param decimals Digits kept after the decimal point
+     * @return Value times 10^decimals
+     * @throws NumberFormatException if the text is not a decimal number
+     */
+    public static long parseFixed(String text, int decimals) {
+        if (text == null) throw new NumberFormatException("Missing amount");
+
+        long whole = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean negative = false;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (!seenPoint) {
+                    whole = Math.addExact(Math.multiplyExact(whole, 10), c - '0');
+                } else if (fractionDigits < decimals) {
+                    fraction = fraction * 10 + (c - '0');
+                    fractionDigits++;
+                } else if (fractionDigits == decimals) {
+                    roundUp = c >= '5';
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (c == '-' && !seenDigit && !negative) {
+                negative = true;
+            } else if (c != ',' && c != ' ' && c != '"') {
+                throw new NumberFormatException("Invalid amount: " + text);
+            }
+        }
+        if (!seenDigit) throw new NumberFormatException("Invalid amount: " + text);
+
+        long unit = 1;
+        for (int i = 0; i < decimals; i++) unit *= 10;
+        for (int i = fractionDigits; i < decimals; i++) fraction *= 10;
+        long value = Math.addExact(Math.multiplyExact(whole, unit), fraction + (roundUp ? 1 : 0));
+        return negative ? -value : value;
+    }
+
+    /**
+     * Computes {@code amount * numerator / denominator} rounded half away from zero,
+     * e.g. a rate in millionths applied to centavos, or hourly pay for a number of minutes.
+     *
+     * @param amount      Amount (typically centavos)
+     * @param numerator   Multiplier
+     * @param denominator Divisor (positive)
+     * @return Rounded result
+     * @throws ArithmeticException if the intermediate product overflows a long
+     */
+    public static long scale(long amount, long numerator, long denominator) {
+        long product = Math.multiplyExact(amount, numerator);
+        long half = denominator >>> 1;
+        // Round the magnitude half-up with a single division
+        return product >= 0
+                ? (product + half) / denominator
+                : -((half - product) / denominator);
+    }
+
+    /**
+     * Converts a peso amount to centavos, rounding half away from zero.
+     */
+    public static long toCentavos(double pesos) {
+        double centavos = pesos * CENTAVOS_PER_PESO;
+        return (long) (centavos < 0 ? centavos - 0.5 : centavos + 0.5);
+    }
+
+    /**
+     * Formats centavos with thousands separators and two decimals, e.g. "-1,234.50".
+     */
+    public static String formatGrouped(long centavos) {
+        String plain = format(centavos);
+        int sign = centavos < 0 ? 1 : 0;
+        int digits = plain.length() - 3 - sign;
+        StringBuilder text = new StringBuilder(plain.length() + digits / 3);
+        text.append(plain, 0, sign);
+        for (int i = 0; i < digits; i++) {
+            if (i > 0 && (digits - i) % 3 == 0) text.append(',');
+            text.append(plain.charAt(sign + i));
+        }
+        return text.append(plain, plain.length() - 3, plain.length()).toString();
+    }
+
+    /**
+     * Formats centavos as a plain decimal amount with two decimals, e.g. "-1234.50".
+     */
+    public static String format(long centavos) {
+        StringBuilder text = new StringBuilder(24);
+        if (centavos < 0) text.append('-');
+        long magnitude = Math.abs(centavos);
+        long fraction = magnitude % CENTAVOS_PER_PESO;
+        text.append(magnitude / CENTAVOS_PER_PESO).append('.');
+        if (fraction < 10) text.append('0');
+        return text.append(fraction).toString();
+    }
+
+    /**
+     * Converts centavos to a peso amount as a double.
+     */
+    public static double toPesos(long centavos) {
+        return centavos / (double) CENTAVOS_PER_PESO;
+    }
+}
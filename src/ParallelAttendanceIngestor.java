@@ -0,0 +1,286 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+/**
+ * Parallel attendance ingestion engine used by {@link WeeklyWorkedHours#processAttendanceFile(String, int)}.
+ *
+ * <p>The file is split into byte-range chunks aligned on line boundaries. Worker threads
+ * parse their chunk and run {@link WeeklyWorkedHours#calculateDailyMinutes} for every row,
+ * producing a per-chunk {@link DayBatch} of daily results in primitive columns. The chunks are then folded into the weekly
+ * totals in file order, so every weekly total is summed in exactly the same order as the
+ * serial reader and the results are bit-for-bit identical.
+ *
+ * <p>Workers count the lines of their chunk and hold back rejected rows (see
+ * {@link RejectedRecords.Deferred}); the rows are reported with their line numbers when
+ * the chunk is merged, so the reject file reads as if the file had been read serially.
+ *
+ * <p>With {@link PayrollConfig#INGEST_SHARED_TOTALS} the workers instead add their days
+ * straight to one {@link ConcurrentWeeklyTotals} through a feed each, and its snapshot is
+ * added to the weekly totals at the end. Nothing waits for chunks to be merged in order,
+ * but hours are summed as whole minutes (see {@link ConcurrentWeeklyTotals}), so totals
+ * can differ from the serial reader in the last bit. The attendance index needs every day
+ * in file order, so while one is registered the chunks are merged as above.
+ *
+ * <p>At most {@code threads * 2} chunks are in flight at once, which bounds memory for
+ * very large files. Large files are read through a memory map (see
+ * {@link MappedAttendanceReader}) instead of decoding each chunk to a String.
+ */
+class ParallelAttendanceIngestor {
+    /** Smallest chunk worth handing to a worker thread (1 MB) */
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+
+    /** Largest chunk read into memory at once (16 MB) */
+    private static final long MAX_CHUNK_BYTES = 16L << 20;
+
+    /** Chunks per thread, so threads that finish early can pick up more work */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelAttendanceIngestor() {}
+
+    /**
+     * Ingests the attendance file on the given number of threads and merges the results
+     * into the weekly totals.
+     *
+     * @param filePath Path to the attendance CSV file (MotorPH)
+     * @param threads  Number of worker threads
+     * @throws IOException If there's an error reading the file
+     */
+    static void ingest(String filePath, int threads) throws IOException {
+        ingest(filePath, threads, chunkSizeFor(filePath, threads));
+    }
+
+    /**
+     * Ingests the attendance file using a fixed nominal chunk size.
+     *
+     * @param filePath   Path to the attendance CSV file (MotorPH)
+     * @param threads    Number of worker threads
+     * @param chunkBytes Nominal chunk size; actual chunks extend to the next line end
+     * @throws IOException If there's an error reading the file
+     */
+    static void ingest(String filePath, int threads, long chunkBytes) throws IOException {
+        List<long[]> chunks = splitIntoChunks(filePath, chunkBytes);
+        boolean mapped = PayrollConfig.useMappedIngestion(new File(filePath).length());
+        ConcurrentWeeklyTotals shared = PayrollConfig.isSharedTotalsIngestion() && WeeklyWorkedHours.attendanceIndex == null
+                ? new ConcurrentWeeklyTotals() : null;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Deque<Future<DayBatch>> inFlight = new ArrayDeque<>();
+            int maxInFlight = threads * 2;
+            int next = 0;
+            long nextLine = 2; // Line 1 is the header
+
+            while (next < chunks.size() || !inFlight.isEmpty()) {
+                // Keep the workers busy up to the in-flight limit
+                while (next < chunks.size() && inFlight.size() < maxInFlight) {
+                    long[] chunk = chunks.get(next++);
+                    inFlight.addLast(pool.submit(() -> {
+                        DayBatch batch = new DayBatch(shared != null ? 0 : (int) ((chunk[1] - chunk[0]) / 40));
+                        RejectedRecords.deferTo(batch.rejects);
+                        try {
+                            if (shared == null) {
+                                batch.lines = parse(filePath, chunk[0], chunk[1], mapped, batch::add);
+                            } else {
+                                try (ConcurrentWeeklyTotals.Feed feed = shared.feed()) {
+                                    batch.lines = parse(filePath, chunk[0], chunk[1], mapped, feed::add);
+                                }
+                            }
+                        } finally {
+                            RejectedRecords.deferTo(null);
+                        }
+                        return batch;
+                    }));
+                }
+                // Merge the oldest chunk so results are folded in file order
+                DayBatch batch = await(inFlight.removeFirst());
+                batch.rejects.report(nextLine);
+                batch.addTo();
+                nextLine += batch.lines;
+            }
+            if (shared != null) addTo(shared.snapshot());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the file (after the header line) into [start, end) byte ranges where every
+     * range starts at the beginning of a line.
+     */
+    static List<long[]> splitIntoChunks(String filePath, long chunkBytes) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            long length = file.length();
+            long start = nextLineStart(file, 0); // Skip header
+            while (start < length) {
+                long end = start + chunkBytes >= length ? length : nextLineStart(file, start + chunkBytes);
+                chunks.add(new long[] {start, end});
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    // Spreads the file over threads * CHUNKS_PER_THREAD chunks within the size limits
+    private static long chunkSizeFor(String filePath, int threads) throws IOException {
+        long length;
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            length = file.length();
+        }
+        long chunkSize = length / ((long) threads * CHUNKS_PER_THREAD);
+        return Math.min(MAX_CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES, chunkSize));
+    }
+
+    /**
+     * Returns the position just after the first '\n' at or after {@code from},
+     * or the file length if there is none.
+     */
+    private static long nextLineStart(RandomAccessFile file, long from) throws IOException {
+        byte[] buffer = new byte[8192];
+        long position = from;
+        file.seek(position);
+        int read;
+        while ((read = file.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return file.length();
+    }
+
+    // Adds every employee-week of the shared totals to the weekly totals
+    private static void addTo(WeeklyAggregateStore totals) {
+        for (int row = 0; row < totals.size(); row++) {
+            WeeklyWorkedHours.updateWeeklyTotals(totals.employeeId(row), totals.weekStart(row), totals.regularHours(row),
+                    totals.overtimeHours(row), totals.underTimeHours(row), totals.lateHours(row));
+        }
+    }
+
+    // Parses one chunk into the sink, returning the number of lines in it
+    private static long parse(String filePath, long start, long end, boolean mapped,
+                              Consumer<WeeklyWorkedHours.DailyHours> sink) throws IOException {
+        return mapped ? parseMappedChunk(filePath, start, end, sink) : parseChunk(filePath, start, end, sink);
+    }
+
+    /**
+     * Reads one chunk and parses its lines on the calling worker thread.
+     * Uses the platform default charset, matching the serial FileReader path.
+     * Lines are split on '\n' in the raw bytes so rejects can be reported by file offset,
+     * and by line number relative to the chunk.
+     */
+    private static long parseChunk(String filePath, long start, long end,
+                                   Consumer<WeeklyWorkedHours.DailyHours> sink) throws IOException {
+        byte[] bytes = new byte[(int) (end - start)];
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            file.seek(start);
+            file.readFully(bytes);
+        }
+
+        WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+        Charset charset = Charset.defaultCharset();
+        int lineStart = 0;
+        long lines = 0;
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') lineEnd++;
+            int textEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+
+            String line = new String(bytes, lineStart, textEnd - lineStart, charset);
+            if (WeeklyWorkedHours.parseAttendanceLine(line, lines++, start + lineStart, day)) sink.accept(day);
+            lineStart = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    /**
+     * Parses one chunk straight from a memory map of its byte range.
+     */
+    private static long parseMappedChunk(String filePath, long start, long end,
+                                         Consumer<WeeklyWorkedHours.DailyHours> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            return MappedAttendanceReader.scan(channel, start, end, 0, sink);
+        }
+    }
+
+    /**
+     * Parsed days of one chunk in file order, kept in growable primitive columns instead
+     * of one object per day.
+     */
+    static final class DayBatch {
+        private int[] employeeIds;
+        private int[] epochDays;
+        private int[] times; // login, logout per day
+        private int[] minutes; // regular, overtime, underTime, late per day
+        private int size;
+
+        // Lines in the chunk and the chunk's rejects, numbered from 0 until merged
+        long lines;
+        final RejectedRecords.Deferred rejects = new RejectedRecords.Deferred();
+
+        DayBatch(int expectedDays) {
+            int capacity = Math.max(16, expectedDays);
+            employeeIds = new int[capacity];
+            epochDays = new int[capacity];
+            times = new int[capacity * 2];
+            minutes = new int[capacity * 4];
+        }
+
+        /** Copies one parsed day (the instance can be reused afterwards). */
+        void add(WeeklyWorkedHours.DailyHours day) {
+            if (size == employeeIds.length) {
+                employeeIds = Arrays.copyOf(employeeIds, size * 2);
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                times = Arrays.copyOf(times, size * 4);
+                minutes = Arrays.copyOf(minutes, size * 8);
+            }
+            employeeIds[size] = day.employeeId;
+            epochDays[size] = day.epochDay;
+            times[size * 2] = day.loginMinute;
+            times[size * 2 + 1] = day.logoutMinute;
+            int m = size * 4;
+            minutes[m] = day.regularMinutes;
+            minutes[m + 1] = day.overtimeMinutes;
+            minutes[m + 2] = day.underTimeMinutes;
+            minutes[m + 3] = day.lateMinutes;
+            size++;
+        }
+
+        /** Folds the days into the weekly totals in the order they were added. */
+        void addTo() {
+            WeeklyWorkedHours.DailyHours day = new WeeklyWorkedHours.DailyHours();
+            for (int i = 0, m = 0; i < size; i++, m += 4) {
+                day.employeeId = employeeIds[i];
+                day.epochDay = epochDays[i];
+                day.weekStart = DateUtils.weekStart(epochDays[i]);
+                day.loginMinute = times[i * 2];
+                day.logoutMinute = times[i * 2 + 1];
+                day.regularMinutes = minutes[m];
+                day.overtimeMinutes = minutes[m + 1];
+                day.underTimeMinutes = minutes[m + 2];
+                day.lateMinutes = minutes[m + 3];
+                WeeklyWorkedHours.updateWeeklyTotals(day);
+            }
+        }
+    }
+
+    // Waits for a chunk result, unwrapping worker failures
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Attendance ingestion interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Attendance ingestion failed: " + cause, cause);
+        }
+    }
+}
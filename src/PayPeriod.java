@@ -0,0 +1,116 @@
+import java.util.function.IntUnaryOperator;
+/**
+ * Pay cycles that attendance days can be bucketed into. Each maps an epoch day to the
+ * first and last epoch day of its period with integer arithmetic only (no Calendar, no
+ * date objects), so bucketing allocates nothing per row.
+ *
+ * <p>Payslips use {@link #MONDAY_WEEK}, the week of {@link DateUtils#weekStart(int)} and
+ * {@link WeeklyAggregateStore}. The other cycles re-bucket already ingested days, e.g.
+ * {@code attendanceIndex.aggregate(PayPeriod.SEMI_MONTHLY)} (see
+ * {@link AttendanceIndex#aggregate(IntUnaryOperator)}), without re-reading the CSV.
+ * As an {@link IntUnaryOperator} a period maps a day to its start.
+ */
+public enum PayPeriod implements IntUnaryOperator {
+    /** Monday to Sunday, the weeks payslips are computed for */
+    MONDAY_WEEK("monday-week") {
+        @Override
+        public int start(int epochDay) {
+            return DateUtils.weekStart(epochDay);
+        }
+
+        @Override
+        public int end(int epochDay) {
+            return start(epochDay) + 6;
+        }
+    },
+
+    /** Sunday to Saturday */
+    SUNDAY_WEEK("sunday-week") {
+        @Override
+        public int start(int epochDay) {
+            // 1970-01-01 was a Thursday, four days after a Sunday
+            return epochDay - Math.floorMod(epochDay + 4, 7);
+        }
+
+        @Override
+        public int end(int epochDay) {
+            return start(epochDay) + 6;
+        }
+    },
+
+    /** The 1st to the 15th, and the 16th to the end of the month */
+    SEMI_MONTHLY("semi-monthly") {
+        @Override
+        public int start(int epochDay) {
+            int day = DateUtils.toYearMonthDay(epochDay) % 100;
+            return epochDay - (day < SECOND_HALF_START ? day - 1 : day - SECOND_HALF_START);
+        }
+
+        @Override
+        public int end(int epochDay) {
+            int ymd = DateUtils.toYearMonthDay(epochDay);
+            int day = ymd % 100;
+            int last = day < SECOND_HALF_START ? SECOND_HALF_START - 1 : DateUtils.lengthOfMonth(ymd / 10000, ymd / 100 % 100);
+            return epochDay + last - day;
+        }
+    },
+
+    /** The 1st to the end of the month */
+    CALENDAR_MONTH("month") {
+        @Override
+        public int start(int epochDay) {
+            return epochDay - (DateUtils.toYearMonthDay(epochDay) % 100 - 1);
+        }
+
+        @Override
+        public int end(int epochDay) {
+            int ymd = DateUtils.toYearMonthDay(epochDay);
+            return epochDay + DateUtils.lengthOfMonth(ymd / 10000, ymd / 100 % 100) - ymd % 100;
+        }
+    };
+
+    // Day of the month the second semi-monthly period starts on
+    private static final int SECOND_HALF_START = 16;
+
+    private final String id;
+
+    PayPeriod(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return Epoch day of the first day of the period containing the given epoch day
+     */
+    public abstract int start(int epochDay);
+
+    /**
+     * @return Epoch day of the last day of the period containing the given epoch day
+     */
+    public abstract int end(int epochDay);
+
+    /** Same as {@link #start(int)} */
+    @Override
+    public int applyAsInt(int epochDay) {
+        return start(epochDay);
+    }
+
+    /** @return Name used in configuration and query parameters, e.g. "semi-monthly" */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Looks up a period by its {@link #id()} or constant name, ignoring case.
+     *
+     * @param name Period name, e.g. "semi-monthly" or "CALENDAR_MONTH"
+     * @return The period, or null if the name is unknown
+     */
+    public static PayPeriod forName(String name) {
+        if (name == null) return null;
+        String trimmed = name.trim();
+        for (PayPeriod period : values()) {
+            if (period.id.equalsIgnoreCase(trimmed) || period.name().equalsIgnoreCase(trimmed)) return period;
+        }
+        return null;
+    }
+}
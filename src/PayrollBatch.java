@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+/**
+ * Non-interactive payroll run that computes every employee's weekly pay in one pass.
+ *
+ * <p>Loads the employee and attendance CSVs once, then computes a payslip for every
+ * employee across every week found in the attendance file and streams the results to
+ * a CSV payroll register, and optionally to a fixed-width text register, through
+ * {@link PayrollRegisterWriter}. Weeks are identified by their Monday start date, which is
+ * also the date used for the last-week-of-month check (each month has exactly one
+ * Monday in its last seven days, so monthly deductions are applied once per month).
+ *
+ * <p>The payslips are also recorded in {@link PayrollRollups} (unless
+ * {@link PayrollConfig#ROLLUPS} is off), and the summary ends with the year-end figures
+ * of every year the attendance covers: pay, taxable income, tax withheld and the
+ * year-end adjustment of the withholding tax.
+ *
+ * <p>Usage: {@code java GrossNetWeeklySalary --batch [output.csv] [register.txt]}
+ */
+public class PayrollBatch {
+    /** Command-line flag that switches GrossNetWeeklySalary into batch mode */
+    static final String BATCH_FLAG = "--batch";
+
+    /** Default payroll register written when no output path is given */
+    static final String DEFAULT_REGISTER_FILE = "payroll_register.csv";
+
+    // Batch entry point - optional arguments are the CSV and text register output paths
+    public static void main(String[] args) {
+        String outputPath = args.length > 0 ? args[0] : DEFAULT_REGISTER_FILE;
+        String textPath = args.length > 1 ? args[1] : null;
+        try {
+            long start = System.nanoTime();
+            Map<Integer, Employee> employees = PayrollSnapshot.loadPayrollData(
+                    GrossNetWeeklySalary.EMPLOYEE_FILE, GrossNetWeeklySalary.ATTENDANCE_FILE);
+            long loaded = System.nanoTime();
+
+            PayrollRollups rollups = newRollups();
+            int payslips = runPayroll(employees, outputPath, textPath, rollups);
+            long finished = System.nanoTime();
+
+            printSummary(employees.size(), payslips, loaded - start, finished - loaded, outputPath, textPath);
+            if (rollups != null) System.out.print("\n" + yearEndSummary(rollups));
+            RejectedRecords.printSummary();
+            PayrollMetrics.printReportIfEnabled();
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Computes payslips for all employees across all weeks in the processed attendance
+     * and streams them to the payroll register, one row per employee-week.
+     *
+     * @param employees  Employee map as returned by {@link EmployeeDetails#readEmployees(String)}
+     * @param outputPath Path of the CSV register to write
+     * @return Number of payslips written
+     * @throws IOException If the register cannot be written
+     */
+    static int runPayroll(Map<Integer, Employee> employees, String outputPath) throws IOException {
+        return runPayroll(employees, outputPath, null);
+    }
+
+    /**
+     * Computes payslips for all employees across all weeks and streams them to the CSV
+     * register and, if a path is given, to a fixed-width text register as well.
+     *
+     * @param employees  Employee map as returned by {@link EmployeeDetails#readEmployees(String)}
+     * @param outputPath Path of the CSV register to write
+     * @param textPath   Path of the text register to write, or null for none
+     * @return Number of payslips written
+     * @throws IOException If a register cannot be written
+     */
+    static int runPayroll(Map<Integer, Employee> employees, String outputPath, String textPath) throws IOException {
+        return runPayroll(employees, outputPath, textPath, null);
+    }
+
+    /**
+     * Computes payslips for all employees across all weeks, streams them to the registers
+     * and records each one in the given rollups.
+     *
+     * @param rollups Rollups covering the attendance weeks (see {@link #newRollups()}), or null
+     * @return Number of payslips written
+     * @throws IOException If a register cannot be written
+     */
+    static int runPayroll(Map<Integer, Employee> employees, String outputPath, String textPath,
+                          PayrollRollups rollups) throws IOException {
+        // Stable output order: weeks chronologically, employees by ID
+        List<Employee> roster = new ArrayList<>(employees.values());
+        roster.sort(Comparator.comparingInt(Employee::id));
+        int[] weekStarts = WeeklyWorkedHours.weeklyTotals.weekStarts();
+
+        int payslips = 0;
+        try (PayrollRegisterWriter csv = new PayrollRegisterWriter(Paths.get(outputPath), PayrollRegisterWriter.Format.CSV);
+             PayrollRegisterWriter text = textPath == null ? null
+                     : new PayrollRegisterWriter(Paths.get(textPath), PayrollRegisterWriter.Format.TEXT)) {
+            for (int weekStart : weekStarts) {
+                Date weekDate = DateUtils.toDate(weekStart, 0);
+                for (Employee employee : roster) {
+                    GrossNetWeeklySalary.SalaryData data = GrossNetWeeklySalary.computePayslip(employee, weekDate);
+                    csv.write(employee, weekStart, data);
+                    if (text != null) text.write(employee, weekStart, data);
+                    if (rollups != null) rollups.record(employee.id(), data);
+                    payslips++;
+                }
+            }
+        }
+        return payslips;
+    }
+
+    /**
+     * @return Empty rollups covering the weeks of the loaded attendance, or null if
+     *         {@link PayrollConfig#ROLLUPS} is off or no attendance was loaded
+     */
+    static PayrollRollups newRollups() {
+        int[] weekStarts = WeeklyWorkedHours.weeklyTotals.weekStarts();
+        if (!PayrollConfig.isRollupsEnabled() || weekStarts.length == 0) return null;
+        return new PayrollRollups(weekStarts[0], weekStarts[weekStarts.length - 1]);
+    }
+
+    /**
+     * Year-end figures of the recorded payslips, summed over all employees for each year
+     * the rollups cover. The adjustment is the tax on each employee's annual taxable
+     * income less the tax withheld (see {@link PayrollRollups#yearEndAdjustment}); amounts
+     * still to withhold and refunds are shown separately.
+     *
+     * @return Multi-line summary, one section per year
+     */
+    static String yearEndSummary(PayrollRollups rollups) {
+        StringBuilder out = new StringBuilder(512);
+        for (int year = rollups.firstYear(); year <= rollups.lastYear(); year++) {
+            Map<Integer, PayrollRollups.Totals> employees = rollups.yearEnd(year);
+            long payslips = 0, gross = 0, net = 0, taxable = 0, withheld = 0, owed = 0, refunds = 0;
+            for (Map.Entry<Integer, PayrollRollups.Totals> entry : employees.entrySet()) {
+                PayrollRollups.Totals totals = entry.getValue();
+                payslips += totals.get(PayrollRollups.Column.PAYSLIPS);
+                gross += totals.get(PayrollRollups.Column.GROSS);
+                net += totals.get(PayrollRollups.Column.NET);
+                taxable += totals.get(PayrollRollups.Column.TAXABLE_INCOME);
+                withheld += totals.get(PayrollRollups.Column.TAX);
+                long adjustment = rollups.yearEndAdjustment(entry.getKey(), year);
+                if (adjustment > 0) owed += adjustment;
+                else refunds -= adjustment;
+            }
+            out.append("Year-End ").append(year).append(":\n");
+            line(out, "Payslips", String.valueOf(payslips));
+            line(out, "Gross Pay", Money.formatGrouped(gross));
+            line(out, "Net Pay", Money.formatGrouped(net));
+            line(out, "Taxable Income", Money.formatGrouped(taxable));
+            line(out, "Tax Withheld", Money.formatGrouped(withheld));
+            line(out, "Tax Still To Withhold", Money.formatGrouped(owed));
+            line(out, "Tax To Refund", Money.formatGrouped(refunds));
+        }
+        return out.toString();
+    }
+
+    private static void line(StringBuilder out, String label, String value) {
+        out.append(label);
+        for (int i = label.length(); i < 25; i++) out.append(' ');
+        out.append(": ").append(value).append('\n');
+    }
+
+    // Prints load/compute timings and payroll throughput (employee-weeks per second)
+    private static void printSummary(int employeeCount, int payslips, long loadNanos, long payrollNanos,
+                                     String outputPath, String textPath) {
+        double loadMillis = loadNanos / 1_000_000.0;
+        double payrollMillis = payrollNanos / 1_000_000.0;
+        double throughput = payrollNanos > 0 ? payslips / (payrollNanos / 1_000_000_000.0) : 0.0;
+
+        System.out.println("\nBatch Payroll Summary:");
+        System.out.printf("%-25s: %d%n", "Employees", employeeCount);
+        System.out.printf("%-25s: %d%n", "Payslips", payslips);
+        System.out.printf("%-25s: %.1f ms%n", "Load Time", loadMillis);
+        System.out.printf("%-25s: %.1f ms%n", "Payroll Time", payrollMillis);
+        System.out.printf("%-25s: %,.0f employee-weeks/s%n", "Throughput", throughput);
+        System.out.printf("%-25s: %s%n", "Register", outputPath);
+        if (textPath != null) System.out.printf("%-25s: %s%n", "Text Register", textPath);
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * Central access point for runtime settings, read from JVM system properties
+ * (e.g. {@code java -Dmotorph.ingest.parallel=true GrossNetWeeklySalary}).
+ *
+ * <p>Every setting has a default that keeps the original single-threaded behavior,
+ * so the program runs unchanged when no properties are given.
+ */
+public class PayrollConfig {
+    /** Enables parallel attendance ingestion (default: false, serial) */
+    public static final String INGEST_PARALLEL = "motorph.ingest.parallel";
+
+    /** Number of worker threads for parallel ingestion (default: available processors) */
+    public static final String INGEST_THREADS = "motorph.ingest.threads";
+
+    /** Lets parallel ingestion workers add days straight to shared {@link ConcurrentWeeklyTotals}
+     *  instead of merging chunks in file order (default: false) */
+    public static final String INGEST_SHARED_TOTALS = "motorph.ingest.sharedTotals";
+
+    /** Enables memory-mapped reading of large attendance files (default: true) */
+    public static final String INGEST_MMAP = "motorph.ingest.mmap";
+
+    /** Smallest attendance file, in bytes, read through a memory map (default: 8 MB) */
+    public static final String INGEST_MMAP_MIN_BYTES = "motorph.ingest.mmapMinBytes";
+
+    /** Enables incremental attendance ingestion from a checkpoint (default: false) */
+    public static final String INGEST_INCREMENTAL = "motorph.ingest.incremental";
+
+    /** Checkpoint file for incremental ingestion (default: attendance file path + ".checkpoint") */
+    public static final String INGEST_CHECKPOINT = "motorph.ingest.checkpoint";
+
+    /** Enables loading employees and weekly totals from a binary snapshot (default: false) */
+    public static final String SNAPSHOT = "motorph.snapshot";
+
+    /** Snapshot file written and read when snapshots are enabled (default: payroll.snapshot) */
+    public static final String SNAPSHOT_FILE = "motorph.snapshot.file";
+
+    /** Maximum number of payslips kept by the payslip service cache, 0 = no cache (default: 10000) */
+    public static final String CACHE_SIZE = "motorph.cache.size";
+
+    /** Deduction schedule CSV; built-in rates apply if it does not exist
+     *  (default: src/MotorPH Deduction Schedules.csv) */
+    public static final String DEDUCTIONS_FILE = "motorph.deductions.file";
+
+    /** Enables ingestion and payroll metrics with an end-of-run report (default: false) */
+    public static final String METRICS = "motorph.metrics";
+
+    /** Shift schedule CSV; the shipped file defines no shifts, and everyone works the standard
+     *  8:00-17:00 shift if the file has none or does not exist (default: src/MotorPH Shift Schedules.csv) */
+    public static final String SHIFTS_FILE = "motorph.shifts.file";
+
+    /** Side file that rejected employee and attendance rows are written to (default: none) */
+    public static final String REJECTS_FILE = "motorph.rejects.file";
+
+    /** Rejected rows that may wait to be written to the side file (default: 65536) */
+    public static final String REJECTS_BUFFER = "motorph.rejects.buffer";
+
+    /** Rejected rows of each reason printed to the console before sampling (default: 10) */
+    public static final String REJECTS_CONSOLE_LIMIT = "motorph.rejects.consoleLimit";
+
+    /** After the console limit, one in this many rejected rows is printed, 0 = none (default: 10000) */
+    public static final String REJECTS_SAMPLE_EVERY = "motorph.rejects.sampleEvery";
+
+    /** Lock stripes of concurrent weekly totals (default: 4 per available processor, at least 16) */
+    public static final String AGGREGATE_STRIPES = "motorph.aggregate.stripes";
+
+    /** Keeps the payslip service's weekly totals live by following the attendance CSV (default: false) */
+    public static final String STREAM = "motorph.stream";
+
+    /** Milliseconds between checks of a followed attendance CSV for new rows (default: 20) */
+    public static final String STREAM_POLL_MS = "motorph.stream.pollMs";
+
+    /** Keeps every attendance day in an in-memory index for daily queries (default: false) */
+    public static final String ATTENDANCE_INDEX = "motorph.index";
+
+    /** Keeps monthly and year-to-date totals of the batch run's payslips (default: true) */
+    public static final String ROLLUPS = "motorph.rollups";
+
+    private PayrollConfig() {}
+
+    /**
+     * @return true if attendance files should be ingested with the parallel engine
+     */
+    public static boolean isParallelIngestion() {
+        return Boolean.parseBoolean(System.getProperty(INGEST_PARALLEL, "false"));
+    }
+
+    /**
+     * @return Configured ingestion thread count (at least 1)
+     */
+    public static int getIngestThreads() {
+        return Math.max(1, getInt(INGEST_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @return true if parallel ingestion workers should add days to shared concurrent totals
+     */
+    public static boolean isSharedTotalsIngestion() {
+        return Boolean.parseBoolean(System.getProperty(INGEST_SHARED_TOTALS, "false"));
+    }
+
+    /**
+     * @param fileSize Size of the attendance file in bytes
+     * @return true if a file of this size should be read through a memory map
+     *         (smaller files use the buffered reader)
+     */
+    public static boolean useMappedIngestion(long fileSize) {
+        return Boolean.parseBoolean(System.getProperty(INGEST_MMAP, "true"))
+                && fileSize >= getLong(INGEST_MMAP_MIN_BYTES, 8L << 20);
+    }
+
+    /**
+     * @return true if attendance files should be ingested incrementally from a checkpoint
+     */
+    public static boolean isIncrementalIngestion() {
+        return Boolean.parseBoolean(System.getProperty(INGEST_INCREMENTAL, "false"));
+    }
+
+    /**
+     * @param attendanceFile Path to the attendance CSV file
+     * @return Checkpoint file used for incremental ingestion of that file
+     */
+    public static String getCheckpointPath(String attendanceFile) {
+        return System.getProperty(INGEST_CHECKPOINT, attendanceFile + ".checkpoint");
+    }
+
+    /**
+     * @return true if loaded data should be kept in and restored from a binary snapshot
+     */
+    public static boolean isSnapshotEnabled() {
+        return Boolean.parseBoolean(System.getProperty(SNAPSHOT, "false"));
+    }
+
+    /**
+     * @return Path of the binary snapshot file
+     */
+    public static String getSnapshotPath() {
+        return System.getProperty(SNAPSHOT_FILE, "payroll.snapshot");
+    }
+
+    /**
+     * @return Configured payslip cache capacity (0 disables the cache)
+     */
+    public static int getPayslipCacheSize() {
+        return Math.max(0, getInt(CACHE_SIZE, 10_000));
+    }
+
+    /**
+     * @return Path of the deduction schedule CSV
+     */
+    public static String getDeductionsFile() {
+        return System.getProperty(DEDUCTIONS_FILE, "src/MotorPH Deduction Schedules.csv");
+    }
+
+    /**
+     * @return Path of the shift schedule CSV
+     */
+    public static String getShiftsFile() {
+        return System.getProperty(SHIFTS_FILE, "src/MotorPH Shift Schedules.csv");
+    }
+
+    /**
+     * @return true if run metrics should be recorded and reported
+     */
+    public static boolean isMetricsEnabled() {
+        return Boolean.parseBoolean(System.getProperty(METRICS, "false"));
+    }
+
+    /**
+     * @return Path of the rejected-records side file, or null to only count and sample rejects
+     */
+    public static String getRejectsFile() {
+        return System.getProperty(REJECTS_FILE);
+    }
+
+    /**
+     * @return Capacity of the rejected-records queue (at least 1)
+     */
+    public static int getRejectsBuffer() {
+        return Math.max(1, getInt(REJECTS_BUFFER, 65_536));
+    }
+
+    /**
+     * @return Rejected rows of each reason printed before console sampling starts
+     */
+    public static int getRejectsConsoleLimit() {
+        return Math.max(0, getInt(REJECTS_CONSOLE_LIMIT, 10));
+    }
+
+    /**
+     * @return Console sampling interval for rejected rows past the limit (0 = print none)
+     */
+    public static int getRejectsSampleEvery() {
+        return Math.max(0, getInt(REJECTS_SAMPLE_EVERY, 10_000));
+    }
+
+    /**
+     * @return Configured lock stripe count for concurrent weekly totals (at least 1)
+     */
+    public static int getAggregateStripes() {
+        return Math.max(1, getInt(AGGREGATE_STRIPES, Math.max(16, 4 * Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * @return true if the payslip service should follow the attendance CSV for new rows
+     */
+    public static boolean isStreaming() {
+        return Boolean.parseBoolean(System.getProperty(STREAM, "false"));
+    }
+
+    /**
+     * @return Delay between polls of a followed attendance CSV (at least 1 ms)
+     */
+    public static long getStreamPollMillis() {
+        return Math.max(1, getLong(STREAM_POLL_MS, 20));
+    }
+
+    /**
+     * @return true if attendance days should be kept in an {@link AttendanceIndex}
+     */
+    public static boolean isAttendanceIndexEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ATTENDANCE_INDEX, "false"));
+    }
+
+    /**
+     * @return true if the batch run should record its payslips in {@link PayrollRollups}
+     */
+    public static boolean isRollupsEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ROLLUPS, "true"));
+    }
+
+    // Reads a long property, falling back to the default when missing or malformed
+    static long getLong(String key, long defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    // Reads a double property, falling back to the default when missing or malformed
+    static double getDouble(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) return defaultValue;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    // Reads an integer property, falling back to the default when missing or malformed
+    static int getInt(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * Run metrics for attendance ingestion and payroll: row counters, skipped rows by reason,
+ * per-stage latency histograms and payslip throughput, printable as a report at the end
+ * of a run.
+ *
+ * <p>Metrics are off unless {@link PayrollConfig#METRICS} is set. While off, the hot
+ * paths only read the {@link #enabled} flag: nothing is counted and no clock is read.
+ * While on, counters are {@link LongAdder}s and timings go to {@link LatencyHistogram}s,
+ * so parallel ingestion threads and service requests record without contention.
+ *
+ * <p>Stages, each timed per attendance row or payslip in nanoseconds:
+ * <ul>
+ *   <li>parse: date and time fields of a tokenized row, plus validation</li>
+ *   <li>compute: the day's regular, overtime, under time and late hours</li>
+ *   <li>aggregate: folding the day into the weekly totals</li>
+ *   <li>payslip: one employee-week payslip, including deductions</li>
+ * </ul>
+ */
+public final class PayrollMetrics {
+
+    /** Why an attendance row was not added to the weekly totals */
+    public enum SkipReason {
+        /** Fewer fields than an attendance row needs */
+        MALFORMED("malformed row"),
+        /** Date or time field that does not parse */
+        PARSE_ERROR("parse error"),
+        /** Saturday or Sunday */
+        WEEKEND("weekend"),
+        /** Logout before login */
+        INVALID_RANGE("invalid time range");
+
+        final String label;
+
+        SkipReason(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Timed stages */
+    public enum Stage { PARSE, COMPUTE, AGGREGATE, PAYSLIP }
+
+    private static volatile boolean enabled = PayrollConfig.isMetricsEnabled();
+
+    private static final LongAdder rowsRead = new LongAdder();
+    private static final LongAdder[] rowsSkipped = new LongAdder[SkipReason.values().length];
+    private static final LatencyHistogram[] stageNanos = new LatencyHistogram[Stage.values().length];
+
+    // Clock readings of the first payslip start and the last payslip end
+    private static final LongAccumulator firstPayslipStart = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private static final LongAccumulator lastPayslipEnd = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    static {
+        for (int i = 0; i < rowsSkipped.length; i++) rowsSkipped[i] = new LongAdder();
+        for (int i = 0; i < stageNanos.length; i++) stageNanos[i] = new LatencyHistogram();
+    }
+
+    private PayrollMetrics() {}
+
+    /**
+     * @return true if metrics are being recorded
+     */
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off (the initial state comes from {@link PayrollConfig#METRICS}).
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * @return Current clock reading for a stage timing, or 0 while metrics are off
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since {@code startNanos} (from {@link #start()}) for a stage.
+     *
+     * @return Current clock reading, usable as the start of the next stage (0 while off)
+     */
+    static long stop(Stage stage, long startNanos) {
+        if (!enabled) return 0;
+        long now = System.nanoTime();
+        stageNanos[stage.ordinal()].record(now - startNanos);
+        if (stage == Stage.PAYSLIP) {
+            firstPayslipStart.accumulate(startNanos);
+            lastPayslipEnd.accumulate(now);
+        }
+        return now;
+    }
+
+    /**
+     * Counts one attendance row read.
+     */
+    static void rowRead() {
+        if (enabled) rowsRead.increment();
+    }
+
+    /**
+     * Counts one attendance row skipped for the given reason.
+     */
+    static void rowSkipped(SkipReason reason) {
+        if (enabled) rowsSkipped[reason.ordinal()].increment();
+    }
+
+    /** @return Attendance rows read */
+    public static long rowsRead() {
+        return rowsRead.sum();
+    }
+
+    /** @return Attendance rows skipped for a reason */
+    public static long rowsSkipped(SkipReason reason) {
+        return rowsSkipped[reason.ordinal()].sum();
+    }
+
+    /** @return Timings of a stage in nanoseconds */
+    public static LatencyHistogram stage(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * @return Payslips computed per second of wall-clock time between the first payslip
+     *         started and the last one finished (0 before any payslip)
+     */
+    public static double payslipsPerSecond() {
+        long payslips = stage(Stage.PAYSLIP).count();
+        long elapsed = lastPayslipEnd.get() - firstPayslipStart.get();
+        return payslips == 0 || elapsed <= 0 ? 0.0 : payslips / (elapsed / 1_000_000_000.0);
+    }
+
+    /**
+     * Clears all counters and histograms.
+     */
+    public static void reset() {
+        rowsRead.reset();
+        for (LongAdder skipped : rowsSkipped) skipped.reset();
+        for (LatencyHistogram histogram : stageNanos) histogram.reset();
+        firstPayslipStart.reset();
+        lastPayslipEnd.reset();
+    }
+
+    /**
+     * @return Multi-line report of all metrics
+     */
+    public static String report() {
+        StringBuilder out = new StringBuilder(1024);
+        out.append("Payroll Metrics:\n");
+        long skippedTotal = 0;
+        for (SkipReason reason : SkipReason.values()) skippedTotal += rowsSkipped(reason);
+        line(out, "Rows Read", String.valueOf(rowsRead()));
+        line(out, "Rows Skipped", String.valueOf(skippedTotal));
+        for (SkipReason reason : SkipReason.values()) {
+            line(out, "  " + reason.label, String.valueOf(rowsSkipped(reason)));
+        }
+        line(out, "Payslips", String.valueOf(stage(Stage.PAYSLIP).count()));
+        line(out, "Payslips/s", String.format(Locale.ROOT, "%,.0f", payslipsPerSecond()));
+
+        out.append(String.format(Locale.ROOT, "%n%-12s %12s %10s %10s %10s %10s %12s%n",
+                "Stage (ns)", "count", "mean", "p50", "p99", "p99.9", "max"));
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = stage(stage);
+            out.append(String.format(Locale.ROOT, "%-12s %12d %10.0f %10d %10d %10d %12d%n",
+                    stage.name().toLowerCase(Locale.ROOT), histogram.count(), histogram.mean(),
+                    histogram.percentile(50), histogram.percentile(99), histogram.percentile(99.9),
+                    histogram.max()));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Prints the report to standard output if metrics are enabled.
+     */
+    public static void printReportIfEnabled() {
+        if (enabled) System.out.print("\n" + report());
+    }
+
+    private static void line(StringBuilder out, String label, String value) {
+        out.append(label);
+        for (int i = label.length(); i < 25; i++) out.append(' ');
+        out.append(": ").append(value).append('\n');
+    }
+}
@@ -0,0 +1,356 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * Streams payroll register rows to a file, as CSV or as a fixed-width text register.
+ *
+ * <p>Rows are formatted straight into a byte buffer that is written to a single
+ * {@link FileChannel} whenever it fills up, so memory use does not grow with the number
+ * of rows. Numbers are formatted by hand instead of with String.format: hours with two
+ * decimals, and amounts from centavos, plain in CSV ("1234.50") and with thousands
+ * separators in the text register ("1,234.50").
+ *
+ * <p>The CSV register has a header line and one line per employee-week. The text
+ * register has a header, a rule, one line per employee-week and a closing totals line.
+ * Not thread-safe.
+ */
+public class PayrollRegisterWriter implements Closeable {
+
+    /** Output layout */
+    public enum Format { CSV, TEXT }
+
+    // Column headers of the payroll register
+    static final String[] HEADER = {
+            "Employee #", "Last Name", "First Name", "Week Start",
+            "Regular Hours", "Overtime Hours", "Under Time Hours", "Late Hours",
+            "Basic Pay", "Late Deduction", "Under Time Deduction", "Overtime Pay",
+            "Monthly Allowance", "Gross Pay", "SSS", "PhilHealth", "Pag-ibig",
+            "Withholding Tax", "Total Deductions", "Net Pay"
+    };
+
+    // Text register column headers and minimum widths (numeric columns are right-aligned)
+    private static final String[] TEXT_HEADER = {
+            "Employee #", "Last Name", "First Name", "Week Start",
+            "Reg Hrs", "OT Hrs", "UT Hrs", "Late Hrs",
+            "Basic Pay", "Late Ded", "UT Ded", "OT Pay",
+            "Allowance", "Gross Pay", "SSS", "PhilHealth", "Pag-ibig",
+            "Tax", "Deductions", "Net Pay"
+    };
+    private static final int[] TEXT_WIDTHS = {10, 16, 16, 10, 8, 8, 8, 8, 12, 10, 10, 10, 10, 12, 9, 10, 8, 11, 11, 12};
+
+    // Index of the first text column that is numeric, and of the first amount column
+    private static final int FIRST_HOURS_COLUMN = 4;
+    private static final int FIRST_AMOUNT_COLUMN = 8;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final Format format;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+    private int position;
+
+    // Week label of the previous row, reused while consecutive rows share the week
+    private int labelWeek = DateUtils.INVALID_DAY;
+    private String label;
+
+    // Column totals for the text register
+    private long rows;
+    private final double[] hourTotals = new double[FIRST_AMOUNT_COLUMN - FIRST_HOURS_COLUMN];
+    private final long[] amountTotals = new long[HEADER.length - FIRST_AMOUNT_COLUMN];
+    private final double[] hours = new double[hourTotals.length];
+    private final long[] amounts = new long[amountTotals.length];
+
+    /**
+     * Creates (or truncates) the register file and writes its header.
+     *
+     * @param path   Register file
+     * @param format CSV or fixed-width text
+     * @throws IOException If the file cannot be created or written
+     */
+    public PayrollRegisterWriter(Path path, Format format) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.format = format;
+        try {
+            writeHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the register line of one payslip.
+     *
+     * @param employee  Employee the payslip belongs to
+     * @param weekStart Epoch day of the Monday starting the week
+     * @param data      Payslip as computed by {@link GrossNetWeeklySalary#computePayslip}
+     * @throws IOException If the register cannot be written
+     */
+    public void write(Employee employee, int weekStart, GrossNetWeeklySalary.SalaryData data) throws IOException {
+        if (weekStart != labelWeek) {
+            labelWeek = weekStart;
+            label = DateUtils.formatEpochDay(weekStart);
+        }
+        hours[0] = data.regularHours;
+        hours[1] = data.overtimeHours;
+        hours[2] = data.underTime;
+        hours[3] = data.lateHours;
+        amounts[0] = data.basicPayCentavos;
+        amounts[1] = data.lateDeductionCentavos;
+        amounts[2] = data.underTimeDeductionCentavos;
+        amounts[3] = data.overtimePayCentavos;
+        amounts[4] = data.isLastWeek ? data.totalAllowanceCentavos() : 0;
+        amounts[5] = data.grossWeeklyCentavos;
+        amounts[6] = data.sssCentavos;
+        amounts[7] = data.philhealthCentavos;
+        amounts[8] = data.pagibigCentavos;
+        amounts[9] = data.taxCentavos;
+        amounts[10] = data.totalDeductionsCentavos;
+        amounts[11] = data.netPayCentavos;
+        rows++;
+
+        if (format == Format.CSV) {
+            csvField(employee.employeeNumber());
+            put(',');
+            csvField(employee.lastName());
+            put(',');
+            csvField(employee.firstName());
+            put(',');
+            ascii(label);
+            for (double value : hours) {
+                put(',');
+                decimal(value, 0);
+            }
+            for (long value : amounts) {
+                put(',');
+                amount(value, false, 0);
+            }
+        } else {
+            text(employee.employeeNumber(), TEXT_WIDTHS[0]);
+            put(' ');
+            text(employee.lastName(), TEXT_WIDTHS[1]);
+            put(' ');
+            text(employee.firstName(), TEXT_WIDTHS[2]);
+            put(' ');
+            text(label, TEXT_WIDTHS[3]);
+            for (int i = 0; i < hours.length; i++) {
+                hourTotals[i] += hours[i];
+                put(' ');
+                decimal(hours[i], TEXT_WIDTHS[FIRST_HOURS_COLUMN + i]);
+            }
+            for (int i = 0; i < amounts.length; i++) {
+                amountTotals[i] += amounts[i];
+                put(' ');
+                amount(amounts[i], true, TEXT_WIDTHS[FIRST_AMOUNT_COLUMN + i]);
+            }
+        }
+        newLine();
+    }
+
+    /**
+     * @return Number of payslip rows written so far
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Writes the totals line (text register only), flushes and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (format == Format.TEXT) writeTotals();
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (format == Format.CSV) {
+            for (int i = 0; i < HEADER.length; i++) {
+                if (i > 0) put(',');
+                ascii(HEADER[i]);
+            }
+            newLine();
+            return;
+        }
+        int width = rule();
+        for (int i = 0; i < TEXT_HEADER.length; i++) {
+            if (i > 0) put(' ');
+            if (i >= FIRST_HOURS_COLUMN) pad(TEXT_WIDTHS[i] - TEXT_HEADER[i].length());
+            ascii(TEXT_HEADER[i]);
+            if (i < FIRST_HOURS_COLUMN) pad(TEXT_WIDTHS[i] - TEXT_HEADER[i].length());
+        }
+        newLine();
+        repeat('-', width);
+        newLine();
+    }
+
+    private void writeTotals() throws IOException {
+        repeat('-', rule());
+        newLine();
+        int labelWidth = FIRST_HOURS_COLUMN - 1; // Separators of the label columns
+        for (int i = 0; i < FIRST_HOURS_COLUMN; i++) labelWidth += TEXT_WIDTHS[i];
+        text("TOTAL (" + rows + " payslips)", labelWidth);
+        for (int i = 0; i < hourTotals.length; i++) {
+            put(' ');
+            decimal(hourTotals[i], TEXT_WIDTHS[FIRST_HOURS_COLUMN + i]);
+        }
+        for (int i = 0; i < amountTotals.length; i++) {
+            put(' ');
+            amount(amountTotals[i], true, TEXT_WIDTHS[FIRST_AMOUNT_COLUMN + i]);
+        }
+        newLine();
+    }
+
+    // Total width of a text register line
+    private static int rule() {
+        int width = TEXT_WIDTHS.length - 1;
+        for (int columnWidth : TEXT_WIDTHS) width += columnWidth;
+        return width;
+    }
+
+    // --- Formatting into the buffer ---
+
+    /**
+     * Appends an amount in pesos from centavos, right-aligned to the width (0 = no padding).
+     * With grouping, thousands are separated by commas.
+     */
+    private void amount(long centavos, boolean grouped, int width) throws IOException {
+        boolean negative = centavos < 0;
+        long magnitude = Math.abs(centavos);
+        long pesos = magnitude / Money.CENTAVOS_PER_PESO;
+        int fraction = (int) (magnitude % Money.CENTAVOS_PER_PESO);
+        int digits = digitCount(pesos);
+        int length = (negative ? 1 : 0) + digits + (grouped ? (digits - 1) / 3 : 0) + 3;
+        pad(width - length);
+        reserve(length);
+
+        int p = position + length;
+        buffer[--p] = (byte) ('0' + fraction % 10);
+        buffer[--p] = (byte) ('0' + fraction / 10);
+        buffer[--p] = '.';
+        int group = 0;
+        do {
+            if (grouped && group == 3) {
+                buffer[--p] = ',';
+                group = 0;
+            }
+            buffer[--p] = (byte) ('0' + pesos % 10);
+            pesos /= 10;
+            group++;
+        } while (pesos > 0);
+        if (negative) buffer[--p] = '-';
+        position += length;
+    }
+
+    // Appends a value such as hours with two decimals (nearest hundredth), right-aligned
+    private void decimal(double value, int width) throws IOException {
+        amount(Math.round(value * 100), false, width);
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    // Appends a CSV field, quoted when it contains a delimiter or quote character
+    private void csvField(String value) throws IOException {
+        if (value == null) return;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            utf8(value);
+            return;
+        }
+        put('"');
+        utf8(value.replace("\"", "\"\""));
+        put('"');
+    }
+
+    // Appends text left-aligned in a column of the given width, truncating longer text
+    private void text(String value, int width) throws IOException {
+        String shown = value == null ? "" : value;
+        if (shown.length() > width) shown = shown.substring(0, width);
+        utf8(shown);
+        pad(width - shown.length());
+    }
+
+    // Appends a string as UTF-8, with a fast path for ASCII
+    private void utf8(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                bytes(value.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        ascii(value);
+    }
+
+    private void ascii(String value) throws IOException {
+        int length = value.length();
+        int offset = 0;
+        while (offset < length) {
+            if (position == buffer.length) flush();
+            int count = Math.min(length - offset, buffer.length - position);
+            for (int i = 0; i < count; i++) {
+                buffer[position++] = (byte) value.charAt(offset + i);
+            }
+            offset += count;
+        }
+    }
+
+    private void bytes(byte[] value) throws IOException {
+        int offset = 0;
+        while (offset < value.length) {
+            if (position == buffer.length) flush();
+            int count = Math.min(value.length - offset, buffer.length - position);
+            System.arraycopy(value, offset, buffer, position, count);
+            position += count;
+            offset += count;
+        }
+    }
+
+    private void pad(int count) throws IOException {
+        repeat(' ', count);
+    }
+
+    private void repeat(char c, int count) throws IOException {
+        for (int i = 0; i < count; i++) put(c);
+    }
+
+    private void newLine() throws IOException {
+        bytes(LINE_SEPARATOR);
+    }
+
+    private void put(char c) throws IOException {
+        if (position == buffer.length) flush();
+        buffer[position++] = (byte) c;
+    }
+
+    // Makes room for count contiguous bytes (count is at most the buffer size)
+    private void reserve(int count) throws IOException {
+        if (position + count > buffer.length) flush();
+    }
+
+    // Writes the buffered bytes to the channel
+    private void flush() throws IOException {
+        wrapper.clear().limit(position);
+        while (wrapper.hasRemaining()) {
+            channel.write(wrapper);
+        }
+        position = 0;
+    }
+}
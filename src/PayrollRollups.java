@@ -0,0 +1,347 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+/**
+ * Per-employee pay totals kept as running sums by week, so monthly, year-to-date and any
+ * other date-range figures are read without recomputing payslips.
+ *
+ * <p>The batch run records every payslip it writes for the week of its pay date and
+ * prints the year-end figures (see {@link PayrollBatch#yearEndSummary} and
+ * {@link PayrollConfig#ROLLUPS}). Recording an
+ * employee-week again replaces its earlier figures, so re-running payroll or recomputing
+ * a payslip after new attendance never counts a week twice.
+ *
+ * <p>Each employee has one {@code long[]} of prefix sums: entry {@code (w + 1) * COLUMNS + c}
+ * holds column {@code c} summed over the employee's weeks up to and including week
+ * {@code w}. Totals over any run of weeks are one subtraction per column. A week belongs
+ * to the month and year of its Monday, which is the week the batch run applies that
+ * month's deductions in (see {@link PayrollBatch}), so a month's totals hold its
+ * deductions exactly once. Rows are dense, so an instance only accepts the weeks of the
+ * range it was created for (the weeks of the loaded attendance, for the batch run);
+ * a payslip dated far from the rest cannot grow every row by years of empty weeks.
+ *
+ * <p>Recording weeks in date order, as the batch run does, only writes the newest entry;
+ * recording an earlier week also adjusts the running sums of the weeks after it.
+ * Thread-safe: recording and queries synchronize on the instance.
+ */
+public class PayrollRollups {
+
+    /** Summed payslip figures; money in centavos */
+    public enum Column {
+        /** Gross pay including allowances */
+        GROSS,
+        /** Weekly basic pay */
+        BASIC_PAY,
+        /** Overtime pay */
+        OVERTIME_PAY,
+        /** Overtime worked, in minutes */
+        OVERTIME_MINUTES,
+        /** SSS contribution */
+        SSS,
+        /** PhilHealth contribution */
+        PHILHEALTH,
+        /** Pag-IBIG contribution */
+        PAGIBIG,
+        /** Income the withholding tax was computed on */
+        TAXABLE_INCOME,
+        /** Withholding tax */
+        TAX,
+        /** Net pay */
+        NET,
+        /** Payslips (employee-weeks) recorded */
+        PAYSLIPS,
+        /** Payslips with the monthly deductions, i.e. months paid */
+        DEDUCTION_MONTHS
+    }
+
+    private static final Column[] COLUMN_VALUES = Column.values();
+    private static final int COLUMNS = COLUMN_VALUES.length;
+    private static final int MONTHS_PER_YEAR = 12;
+
+    /**
+     * Column sums over a range of weeks.
+     */
+    public static final class Totals {
+        private final long[] values;
+
+        private Totals(long[] values) {
+            this.values = values;
+        }
+
+        /** @return Sum of one column */
+        public long get(Column column) {
+            return values[column.ordinal()];
+        }
+
+        /** @return SSS, PhilHealth, Pag-IBIG and tax */
+        public long totalDeductions() {
+            return get(Column.SSS) + get(Column.PHILHEALTH) + get(Column.PAGIBIG) + get(Column.TAX);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder("Totals{");
+            for (Column column : COLUMN_VALUES) {
+                if (column.ordinal() > 0) out.append(", ");
+                out.append(column).append('=').append(values[column.ordinal()]);
+            }
+            return out.append('}').toString();
+        }
+    }
+
+    // Weeks of one employee: prefix sums from the week starting on firstWeek
+    private static final class Row {
+        final int employeeId;
+        int firstWeek;
+        int weeks;
+        long[] sums = new long[4 * COLUMNS];
+
+        Row(int employeeId) {
+            this.employeeId = employeeId;
+        }
+    }
+
+    // Employee table: slot -> row index + 1 (0 = empty); length is a power of two
+    private int[] slots = new int[64];
+    private Row[] rows = new Row[32];
+    private int size;
+
+    // Mondays of the first and last week that may be recorded
+    private final int firstWeek;
+    private final int lastWeek;
+
+    // Figures of the payslip being recorded, reused under the lock
+    private final long[] week = new long[COLUMNS];
+
+    /**
+     * @param fromDay Any day of the first week that may be recorded
+     * @param toDay   Any day of the last week that may be recorded
+     */
+    public PayrollRollups(int fromDay, int toDay) {
+        if (fromDay > toDay) throw new IllegalArgumentException("Empty rollup range: " + fromDay + " > " + toDay);
+        this.firstWeek = DateUtils.weekStart(fromDay);
+        this.lastWeek = DateUtils.weekStart(toDay);
+    }
+
+    /**
+     * Records one payslip, replacing any earlier payslip of the same employee-week.
+     *
+     * @param employeeId Numeric employee ID
+     * @param data       Payslip as computed by {@link GrossNetWeeklySalary#computePayslip}
+     * @throws IllegalArgumentException If the pay date is outside the range of this instance
+     */
+    public synchronized void record(int employeeId, GrossNetWeeklySalary.SalaryData data) {
+        int weekStart = DateUtils.weekStart(data.payDay);
+        if (weekStart < firstWeek || weekStart > lastWeek) {
+            throw new IllegalArgumentException("Week of " + DateUtils.formatEpochDay(data.payDay)
+                    + " is outside the rollup range " + DateUtils.formatEpochDay(firstWeek)
+                    + " to " + DateUtils.formatEpochDay(lastWeek + 6));
+        }
+        long[] values = week;
+        values[Column.GROSS.ordinal()] = data.grossWeeklyCentavos;
+        values[Column.BASIC_PAY.ordinal()] = data.basicPayCentavos;
+        values[Column.OVERTIME_PAY.ordinal()] = data.overtimePayCentavos;
+        values[Column.OVERTIME_MINUTES.ordinal()] = Math.round(data.overtimeHours * 60);
+        values[Column.SSS.ordinal()] = data.sssCentavos;
+        values[Column.PHILHEALTH.ordinal()] = data.philhealthCentavos;
+        values[Column.PAGIBIG.ordinal()] = data.pagibigCentavos;
+        values[Column.TAXABLE_INCOME.ordinal()] = data.taxableIncomeCentavos;
+        values[Column.TAX.ordinal()] = data.taxCentavos;
+        values[Column.NET.ordinal()] = data.netPayCentavos;
+        values[Column.PAYSLIPS.ordinal()] = 1;
+        values[Column.DEDUCTION_MONTHS.ordinal()] = data.isLastWeek ? 1 : 0;
+
+        Row row = findOrCreate(employeeId);
+        int w = weekIndex(row, weekStart);
+        long[] sums = row.sums;
+        int base = w * COLUMNS;
+        for (int c = 0; c < COLUMNS; c++) {
+            // Replace the week's figures: add the difference to this and every later running sum
+            long delta = values[c] - (sums[base + COLUMNS + c] - sums[base + c]);
+            if (delta == 0) continue;
+            for (int i = base + COLUMNS + c, end = (row.weeks + 1) * COLUMNS; i < end; i += COLUMNS) {
+                sums[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * Totals of the weeks whose Monday falls between two dates, inclusive.
+     *
+     * @param employeeId Numeric employee ID
+     * @param fromDay    First epoch day of the range
+     * @param toDay      Last epoch day of the range
+     */
+    public synchronized Totals range(int employeeId, int fromDay, int toDay) {
+        long[] values = new long[COLUMNS];
+        Row row = find(employeeId);
+        if (row == null || row.weeks == 0) return new Totals(values);
+
+        // First and last Monday in the range, as week indexes clamped to the recorded weeks
+        int from = Math.max(0, Math.floorDiv(DateUtils.weekStart(fromDay + 6) - row.firstWeek, 7));
+        int to = Math.min(row.weeks - 1, Math.floorDiv(DateUtils.weekStart(toDay) - row.firstWeek, 7));
+        if (from > to) return new Totals(values);
+
+        long[] sums = row.sums;
+        for (int c = 0; c < COLUMNS; c++) {
+            values[c] = sums[(to + 1) * COLUMNS + c] - sums[from * COLUMNS + c];
+        }
+        return new Totals(values);
+    }
+
+    /**
+     * @param month Month 1-12
+     * @return Totals of the weeks starting in a calendar month
+     */
+    public Totals month(int employeeId, int year, int month) {
+        return range(employeeId, DateUtils.epochDay(year, month, 1),
+                DateUtils.epochDay(year, month, DateUtils.lengthOfMonth(year, month)));
+    }
+
+    /**
+     * @return Totals of the weeks starting in a calendar year
+     */
+    public Totals year(int employeeId, int year) {
+        return range(employeeId, DateUtils.epochDay(year, 1, 1), DateUtils.epochDay(year, 12, 31));
+    }
+
+    /**
+     * @param epochDay Last day counted
+     * @return Totals from January 1 of the day's year through the day
+     */
+    public Totals yearToDate(int employeeId, int epochDay) {
+        int year = DateUtils.toYearMonthDay(epochDay) / 10000;
+        return range(employeeId, DateUtils.epochDay(year, 1, 1), epochDay);
+    }
+
+    /**
+     * Projects the tax due for the whole year from the taxable income so far: the
+     * average monthly taxable income of the months paid year to date, taxed with the
+     * rates in effect on the day, for twelve months.
+     *
+     * @param epochDay Last day counted
+     * @return Annualized withholding tax in centavos (0 before the first month is paid)
+     */
+    public long annualizedTax(int employeeId, int epochDay) {
+        Totals ytd = yearToDate(employeeId, epochDay);
+        long months = ytd.get(Column.DEDUCTION_MONTHS);
+        if (months == 0) return 0;
+        long monthlyTaxable = Money.scale(ytd.get(Column.TAXABLE_INCOME), 1, months);
+        return MONTHS_PER_YEAR * DeductionsCalculator.scheduleFor(epochDay).tax(monthlyTaxable);
+    }
+
+    /**
+     * Year-end adjustment of the withholding tax: tax on the year's total taxable income
+     * (as twelve months of its monthly average) less the tax withheld during the year.
+     *
+     * @return Tax still to withhold in centavos, or a negative refund
+     */
+    public long yearEndAdjustment(int employeeId, int year) {
+        Totals totals = year(employeeId, year);
+        long monthlyTaxable = Money.scale(totals.get(Column.TAXABLE_INCOME), 1, MONTHS_PER_YEAR);
+        long due = MONTHS_PER_YEAR * DeductionsCalculator.scheduleFor(DateUtils.epochDay(year, 12, 31)).tax(monthlyTaxable);
+        return due - totals.get(Column.TAX);
+    }
+
+    /**
+     * Year totals of every employee with recorded payslips, e.g. for year-end certificates.
+     *
+     * @return Totals by employee ID, in ID order
+     */
+    public synchronized Map<Integer, Totals> yearEnd(int year) {
+        Map<Integer, Totals> totals = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            totals.put(rows[i].employeeId, year(rows[i].employeeId, year));
+        }
+        return totals;
+    }
+
+    /** @return Year of the first week that may be recorded */
+    public int firstYear() {
+        return DateUtils.toYearMonthDay(firstWeek) / 10000;
+    }
+
+    /** @return Year of the last week that may be recorded */
+    public int lastYear() {
+        return DateUtils.toYearMonthDay(lastWeek) / 10000;
+    }
+
+    /** @return Number of employees with recorded payslips */
+    public synchronized int employeeCount() {
+        return size;
+    }
+
+    /**
+     * Removes all recorded payslips.
+     */
+    public synchronized void clear() {
+        Arrays.fill(slots, 0);
+        Arrays.fill(rows, 0, size, null);
+        size = 0;
+    }
+
+    // Index of a week in the employee's row, extending the row to cover it
+    private static int weekIndex(Row row, int weekStart) {
+        if (row.weeks == 0) {
+            row.firstWeek = weekStart;
+        } else if (weekStart < row.firstWeek) {
+            // Prepend empty weeks: running sums of the existing weeks stay the same
+            int shift = (row.firstWeek - weekStart) / 7;
+            long[] sums = new long[Math.max(row.sums.length, (row.weeks + shift + 1) * COLUMNS)];
+            System.arraycopy(row.sums, 0, sums, shift * COLUMNS, (row.weeks + 1) * COLUMNS);
+            row.sums = sums;
+            row.weeks += shift;
+            row.firstWeek = weekStart;
+        }
+        int w = (weekStart - row.firstWeek) / 7;
+        if (w >= row.weeks) {
+            int used = (w + 2) * COLUMNS;
+            if (used > row.sums.length) row.sums = Arrays.copyOf(row.sums, Math.max(used, row.sums.length * 2));
+            // New weeks start with the running sums of the last recorded week
+            int last = row.weeks * COLUMNS;
+            for (int i = last + COLUMNS; i < used; i += COLUMNS) {
+                System.arraycopy(row.sums, last, row.sums, i, COLUMNS);
+            }
+            row.weeks = w + 1;
+        }
+        return w;
+    }
+
+    private Row find(int employeeId) {
+        int mask = slots.length - 1;
+        for (int slot = hash(employeeId) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) return null;
+            if (rows[entry - 1].employeeId == employeeId) return rows[entry - 1];
+        }
+    }
+
+    private Row findOrCreate(int employeeId) {
+        Row row = find(employeeId);
+        if (row != null) return row;
+        if ((size + 1) * 2 > slots.length) rehash(slots.length * 2);
+        if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+        row = new Row(employeeId);
+        rows[size++] = row;
+        insert(size - 1);
+        return row;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int i = 0; i < size; i++) insert(i);
+    }
+
+    private void insert(int index) {
+        int mask = slots.length - 1;
+        int slot = hash(rows[index].employeeId) & mask;
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        slots[slot] = index + 1;
+    }
+
+    // Fibonacci hashing with the high bits folded in, for any table size
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
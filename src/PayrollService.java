@@ -0,0 +1,442 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.StampedLock;
+/**
+ * Long-running local HTTP service that answers payslip queries from an in-memory model.
+ *
+ * <p>Employees and weekly totals are loaded once at startup (from the CSVs, or from the
+ * binary snapshot when enabled, see {@link PayrollSnapshot}); every request is then a
+ * hash lookup plus the payslip arithmetic. Each request runs on its own virtual thread,
+ * so many slow clients do not tie up platform threads. With {@link PayrollConfig#STREAM}
+ * the attendance CSV is followed by an {@link AttendanceStream} instead, and rows appended
+ * while the service runs show up in the next payslip within milliseconds.
+ *
+ * <p>Endpoints (GET, JSON responses):
+ * <ul>
+ *   <li>{@code /payslip?employee=10001&week=06/05/2024} - one employee's payslip</li>
+ *   <li>{@code /payslips?week=06/05/2024} - payslips of all employees, ordered by ID</li>
+ *   <li>{@code /stats} - payslip cache statistics</li>
+ *   <li>{@code /attendance?employee=10001&week=06/05/2024} - the days behind a payslip,
+ *       when the {@link AttendanceIndex} is enabled ({@link PayrollConfig#ATTENDANCE_INDEX});
+ *       {@code &period=semi-monthly} (or any other {@link PayPeriod}) returns the days of
+ *       that pay period instead</li>
+ * </ul>
+ * The week may be given as any date within it, as MM/dd/yyyy, MM-dd-yyyy or yyyy-MM-dd,
+ * in the years {@link #FIRST_YEAR} to {@link #LAST_YEAR}. Malformed parameters, including
+ * broken %-escapes, are answered with 400.
+ * Like the batch run, payslips are computed for the Monday starting that week, so the
+ * monthly deductions fall on the same weeks as in the payroll register. Finished payslips
+ * are kept in a {@link PayslipCache} ({@link PayrollConfig#CACHE_SIZE} entries), which is
+ * invalidated per employee-week when attendance is added to the served weekly totals.
+ *
+ * <p>Usage: {@code java GrossNetWeeklySalary --serve [port]} (default port 8080,
+ * bound to the loopback interface).
+ */
+public class PayrollService {
+    /** Command-line flag that switches GrossNetWeeklySalary into service mode */
+    static final String SERVE_FLAG = "--serve";
+
+    /** Port used when none is given */
+    static final int DEFAULT_PORT = 8080;
+
+    // Years a week or date parameter may fall in; anything else is rejected with 400
+    static final int FIRST_YEAR = 1900;
+    static final int LAST_YEAR = 2999;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Map<Integer, Employee> employees;
+    private final List<Employee> roster;
+    private final WeeklyAggregateStore totals;
+    private final PayslipCache cache;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // Stream keeping the totals live, closed when the service stops (null = none)
+    private volatile AttendanceStream stream;
+
+    /**
+     * Creates a service over an already loaded model, bound to the loopback interface.
+     *
+     * @param employees Employee map as returned by {@link EmployeeDetails#readEmployees(String)}
+     * @param totals    Weekly totals (only modified by an {@link AttendanceStream} once the service runs)
+     * @param port      Port to listen on (0 picks a free port)
+     * @throws IOException If the port cannot be bound
+     */
+    PayrollService(Map<Integer, Employee> employees, WeeklyAggregateStore totals, int port) throws IOException {
+        this(employees, totals, port, PayrollConfig.getPayslipCacheSize());
+    }
+
+    /**
+     * @param cacheSize Payslip cache capacity (0 = compute every payslip)
+     */
+    PayrollService(Map<Integer, Employee> employees, WeeklyAggregateStore totals, int port, int cacheSize)
+            throws IOException {
+        this.employees = employees;
+        this.totals = totals;
+        this.cache = cacheSize > 0 ? new PayslipCache(cacheSize, totals) : null;
+        this.roster = new ArrayList<>(employees.values());
+        this.roster.sort(Comparator.comparingInt(Employee::id));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/payslip", this::handlePayslip);
+        server.createContext("/payslips", this::handlePayslips);
+        server.createContext("/stats", this::handleStats);
+        server.createContext("/attendance", this::handleAttendance);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+    }
+
+    // Service entry point - optional first argument is the port
+    public static void main(String[] args) {
+        AttendanceStream stream = null;
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            long start = System.nanoTime();
+            Map<Integer, Employee> employees;
+            if (PayrollConfig.isStreaming()) {
+                // The stream reads the whole attendance file itself so it can correct any day later
+                employees = EmployeeDetails.readEmployees(GrossNetWeeklySalary.EMPLOYEE_FILE);
+                ShiftRoster.bind(employees.values());
+                stream = new AttendanceStream();
+                stream.follow(Paths.get(GrossNetWeeklySalary.ATTENDANCE_FILE), PayrollConfig.getStreamPollMillis());
+            } else {
+                employees = PayrollSnapshot.loadPayrollData(
+                        GrossNetWeeklySalary.EMPLOYEE_FILE, GrossNetWeeklySalary.ATTENDANCE_FILE);
+            }
+
+            PayrollService service = new PayrollService(employees, WeeklyWorkedHours.weeklyTotals, port);
+            service.attach(stream);
+            RejectedRecords.printSummary();
+            service.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(service::stop, "payroll-service-shutdown"));
+            System.out.printf("Loaded %d employees in %.1f ms; serving payslips on http://localhost:%d/%n",
+                    employees.size(), (System.nanoTime() - start) / 1_000_000.0, service.port());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port: " + args[0]);
+        } catch (IOException e) {
+            if (stream != null) stream.close();
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    void start() {
+        // Attendance added to the served totals from now on invalidates cached payslips
+        if (cache != null && totals == WeeklyWorkedHours.weeklyTotals) WeeklyWorkedHours.payslipCache = cache;
+        server.start();
+    }
+
+    /**
+     * Hands the service the stream that keeps its totals live, to be closed on {@link #stop()}.
+     *
+     * @param stream Following attendance stream, or null for none
+     */
+    void attach(AttendanceStream stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Stops accepting requests and waits up to a second for running ones to finish, then
+     * stops the attached attendance stream.
+     */
+    void stop() {
+        server.stop(1);
+        executor.shutdown();
+        AttendanceStream attached = stream;
+        if (attached != null) attached.close();
+        if (WeeklyWorkedHours.payslipCache == cache) WeeklyWorkedHours.payslipCache = null;
+    }
+
+    /** @return Payslip cache of this service, or null when caching is disabled */
+    PayslipCache cache() {
+        return cache;
+    }
+
+    /** @return Port the service listens on */
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    // GET /payslip?employee=ID&week=DATE
+    private void handlePayslip(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!checkGet(exchange)) return;
+            Map<String, String> query = parseQuery(exchange);
+            if (query == null) return;
+            int weekStart = parseWeek(query.get("week"));
+            String employeeId = query.get("employee");
+            if (weekStart == DateUtils.INVALID_DAY || employeeId == null || employeeId.isBlank()) {
+                sendError(exchange, 400, "Expected ?employee=<id>&week=<MM/dd/yyyy>");
+                return;
+            }
+            Employee employee = employees.get(EmployeeDetails.findNumericId(employeeId.trim()));
+            if (employee == null) {
+                sendError(exchange, 404, "Employee not found: " + employeeId);
+                return;
+            }
+
+            StringBuilder json = new StringBuilder(768);
+            appendPayslip(json, employee, weekStart);
+            send(exchange, 200, json.append('\n').toString());
+        }
+    }
+
+    // GET /payslips?week=DATE - streamed, one payslip at a time
+    private void handlePayslips(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!checkGet(exchange)) return;
+            Map<String, String> query = parseQuery(exchange);
+            if (query == null) return;
+            int weekStart = parseWeek(query.get("week"));
+            if (weekStart == DateUtils.INVALID_DAY) {
+                sendError(exchange, 400, "Expected ?week=<MM/dd/yyyy>");
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0); // Chunked
+            try (Writer out = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 16)) {
+                StringBuilder json = new StringBuilder(768);
+                out.write("[\n");
+                for (int i = 0; i < roster.size(); i++) {
+                    json.setLength(0);
+                    appendPayslip(json, roster.get(i), weekStart);
+                    out.append(json).write(i + 1 < roster.size() ? ",\n" : "\n");
+                }
+                out.write("]\n");
+            }
+        }
+    }
+
+    // GET /stats
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!checkGet(exchange)) return;
+            StringBuilder json = new StringBuilder("{\"cacheEnabled\":").append(cache != null);
+            if (cache != null) {
+                PayslipCache.Stats stats = cache.stats();
+                json.append(",\"size\":").append(stats.size())
+                        .append(",\"capacity\":").append(stats.capacity())
+                        .append(",\"hits\":").append(stats.hits())
+                        .append(",\"misses\":").append(stats.misses())
+                        .append(",\"evictions\":").append(stats.evictions())
+                        .append(",\"invalidations\":").append(stats.invalidations());
+                appendDecimal(json, "hitRate", stats.hitRate());
+            }
+            send(exchange, 200, json.append("}\n").toString());
+        }
+    }
+
+    // GET /attendance?employee=ID&week=DATE[&period=NAME] - the days behind one payslip or pay period
+    private void handleAttendance(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!checkGet(exchange)) return;
+            AttendanceIndex index = WeeklyWorkedHours.attendanceIndex;
+            if (index == null) {
+                sendError(exchange, 404, "Attendance index is disabled (-D" + PayrollConfig.ATTENDANCE_INDEX + "=true)");
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange);
+            if (query == null) return;
+            int day = parseDay(query.get("week"));
+            String employeeId = query.get("employee");
+            PayPeriod period = query.containsKey("period") ? PayPeriod.forName(query.get("period")) : PayPeriod.MONDAY_WEEK;
+            if (day == DateUtils.INVALID_DAY || employeeId == null || employeeId.isBlank() || period == null) {
+                sendError(exchange, 400, "Expected ?employee=<id>&week=<MM/dd/yyyy>[&period=<monday-week|sunday-week|semi-monthly|month>]");
+                return;
+            }
+
+            int numericId = EmployeeDetails.findNumericId(employeeId.trim());
+            if (numericId == EmployeeDetails.UNKNOWN_ID) {
+                sendError(exchange, 404, "Employee not found: " + employeeId);
+                return;
+            }
+
+            // Under the read lock the days agree with the weekly totals a stream is updating
+            AttendanceIndex.Days days;
+            StampedLock lock = WeeklyWorkedHours.weeklyTotalsLock;
+            long stamp = lock.readLock();
+            try {
+                days = index.period(numericId, period, day);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            StringBuilder json = new StringBuilder(128 + days.size() * 160).append('[');
+            for (int i = 0; i < days.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append("\n{");
+                appendString(json, "date", DateUtils.formatEpochDay(days.epochDay(i))).append(',');
+                appendString(json, "logIn", formatMinute(days.loginMinute(i))).append(',');
+                appendString(json, "logOut", formatMinute(days.logoutMinute(i)));
+                appendDecimal(json, "regularHours", days.regularMinutes(i) / 60.0);
+                appendDecimal(json, "overtimeHours", days.overtimeMinutes(i) / 60.0);
+                appendDecimal(json, "underTimeHours", days.underTimeMinutes(i) / 60.0);
+                appendDecimal(json, "lateHours", days.lateMinutes(i) / 60.0);
+                json.append('}');
+            }
+            send(exchange, 200, json.append("\n]\n").toString());
+        }
+    }
+
+    // Formats minutes from midnight as H:mm (a night shift's next-day times wrap around)
+    private static String formatMinute(int minute) {
+        int minuteOfDay = minute % DateUtils.MINUTES_PER_DAY;
+        int minutes = minuteOfDay % 60;
+        return minuteOfDay / 60 + (minutes < 10 ? ":0" : ":") + minutes;
+    }
+
+    // Appends one payslip as a JSON object
+    private void appendPayslip(StringBuilder json, Employee employee, int weekStart) {
+        GrossNetWeeklySalary.SalaryData data = cache != null
+                ? cache.get(employee, weekStart)
+                : GrossNetWeeklySalary.computePayslip(employee, DateUtils.toDate(weekStart, 0), totals);
+        long allowance = data.isLastWeek ? data.totalAllowanceCentavos() : 0;
+
+        json.append('{');
+        appendString(json, "employee", employee.employeeNumber()).append(',');
+        appendString(json, "lastName", employee.lastName()).append(',');
+        appendString(json, "firstName", employee.firstName()).append(',');
+        appendString(json, "weekStart", DateUtils.formatEpochDay(weekStart)).append(',');
+        json.append("\"lastWeekOfMonth\":").append(data.isLastWeek);
+        appendDecimal(json, "regularHours", data.regularHours);
+        appendDecimal(json, "overtimeHours", data.overtimeHours);
+        appendDecimal(json, "underTimeHours", data.underTime);
+        appendDecimal(json, "lateHours", data.lateHours);
+        appendAmount(json, "basicPay", data.basicPayCentavos);
+        appendAmount(json, "lateDeduction", data.lateDeductionCentavos);
+        appendAmount(json, "underTimeDeduction", data.underTimeDeductionCentavos);
+        appendAmount(json, "overtimePay", data.overtimePayCentavos);
+        appendAmount(json, "monthlyAllowance", allowance);
+        appendAmount(json, "grossPay", data.grossWeeklyCentavos);
+        appendAmount(json, "sss", data.sssCentavos);
+        appendAmount(json, "philhealth", data.philhealthCentavos);
+        appendAmount(json, "pagibig", data.pagibigCentavos);
+        appendAmount(json, "withholdingTax", data.taxCentavos);
+        appendAmount(json, "totalDeductions", data.totalDeductionsCentavos);
+        appendAmount(json, "netPay", data.netPayCentavos);
+        json.append('}');
+    }
+
+    // Appends "name":"value" with JSON string escaping
+    private static StringBuilder appendString(StringBuilder json, String name, String value) {
+        json.append('"').append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    // Appends ,"name":value with two decimals (rounded half away from zero, like Money.toCentavos)
+    private static void appendDecimal(StringBuilder json, String name, double value) {
+        appendHundredths(json.append(",\"").append(name).append("\":"), Money.toCentavos(value));
+    }
+
+    // Appends ,"name":amount in pesos from centavos
+    private static void appendAmount(StringBuilder json, String name, long centavos) {
+        appendHundredths(json.append(",\"").append(name).append("\":"), centavos);
+    }
+
+    // Appends hundredths as a plain decimal with two decimals, e.g. -1234.50 (see Money.format)
+    private static void appendHundredths(StringBuilder json, long hundredths) {
+        if (hundredths < 0) json.append('-');
+        long magnitude = Math.abs(hundredths);
+        long fraction = magnitude % 100;
+        json.append(magnitude / 100).append('.');
+        if (fraction < 10) json.append('0');
+        json.append(fraction);
+    }
+
+    /**
+     * Parses a week parameter given as any date in the week.
+     *
+     * @return Epoch day of the Monday starting the week, or {@link DateUtils#INVALID_DAY}
+     */
+    static int parseWeek(String date) {
+        int epochDay = parseDay(date);
+        return epochDay == DateUtils.INVALID_DAY ? epochDay : PayPeriod.MONDAY_WEEK.start(epochDay);
+    }
+
+    /**
+     * Parses a date parameter given as MM/dd/yyyy, MM-dd-yyyy or yyyy-MM-dd.
+     *
+     * @return Epoch day of the date, or {@link DateUtils#INVALID_DAY} if malformed or
+     *         outside the years {@link #FIRST_YEAR} to {@link #LAST_YEAR}
+     */
+    static int parseDay(String date) {
+        if (date == null) return DateUtils.INVALID_DAY;
+        String text = date.trim();
+        int epochDay;
+        if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+            // ISO yyyy-MM-dd: reorder to MM/dd/yyyy
+            epochDay = DateUtils.parseEpochDay(text.substring(5, 7) + "/" + text.substring(8) + "/"
+                    + text.substring(0, 4), 0, 10);
+        } else {
+            String slashed = text.replace('-', '/');
+            epochDay = DateUtils.parseEpochDay(slashed, 0, slashed.length());
+        }
+        if (epochDay == DateUtils.INVALID_DAY) return epochDay;
+        int year = DateUtils.toYearMonthDay(epochDay) / 10000;
+        return year < FIRST_YEAR || year > LAST_YEAR ? DateUtils.INVALID_DAY : epochDay;
+    }
+
+    // Decoded query parameters of a request, or null after answering 400 for a malformed query
+    private static Map<String, String> parseQuery(HttpExchange exchange) throws IOException {
+        try {
+            return parseQuery(exchange.getRequestURI().getRawQuery());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "Malformed query: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Splits a raw query string into decoded name/value pairs (IllegalArgumentException on a bad %-escape)
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // Rejects anything but GET with 405
+    private static boolean checkGet(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) return true;
+        exchange.getResponseHeaders().set("Allow", "GET");
+        sendError(exchange, 405, "Only GET is supported");
+        return false;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        appendString(json, "error", message).append("}\n");
+        send(exchange, status, json.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,328 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+/**
+ * Compact binary snapshot of the loaded employees and weekly totals, so a restart does
+ * not have to reparse both CSV files.
+ *
+ * <p>The snapshot is written after the CSVs have been read and is loaded through a memory
+ * map on the next start. Its layout is columnar with fixed-width columns, each starting
+ * on an 8-byte boundary (all values big-endian):
+ * <pre>
+ * header      magic, version, source fingerprints (employees, attendance, shifts), employee count,
+ *             row count, text size, ID count
+ * employees   int id[n]; long basicSalary[n], riceSubsidy[n], phoneAllowance[n],
+ *             clothingAllowance[n], grossSemiMonthly[n], hourlyRate[n] (centavos);
+ *             int textOffset[n * 13 + 1]; byte text[] (UTF-8 text fields, employee by employee)
+ * weekly      long key[m] (see {@link WeeklyAggregateStore#key}); double regular[m], overtime[m],
+ *             underTime[m], late[m]
+ * IDs         (int id, short length, UTF-8 text) for every non-numeric employee ID
+ * </pre>
+ * Columns are copied out with bulk typed-buffer reads, so loading costs about as much as
+ * copying the arrays. Non-numeric employee IDs are only stable within one run and are
+ * re-assigned on load from the stored text.
+ *
+ * <p>Each source CSV is fingerprinted by size, modification time and CRC32 checksums of
+ * its first and last 4 KB. The shift CSV ({@link PayrollConfig#SHIFTS_FILE}) counts as a
+ * source, since shifts change every weekly total; when it does not exist a fixed marker
+ * is stored instead. A snapshot whose fingerprints no longer match the files is ignored
+ * and rebuilt from the CSVs.
+ */
+public class PayrollSnapshot {
+    // Snapshot file identification ("MPSN") and format version
+    private static final int MAGIC = 0x4D50534E;
+    private static final int VERSION = 2;
+
+    // Bytes checksummed at each end of a source file
+    private static final int CHECKSUM_WINDOW = 4096;
+
+    /** Fingerprint of a source file that does not exist (no real file has a negative size) */
+    static final long[] ABSENT = {-1, -1, -1, -1};
+
+    // Text fields stored per employee, in Employee component order
+    private static final int TEXT_FIELDS = 13;
+
+    private PayrollSnapshot() {}
+
+    /**
+     * Loads the employees and fills the weekly totals, from the snapshot when snapshots
+     * are enabled ({@link PayrollConfig#SNAPSHOT}) and the snapshot is still valid, and
+     * from the CSV files otherwise. A missing or stale snapshot is rebuilt afterwards.
+     *
+     * @param employeeFile   Path to the employee CSV file
+     * @param attendanceFile Path to the attendance CSV file
+     * @return Employee map as returned by {@link EmployeeDetails#readEmployees(String)}
+     * @throws IOException If the CSV files cannot be read
+     */
+    public static Map<Integer, Employee> loadPayrollData(String employeeFile, String attendanceFile)
+            throws IOException {
+        if (!PayrollConfig.isSnapshotEnabled()) {
+            Map<Integer, Employee> employees = EmployeeDetails.readEmployees(employeeFile);
+            ShiftRoster.bind(employees.values());
+            WeeklyWorkedHours.processAttendanceFile(attendanceFile);
+            return employees;
+        }
+
+        Path snapshot = Paths.get(PayrollConfig.getSnapshotPath());
+        Map<Integer, Employee> employees = load(snapshot, employeeFile, attendanceFile, WeeklyWorkedHours.weeklyTotals);
+        if (employees != null) {
+            ShiftRoster.bind(employees.values());
+            return employees;
+        }
+
+        employees = EmployeeDetails.readEmployees(employeeFile);
+        ShiftRoster.bind(employees.values());
+        WeeklyWorkedHours.processAttendanceFile(attendanceFile);
+        try {
+            write(snapshot, employeeFile, attendanceFile, employees, WeeklyWorkedHours.weeklyTotals);
+        } catch (IOException e) {
+            System.err.println("Could not write snapshot " + snapshot + ": " + e.getMessage());
+        }
+        return employees;
+    }
+
+    /**
+     * Writes a snapshot of the given employees and weekly totals. The file is written
+     * next to its final location and moved into place when complete.
+     *
+     * @param snapshot       Snapshot file to write
+     * @param employeeFile   Employee CSV the employees were read from
+     * @param attendanceFile Attendance CSV the totals were read from
+     * @throws IOException If the snapshot cannot be written
+     */
+    static void write(Path snapshot, String employeeFile, String attendanceFile,
+                      Map<Integer, Employee> employees, WeeklyAggregateStore totals) throws IOException {
+        List<Employee> roster = new ArrayList<>(employees.values());
+        int n = roster.size();
+        int m = totals.size();
+
+        // Text heap and offsets
+        ByteArrayOutputStream text = new ByteArrayOutputStream(n * 160);
+        int[] textOffsets = new int[n * TEXT_FIELDS + 1];
+        for (int i = 0; i < n; i++) {
+            String[] fields = textFields(roster.get(i));
+            for (int f = 0; f < TEXT_FIELDS; f++) {
+                textOffsets[i * TEXT_FIELDS + f] = text.size();
+                text.writeBytes(fields[f].getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        textOffsets[n * TEXT_FIELDS] = text.size();
+
+        // Non-numeric IDs used by employees or weekly rows
+        Set<Integer> nonNumericIds = new TreeSet<>();
+        for (Employee employee : roster) {
+            if (employee.id() < 0) nonNumericIds.add(employee.id());
+        }
+        for (int row = 0; row < m; row++) {
+            if (totals.employeeId(row) < 0) nonNumericIds.add(totals.employeeId(row));
+        }
+
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (ColumnOutput out = new ColumnOutput(Files.newOutputStream(temp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeFingerprint(out, Paths.get(employeeFile));
+            writeFingerprint(out, Paths.get(attendanceFile));
+            writeFingerprint(out, Paths.get(PayrollConfig.getShiftsFile()));
+            out.writeInt(n);
+            out.writeInt(m);
+            out.writeInt(text.size());
+            out.writeInt(nonNumericIds.size());
+
+            for (Employee employee : roster) out.writeInt(employee.id());
+            out.align();
+            for (Employee employee : roster) out.writeLong(employee.basicSalaryCentavos());
+            for (Employee employee : roster) out.writeLong(employee.riceSubsidyCentavos());
+            for (Employee employee : roster) out.writeLong(employee.phoneAllowanceCentavos());
+            for (Employee employee : roster) out.writeLong(employee.clothingAllowanceCentavos());
+            for (Employee employee : roster) out.writeLong(employee.grossSemiMonthlyCentavos());
+            for (Employee employee : roster) out.writeLong(employee.hourlyRateCentavos());
+            for (int offset : textOffsets) out.writeInt(offset);
+            text.writeTo(out);
+            out.align();
+
+            for (int row = 0; row < m; row++) {
+                out.writeLong(WeeklyAggregateStore.key(totals.employeeId(row), totals.weekStart(row)));
+            }
+            for (int row = 0; row < m; row++) out.writeDouble(totals.regularHours(row));
+            for (int row = 0; row < m; row++) out.writeDouble(totals.overtimeHours(row));
+            for (int row = 0; row < m; row++) out.writeDouble(totals.underTimeHours(row));
+            for (int row = 0; row < m; row++) out.writeDouble(totals.lateHours(row));
+
+            for (int id : nonNumericIds) {
+                byte[] idText = EmployeeDetails.toEmployeeId(id).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(id);
+                out.writeShort(idText.length);
+                out.write(idText);
+            }
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot if it exists and still matches both source files and the shift CSV.
+     *
+     * @param snapshot       Snapshot file
+     * @param employeeFile   Employee CSV the snapshot must have been built from
+     * @param attendanceFile Attendance CSV the snapshot must have been built from
+     * @param totals         Store receiving the weekly totals
+     * @return Employees in their original order, or null if the snapshot is missing,
+     *         stale or unreadable (the totals are then left unchanged)
+     */
+    static Map<Integer, Employee> load(Path snapshot, String employeeFile, String attendanceFile,
+                                       WeeklyAggregateStore totals) {
+        if (!Files.exists(snapshot)) return null;
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                System.err.println("Ignoring snapshot with unknown format: " + snapshot);
+                return null;
+            }
+            if (!matchesFingerprint(in, Paths.get(employeeFile)) || !matchesFingerprint(in, Paths.get(attendanceFile))
+                    || !matchesFingerprint(in, Paths.get(PayrollConfig.getShiftsFile()))) {
+                return null; // Source CSV or shifts changed, rebuild
+            }
+            int n = in.getInt();
+            int m = in.getInt();
+            int textBytes = in.getInt();
+            int idCount = in.getInt();
+
+            // Employee columns
+            int[] ids = new int[n];
+            in.asIntBuffer().get(ids);
+            in.position(align(in.position() + 4 * n));
+            long[][] amounts = new long[6][n];
+            for (long[] column : amounts) {
+                in.asLongBuffer().get(column);
+                in.position(in.position() + 8 * n);
+            }
+            int[] textOffsets = new int[n * TEXT_FIELDS + 1];
+            in.asIntBuffer().get(textOffsets);
+            in.position(in.position() + 4 * textOffsets.length);
+            byte[] text = new byte[textBytes];
+            in.get(text);
+            in.position(align(in.position()));
+
+            // Weekly columns
+            long[] keys = new long[m];
+            in.asLongBuffer().get(keys);
+            in.position(in.position() + 8 * m);
+            double[][] hours = new double[4][m];
+            for (double[] column : hours) {
+                in.asDoubleBuffer().get(column);
+                in.position(in.position() + 8 * m);
+            }
+
+            // Stored non-numeric ID -> ID assigned in this run
+            Map<Integer, Integer> idMapping = new HashMap<>();
+            for (int i = 0; i < idCount; i++) {
+                int storedId = in.getInt();
+                byte[] idText = new byte[in.getShort()];
+                in.get(idText);
+                idMapping.put(storedId, EmployeeDetails.toNumericId(new String(idText, StandardCharsets.UTF_8)));
+            }
+
+            Map<Integer, Employee> employees = new LinkedHashMap<>(n * 2);
+            String[] fields = new String[TEXT_FIELDS];
+            for (int i = 0; i < n; i++) {
+                for (int f = 0; f < TEXT_FIELDS; f++) {
+                    int start = textOffsets[i * TEXT_FIELDS + f];
+                    fields[f] = new String(text, start, textOffsets[i * TEXT_FIELDS + f + 1] - start, StandardCharsets.UTF_8);
+                }
+                int id = ids[i] < 0 ? idMapping.get(ids[i]) : ids[i];
+                employees.put(id, new Employee(id, fields[0], fields[1], fields[2], fields[3], fields[4], fields[5],
+                        fields[6], fields[7], fields[8], fields[9], fields[10], fields[11], fields[12],
+                        amounts[0][i], amounts[1][i], amounts[2][i], amounts[3][i], amounts[4][i], amounts[5][i]));
+            }
+
+            if (!idMapping.isEmpty()) {
+                for (int row = 0; row < m; row++) {
+                    int employeeId = (int) (keys[row] >> 32);
+                    if (employeeId < 0) keys[row] = WeeklyAggregateStore.key(idMapping.get(employeeId), (int) keys[row]);
+                }
+            }
+            totals.addAll(keys, hours[0], hours[1], hours[2], hours[3]);
+            return employees;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable snapshot " + snapshot + ": " + e);
+            return null;
+        }
+    }
+
+    // Text fields of an employee in Employee component order
+    private static String[] textFields(Employee e) {
+        return new String[] {
+                e.employeeNumber(), e.lastName(), e.firstName(), e.birthday(), e.address(), e.phoneNumber(),
+                e.sssNumber(), e.philhealthNumber(), e.tinNumber(), e.pagibigNumber(), e.status(),
+                e.position(), e.supervisor()
+        };
+    }
+
+    /**
+     * Size, modification time and head/tail checksums of a source file, or
+     * {@link #ABSENT} if it does not exist.
+     */
+    static long[] fingerprint(Path file) throws IOException {
+        if (!Files.exists(file)) return ABSENT.clone();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            return new long[] {
+                    size,
+                    Files.getLastModifiedTime(file).toMillis(),
+                    checksum(channel, 0, Math.min(size, CHECKSUM_WINDOW)),
+                    checksum(channel, Math.max(0, size - CHECKSUM_WINDOW), size)
+            };
+        }
+    }
+
+    private static void writeFingerprint(DataOutputStream out, Path file) throws IOException {
+        for (long value : fingerprint(file)) out.writeLong(value);
+    }
+
+    private static boolean matchesFingerprint(ByteBuffer in, Path file) throws IOException {
+        long[] expected = fingerprint(file);
+        boolean matches = true;
+        for (long value : expected) {
+            matches &= in.getLong() == value;
+        }
+        return matches;
+    }
+
+    // CRC32 of the bytes in [from, to) of the channel
+    private static long checksum(FileChannel channel, long from, long to) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) throw new EOFException();
+        }
+        buffer.flip();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    // Rounds a file position up to the next 8-byte boundary
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    // Buffered big-endian output that can pad to an 8-byte boundary
+    private static class ColumnOutput extends DataOutputStream {
+        ColumnOutput(OutputStream out) {
+            super(new BufferedOutputStream(out, 1 << 16));
+        }
+
+        void align() throws IOException {
+            while ((size() & 7) != 0) write(0);
+        }
+    }
+}
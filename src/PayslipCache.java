@@ -0,0 +1,117 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+/**
+ * Bounded LRU cache of finished payslips per employee-week.
+ *
+ * <p>Entries are keyed by {@link WeeklyAggregateStore#key(int, int)} of the employee ID
+ * and week start and hold the {@link GrossNetWeeklySalary.SalaryData} computed for the
+ * week's Monday, the same payslip the batch register and the payslip service produce.
+ * When the cache is full the least recently used entry is evicted.
+ *
+ * <p>While a cache is registered as {@link WeeklyWorkedHours#payslipCache}, every day of
+ * attendance folded into the weekly totals invalidates the cached payslip of that
+ * employee-week, so lookups never return pay computed from outdated hours.
+ *
+ * <p>Thread-safe. Payslips are computed outside the lock; returned SalaryData objects
+ * are shared and must not be modified.
+ */
+public class PayslipCache {
+    private final int capacity;
+    private final WeeklyAggregateStore totals;
+    private final LinkedHashMap<Long, GrossNetWeeklySalary.SalaryData> entries;
+
+    // Statistics and invalidation count, guarded by this
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param capacity Maximum number of cached payslips
+     * @param totals   Weekly totals payslips are computed from
+     */
+    public PayslipCache(int capacity, WeeklyAggregateStore totals) {
+        this.capacity = Math.max(1, capacity);
+        this.totals = totals;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, GrossNetWeeklySalary.SalaryData> eldest) {
+                if (size() <= PayslipCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the payslip of an employee for the week starting on {@code weekStart},
+     * computing and caching it on a miss.
+     *
+     * @param employee  Employee record
+     * @param weekStart Epoch day of the Monday starting the week
+     * @return Cached or newly computed payslip (shared, do not modify)
+     */
+    public GrossNetWeeklySalary.SalaryData get(Employee employee, int weekStart) {
+        Long key = WeeklyAggregateStore.key(employee.id(), weekStart);
+        long invalidationsBefore;
+        synchronized (this) {
+            GrossNetWeeklySalary.SalaryData cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            invalidationsBefore = invalidations;
+        }
+
+        GrossNetWeeklySalary.SalaryData data =
+                GrossNetWeeklySalary.computePayslip(employee, DateUtils.toDate(weekStart, 0), totals);
+
+        synchronized (this) {
+            // Don't cache a payslip that may predate an invalidation made while computing it
+            if (invalidations == invalidationsBefore) entries.put(key, data);
+        }
+        return data;
+    }
+
+    /**
+     * Drops the cached payslip of one employee-week, e.g. after new attendance for it.
+     */
+    public synchronized void invalidate(int employeeId, int weekStart) {
+        invalidations++;
+        entries.remove(WeeklyAggregateStore.key(employeeId, weekStart));
+    }
+
+    /**
+     * Drops all cached payslips.
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * @return Snapshot of the cache statistics
+     */
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), capacity, hits, misses, evictions, invalidations);
+    }
+
+    /**
+     * Cache statistics at one point in time.
+     *
+     * @param size          Cached payslips
+     * @param capacity      Maximum cached payslips
+     * @param hits          Lookups answered from the cache
+     * @param misses        Lookups that computed the payslip
+     * @param evictions     Entries dropped to stay within capacity
+     * @param invalidations Invalidation calls (per employee-week or whole cache)
+     */
+    public record Stats(int size, int capacity, long hits, long misses, long evictions, long invalidations) {
+        /** @return Share of lookups answered from the cache (0 when there were none) */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * Sink for malformed employee and attendance rows.
+ *
+ * <p>Readers report each rejected row with its reason and position instead of printing
+ * it. Every reject is counted per reason; only a sample reaches the console (the first
+ * {@link PayrollConfig#REJECTS_CONSOLE_LIMIT} of each reason, then one in every
+ * {@link PayrollConfig#REJECTS_SAMPLE_EVERY}). When a side file is configured
+ * ({@link PayrollConfig#REJECTS_FILE}) all rejects are also handed to a bounded queue
+ * that a background thread writes to that file as CSV:
+ * {@code file,line,offset,reason,record}.
+ *
+ * <p>Reporting never blocks the reader: when the queue is full the reject is still
+ * counted but not written, and the number dropped is shown in the summary. So ingestion
+ * costs the same however dirty the input is.
+ *
+ * <p>Positions are 1-based line numbers and, for the memory-mapped and chunked readers,
+ * byte offsets of the line start; a position that is not known is -1. Parallel workers do
+ * not know how many lines precede their chunk, so they collect their rejects in a
+ * {@link Deferred} and the rejects are reported with line numbers when the chunk is
+ * merged in file order.
+ */
+public final class RejectedRecords {
+
+    /** Why a row was rejected */
+    public enum Reason {
+        /** Attendance row with fewer fields than needed */
+        MALFORMED("attendance", "malformed row"),
+        /** Attendance date or time field that does not parse */
+        PARSE_ERROR("attendance", "parse error"),
+        /** Attendance logout before login */
+        INVALID_RANGE("attendance", "invalid time range"),
+        /** Employee row without an employee ID */
+        MISSING_ID("employees", "missing employee ID"),
+        /** Employee row with fewer fields than needed */
+        TOO_FEW_FIELDS("employees", "too few fields"),
+        /** Employee salary, allowance or rate field that is not a number */
+        INVALID_AMOUNT("employees", "invalid amount");
+
+        final String file;
+        final String label;
+
+        Reason(String file, String label) {
+            this.file = file;
+            this.label = label;
+        }
+    }
+
+    // One rejected row waiting for the side-file writer
+    private static final class Reject {
+        final Reason reason;
+        final long line;
+        final long offset;
+        final String record;
+
+        Reject(Reason reason, long line, long offset, String record) {
+            this.reason = reason;
+            this.line = line;
+            this.offset = offset;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Rejects held back on one thread, with line numbers relative to the first line of a
+     * chunk, until the chunk's first line number is known.
+     */
+    static final class Deferred {
+        private final List<Reject> rejects = new ArrayList<>();
+
+        /**
+         * Reports the held rejects in the order they were found.
+         *
+         * @param firstLine Line number of the chunk's first line (relative line 0)
+         */
+        void report(long firstLine) {
+            for (Reject reject : rejects) {
+                reject(reject.reason, reject.line >= 0 ? firstLine + reject.line : -1, reject.offset, reject.record);
+            }
+            rejects.clear();
+        }
+    }
+
+    // Deferred rejects of the current thread (null = report at once)
+    private static final ThreadLocal<Deferred> DEFERRED = new ThreadLocal<>();
+
+    // Queued by close() to stop the writer thread after everything before it is written
+    private static final Reject END = new Reject(null, -1, -1, null);
+
+    private static final AtomicLongArray counts = new AtomicLongArray(Reason.values().length);
+    private static final LongAdder printed = new LongAdder();
+    private static final LongAdder dropped = new LongAdder();
+
+    // Rejects accepted into the queue and rejects written by the writer thread
+    private static final AtomicLong queued = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+
+    private static volatile int consoleLimit = PayrollConfig.getRejectsConsoleLimit();
+    private static volatile int sampleEvery = PayrollConfig.getRejectsSampleEvery();
+
+    // Side file state, guarded by the class lock; queue is null while no file is open
+    private static volatile BlockingQueue<Reject> queue;
+    private static BlockingQueue<Reject> openQueue;
+    private static Path sideFile;
+    private static Thread writerThread;
+
+    static {
+        String file = PayrollConfig.getRejectsFile();
+        if (file != null) open(Paths.get(file), PayrollConfig.getRejectsBuffer());
+    }
+
+    private RejectedRecords() {}
+
+    /**
+     * Reports a rejected row.
+     *
+     * @param reason Why the row was rejected
+     * @param line   1-based line number, or -1 if unknown
+     * @param offset Byte offset of the line start, or -1 if unknown
+     * @param record Raw text of the row
+     */
+    public static void reject(Reason reason, long line, long offset, CharSequence record) {
+        Deferred deferred = DEFERRED.get();
+        if (deferred != null) {
+            deferred.rejects.add(new Reject(reason, line, offset, record.toString()));
+            return;
+        }
+        long count = counts.incrementAndGet(reason.ordinal());
+        String text = record.toString();
+
+        if (count <= consoleLimit || (sampleEvery > 0 && (count - consoleLimit) % sampleEvery == 0)) {
+            printed.increment();
+            System.err.println("Rejected " + reason.file + " " + position(line, offset)
+                    + " (" + reason.label + ", #" + count + "): " + text);
+        }
+
+        BlockingQueue<Reject> target = queue;
+        if (target == null) return;
+        if (target.offer(new Reject(reason, line, offset, text))) {
+            queued.incrementAndGet();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Makes the current thread hold its rejects in {@code target} instead of reporting
+     * them, until called again with null.
+     */
+    static void deferTo(Deferred target) {
+        if (target == null) DEFERRED.remove(); else DEFERRED.set(target);
+    }
+
+    /** @return Rows rejected for a reason */
+    public static long count(Reason reason) {
+        return counts.get(reason.ordinal());
+    }
+
+    /** @return Rows rejected for any reason */
+    public static long total() {
+        long total = 0;
+        for (Reason reason : Reason.values()) total += count(reason);
+        return total;
+    }
+
+    /** @return Rejects printed to the console */
+    public static long printed() {
+        return printed.sum();
+    }
+
+    /** @return Rejects not written to the side file because its queue was full */
+    public static long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Sets how many rejects of each reason are printed before sampling starts, and
+     * after that how often one is printed (0 = never).
+     */
+    public static void setConsoleSampling(int limit, int every) {
+        consoleLimit = Math.max(0, limit);
+        sampleEvery = Math.max(0, every);
+    }
+
+    /**
+     * Starts writing rejects to a side file (replacing it), closing any previous one.
+     *
+     * @param file     Side file path
+     * @param capacity Maximum rejects waiting to be written
+     */
+    public static synchronized void open(Path file, int capacity) {
+        close();
+        queued.set(0);
+        written.set(0);
+        BlockingQueue<Reject> target = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        Thread writer = new Thread(() -> drain(file, target), "rejected-records-writer");
+        writer.setDaemon(true);
+        writer.start();
+        sideFile = file;
+        writerThread = writer;
+        openQueue = target;
+        queue = target;
+    }
+
+    /**
+     * Waits until every queued reject has been written and flushed to the side file.
+     * Returns at once when no side file is open.
+     */
+    public static void flush() {
+        Thread writer;
+        synchronized (RejectedRecords.class) {
+            writer = writerThread;
+        }
+        synchronized (written) {
+            while (writer != null && writer.isAlive() && written.get() < queued.get()) {
+                try {
+                    written.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes out all queued rejects and closes the side file, if one is open.
+     */
+    public static synchronized void close() {
+        if (writerThread == null) return;
+        queue = null;
+        try {
+            while (writerThread.isAlive() && !openQueue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+                // Queue full; the writer is still catching up
+            }
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        openQueue = null;
+        sideFile = null;
+    }
+
+    /**
+     * Clears all counters (the side file stays open).
+     */
+    public static void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        printed.reset();
+        dropped.reset();
+    }
+
+    /**
+     * @return Multi-line summary of the rejects, or an empty string if there were none
+     */
+    public static String summary() {
+        long total = total();
+        if (total == 0) return "";
+
+        StringBuilder out = new StringBuilder(256);
+        out.append("Rejected Records:\n");
+        line(out, "Rejected", String.valueOf(total));
+        for (Reason reason : Reason.values()) {
+            long count = count(reason);
+            if (count > 0) line(out, "  " + reason.file + ": " + reason.label, String.valueOf(count));
+        }
+        line(out, "Printed", String.valueOf(printed()));
+        Path file;
+        synchronized (RejectedRecords.class) {
+            file = sideFile;
+        }
+        if (file != null) {
+            line(out, "Written To", file.toString());
+            if (dropped() > 0) line(out, "Dropped (queue full)", String.valueOf(dropped()));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Finishes writing the side file and prints the summary if any row was rejected.
+     */
+    public static void printSummary() {
+        flush();
+        String summary = summary();
+        if (!summary.isEmpty()) System.out.print("\n" + summary);
+    }
+
+    // Writer thread: appends queued rejects to the side file in batches
+    private static void drain(Path file, BlockingQueue<Reject> source) {
+        List<Reject> batch = new ArrayList<>(1024);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("file,line,offset,reason,record\n");
+            out.flush();
+            boolean closed = false;
+            while (!closed) {
+                try {
+                    batch.add(source.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                source.drainTo(batch);
+                int count = 0;
+                for (Reject reject : batch) {
+                    if (reject == END) {
+                        closed = true;
+                        break;
+                    }
+                    count++;
+                    out.write(reject.reason.file);
+                    out.write(',');
+                    out.write(Long.toString(reject.line));
+                    out.write(',');
+                    out.write(Long.toString(reject.offset));
+                    out.write(',');
+                    out.write(reject.reason.name());
+                    out.write(',');
+                    writeQuoted(out, reject.record);
+                    out.write('\n');
+                }
+                out.flush();
+                synchronized (written) {
+                    written.addAndGet(count);
+                    written.notifyAll();
+                }
+                batch.clear();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write rejected records to " + file + ": " + e.getMessage());
+        }
+    }
+
+    // Writes a CSV field in quotes, doubling embedded quotes
+    private static void writeQuoted(BufferedWriter out, String text) throws IOException {
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static String position(long line, long offset) {
+        if (line >= 0) return "line " + line;
+        if (offset >= 0) return "row at byte " + offset;
+        return "row";
+    }
+
+    private static void line(StringBuilder out, String label, String value) {
+        out.append(label);
+        for (int i = label.length(); i < 25; i++) out.append(' ');
+        out.append(": ").append(value).append('\n');
+    }
+}
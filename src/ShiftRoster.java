@@ -0,0 +1,214 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+/**
+ * Loads shift definitions and assignments and keeps the compiled {@link ShiftSchedule}
+ * used by attendance ingestion.
+ *
+ * <p>Shifts are read from the shift CSV ({@link PayrollConfig#SHIFTS_FILE}) when it
+ * exists; otherwise everyone works the standard office shift and attendance is calculated
+ * exactly as before. Shifts can be assigned to employees by ID and to positions; an
+ * employee assignment wins over the employee's position, and everyone else works the
+ * default shift. Position assignments are resolved once per employee by
+ * {@link #bind(Collection)} after the employees are loaded, so ingestion never looks at
+ * position text.
+ */
+public class ShiftRoster {
+    // Shift CSV columns
+    private static final int IDX_SHIFT = 0;
+    private static final int IDX_START = 1;
+    private static final int IDX_END = 2;
+    private static final int IDX_BREAK_START = 3;
+    private static final int IDX_BREAK_END = 4;
+    private static final int IDX_GRACE = 5;
+    private static final int IDX_EMPLOYEES = 6;
+    private static final int IDX_POSITIONS = 7;
+    private static final int MIN_SHIFT_FIELDS = 6;
+
+    // Positions entry that makes a shift the default
+    private static final String ALL_POSITIONS = "*";
+
+    /** Shift definitions and assignments as read from the CSV */
+    static final class Roster {
+        final List<ShiftSchedule.Shift> shifts;
+        final int defaultShift;
+        final Map<Integer, Integer> byEmployee;
+        final Map<String, Integer> byPosition;
+
+        Roster(List<ShiftSchedule.Shift> shifts, int defaultShift,
+               Map<Integer, Integer> byEmployee, Map<String, Integer> byPosition) {
+            this.shifts = shifts;
+            this.defaultShift = defaultShift;
+            this.byEmployee = byEmployee;
+            this.byPosition = byPosition;
+        }
+    }
+
+    private static volatile Roster roster;
+    private static volatile ShiftSchedule active = ShiftSchedule.standard();
+
+    static {
+        String path = PayrollConfig.getShiftsFile();
+        if (Files.exists(Paths.get(path))) {
+            try {
+                setRoster(readRoster(path));
+            } catch (IOException e) {
+                System.err.println("Using the standard shift, could not load " + path + ": " + e.getMessage());
+            }
+        } else {
+            System.err.println("Using the standard shift, " + path + " does not exist");
+        }
+    }
+
+    /**
+     * @return Compiled schedule used for attendance rows
+     */
+    public static ShiftSchedule active() {
+        return active;
+    }
+
+    /**
+     * Loads shifts from a CSV file and makes them active. Position assignments apply
+     * after the next {@link #bind(Collection)}.
+     *
+     * @param filePath Path to the shift CSV
+     * @throws IOException If the file cannot be read or is invalid (the active shifts are
+     *                     then left unchanged)
+     */
+    public static void loadShifts(String filePath) throws IOException {
+        setRoster(readRoster(filePath));
+    }
+
+    /**
+     * Resolves position assignments for the loaded employees and compiles the schedule.
+     * Does nothing while no shift file is loaded.
+     *
+     * @param employees Employees as returned by {@link EmployeeDetails#readEmployees(String)}
+     */
+    public static void bind(Collection<Employee> employees) {
+        Roster current = roster;
+        if (current != null) active = compile(current, employees);
+    }
+
+    /**
+     * Goes back to the standard shift for everyone.
+     */
+    static void reset() {
+        roster = null;
+        active = ShiftSchedule.standard();
+    }
+
+    static void setRoster(Roster newRoster) {
+        roster = newRoster;
+        active = compile(newRoster, List.of());
+    }
+
+    // Builds the employee table: explicit assignments first, then positions
+    static ShiftSchedule compile(Roster roster, Collection<Employee> employees) {
+        Map<Integer, Integer> assigned = new HashMap<>(roster.byEmployee);
+        for (Employee employee : employees) {
+            Integer shift = roster.byPosition.get(employee.position());
+            if (shift != null) assigned.putIfAbsent(employee.id(), shift);
+        }
+        int[] employeeIds = new int[assigned.size()];
+        int[] shiftIndexes = new int[assigned.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : assigned.entrySet()) {
+            employeeIds[i] = entry.getKey();
+            shiftIndexes[i++] = entry.getValue();
+        }
+        return new ShiftSchedule(roster.shifts, roster.defaultShift, employeeIds, shiftIndexes);
+    }
+
+    /**
+     * Reads shifts from a CSV file with the columns
+     * {@code Shift,Start,End,Break Start,Break End,Grace Minutes,Employees,Positions}.
+     *
+     * <p>Times are H:mm; an End not after Start means the shift ends the next day, and an
+     * empty break means none. Employees is a list of employee IDs and Positions a list of
+     * position names, both separated by ';'. A Positions entry of {@code *} makes the
+     * shift the default; without one, the standard office shift (8:00-17:00) is the
+     * default. Lines starting with '#' are ignored.
+     *
+     * @param filePath Path to the shift CSV
+     * @return Shifts and assignments
+     * @throws IOException If the file cannot be read or is invalid
+     */
+    static Roster readRoster(String filePath) throws IOException {
+        List<ShiftSchedule.Shift> shifts = new ArrayList<>();
+        Map<String, Integer> names = new HashMap<>();
+        Map<Integer, Integer> byEmployee = new HashMap<>();
+        Map<String, Integer> byPosition = new HashMap<>();
+        int defaultShift = -1;
+        CsvTokenizer fields = new CsvTokenizer();
+
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            br.readLine(); // Skip header
+            String line;
+            int lineNumber = 1;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+                if (fields.tokenize(line) < MIN_SHIFT_FIELDS) {
+                    throw new IOException("Line " + lineNumber + ": expected at least " + MIN_SHIFT_FIELDS + " fields");
+                }
+                String name = fields.field(IDX_SHIFT);
+                if (name.isEmpty() || names.containsKey(name)) {
+                    throw new IOException("Line " + lineNumber + ": missing or duplicate shift name");
+                }
+                int start = minute(fields, IDX_START, -1);
+                int end = minute(fields, IDX_END, -1);
+                int breakStart = minute(fields, IDX_BREAK_START, start);
+                int breakEnd = minute(fields, IDX_BREAK_END, breakStart);
+                int grace;
+                try {
+                    grace = fields.isEmpty(IDX_GRACE) ? 0 : Integer.parseInt(fields.field(IDX_GRACE));
+                } catch (NumberFormatException e) {
+                    grace = -1;
+                }
+                if (start < 0 || end < 0 || breakStart < 0 || breakEnd < 0 || grace < 0) {
+                    throw new IOException("Line " + lineNumber + ": invalid time or grace minutes");
+                }
+
+                int index = shifts.size();
+                shifts.add(new ShiftSchedule.Shift(name, start, end, breakStart, breakEnd, grace));
+                names.put(name, index);
+                for (String id : list(fields, IDX_EMPLOYEES)) {
+                    byEmployee.put(EmployeeDetails.toNumericId(id), index);
+                }
+                for (String position : list(fields, IDX_POSITIONS)) {
+                    if (position.equals(ALL_POSITIONS)) {
+                        defaultShift = index;
+                    } else {
+                        byPosition.put(position, index);
+                    }
+                }
+            }
+        }
+        if (defaultShift < 0) {
+            defaultShift = shifts.size();
+            shifts.add(ShiftSchedule.STANDARD);
+        }
+        return new Roster(shifts, defaultShift, byEmployee, byPosition);
+    }
+
+    // Parses an H:mm field, returning the default for a missing or empty field (-1 if invalid)
+    private static int minute(CsvTokenizer fields, int index, int defaultValue) {
+        if (index >= fields.fieldCount() || fields.isEmpty(index)) return defaultValue;
+        int minute = DateUtils.parseMinuteOfDay(fields, fields.start(index), fields.end(index));
+        return minute == DateUtils.INVALID_MINUTE ? -1 : minute;
+    }
+
+    // Splits a ';'-separated field into trimmed, non-empty entries
+    private static List<String> list(CsvTokenizer fields, int index) {
+        if (index >= fields.fieldCount() || fields.isEmpty(index)) return List.of();
+        List<String> entries = new ArrayList<>();
+        for (String entry : fields.field(index).split(";")) {
+            if (!entry.isBlank()) entries.add(entry.trim());
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.List;
+/**
+ * Compiled shift definitions and the shift of every employee, ready for per-row use.
+ *
+ * <p>Each shift is packed into {@value #STRIDE} ints of one array: start, end, break
+ * start, break end, grace minutes and a pivot minute. Times are minutes from midnight of
+ * the work date. For a shift that crosses midnight the end (and a break after midnight)
+ * is stored plus one day, and the pivot is the middle of the off-duty gap: attendance
+ * times earlier than the pivot belong to the next calendar day. Shifts within one day
+ * have pivot 0, so their times are used as is.
+ *
+ * <p>Employees are mapped to shift indexes by an open-addressing table on the numeric
+ * employee ID; employees not in it work the default shift. Resolving a row's shift is
+ * one hash probe and six array reads, whatever the number of distinct shifts.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class ShiftSchedule {
+    /** Ints per compiled shift */
+    static final int STRIDE = 6;
+
+    // Offsets within a compiled shift
+    private static final int START = 0;
+    private static final int END = 1;
+    private static final int BREAK_START = 2;
+    private static final int BREAK_END = 3;
+    private static final int GRACE = 4;
+    private static final int PIVOT = 5;
+
+    /**
+     * One shift as defined by the user, in minutes of the day (0-1439).
+     * A shift whose end is not after its start ends on the next day.
+     * A break with equal start and end deducts nothing.
+     */
+    public record Shift(String name, int start, int end, int breakStart, int breakEnd, int graceMinutes) {}
+
+    /**
+     * The MotorPH office shift: 8:00 to 17:00 with 10 minutes grace. Its break runs from
+     * 17:00 to 13:00, an empty window, as the original Calendar code computed it (see
+     * {@link WeeklyWorkedHours}), so no break is deducted and totals stay unchanged.
+     */
+    static final Shift STANDARD = new Shift("STANDARD",
+            WeeklyWorkedHours.WORKDAY_START_MINUTE, WeeklyWorkedHours.WORKDAY_END_MINUTE,
+            WeeklyWorkedHours.BREAK_START_MINUTE, WeeklyWorkedHours.BREAK_END_MINUTE, WeeklyWorkedHours.GRACE_PERIOD_MINUTES);
+
+    private final String[] names;
+    private final int[] shifts;
+    private final int defaultShift;
+
+    // Employee table: slot -> shift index + 1 (0 = empty); length is a power of two
+    private final int[] employeeKeys;
+    private final int[] employeeShifts;
+
+    /**
+     * @param definitions  Shifts, indexed by position in the list
+     * @param defaultShift Index of the shift for employees without an assignment
+     * @param employeeIds  Numeric IDs of assigned employees
+     * @param shiftIndexes Shift index of each assigned employee
+     */
+    ShiftSchedule(List<Shift> definitions, int defaultShift, int[] employeeIds, int[] shiftIndexes) {
+        if (definitions.isEmpty() || defaultShift < 0 || defaultShift >= definitions.size()) {
+            throw new IllegalArgumentException("No default shift");
+        }
+        names = new String[definitions.size()];
+        shifts = new int[definitions.size() * STRIDE];
+        for (int i = 0; i < definitions.size(); i++) {
+            Shift shift = definitions.get(i);
+            names[i] = shift.name();
+            compile(shift, shifts, i * STRIDE);
+        }
+        this.defaultShift = defaultShift;
+
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, employeeIds.length) * 2 - 1) << 1);
+        employeeKeys = new int[capacity];
+        employeeShifts = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < employeeIds.length; i++) {
+            int index = shiftIndexes[i];
+            if (index < 0 || index >= names.length) throw new IllegalArgumentException("No shift " + index);
+            int slot = hash(employeeIds[i]) & mask;
+            while (employeeShifts[slot] != 0 && employeeKeys[slot] != employeeIds[i]) slot = (slot + 1) & mask;
+            employeeKeys[slot] = employeeIds[i];
+            employeeShifts[slot] = index + 1;
+        }
+    }
+
+    /**
+     * @return Schedule where everyone works the standard office shift
+     */
+    static ShiftSchedule standard() {
+        return new ShiftSchedule(List.of(STANDARD), 0, new int[0], new int[0]);
+    }
+
+    /**
+     * @return Index of the shift an employee works
+     */
+    public int shiftOf(int employeeId) {
+        int mask = employeeKeys.length - 1;
+        for (int slot = hash(employeeId) & mask; ; slot = (slot + 1) & mask) {
+            int entry = employeeShifts[slot];
+            if (entry == 0) return defaultShift;
+            if (employeeKeys[slot] == employeeId) return entry - 1;
+        }
+    }
+
+    /** @return Number of shifts */
+    public int size() {
+        return names.length;
+    }
+
+    /** @return Name of a shift */
+    public String name(int shift) {
+        return names[shift];
+    }
+
+    /**
+     * Places an attendance time on the shift's timeline: times before the pivot of a
+     * shift crossing midnight move to the next day.
+     *
+     * @param minuteOfDay Attendance time (0-1439)
+     * @return Minutes from midnight of the work date
+     */
+    public int normalize(int shift, int minuteOfDay) {
+        return minuteOfDay < shifts[shift * STRIDE + PIVOT] ? minuteOfDay + DateUtils.MINUTES_PER_DAY : minuteOfDay;
+    }
+
+    /**
+     * Calculates a day's hours on a shift with
+     * {@link WeeklyWorkedHours#calculateDailyMinutes(int, int, int, int, int, int, int, WeeklyWorkedHours.DailyHours)}.
+     *
+     * @param loginMinute  Normalized login time (see {@link #normalize})
+     * @param logoutMinute Normalized logout time
+     * @param day          Receives the calculated minutes
+     */
+    void calculate(int shift, int loginMinute, int logoutMinute, WeeklyWorkedHours.DailyHours day) {
+        int base = shift * STRIDE;
+        WeeklyWorkedHours.calculateDailyMinutes(loginMinute, logoutMinute, shifts[base + START],
+                shifts[base + END], shifts[base + BREAK_START], shifts[base + BREAK_END], shifts[base + GRACE], day);
+    }
+
+    // Writes the packed form of a shift at out[offset]
+    private static void compile(Shift shift, int[] out, int offset) {
+        int start = checkMinute(shift.start(), shift);
+        int end = checkMinute(shift.end(), shift);
+        checkMinute(shift.breakStart(), shift);
+        checkMinute(shift.breakEnd(), shift);
+        if (shift.graceMinutes() < 0) throw new IllegalArgumentException("Negative grace period: " + shift.name());
+
+        int pivot = 0;
+        if (end <= start) {
+            pivot = (end + start) / 2; // Middle of the off-duty gap [end, start)
+            end += DateUtils.MINUTES_PER_DAY;
+        }
+        int breakStart = shift.breakStart() < pivot ? shift.breakStart() + DateUtils.MINUTES_PER_DAY : shift.breakStart();
+        int breakEnd = shift.breakEnd() < pivot ? shift.breakEnd() + DateUtils.MINUTES_PER_DAY : shift.breakEnd();
+
+        out[offset + START] = start;
+        out[offset + END] = end;
+        out[offset + BREAK_START] = breakStart;
+        out[offset + BREAK_END] = breakEnd;
+        out[offset + GRACE] = shift.graceMinutes();
+        out[offset + PIVOT] = pivot;
+    }
+
+    private static int checkMinute(int minute, Shift shift) {
+        if (minute < 0 || minute >= DateUtils.MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Time out of range in shift " + shift.name() + ": " + minute);
+        }
+        return minute;
+    }
+
+    // Fibonacci hashing with the high bits folded in, for any table size
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
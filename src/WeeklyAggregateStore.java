@@ -0,0 +1,229 @@
+import java.util.Arrays;
+/**
+ * Columnar store of weekly hour totals keyed by (employee ID, week start).
+ *
+ * <p>Each employee-week is one row. The four totals (regular, overtime, underTime and
+ * late hours) live in parallel primitive arrays, and rows are found through an
+ * open-addressing hash table on the key {@code (employeeId << 32) | weekStartEpochDay}.
+ * Adding a day's hours costs one hash probe and no allocation, compared to building a
+ * String key and boxing four Doubles into four HashMaps.
+ *
+ * <p>Week starts are epoch days of the Monday of the week (see {@link DateUtils#weekStart(int)}).
+ * Not thread-safe; callers that feed it from several threads must merge on one thread.
+ */
+public class WeeklyAggregateStore {
+    /** Returned by {@link #find(int, int)} when the employee-week has no totals */
+    public static final int NOT_FOUND = -1;
+
+    // Initial row capacity (grows by doubling)
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Hash table: slot -> row index + 1 (0 = empty slot); length is a power of two
+    private int[] slots;
+
+    // Row columns
+    private long[] keys;
+    private double[] regular;
+    private double[] overtime;
+    private double[] underTime;
+    private double[] late;
+    private int size;
+
+    public WeeklyAggregateStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param expectedRows Number of employee-weeks expected, to avoid early resizing
+     */
+    public WeeklyAggregateStore(int expectedRows) {
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, expectedRows) - 1) << 1);
+        allocate(capacity);
+    }
+
+    /**
+     * Packs an employee ID and week start epoch day into a single row key.
+     */
+    public static long key(int employeeId, int weekStart) {
+        return ((long) employeeId << 32) | (weekStart & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Adds one day's hours to the employee-week totals, creating the row if needed.
+     *
+     * @param employeeId Numeric employee ID (see {@link EmployeeDetails#toNumericId(String)})
+     * @param weekStart  Epoch day of the Monday starting the week
+     */
+    public void add(int employeeId, int weekStart, double regularHours, double overtimeHours,
+                    double underTimeHours, double lateHours) {
+        int row = findOrCreate(key(employeeId, weekStart));
+        regular[row] += regularHours;
+        overtime[row] += overtimeHours;
+        underTime[row] += underTimeHours;
+        late[row] += lateHours;
+    }
+
+    /**
+     * Adds many employee-week rows at once, e.g. when restoring saved totals. All arrays
+     * have one entry per row and {@code rowKeys} holds {@link #key(int, int)} values.
+     * When the store is empty and the keys are distinct, the arrays are adopted as the
+     * store's columns (the caller must not modify them afterwards) and only the hash
+     * table is built.
+     */
+    public void addAll(long[] rowKeys, double[] regularHours, double[] overtimeHours,
+                       double[] underTimeHours, double[] lateHours) {
+        if (size == 0 && rowKeys.length > 0) {
+            int capacity = Math.max(16, Integer.highestOneBit(rowKeys.length - 1) << 1);
+            int[] table = new int[capacity * 2];
+            int mask = table.length - 1;
+            boolean distinct = true;
+            for (int row = 0; row < rowKeys.length && distinct; row++) {
+                int slot = hash(rowKeys[row]) & mask;
+                for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+                    distinct &= rowKeys[entry - 1] != rowKeys[row];
+                }
+                table[slot] = row + 1;
+            }
+            if (distinct) {
+                slots = table;
+                keys = Arrays.copyOf(rowKeys, capacity);
+                regular = Arrays.copyOf(regularHours, capacity);
+                overtime = Arrays.copyOf(overtimeHours, capacity);
+                underTime = Arrays.copyOf(underTimeHours, capacity);
+                late = Arrays.copyOf(lateHours, capacity);
+                size = rowKeys.length;
+                return;
+            }
+        }
+        for (int row = 0; row < rowKeys.length; row++) {
+            int target = findOrCreate(rowKeys[row]);
+            regular[target] += regularHours[row];
+            overtime[target] += overtimeHours[row];
+            underTime[target] += underTimeHours[row];
+            late[target] += lateHours[row];
+        }
+    }
+
+    /**
+     * Finds the row holding an employee-week's totals.
+     *
+     * @return Row index for the accessor methods, or {@link #NOT_FOUND}
+     */
+    public int find(int employeeId, int weekStart) {
+        long key = key(employeeId, weekStart);
+        int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) return NOT_FOUND;
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+    }
+
+    // --- Row accessors (row from find() or 0 <= row < size()) ---
+
+    public int employeeId(int row) {
+        return (int) (keys[row] >> 32);
+    }
+
+    public int weekStart(int row) {
+        return (int) keys[row];
+    }
+
+    public double regularHours(int row) {
+        return regular[row];
+    }
+
+    public double overtimeHours(int row) {
+        return overtime[row];
+    }
+
+    public double underTimeHours(int row) {
+        return underTime[row];
+    }
+
+    public double lateHours(int row) {
+        return late[row];
+    }
+
+    /**
+     * @return Distinct week start epoch days present in the store, sorted ascending
+     */
+    public int[] weekStarts() {
+        int[] weeks = new int[size];
+        for (int row = 0; row < size; row++) {
+            weeks[row] = weekStart(row);
+        }
+        Arrays.sort(weeks);
+
+        int distinct = 0;
+        for (int i = 0; i < weeks.length; i++) {
+            if (i == 0 || weeks[i] != weeks[i - 1]) weeks[distinct++] = weeks[i];
+        }
+        return Arrays.copyOf(weeks, distinct);
+    }
+
+    /** @return Number of employee-week rows */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Removes all rows and releases grown arrays */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // Returns the row for a key, appending a zeroed row when the key is new
+    private int findOrCreate(long key) {
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        for (int entry; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+
+        if (size == keys.length) {
+            grow();
+            return findOrCreate(key);
+        }
+        int row = size++;
+        keys[row] = key;
+        slots[slot] = row + 1;
+        return row;
+    }
+
+    // Doubles row capacity and rebuilds the hash table (kept at most half full)
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        regular = Arrays.copyOf(regular, capacity);
+        overtime = Arrays.copyOf(overtime, capacity);
+        underTime = Arrays.copyOf(underTime, capacity);
+        late = Arrays.copyOf(late, capacity);
+
+        slots = new int[capacity * 2];
+        int mask = slots.length - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = hash(keys[row]) & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+            slots[slot] = row + 1;
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new int[capacity * 2];
+        keys = new long[capacity];
+        regular = new double[capacity];
+        overtime = new double[capacity];
+        underTime = new double[capacity];
+        late = new double[capacity];
+        size = 0;
+    }
+
+    // Fibonacci hashing spreads sequential employee IDs and week days across the table
+    private static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+}
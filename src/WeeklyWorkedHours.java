@@ -1,43 +1,54 @@
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.locks.StampedLock;
 /**
  * Tracks and calculates weekly work hours including regular hours, overtime,
  * underTime, and late time for all employees based on attendance records.
  *
- * <p>Maintains four static maps tracking different hour types for each employee-week combination.
- * Uses a standardized week key format: "employeeId_YYYY-MM-dd" (date represents Sunday of the week).
+ * <p>Totals are kept in a single {@link WeeklyAggregateStore} keyed by numeric employee ID
+ * and week start (the epoch day of the Monday of the week).
  */
 public class WeeklyWorkedHours {
     /**
-     * Map of regular hours worked per week.
-     * Key format: "employeeId_YYYY-MM-dd" (Sunday date of the week)
+     * Regular, overtime, underTime and late hours per employee-week.
      */
-    public static final Map<String, Double> weeklyHours = new HashMap<>();
+    public static final WeeklyAggregateStore weeklyTotals = new WeeklyAggregateStore();
 
     /**
-     * Map of overtime hours worked per week.
-     * Key format same as weeklyHours.
+     * Held for writing while a live feed updates the weekly totals (see {@link AttendanceStream});
+     * payslips read under an optimistic stamp, so readers never block each other.
      */
-    public static final Map<String, Double> weeklyOvertime = new HashMap<>();
+    static final StampedLock weeklyTotalsLock = new StampedLock();
 
     /**
-     * Map of underTime hours per week.
-     * Key format same as weeklyHours.
+     * Payslip cache to invalidate when attendance is added to the weekly totals (null = none).
      */
-    public static final Map<String, Double> weeklyUnderTime = new HashMap<>();
+    static volatile PayslipCache payslipCache;
 
     /**
-     * Map of late arrival hours per week.
-     * Key format same as weeklyHours.
+     * Index that every day added to the weekly totals is also recorded in (null = none).
      */
-    public static final Map<String, Double> weeklyLateTime = new HashMap<>();
+    static volatile AttendanceIndex attendanceIndex =
+            PayrollConfig.isAttendanceIndexEnabled() ? new AttendanceIndex() : null;
+
+    // Attendance CSV column indexes
+    private static final int IDX_EMPLOYEE_ID = 0;
+    private static final int IDX_DATE = 3;
+    private static final int IDX_LOG_IN = 4;
+    private static final int IDX_LOG_OUT = 5;
+
+    // Minimum number of fields in a usable attendance line
+    private static final int MIN_ATTENDANCE_FIELDS = 6;
+
+    // One reusable tokenizer per thread (CsvTokenizer is not thread-safe)
+    private static final ThreadLocal<CsvTokenizer> TOKENIZER = ThreadLocal.withInitial(CsvTokenizer::new);
 
     // Attendance calculation constants
     /** Grace period for late arrivals in minutes */
-    private static final int GRACE_PERIOD_MINUTES = 10;
+    static final int GRACE_PERIOD_MINUTES = 10;
 
     /** Standard workday start hour (8 AM) */
     private static final int WORKDAY_START_HOUR = 8;
@@ -45,15 +56,36 @@ public class WeeklyWorkedHours {
     /** Standard workday end hour (5 PM) */
     private static final int WORKDAY_END_HOUR = 17;
 
-    /** Standard workday end hour (5 PM) */
+    /** Noon break start hour (12 PM); no longer deducted, see {@link #BREAK_START_MINUTE} */
     private static final int NOON_BREAK_START = 12;
 
     /** Noon break end hour (1 PM) */
     private static final int NOON_BREAK_END = 13;
 
+    // Standard schedule in minutes of the day, as used by calculateDailyMinutes and
+    // ShiftSchedule.STANDARD (employees without a configured shift, see ShiftRoster)
+    static final int WORKDAY_START_MINUTE = WORKDAY_START_HOUR * 60;
+    static final int WORKDAY_END_MINUTE = WORKDAY_END_HOUR * 60;
+
+    /**
+     * Unpaid break window of the standard schedule. The original Calendar code measured the
+     * noon break from the workday end (5 PM) to NOON_BREAK_END, an empty window, so no break
+     * was ever deducted; kept as is so weekly totals do not change.
+     */
+    static final int BREAK_START_MINUTE = WORKDAY_END_MINUTE;
+    static final int BREAK_END_MINUTE = NOON_BREAK_END * 60;
+
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    // One reusable day per thread for the serial line-by-line path
+    private static final ThreadLocal<DailyHours> DAY = ThreadLocal.withInitial(DailyHours::new);
+
 
     /**
-     * Processes an attendance file and populates the weekly hour maps.
+     * Processes an attendance file and populates the weekly totals.
+     * With incremental ingestion enabled ({@link PayrollConfig#INGEST_INCREMENTAL}) the
+     * totals are restored from a checkpoint and only lines appended since the last run
+     * are read (see {@link IncrementalAttendanceIngestor}).
      *
      * @param filePath Path to the attendance CSV file (MotorPH)
      * @throws IOException If there's an error reading the file
@@ -63,11 +95,39 @@ public class WeeklyWorkedHours {
      * Example: "EMP001,2023-05-15,08:05,17:30"
      */
     public static void processAttendanceFile(String filePath) throws IOException {
+        if (PayrollConfig.isIncrementalIngestion()) {
+            IncrementalAttendanceIngestor.ingest(filePath, PayrollConfig.getCheckpointPath(filePath));
+            return;
+        }
+        int threads = PayrollConfig.isParallelIngestion() ? PayrollConfig.getIngestThreads() : 1;
+        processAttendanceFile(filePath, threads);
+    }
+
+    /**
+     * Processes an attendance file with the given number of worker threads.
+     * A single thread reads the file serially, through a memory map for large files
+     * ({@link MappedAttendanceReader}) or line by line otherwise; more threads use
+     * {@link ParallelAttendanceIngestor}, which produces identical weekly totals.
+     *
+     * @param filePath Path to the attendance CSV file (MotorPH)
+     * @param threads  Number of ingestion threads (1 = serial)
+     * @throws IOException If there's an error reading the file
+     */
+    public static void processAttendanceFile(String filePath, int threads) throws IOException {
+        if (threads > 1) {
+            ParallelAttendanceIngestor.ingest(filePath, threads);
+            return;
+        }
+        if (PayrollConfig.useMappedIngestion(new File(filePath).length())) {
+            MappedAttendanceReader.ingest(filePath);
+            return;
+        }
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             br.readLine(); // Skip header
             String line;
+            long lineNumber = 1;
             while ((line = br.readLine()) != null) {
-                processAttendanceLine(line);
+                processAttendanceLine(line, ++lineNumber);
             }
         }
     }
@@ -78,189 +138,379 @@ public class WeeklyWorkedHours {
      * @param line A comma-separated line from the attendance file with format:
      *             employeeId,lastName,firstName,date,loginTime,logoutTime[,additionalFields...]
      *
-     * @throws ArrayIndexOutOfBoundsException if line has insufficient fields (handled internally)
-     *
      * @implSpec The method:
      * 1. Validates input format and skips malformed lines
      * 2. Ignores weekend attendance records
      * 3. Calculates daily work hours including:
-     *    - Regular hours (8:00-17:00 minus 1h lunch break)
-     *    - Overtime (after 17:00)
-     *    - UnderTime (less than 8 working hours)
-     *    - Late time (arrival after 8:10)
-     * 4. Accumulates results in weekly tracking maps
+     *    - Regular hours (8:00 or the late login to 17:00 or the earlier logout; no break
+     *      is deducted, see {@link #BREAK_START_MINUTE})
+     *    - Overtime (after 17:00, for on-time arrivals)
+     *    - UnderTime (logout before 17:00)
+     *    - Late time (from 8:00, for arrivals after 8:10)
+     * 4. Accumulates results in the weekly totals store
      *
      * @implNote Important behaviors:
      * - Uses 10-minute grace period before marking late arrivals
-     * - Standard workday is 8 hours (9-5 with 1h lunch)
+     * - Standard workday is 8:00-17:00, a full day counting as 9 regular hours
+     * - Employees with a configured shift ({@link ShiftRoster}) are measured against that shift
+     *   instead; on a shift crossing midnight, times after midnight count on the next day
      * - Weekend days (Saturday/Sunday) are automatically skipped
-     * - Invalid time ranges (logout before login) are logged and skipped
+     * - Invalid time ranges (logout before login) are reported to {@link RejectedRecords} and skipped
      */
     static void processAttendanceLine(String line) {
-        try {
-            // Split CSV line into components
-            String[] parts = line.split(",");
-
-            // Skip lines with insufficient data (need at least 6 fields)
-            if (parts.length < 6) return;
-
-            // Extract relevant fields from CSV
-            String employeeId = parts[0].trim();
-            String dateStr = parts[3].trim();       // Date in MM/dd/yyyy format
-            String loginTimeStr = parts[4].trim();  // Login time in HH:mm format
-            String logoutTimeStr = parts[5].trim(); // Logout time in HH:mm format
-
-            // Parse work date and skip weekends
-            Date workDate = DateUtils.parseDate(dateStr, "MM/dd/yyyy");
-            if (isWeekend(workDate)) return; // No processing for weekends
-
-            // Create full datetime objects for calculations
-            Date loginTime = DateUtils.parseDateTime(dateStr, loginTimeStr);
-            Date logoutTime = DateUtils.parseDateTime(dateStr, logoutTimeStr);
-
-            // Validate time range (logout must be after login)
-            if (logoutTime.before(loginTime)) {
-                System.err.println("Invalid time range: " + line);
-                return;
-            }
+        processAttendanceLine(line, -1);
+    }
+
+    /**
+     * Processes a single attendance line (see {@link #processAttendanceLine(String)}),
+     * reporting it under its line number if it is rejected. The day is parsed into this
+     * thread's reusable {@link DailyHours}, so no objects are created per line.
+     *
+     * @param line       A comma-separated line from the attendance file
+     * @param lineNumber 1-based line number in the file, or -1 if unknown
+     */
+    static void processAttendanceLine(String line, long lineNumber) {
+        DailyHours day = DAY.get();
+        if (parseAttendanceLine(line, lineNumber, -1, day)) {
+            // Update weekly accumulation store
+            updateWeeklyTotals(day);
+        }
+    }
 
-            // Calculate all hour components for this work day
-            WorkHourCalculationResult result = calculateDailyHours(workDate, loginTime, logoutTime);
+    /**
+     * Parses a single attendance line and calculates that day's hours without touching
+     * the weekly totals, so it can safely run on ingestion worker threads.
+     *
+     * @param line A comma-separated line from the attendance file
+     * @return The day's employee-week and hour breakdown, or null if the line is skipped
+     *         (malformed, weekend or invalid time range)
+     */
+    static DailyAttendance parseAttendanceLine(String line) {
+        CsvTokenizer fields = TOKENIZER.get();
+        fields.tokenize(line);
+        return parseAttendanceRecord(fields);
+    }
 
-            // Update weekly accumulation maps
-            updateWeeklyMaps(employeeId, workDate, result);
+    /**
+     * Parses a single attendance line into a caller-supplied {@link DailyHours}.
+     *
+     * @param line       A comma-separated line from the attendance file
+     * @param lineNumber 1-based line number in the file, or -1 if unknown
+     * @param offset     Byte offset of the line in the file, or -1 if unknown
+     * @param day        Receives the day's employee-week and hour breakdown
+     * @return true if the day was parsed, false if the line is skipped
+     */
+    static boolean parseAttendanceLine(String line, long lineNumber, long offset, DailyHours day) {
+        CsvTokenizer fields = TOKENIZER.get();
+        fields.tokenize(line);
+        return parseAttendanceRecord(fields, lineNumber, offset, day);
+    }
 
-            //throws ParseException if date/time parsing fails (handled internally)
-            //throws ArrayIndexOutOfBoundsException if line has insufficient fields (handled internally)
-        } catch (ParseException | ArrayIndexOutOfBoundsException e) {
-            System.err.println("Error processing line: " + line);
+    /**
+     * Parses an already tokenized attendance line (see {@link #parseAttendanceLine(String)}).
+     * Fields are read as slices of the tokenizer, so no substrings are created.
+     *
+     * @param fields Tokenizer holding the current attendance line
+     * @return The day's employee-week and hour breakdown, or null if the line is skipped
+     */
+    static DailyAttendance parseAttendanceRecord(CsvTokenizer fields) {
+        DailyHours day = new DailyHours();
+        return parseAttendanceRecord(fields, -1, -1, day) ? day.toAttendance() : null;
+    }
+
+    /**
+     * Parses an already tokenized attendance line into a caller-supplied {@link DailyHours};
+     * malformed lines are reported to {@link RejectedRecords} at the given position.
+     * Creates no objects unless the line is rejected.
+     *
+     * @param fields     Tokenizer holding the current attendance line
+     * @param lineNumber 1-based line number in the file, or -1 if unknown
+     * @param offset     Byte offset of the line in the file, or -1 if unknown
+     * @param day        Receives the day's employee-week and hour breakdown
+     * @return true if the day was parsed, false if the line is skipped
+     */
+    static boolean parseAttendanceRecord(CsvTokenizer fields, long lineNumber, long offset, DailyHours day) {
+        long started = PayrollMetrics.start();
+        PayrollMetrics.rowRead();
+
+        // Skip lines with insufficient data (need at least 6 fields)
+        if (fields.fieldCount() < MIN_ATTENDANCE_FIELDS) {
+            RejectedRecords.reject(RejectedRecords.Reason.MALFORMED, lineNumber, offset, fields.line());
+            PayrollMetrics.rowSkipped(PayrollMetrics.SkipReason.MALFORMED);
+            return false;
         }
+
+        // Parse work date (MM/dd/yyyy) and login/logout times (HH:mm) with the allocation-free fast path
+        int epochDay = DateUtils.parseEpochDay(fields, fields.start(IDX_DATE), fields.end(IDX_DATE));
+        int loginMinute = DateUtils.parseMinuteOfDay(fields, fields.start(IDX_LOG_IN), fields.end(IDX_LOG_IN));
+        int logoutMinute = DateUtils.parseMinuteOfDay(fields, fields.start(IDX_LOG_OUT), fields.end(IDX_LOG_OUT));
+        if (epochDay == DateUtils.INVALID_DAY
+                || loginMinute == DateUtils.INVALID_MINUTE
+                || logoutMinute == DateUtils.INVALID_MINUTE) {
+            RejectedRecords.reject(RejectedRecords.Reason.PARSE_ERROR, lineNumber, offset, fields.line());
+            PayrollMetrics.rowSkipped(PayrollMetrics.SkipReason.PARSE_ERROR);
+            return false;
+        }
+
+        // Skip weekends
+        if (DateUtils.isWeekend(epochDay)) { // No processing for weekends
+            PayrollMetrics.rowSkipped(PayrollMetrics.SkipReason.WEEKEND);
+            return false;
+        }
+
+        // Place login/logout on the employee's shift (times after midnight of a night shift move to the next day)
+        int employeeId = EmployeeDetails.toNumericId(fields, fields.start(IDX_EMPLOYEE_ID), fields.end(IDX_EMPLOYEE_ID));
+        ShiftSchedule shifts = ShiftRoster.active();
+        int shift = shifts.shiftOf(employeeId);
+        loginMinute = shifts.normalize(shift, loginMinute);
+        logoutMinute = shifts.normalize(shift, logoutMinute);
+
+        // Validate time range (logout must be after login)
+        if (logoutMinute < loginMinute) {
+            RejectedRecords.reject(RejectedRecords.Reason.INVALID_RANGE, lineNumber, offset, fields.line());
+            PayrollMetrics.rowSkipped(PayrollMetrics.SkipReason.INVALID_RANGE);
+            return false;
+        }
+
+        day.employeeId = employeeId;
+        day.epochDay = epochDay;
+        day.weekStart = DateUtils.weekStart(epochDay);
+        day.loginMinute = loginMinute;
+        day.logoutMinute = logoutMinute;
+        long parsed = PayrollMetrics.stop(PayrollMetrics.Stage.PARSE, started);
+
+        // Calculate all hour components for this work day
+        shifts.calculate(shift, loginMinute, logoutMinute, day);
+        PayrollMetrics.stop(PayrollMetrics.Stage.COMPUTE, parsed);
+        return true;
     }
 
     /**
      * Calculates daily work hours including regular, overtime, underTime, and late hours.
      * Accounts for:
-     * - Standard work hours (8AM-5PM with 1h lunch break)
+     * - Standard work hours (8AM-5PM)
      * - 10-minute grace period for late arrivals
-     * - Noon break deduction (12PM-1PM)
+     * - No noon break deduction: the break window is empty, as in the original
+     *   calculation (see {@link #BREAK_START_MINUTE})
+     *
+     * <p>Kept for callers that work with {@link Date}s; converts the times to minutes of the
+     * work day and runs {@link #calculateDailyMinutes(int, int, DailyHours)}.
      */
     static WorkHourCalculationResult calculateDailyHours(Date workDate, Date loginTime, Date logoutTime) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(workDate);
+        long midnight = DateUtils.toDate(DateUtils.toEpochDay(workDate), 0).getTime();
+        DailyHours day = new DailyHours();
+        calculateDailyMinutes((int) ((loginTime.getTime() - midnight) / MILLIS_PER_MINUTE),
+                (int) ((logoutTime.getTime() - midnight) / MILLIS_PER_MINUTE), day);
+        return day.toResult();
+    }
 
-        // Set standard work hours
-        cal.set(Calendar.HOUR_OF_DAY, WORKDAY_START_HOUR);
-        cal.set(Calendar.MINUTE, 0);
-        Date workStart = cal.getTime();
+    /**
+     * Calculates one day's hours on the standard schedule (see
+     * {@link #calculateDailyMinutes(int, int, int, int, int, int, int, DailyHours)}).
+     */
+    static void calculateDailyMinutes(int loginMinute, int logoutMinute, DailyHours day) {
+        calculateDailyMinutes(loginMinute, logoutMinute, WORKDAY_START_MINUTE, WORKDAY_END_MINUTE,
+                BREAK_START_MINUTE, BREAK_END_MINUTE, GRACE_PERIOD_MINUTES, day);
+    }
 
-        cal.set(Calendar.HOUR_OF_DAY, WORKDAY_END_HOUR);
-        Date workEnd = cal.getTime();
+    /**
+     * Allocation-free daily hours kernel. All times are minutes from the start of the work
+     * day; results are written to the regular, overtime, underTime and late minutes of
+     * {@code day}, so one instance can be reused for every row.
+     *
+     * <ul>
+     *   <li>Late: minutes after the scheduled start, counted only past the grace period</li>
+     *   <li>Regular: from the scheduled start (or the late login) to the earlier of logout
+     *       and the scheduled end, minus the part of the break inside that span</li>
+     *   <li>Overtime: minutes after the scheduled end, only for on-time arrivals</li>
+     *   <li>UnderTime: minutes short of the scheduled end</li>
+     * </ul>
+     *
+     * @param loginMinute  Login time
+     * @param logoutMinute Logout time
+     * @param workStart    Scheduled start
+     * @param workEnd      Scheduled end
+     * @param breakStart   Unpaid break start
+     * @param breakEnd     Unpaid break end (an empty window deducts nothing)
+     * @param graceMinutes Minutes after the start before a login counts as late
+     * @param day          Receives the calculated minutes
+     */
+    static void calculateDailyMinutes(int loginMinute, int logoutMinute, int workStart, int workEnd,
+                                      int breakStart, int breakEnd, int graceMinutes, DailyHours day) {
+        boolean isOnTime = loginMinute <= workStart + graceMinutes;
 
-        // Calculate grace period (8:00 AM to 8:10 AM)
-        long gracePeriodEnd = workStart.getTime() + (GRACE_PERIOD_MINUTES * 60 * 1000);
+        // Adjust effective start time
+        int effectiveStart = isOnTime ? workStart : loginMinute;
 
-        // Calculate late time
-        long lateMillis = Math.max(0, loginTime.getTime() - workStart.getTime());
-        boolean isOnTime = loginTime.getTime() <= gracePeriodEnd;
+        // Calculate regular time (considering the break)
+        int regularEnd = Math.min(logoutMinute, workEnd);
+        int breakOverlap = calculateBreakOverlap(effectiveStart, regularEnd, breakStart, breakEnd);
 
-        // Adjust effective start time
-        long effectiveStart = isOnTime ? workStart.getTime() : loginTime.getTime();
-
-        // Calculate regular time (considering noon break)
-        long noonStart = cal.getTimeInMillis();
-        cal.set(Calendar.HOUR_OF_DAY, NOON_BREAK_START);
-        cal.set(Calendar.HOUR_OF_DAY, NOON_BREAK_END);
-        long noonEnd = cal.getTimeInMillis();
-
-        long regularEnd = Math.min(logoutTime.getTime(), workEnd.getTime());
-        long breakOverlap = calculateBreakOverlap(effectiveStart, regularEnd, noonStart, noonEnd);
-        long regularMillis = (regularEnd - effectiveStart) - breakOverlap;
-
-        // Calculate overtime (only if logged out after work end and was on time)
-        long overtimeMillis = isOnTime ? Math.max(0, logoutTime.getTime() - workEnd.getTime()) : 0;
-
-        // Calculate under time (if logged out early)
-        long underTimeMillis = logoutTime.before(workEnd) ? (workEnd.getTime() - logoutTime.getTime()) : 0;
-
-        // Convert milliseconds to hours
-        double regularHours = Math.max(0, regularMillis) / (1000.0 * 60 * 60);
-        double overtimeHours = overtimeMillis / (1000.0 * 60 * 60);
-        double underTimeHours = underTimeMillis / (1000.0 * 60 * 60);
-        double lateHours = (isOnTime ? 0 : lateMillis) / (1000.0 * 60 * 60);
-
-        return new WorkHourCalculationResult(
-                regularHours,
-                overtimeHours,
-                underTimeHours,
-                lateHours
-        );
+        day.regularMinutes = Math.max(0, regularEnd - effectiveStart - breakOverlap);
+        day.overtimeMinutes = isOnTime ? Math.max(0, logoutMinute - workEnd) : 0;
+        day.underTimeMinutes = Math.max(0, workEnd - logoutMinute);
+        day.lateMinutes = isOnTime ? 0 : loginMinute - workStart;
     }
 
     /**
-     * Calculates the overlap duration (in milliseconds) between a work period and a break period.
+     * Calculates the overlap duration (in minutes) between a work period and a break period.
      *
-     * @param start Work period start time (ms)
-     * @param end Work period end time (ms)
-     * @param breakStart Break period start time (ms)
-     * @param breakEnd Break period end time (ms)
-     * @return Overlap duration in milliseconds (0 if no overlap)
+     * @param start Work period start time
+     * @param end Work period end time
+     * @param breakStart Break period start time
+     * @param breakEnd Break period end time
+     * @return Overlap duration in minutes (0 if no overlap)
      */
-    private static long calculateBreakOverlap(long start, long end, long breakStart, long breakEnd) {
+    private static int calculateBreakOverlap(int start, int end, int breakStart, int breakEnd) {
 
         // Find latest start and earliest end of the overlapping period
-        long overlapStart = Math.max(start, breakStart);
-        long overlapEnd = Math.min(end, breakEnd);
+        int overlapStart = Math.max(start, breakStart);
+        int overlapEnd = Math.min(end, breakEnd);
 
         // Return overlap duration (or 0 if no overlap)
         return Math.max(0, overlapEnd - overlapStart);
     }
 
     /**
-     * Checks if the given date falls on a weekend (Saturday or Sunday).
+     * Updates the weekly totals with daily work hour calculations for an employee.
+     * Aggregates regular, overtime, underTime, and late hours by week.
      *
-     * @param date The date to check
-     * @return true if the date is a weekend day, false otherwise
+     * @param employeeId  ID of the employee
+     * @param date        Work date being processed
+     * @param result      Calculated work hours for the day
      */
-    private static boolean isWeekend(Date date) {
+    static void updateWeeklyTotals(String employeeId, Date date, WorkHourCalculationResult result) {
+        updateWeeklyTotals(EmployeeDetails.toNumericId(employeeId),
+                DateUtils.weekStart(DateUtils.toEpochDay(date)), result);
+    }
 
-        // Create calendar instance and set to the specified date
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
+    /**
+     * Adds one parsed day to the weekly totals (see {@link #updateWeeklyTotals(int, int, double, double, double, double)})
+     * and to the attendance index, if one is registered.
+     *
+     * @param day Parsed day with its employee-week and calculated minutes
+     */
+    static void updateWeeklyTotals(DailyHours day) {
+        updateWeeklyTotals(day.employeeId, day.weekStart, day.regularHours(), day.overtimeHours(),
+                day.underTimeHours(), day.lateHours());
+        AttendanceIndex index = attendanceIndex;
+        if (index != null) index.add(day);
+    }
 
-        // Get day of week (1=Sunday, 2=Monday, ..., 7=Saturday)
-        int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
+    /**
+     * Adds one day's calculated hours to the employee-week row of the weekly totals
+     * and drops that employee-week from the payslip cache, if one is registered.
+     *
+     * @param employeeId Numeric employee ID
+     * @param weekStart  Epoch day of the Monday starting the week
+     * @param result     Calculated work hours for the day
+     */
+    static void updateWeeklyTotals(int employeeId, int weekStart, WorkHourCalculationResult result) {
+        updateWeeklyTotals(employeeId, weekStart, result.regular, result.overtime, result.underTime, result.late);
+    }
 
-        // Check if it's Saturday (7) or Sunday (1)
-        return dayOfWeek == Calendar.SATURDAY || dayOfWeek == Calendar.SUNDAY;
+    /**
+     * Adds one day's hours to the employee-week row of the weekly totals and drops that
+     * employee-week from the payslip cache, if one is registered.
+     *
+     * @param employeeId Numeric employee ID
+     * @param weekStart  Epoch day of the Monday starting the week
+     */
+    static void updateWeeklyTotals(int employeeId, int weekStart, double regular, double overtime,
+                                   double underTime, double late) {
+        long started = PayrollMetrics.start();
+        weeklyTotals.add(employeeId, weekStart, regular, overtime, underTime, late);
+        PayrollMetrics.stop(PayrollMetrics.Stage.AGGREGATE, started);
+
+        PayslipCache cache = payslipCache;
+        if (cache != null) cache.invalidate(employeeId, weekStart);
     }
 
     /**
-     * Updates weekly tracking maps with daily work hour calculations for an employee.
-     * Aggregates regular, overtime, underTime, and late hours by week.
+     * Returns the distinct week start dates (Mondays) present in the weekly totals,
+     * in chronological order.
      *
-     * @param employeeId  ID of the employee
-     * @param date        Work date being processed
-     * @param result      Calculated work hours for the day
+     * @return Sorted list of week start dates seen in the processed attendance
+     */
+    public static List<Date> getWeekStartDates() {
+        int[] weekStarts = weeklyTotals.weekStarts();
+        List<Date> dates = new ArrayList<>(weekStarts.length);
+        for (int weekStart : weekStarts) {
+            dates.add(DateUtils.toDate(weekStart, 0));
+        }
+        return dates;
+    }
+
+    /**
+     * One parsed attendance day: the employee-week it belongs to and its hour breakdown.
+     */
+    static class DailyAttendance {
+        /** Numeric employee ID */
+        final int employeeId;
+
+        /** Epoch day of the Monday starting the week */
+        final int weekStart;
+
+        /** Calculated hours for the day */
+        final WorkHourCalculationResult result;
+
+        DailyAttendance(int employeeId, int weekStart, WorkHourCalculationResult result) {
+            this.employeeId = employeeId;
+            this.weekStart = weekStart;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Mutable, reusable result of parsing one attendance day: the employee-week it belongs
+     * to and its hour breakdown in whole minutes. Ingestion loops keep one instance per
+     * thread and overwrite it for every row, so parsing creates no garbage.
      */
-    static void updateWeeklyMaps(String employeeId, Date date, WorkHourCalculationResult result) {
-        // Generate unique week identifier (e.g., "2023-W14-EMP001")
-        String weekKey = DateUtils.getWeekKey(date, employeeId);
+    static final class DailyHours {
+        /** Numeric employee ID */
+        int employeeId;
 
-        // Aggregate hours by week using Map.merge():
-        // - If key exists, adds new hours to existing value
-        // - If key doesn't exist, creates new entry with initial hours
+        /** Epoch day of the work date */
+        int epochDay;
 
-        // Update regular hours map
-        weeklyHours.merge(weekKey, result.regular, Double::sum);
+        /** Epoch day of the Monday starting the week */
+        int weekStart;
 
-        // Update overtime hours map
-        weeklyOvertime.merge(weekKey, result.overtime, Double::sum);
+        /** Login and logout in minutes from midnight of the work date (see {@link ShiftSchedule#normalize}) */
+        int loginMinute;
+        int logoutMinute;
 
-        // Update underTime hours map
-        weeklyUnderTime.merge(weekKey, result.underTime, Double::sum);
+        /** Regular, overtime, underTime and late minutes */
+        int regularMinutes;
+        int overtimeMinutes;
+        int underTimeMinutes;
+        int lateMinutes;
+
+        double regularHours() {
+            return regularMinutes / 60.0;
+        }
 
-        // Update late hours map
-        weeklyLateTime.merge(weekKey, result.late, Double::sum);
+        double overtimeHours() {
+            return overtimeMinutes / 60.0;
+        }
+
+        double underTimeHours() {
+            return underTimeMinutes / 60.0;
+        }
+
+        double lateHours() {
+            return lateMinutes / 60.0;
+        }
+
+        /** @return Immutable copy of the hour breakdown */
+        WorkHourCalculationResult toResult() {
+            return new WorkHourCalculationResult(regularHours(), overtimeHours(), underTimeHours(), lateHours());
+        }
+
+        /** @return Immutable copy of the employee-week and hour breakdown */
+        DailyAttendance toAttendance() {
+            return new DailyAttendance(employeeId, weekStart, toResult());
+        }
     }
 
     /**